@@ -2,6 +2,7 @@ package com.exe.skillverse_backend.admin_service.controller;
 
 import com.exe.skillverse_backend.ai_service.dto.response.RoadmapSessionSummary;
 import com.exe.skillverse_backend.ai_service.service.AiRoadmapService;
+import com.exe.skillverse_backend.shared.dto.PageResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -13,10 +14,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/v1/admin/roadmaps")
 @RequiredArgsConstructor
@@ -25,18 +25,23 @@ import java.util.List;
 @SecurityRequirement(name = "Bearer Authentication")
 public class AdminRoadmapController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final AiRoadmapService aiRoadmapService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Get All Roadmaps", description = "Retrieve all roadmap sessions (Admin only)")
+    @Operation(summary = "Get All Roadmaps", description = "Retrieve roadmap sessions page by page, newest first (Admin only)")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Successfully retrieved all roadmaps"),
             @ApiResponse(responseCode = "403", description = "Access denied")
     })
-    public ResponseEntity<List<RoadmapSessionSummary>> getAllRoadmaps() {
-        log.info("Fetching all roadmaps for admin");
-        List<RoadmapSessionSummary> roadmaps = aiRoadmapService.getAllRoadmaps();
+    public ResponseEntity<PageResponse<RoadmapSessionSummary>> getAllRoadmaps(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("Fetching roadmaps for admin - page {}, size {}", page, size);
+        PageResponse<RoadmapSessionSummary> roadmaps = aiRoadmapService.getAllRoadmaps(
+                Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
         return ResponseEntity.ok(roadmaps);
     }
 }
@@ -0,0 +1,43 @@
+package com.exe.skillverse_backend.admin_service.service;
+
+import com.exe.skillverse_backend.auth_service.entity.PrimaryRole;
+import com.exe.skillverse_backend.auth_service.entity.UserStatus;
+import com.exe.skillverse_backend.payment_service.entity.PaymentTransaction;
+import com.exe.skillverse_backend.wallet_service.entity.WalletTransaction;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * Service interface for admin CSV/PDF reports.
+ * Reports are written straight to the given stream while rows are read page by page,
+ * so memory use does not grow with the number of rows.
+ */
+public interface AdminReportService {
+
+    /**
+     * Write the users report as UTF-8 CSV (with BOM for Excel)
+     */
+    void writeUsersCsv(PrimaryRole role, UserStatus status, String search, OutputStream out) throws IOException;
+
+    /**
+     * Write the users report as PDF
+     */
+    void writeUsersPdf(PrimaryRole role, UserStatus status, String search, OutputStream out) throws IOException;
+
+    /**
+     * Write payment and wallet transactions as UTF-8 CSV (with BOM for Excel)
+     *
+     * @param status     Payment status filter (payments only), null for all
+     * @param walletType Wallet transaction type filter (wallet only), null for all
+     */
+    void writeTransactionsCsv(PaymentTransaction.PaymentStatus status, Long userId, LocalDateTime startDate,
+            LocalDateTime endDate, WalletTransaction.TransactionType walletType, OutputStream out) throws IOException;
+
+    /**
+     * Write payment and wallet transactions as PDF
+     */
+    void writeTransactionsPdf(PaymentTransaction.PaymentStatus status, Long userId, LocalDateTime startDate,
+            LocalDateTime endDate, WalletTransaction.TransactionType walletType, OutputStream out) throws IOException;
+}
@@ -11,6 +11,7 @@ import com.exe.skillverse_backend.premium_service.entity.PremiumPlan;
 import com.exe.skillverse_backend.premium_service.entity.UserSubscription;
 import com.exe.skillverse_backend.premium_service.repository.PlanFeatureLimitsRepository;
 import com.exe.skillverse_backend.premium_service.repository.PremiumPlanRepository;
+import com.exe.skillverse_backend.premium_service.service.PlanFeatureLimitCache;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -34,6 +35,7 @@ public class AdminPremiumServiceImpl implements AdminPremiumService {
 
     private final PremiumPlanRepository premiumPlanRepository;
     private final PlanFeatureLimitsRepository featureLimitsRepository;
+    private final PlanFeatureLimitCache planFeatureLimitCache;
     private final ObjectMapper objectMapper;
 
     @Override
@@ -187,6 +189,7 @@ public class AdminPremiumServiceImpl implements AdminPremiumService {
         }
 
         premiumPlanRepository.delete(plan);
+        planFeatureLimitCache.evict(planId);
         log.info("Successfully deleted premium plan: {} (ID: {})", plan.getName(), plan.getId());
     }
 
@@ -274,6 +277,7 @@ public class AdminPremiumServiceImpl implements AdminPremiumService {
      */
     private void createFeatureLimits(PremiumPlan plan,
             List<FeatureLimitConfigRequest> limitRequests) {
+        planFeatureLimitCache.evict(plan.getId());
         for (FeatureLimitConfigRequest request : limitRequests) {
             PlanFeatureLimits limit = PlanFeatureLimits.builder()
                     .plan(plan)
@@ -295,6 +299,7 @@ public class AdminPremiumServiceImpl implements AdminPremiumService {
      * Update feature limits for a plan
      */
     private void updateFeatureLimits(PremiumPlan plan, List<FeatureLimitConfigRequest> limitRequests) {
+        planFeatureLimitCache.evict(plan.getId());
         for (FeatureLimitConfigRequest request : limitRequests) {
             Optional<PlanFeatureLimits> existing = featureLimitsRepository
                     .findByPlanAndFeatureType(plan, request.getFeatureType());
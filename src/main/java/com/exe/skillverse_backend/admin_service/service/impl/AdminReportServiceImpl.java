@@ -0,0 +1,486 @@
+package com.exe.skillverse_backend.admin_service.service.impl;
+
+import com.exe.skillverse_backend.admin_service.service.AdminReportService;
+import com.exe.skillverse_backend.auth_service.entity.PrimaryRole;
+import com.exe.skillverse_backend.auth_service.entity.UserStatus;
+import com.exe.skillverse_backend.auth_service.repository.UserReportRowView;
+import com.exe.skillverse_backend.auth_service.repository.UserReportSummaryView;
+import com.exe.skillverse_backend.auth_service.repository.UserRepository;
+import com.exe.skillverse_backend.payment_service.entity.PaymentTransaction;
+import com.exe.skillverse_backend.payment_service.repository.PaymentReportRowView;
+import com.exe.skillverse_backend.payment_service.repository.PaymentTransactionRepository;
+import com.exe.skillverse_backend.wallet_service.entity.WalletTransaction;
+import com.exe.skillverse_backend.wallet_service.repository.WalletTransactionReportRowView;
+import com.exe.skillverse_backend.wallet_service.repository.WalletTransactionRepository;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Font;
+import com.lowagie.text.Image;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.awt.Color;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Implementation of AdminReportService
+ * - Rows come from keyset pages (id order) of interface projections, so no entity is loaded
+ *   and each page is a short read-only query
+ * - CSV is flushed after every page; PDF tables are marked incomplete and added to the
+ *   document after every page, which writes the finished rows out and drops them from the table
+ */
+@Service
+@Slf4j
+public class AdminReportServiceImpl implements AdminReportService {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+    private static final String LOGO_PATH = "c:/WorkSpace/EXE201/SkillVerse_BackEnd/src/assets/skillverse.png";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final UserRepository userRepository;
+    private final PaymentTransactionRepository paymentTransactionRepository;
+    private final WalletTransactionRepository walletTransactionRepository;
+    private final int pageSize;
+
+    public AdminReportServiceImpl(
+            UserRepository userRepository,
+            PaymentTransactionRepository paymentTransactionRepository,
+            WalletTransactionRepository walletTransactionRepository,
+            @Value("${admin.reports.page-size:1000}") int pageSize) {
+        this.userRepository = userRepository;
+        this.paymentTransactionRepository = paymentTransactionRepository;
+        this.walletTransactionRepository = walletTransactionRepository;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Receives one page of report rows
+     */
+    @FunctionalInterface
+    private interface PageWriter<T> {
+        void write(List<T> rows) throws IOException;
+    }
+
+    // ==================== USERS ====================
+
+    @Override
+    public void writeUsersCsv(PrimaryRole role, UserStatus status, String search, OutputStream out) throws IOException {
+        Writer writer = csvWriter(out);
+        writer.write("ID,Họ tên,Email,Vai trò,Trạng thái,Số khóa học tạo,Số khóa học tham gia,Chứng chỉ,Ngày tạo,Lần hoạt động cuối\n");
+
+        int rows = forEachUserPage(role, status, search, page -> {
+            for (UserReportRowView u : page) {
+                writer.append(csv(u.getId()))
+                        .append(',').append(csv(userFullName(u)))
+                        .append(',').append(csv(u.getEmail()))
+                        .append(',').append(csv(u.getPrimaryRole() != null ? u.getPrimaryRole().name() : ""))
+                        .append(',').append(csv(u.getStatus() != null ? u.getStatus().name() : ""))
+                        .append(',').append(csv(String.valueOf(u.getCoursesCreated())))
+                        .append(',').append(csv(String.valueOf(u.getCoursesEnrolled())))
+                        .append(',').append(csv(String.valueOf(u.getCertificatesEarned())))
+                        .append(',').append(csv(u.getCreatedAt()))
+                        .append(',').append(csv(u.getUpdatedAt()))
+                        .append('\n');
+            }
+            writer.flush();
+        });
+        writer.flush();
+        log.info("Users CSV report written: {} rows", rows);
+    }
+
+    @Override
+    public void writeUsersPdf(PrimaryRole role, UserStatus status, String search, OutputStream out) throws IOException {
+        UserReportSummaryView summaryTotals = userRepository.summarizeReport(role, status, searchTerm(search));
+
+        Document document = new Document(PageSize.A4);
+        try {
+            openPdf(document, out);
+
+            Font titleFont = new Font(Font.HELVETICA, 18, Font.BOLD, Color.BLACK);
+            Font headerFont = new Font(Font.HELVETICA, 11, Font.BOLD, Color.WHITE);
+            Font cellFont = new Font(Font.HELVETICA, 10, Font.NORMAL, Color.BLACK);
+
+            Paragraph title = new Paragraph("BÁO CÁO NGƯỜI DÙNG", titleFont);
+            title.setAlignment(Paragraph.ALIGN_CENTER);
+            document.add(title);
+
+            PdfPTable brand = new PdfPTable(1);
+            brand.setWidthPercentage(100);
+            PdfPCell brandCell = new PdfPCell(new Paragraph("Hành trình học tập và nghề nghiệp", new Font(Font.HELVETICA, 11, Font.BOLD, Color.WHITE)));
+            brandCell.setBackgroundColor(new Color(99, 102, 241));
+            brandCell.setHorizontalAlignment(PdfPCell.ALIGN_CENTER);
+            brandCell.setPadding(8f);
+            brand.addCell(brandCell);
+            document.add(brand);
+
+            PdfPTable summary = new PdfPTable(4);
+            summary.setWidthPercentage(100);
+            addSummaryCell(summary, "Tổng", String.valueOf(summaryTotals.getTotalUsers()));
+            addSummaryCell(summary, "Mentor", String.valueOf(summaryTotals.getTotalMentors()));
+            addSummaryCell(summary, "Doanh nghiệp", String.valueOf(summaryTotals.getTotalRecruiters()));
+            addSummaryCell(summary, "Hoạt động", String.valueOf(summaryTotals.getTotalActiveUsers()));
+            document.add(summary);
+
+            PdfPTable table = new PdfPTable(6);
+            table.setWidthPercentage(100);
+            table.setWidths(new float[]{18f, 28f, 14f, 12f, 14f, 14f});
+            Color headerBg = new Color(16, 185, 129);
+            addHeaderCell(table, "Họ tên", headerFont, headerBg);
+            addHeaderCell(table, "Email", headerFont, headerBg);
+            addHeaderCell(table, "Vai trò", headerFont, headerBg);
+            addHeaderCell(table, "Trạng thái", headerFont, headerBg);
+            addHeaderCell(table, "Ngày tạo", headerFont, headerBg);
+            addHeaderCell(table, "Hoạt động cuối", headerFont, headerBg);
+            table.setHeaderRows(1);
+            table.setComplete(false);
+
+            int rows = forEachUserPage(role, status, search, page -> {
+                for (UserReportRowView u : page) {
+                    addCell(table, safe(userFullName(u)), cellFont);
+                    addCell(table, safe(u.getEmail()), cellFont);
+                    addCell(table, safe(u.getPrimaryRole() != null ? u.getPrimaryRole().name() : ""), cellFont);
+                    addCell(table, safe(u.getStatus() != null ? u.getStatus().name() : ""), cellFont);
+                    addCell(table, u.getCreatedAt() != null ? DATE_FORMAT.format(u.getCreatedAt()) : "", cellFont);
+                    addCell(table, u.getUpdatedAt() != null ? DATE_FORMAT.format(u.getUpdatedAt()) : "", cellFont);
+                }
+                flushTable(document, table);
+            });
+
+            table.setComplete(true);
+            document.add(table);
+            document.close();
+            log.info("Users PDF report written: {} rows", rows);
+        } catch (DocumentException e) {
+            throw new IOException("Failed to generate users PDF", e);
+        }
+    }
+
+    // ==================== TRANSACTIONS ====================
+
+    @Override
+    public void writeTransactionsCsv(PaymentTransaction.PaymentStatus status, Long userId, LocalDateTime startDate,
+            LocalDateTime endDate, WalletTransaction.TransactionType walletType, OutputStream out) throws IOException {
+        Writer writer = csvWriter(out);
+        writer.write("Mã giao dịch,Loại,Mô tả,Số tiền,Trạng thái,Phương thức,Người dùng,Email,Thời gian\n");
+
+        int payments = forEachPaymentPage(status, userId, startDate, endDate, page -> {
+            for (PaymentReportRowView p : page) {
+                writer.append(csv(String.valueOf(p.getId())))
+                        .append(',').append(csv(p.getType() != null ? p.getType().name() : "PAYMENT"))
+                        .append(',').append(csv(p.getDescription()))
+                        .append(',').append(csv(p.getAmount() != null ? p.getAmount().toString() : "0"))
+                        .append(',').append(csv(p.getStatus() != null ? p.getStatus().name() : ""))
+                        .append(',').append(csv(p.getPaymentMethod() != null ? p.getPaymentMethod().name() : ""))
+                        .append(',').append(csv(paymentUserName(p)))
+                        .append(',').append(csv(p.getUserEmail()))
+                        .append(',').append(csv(p.getCreatedAt() != null ? DATE_FORMAT.format(p.getCreatedAt()) : ""))
+                        .append('\n');
+            }
+            writer.flush();
+        });
+
+        int walletRows = forEachWalletPage(walletType, userId, startDate, endDate, page -> {
+            for (WalletTransactionReportRowView w : page) {
+                writer.append(csv(String.valueOf(w.getTransactionId())))
+                        .append(',').append(csv(walletTypeName(w)))
+                        .append(',').append(csv(w.getDescription()))
+                        .append(',').append(csv(walletAmount(w)))
+                        .append(',').append(csv(w.getStatus() != null ? w.getStatus().name() : null))
+                        .append(',').append(csv(w.getCurrencyType() != null ? w.getCurrencyType().name() : null))
+                        .append(',').append(csv(walletUserName(w)))
+                        .append(',').append(csv(w.getUserEmail()))
+                        .append(',').append(csv(w.getCreatedAt()))
+                        .append('\n');
+            }
+            writer.flush();
+        });
+        writer.flush();
+        log.info("Transactions CSV report written: {} payments, {} wallet transactions", payments, walletRows);
+    }
+
+    @Override
+    public void writeTransactionsPdf(PaymentTransaction.PaymentStatus status, Long userId, LocalDateTime startDate,
+            LocalDateTime endDate, WalletTransaction.TransactionType walletType, OutputStream out) throws IOException {
+        Document document = new Document(PageSize.A4.rotate());
+        try {
+            openPdf(document, out);
+
+            Font titleFont = new Font(Font.HELVETICA, 18, Font.BOLD, Color.BLACK);
+            Font subtitleFont = new Font(Font.HELVETICA, 12, Font.NORMAL, Color.DARK_GRAY);
+            Font headerFont = new Font(Font.HELVETICA, 11, Font.BOLD, Color.WHITE);
+            Font cellFont = new Font(Font.HELVETICA, 10, Font.NORMAL, Color.BLACK);
+
+            Paragraph title = new Paragraph("BÁO CÁO GIAO DỊCH", titleFont);
+            title.setAlignment(Paragraph.ALIGN_CENTER);
+            document.add(title);
+
+            if (startDate != null || endDate != null) {
+                String rangeText = "Khoảng thời gian: " +
+                        (startDate != null ? DATE_FORMAT.format(startDate) : "...") +
+                        " đến " +
+                        (endDate != null ? DATE_FORMAT.format(endDate) : "...");
+                Paragraph range = new Paragraph(rangeText, subtitleFont);
+                range.setAlignment(Paragraph.ALIGN_CENTER);
+                document.add(range);
+            }
+
+            PdfPTable table = new PdfPTable(9);
+            table.setWidthPercentage(100);
+            table.setWidths(new float[]{12f, 12f, 26f, 12f, 12f, 12f, 16f, 20f, 16f});
+            Color headerBg = new Color(59, 130, 246);
+            addHeaderCell(table, "Mã", headerFont, headerBg);
+            addHeaderCell(table, "Loại", headerFont, headerBg);
+            addHeaderCell(table, "Mô tả", headerFont, headerBg);
+            addHeaderCell(table, "Số tiền", headerFont, headerBg);
+            addHeaderCell(table, "Trạng thái", headerFont, headerBg);
+            addHeaderCell(table, "Phương thức", headerFont, headerBg);
+            addHeaderCell(table, "Người dùng", headerFont, headerBg);
+            addHeaderCell(table, "Email", headerFont, headerBg);
+            addHeaderCell(table, "Thời gian", headerFont, headerBg);
+            table.setHeaderRows(1);
+            table.setComplete(false);
+
+            int payments = forEachPaymentPage(status, userId, startDate, endDate, page -> {
+                for (PaymentReportRowView p : page) {
+                    addCell(table, String.valueOf(p.getId()), cellFont);
+                    addCell(table, p.getType() != null ? p.getType().name() : "PAYMENT", cellFont);
+                    addCell(table, safe(p.getDescription()), cellFont);
+                    addCell(table, p.getAmount() != null ? p.getAmount().toString() : "0", cellFont);
+                    addCell(table, p.getStatus() != null ? p.getStatus().name() : "", cellFont);
+                    addCell(table, p.getPaymentMethod() != null ? p.getPaymentMethod().name() : "", cellFont);
+                    addCell(table, safe(paymentUserName(p)), cellFont);
+                    addCell(table, safe(p.getUserEmail()), cellFont);
+                    addCell(table, p.getCreatedAt() != null ? DATE_FORMAT.format(p.getCreatedAt()) : "", cellFont);
+                }
+                flushTable(document, table);
+            });
+
+            int walletRows = forEachWalletPage(walletType, userId, startDate, endDate, page -> {
+                for (WalletTransactionReportRowView w : page) {
+                    addCell(table, String.valueOf(w.getTransactionId()), cellFont);
+                    addCell(table, safe(walletTypeName(w)), cellFont);
+                    addCell(table, safe(w.getDescription()), cellFont);
+                    addCell(table, walletAmount(w), cellFont);
+                    addCell(table, w.getStatus() != null ? w.getStatus().name() : "", cellFont);
+                    addCell(table, w.getCurrencyType() != null ? w.getCurrencyType().name() : "", cellFont);
+                    addCell(table, safe(walletUserName(w)), cellFont);
+                    addCell(table, safe(w.getUserEmail()), cellFont);
+                    addCell(table, w.getCreatedAt() != null ? DATE_FORMAT.format(w.getCreatedAt()) : "", cellFont);
+                }
+                flushTable(document, table);
+            });
+
+            table.setComplete(true);
+            document.add(table);
+            document.close();
+            log.info("Transactions PDF report written: {} payments, {} wallet transactions", payments, walletRows);
+        } catch (DocumentException e) {
+            throw new IOException("Failed to generate transactions PDF", e);
+        }
+    }
+
+    // ==================== PAGING ====================
+
+    private int forEachUserPage(PrimaryRole role, UserStatus status, String search,
+            PageWriter<UserReportRowView> pageWriter) throws IOException {
+        String term = searchTerm(search);
+        long afterId = 0L;
+        int total = 0;
+        List<UserReportRowView> page;
+        do {
+            page = userRepository.findReportRows(role, status, term, afterId, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            pageWriter.write(page);
+            total += page.size();
+            afterId = page.get(page.size() - 1).getId();
+        } while (page.size() == pageSize);
+        return total;
+    }
+
+    private int forEachPaymentPage(PaymentTransaction.PaymentStatus status, Long userId, LocalDateTime startDate,
+            LocalDateTime endDate, PageWriter<PaymentReportRowView> pageWriter) throws IOException {
+        long beforeId = Long.MAX_VALUE;
+        int total = 0;
+        List<PaymentReportRowView> page;
+        do {
+            page = paymentTransactionRepository.findReportRows(status, userId, startDate, endDate, beforeId,
+                    PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            pageWriter.write(page);
+            total += page.size();
+            beforeId = page.get(page.size() - 1).getId();
+        } while (page.size() == pageSize);
+        return total;
+    }
+
+    private int forEachWalletPage(WalletTransaction.TransactionType type, Long userId, LocalDateTime startDate,
+            LocalDateTime endDate, PageWriter<WalletTransactionReportRowView> pageWriter) throws IOException {
+        long beforeId = Long.MAX_VALUE;
+        int total = 0;
+        List<WalletTransactionReportRowView> page;
+        do {
+            page = walletTransactionRepository.findReportRows(type, userId, startDate, endDate, beforeId,
+                    PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            pageWriter.write(page);
+            total += page.size();
+            beforeId = page.get(page.size() - 1).getTransactionId();
+        } while (page.size() == pageSize);
+        return total;
+    }
+
+    // ==================== FORMATTING ====================
+
+    private static String searchTerm(String search) {
+        return search != null ? search.trim() : "";
+    }
+
+    private static String userFullName(UserReportRowView u) {
+        String fullName = ((u.getFirstName() != null ? u.getFirstName() : "") + " " +
+                (u.getLastName() != null ? u.getLastName() : "")).trim();
+        return fullName.isEmpty() && u.getEmail() != null ? u.getEmail().split("@")[0] : fullName;
+    }
+
+    /**
+     * Profile full name, else first + last name
+     */
+    private static String paymentUserName(PaymentReportRowView p) {
+        if (p.getProfileName() != null && !p.getProfileName().isBlank()) {
+            return p.getProfileName();
+        }
+        String first = p.getFirstName() != null ? p.getFirstName() : "";
+        String last = p.getLastName() != null ? p.getLastName() : "";
+        return (first + " " + last).trim();
+    }
+
+    /**
+     * Profile full name, else first + last name, else the email's local part
+     */
+    private static String walletUserName(WalletTransactionReportRowView w) {
+        if (w.getProfileName() != null && !w.getProfileName().isBlank()) {
+            return w.getProfileName();
+        }
+        String first = w.getFirstName() != null && !w.getFirstName().isBlank() ? w.getFirstName() : "";
+        String last = w.getLastName() != null && !w.getLastName().isBlank() ? w.getLastName() : "";
+        if (first.isEmpty() && last.isEmpty()) {
+            return w.getUserEmail() != null ? w.getUserEmail().split("@")[0] : "User";
+        }
+        return (first + " " + last).trim();
+    }
+
+    private static String walletTypeName(WalletTransactionReportRowView w) {
+        if (w.getTransactionType() == null) {
+            return null;
+        }
+        String displayName = w.getTransactionType().getDisplayName();
+        return displayName != null ? displayName : w.getTransactionType().name();
+    }
+
+    private static String walletAmount(WalletTransactionReportRowView w) {
+        return w.getCashAmount() != null ? w.getCashAmount().toString() :
+                (w.getCoinAmount() != null ? w.getCoinAmount().toString() : "0");
+    }
+
+    private static Writer csvWriter(OutputStream out) throws IOException {
+        // Not closed by us: the stream belongs to the response
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        // BOM for Excel UTF-8
+        writer.write('\uFEFF');
+        return writer;
+    }
+
+    private static String csv(Object value) {
+        String s = value == null ? "" : String.valueOf(value);
+        s = s.replace("\r", " ").replace("\n", " ");
+        if (s.contains(",") || s.contains("\"") || s.contains("\n")) {
+            s = '"' + s.replace("\"", "\"\"") + '"';
+        }
+        return s;
+    }
+
+    private static String safe(String s) {
+        return s == null ? "" : s;
+    }
+
+    // ==================== PDF ====================
+
+    private void openPdf(Document document, OutputStream out) throws DocumentException {
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        // The response stream is closed by the container
+        writer.setCloseStream(false);
+        document.open();
+
+        try {
+            Image logo = Image.getInstance(LOGO_PATH);
+            logo.scaleToFit(160, 64);
+            logo.setAlignment(Image.ALIGN_CENTER);
+            document.add(logo);
+        } catch (Exception ignored) {}
+    }
+
+    /**
+     * Write the rows added so far; an incomplete table keeps only its header row afterwards
+     */
+    private static void flushTable(Document document, PdfPTable table) throws IOException {
+        try {
+            document.add(table);
+        } catch (DocumentException e) {
+            throw new IOException("Failed to write PDF rows", e);
+        }
+    }
+
+    private void addHeaderCell(PdfPTable table, String text, Font font, Color bg) {
+        PdfPCell cell = new PdfPCell(new Paragraph(text, font));
+        cell.setBackgroundColor(bg);
+        cell.setHorizontalAlignment(PdfPCell.ALIGN_CENTER);
+        cell.setPadding(6f);
+        table.addCell(cell);
+    }
+
+    private void addCell(PdfPTable table, String text, Font font) {
+        PdfPCell cell = new PdfPCell(new Paragraph(text, font));
+        cell.setPadding(5f);
+        table.addCell(cell);
+    }
+
+    private void addSummaryCell(PdfPTable table, String label, String value) {
+        Font labelFont = new Font(Font.HELVETICA, 10, Font.BOLD, Color.WHITE);
+        Font valueFont = new Font(Font.HELVETICA, 14, Font.BOLD, Color.WHITE);
+        PdfPTable inner = new PdfPTable(1);
+        inner.setWidthPercentage(100);
+        PdfPCell c1 = new PdfPCell(new Paragraph(label, labelFont));
+        c1.setBackgroundColor(new Color(16, 185, 129));
+        c1.setHorizontalAlignment(PdfPCell.ALIGN_CENTER);
+        c1.setPadding(4f);
+        inner.addCell(c1);
+        PdfPCell c2 = new PdfPCell(new Paragraph(value, valueFont));
+        c2.setBackgroundColor(new Color(20, 184, 166));
+        c2.setHorizontalAlignment(PdfPCell.ALIGN_CENTER);
+        c2.setPadding(6f);
+        inner.addCell(c2);
+        PdfPCell wrap = new PdfPCell(inner);
+        wrap.setPadding(4f);
+        table.addCell(wrap);
+    }
+}
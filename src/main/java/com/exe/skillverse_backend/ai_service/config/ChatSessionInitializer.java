@@ -0,0 +1,45 @@
+package com.exe.skillverse_backend.ai_service.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills chat_sessions.last_message_at (the session list key) for sessions written before it
+ * existed: creates the missing session rows owned by the first message's user, then fills the time
+ * of their latest message. A no-op once every session with messages has it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChatSessionInitializer implements CommandLineRunner {
+
+    private static final String MISSING_SESSIONS_SQL = "INSERT INTO chat_sessions (session_id, user_id, updated_at) "
+            + "SELECT m.session_id, m.user_id, CURRENT_TIMESTAMP FROM chat_messages m "
+            + "WHERE m.id = (SELECT MIN(x.id) FROM chat_messages x WHERE x.session_id = m.session_id) "
+            + "AND NOT EXISTS (SELECT 1 FROM chat_sessions s WHERE s.session_id = m.session_id)";
+
+    private static final String LAST_MESSAGE_SQL = "UPDATE chat_sessions SET last_message_at = "
+            + "(SELECT MAX(m.created_at) FROM chat_messages m WHERE m.session_id = chat_sessions.session_id) "
+            + "WHERE last_message_at IS NULL "
+            + "AND EXISTS (SELECT 1 FROM chat_messages m WHERE m.session_id = chat_sessions.session_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        try {
+            int created = jdbcTemplate.update(MISSING_SESSIONS_SQL);
+            int filled = jdbcTemplate.update(LAST_MESSAGE_SQL);
+            if (created > 0 || filled > 0) {
+                log.info("Backfilled chat sessions: {} new sessions, {} sessions filled", created, filled);
+            }
+        } catch (DataAccessException e) {
+            // Sessions without last_message_at are left out of the session list until the next startup retries
+            log.error("Chat session backfill failed: {}", e.getMessage());
+        }
+    }
+}
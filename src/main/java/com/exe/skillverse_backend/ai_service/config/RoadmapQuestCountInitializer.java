@@ -0,0 +1,41 @@
+package com.exe.skillverse_backend.ai_service.config;
+
+import com.exe.skillverse_backend.ai_service.service.AiRoadmapService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills the quest counters of roadmap sessions created before
+ * quest_count / completed_quest_count existed, in small batches.
+ * A no-op once every row has its counters.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoadmapQuestCountInitializer implements CommandLineRunner {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final AiRoadmapService aiRoadmapService;
+
+    @Override
+    public void run(String... args) {
+        int total = 0;
+        try {
+            int processed;
+            do {
+                processed = aiRoadmapService.backfillQuestCounts(BATCH_SIZE);
+                total += processed;
+            } while (processed == BATCH_SIZE);
+        } catch (Exception e) {
+            // Lists still work from totalNodes; the next startup retries
+            log.error("Roadmap quest count backfill stopped after {} sessions: {}", total, e.getMessage());
+            return;
+        }
+        if (total > 0) {
+            log.info("Backfilled quest counters for {} roadmap sessions", total);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.exe.skillverse_backend.ai_service.controller;
+
+import com.exe.skillverse_backend.ai_service.dto.response.AiProviderHealthResponse;
+import com.exe.skillverse_backend.ai_service.service.AiProviderRouter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/ai/providers")
+@RequiredArgsConstructor
+@Tag(name = "Admin - AI Providers", description = "Health of the AI provider router")
+public class AiProviderAdminController {
+
+    private final AiProviderRouter aiProviderRouter;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "AI provider health", description = "Circuit state, concurrency and p95 latency per provider")
+    public ResponseEntity<List<AiProviderHealthResponse>> getProviderHealth() {
+        return ResponseEntity.ok(aiProviderRouter.getHealth());
+    }
+}
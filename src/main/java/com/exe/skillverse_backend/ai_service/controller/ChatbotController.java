@@ -4,6 +4,7 @@ import com.exe.skillverse_backend.ai_service.dto.ChatMessageResponse;
 import com.exe.skillverse_backend.ai_service.dto.ChatSessionSummary;
 import com.exe.skillverse_backend.ai_service.dto.request.ChatRequest;
 import com.exe.skillverse_backend.ai_service.dto.response.ChatResponse;
+import com.exe.skillverse_backend.ai_service.dto.response.ChatStreamEvent;
 import com.exe.skillverse_backend.ai_service.service.AiChatbotService;
 import com.exe.skillverse_backend.auth_service.entity.User;
 import com.exe.skillverse_backend.auth_service.repository.UserRepository;
@@ -15,11 +16,21 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -33,8 +44,14 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class ChatbotController {
 
+    /**
+     * Upper bound for one streamed answer (long generations can take minutes)
+     */
+    private static final long STREAM_TIMEOUT_MS = 5 * 60 * 1000L;
+
     private final AiChatbotService aiChatbotService;
     private final UserRepository userRepository;
+    private final SimpMessagingTemplate messagingTemplate;
 
     /**
      * Utility method to validate authentication and extract user ID
@@ -89,6 +106,74 @@ public class ChatbotController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Send a message and stream the answer as Server-Sent Events
+     * Events: "token" (text chunk), "done" (saved ChatResponse), "error"
+     *
+     * @param request        Chat message request
+     * @param authentication Current authenticated user
+     * @return SSE emitter completed when the answer has been saved
+     */
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Chat with AI Career Counselor (streaming)", description = "Same as POST /api/v1/ai/chat but tokens are pushed as Server-Sent Events while the answer is generated.")
+    public SseEmitter chatStream(
+            @Valid @RequestBody ChatRequest request,
+            Authentication authentication) {
+
+        Long userId = validateAuthenticationAndGetUserId(authentication);
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ApiException(ErrorCode.NOT_FOUND, "User not found"));
+
+        log.info("User {} streaming chat - session: {}, message length: {}",
+                userId, request.getSessionId(), request.getMessage().length());
+
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        Disposable subscription = aiChatbotService.chatStream(request, user).subscribe(
+                event -> {
+                    try {
+                        emitter.send(SseEmitter.event()
+                                .name(event.getType().name().toLowerCase())
+                                .data(event, MediaType.APPLICATION_JSON));
+                    } catch (IOException e) {
+                        // Client went away - cancels the upstream generation
+                        throw new UncheckedIOException(e);
+                    }
+                },
+                emitter::completeWithError,
+                emitter::complete);
+
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(e -> subscription.dispose());
+
+        return emitter;
+    }
+
+    /**
+     * STOMP variant of the streaming chat: send to /app/chat.stream,
+     * events are pushed to /user/queue/chat
+     */
+    @MessageMapping("/chat.stream")
+    public void chatStreamStomp(@Payload ChatRequest request, Authentication authentication) {
+        Long userId = validateAuthenticationAndGetUserId(authentication);
+        String destinationUser = userId.toString();
+
+        try {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new ApiException(ErrorCode.NOT_FOUND, "User not found"));
+
+            log.info("User {} streaming chat over STOMP - session: {}", userId, request.getSessionId());
+
+            aiChatbotService.chatStream(request, user).subscribe(
+                    event -> messagingTemplate.convertAndSendToUser(destinationUser, "/queue/chat", event),
+                    error -> messagingTemplate.convertAndSendToUser(destinationUser, "/queue/chat",
+                            ChatStreamEvent.error(request.getSessionId(), error.getMessage())));
+        } catch (ApiException e) {
+            messagingTemplate.convertAndSendToUser(destinationUser, "/queue/chat",
+                    ChatStreamEvent.error(request.getSessionId(), e.getMessage()));
+        }
+    }
+
     /**
      * Get conversation history for a session
      * 
@@ -112,19 +197,30 @@ public class ChatbotController {
     }
 
     /**
-     * Get all chat sessions for current user with titles
+     * Get chat sessions for current user with titles
+     * Without limit all sessions are returned; with limit, pass the last item's
+     * lastMessageAt and sessionId as cursor to load the next page
      * 
-     * @param authentication Current authenticated user
+     * @param limit                Page size (optional, max 100)
+     * @param cursorLastMessageAt  lastMessageAt of the last session already shown
+     * @param cursorSessionId      sessionId of the last session already shown
+     * @param authentication       Current authenticated user
      * @return List of session summaries with titles
      */
     @GetMapping("/sessions")
-    @Operation(summary = "Get User Sessions", description = "Get all chat sessions with title previews for the current user")
-    public ResponseEntity<List<ChatSessionSummary>> getSessions(Authentication authentication) {
+    @Operation(summary = "Get User Sessions", description = "Get chat sessions with title previews for the current user (keyset pagination via limit + cursor)")
+    public ResponseEntity<List<ChatSessionSummary>> getSessions(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorLastMessageAt,
+            @RequestParam(required = false) Long cursorSessionId,
+            Authentication authentication) {
         Long userId = validateAuthenticationAndGetUserId(authentication);
 
-        log.info("User {} fetching all chat sessions", userId);
+        log.info("User {} fetching chat sessions (limit: {}, cursor: {}/{})",
+                userId, limit, cursorLastMessageAt, cursorSessionId);
 
-        List<ChatSessionSummary> sessions = aiChatbotService.getUserSessions(userId);
+        List<ChatSessionSummary> sessions = aiChatbotService.getUserSessions(
+                userId, limit, cursorLastMessageAt, cursorSessionId);
 
         return ResponseEntity.ok(sessions);
     }
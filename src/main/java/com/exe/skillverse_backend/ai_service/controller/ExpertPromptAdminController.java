@@ -4,6 +4,7 @@ import com.exe.skillverse_backend.ai_service.dto.request.ExpertPromptRequest;
 import com.exe.skillverse_backend.ai_service.entity.ExpertPromptConfig;
 import com.exe.skillverse_backend.ai_service.repository.ExpertPromptConfigRepository;
 import com.exe.skillverse_backend.ai_service.service.ExpertPromptMediaService;
+import com.exe.skillverse_backend.ai_service.service.ExpertPromptRegistry;
 import com.exe.skillverse_backend.shared.exception.ApiException;
 import com.exe.skillverse_backend.shared.exception.ErrorCode;
 import io.swagger.v3.oas.annotations.Operation;
@@ -29,6 +30,7 @@ public class ExpertPromptAdminController {
 
     private final ExpertPromptConfigRepository expertPromptConfigRepository;
     private final ExpertPromptMediaService expertPromptMediaService;
+    private final ExpertPromptRegistry expertPromptRegistry;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -59,7 +61,9 @@ public class ExpertPromptAdminController {
                 .isActive(request.isActive())
                 .build();
 
-        return ResponseEntity.ok(expertPromptConfigRepository.save(config));
+        ExpertPromptConfig saved = expertPromptConfigRepository.save(config);
+        expertPromptRegistry.reload();
+        return ResponseEntity.ok(saved);
     }
 
     @PutMapping("/{id}")
@@ -89,7 +93,9 @@ public class ExpertPromptAdminController {
         config.setMediaUrl(request.getMediaUrl());
         config.setActive(request.isActive());
 
-        return ResponseEntity.ok(expertPromptConfigRepository.save(config));
+        ExpertPromptConfig saved = expertPromptConfigRepository.save(config);
+        expertPromptRegistry.reload();
+        return ResponseEntity.ok(saved);
     }
     
     /**
@@ -139,9 +145,22 @@ public class ExpertPromptAdminController {
             throw new ApiException(ErrorCode.NOT_FOUND, "Prompt config not found");
         }
         expertPromptConfigRepository.deleteById(id);
+        expertPromptRegistry.reload();
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reload Expert Prompt registry",
+               description = "Rebuild the in-memory prompt snapshot from the database (e.g. after direct DB edits)")
+    public ResponseEntity<Map<String, Object>> reloadRegistry() {
+        expertPromptRegistry.reload();
+        return ResponseEntity.ok(Map.of(
+            "message", "Expert prompt registry reloaded",
+            "activeConfigs", expertPromptRegistry.size()
+        ));
+    }
+
     // ==================== MEDIA MANAGEMENT ====================
 
     @PostMapping(value = "/{id}/media", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -153,6 +172,7 @@ public class ExpertPromptAdminController {
             @RequestParam("file") MultipartFile file) {
         
         String mediaUrl = expertPromptMediaService.uploadMedia(id, file);
+        expertPromptRegistry.reload();
         return ResponseEntity.ok(Map.of(
             "message", "Media uploaded successfully",
             "mediaUrl", mediaUrl
@@ -165,6 +185,7 @@ public class ExpertPromptAdminController {
                description = "Remove the media URL from expert prompt config")
     public ResponseEntity<Map<String, String>> deleteMedia(@PathVariable Long id) {
         expertPromptMediaService.deleteMedia(id);
+        expertPromptRegistry.reload();
         return ResponseEntity.ok(Map.of("message", "Media deleted successfully"));
     }
 
@@ -182,6 +203,7 @@ public class ExpertPromptAdminController {
         }
         
         String updatedUrl = expertPromptMediaService.updateMediaUrl(id, mediaUrl);
+        expertPromptRegistry.reload();
         return ResponseEntity.ok(Map.of(
             "message", "Media URL updated successfully",
             "mediaUrl", updatedUrl
@@ -3,11 +3,13 @@ package com.exe.skillverse_backend.ai_service.controller;
 import com.exe.skillverse_backend.ai_service.dto.request.GenerateRoadmapRequest;
 import com.exe.skillverse_backend.ai_service.dto.request.UpdateProgressRequest;
 import com.exe.skillverse_backend.ai_service.dto.response.ProgressResponse;
+import com.exe.skillverse_backend.ai_service.dto.response.RoadmapJobResponse;
 import com.exe.skillverse_backend.ai_service.dto.response.RoadmapResponse;
 import com.exe.skillverse_backend.ai_service.dto.response.RoadmapSessionSummary;
 import com.exe.skillverse_backend.ai_service.dto.response.ValidationResult;
 import com.exe.skillverse_backend.ai_service.dto.response.ClarificationQuestion;
 import com.exe.skillverse_backend.ai_service.service.AiRoadmapService;
+import com.exe.skillverse_backend.ai_service.service.RoadmapJobService;
 import com.exe.skillverse_backend.auth_service.entity.User;
 import com.exe.skillverse_backend.auth_service.repository.UserRepository;
 import com.exe.skillverse_backend.shared.exception.ApiException;
@@ -20,13 +22,17 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -42,6 +48,7 @@ import java.util.List;
 public class RoadmapController {
 
     private final AiRoadmapService aiRoadmapService;
+    private final RoadmapJobService roadmapJobService;
     private final UserRepository userRepository;
 
     /**
@@ -78,6 +85,60 @@ public class RoadmapController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Start roadmap generation in the background
+     * Progress is pushed to /user/queue/roadmap-jobs and GET /jobs/{jobId}/events
+     *
+     * @param request        Roadmap generation parameters
+     * @param authentication Current authenticated user
+     * @return Job state (QUEUED, or the already running job for an identical request)
+     */
+    @PostMapping("/generate/async")
+    @Operation(summary = "Generate AI Roadmap (async)", description = "Queue roadmap generation and return a job ID immediately. Stages: QUEUED, VALIDATING, GENERATING, PARSING, PERSISTING, COMPLETED/FAILED")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Đã nhận yêu cầu tạo lộ trình"),
+            @ApiResponse(responseCode = "401", description = "Chưa xác thực"),
+            @ApiResponse(responseCode = "429", description = "Vượt giới hạn sử dụng"),
+            @ApiResponse(responseCode = "503", description = "Hệ thống đang bận")
+    })
+    public ResponseEntity<RoadmapJobResponse> generateRoadmapAsync(
+            @Valid @RequestBody GenerateRoadmapRequest request,
+            Authentication authentication) {
+
+        Jwt jwt = (Jwt) authentication.getPrincipal();
+        Long userId = Long.valueOf(jwt.getClaimAsString("userId"));
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ApiException(ErrorCode.NOT_FOUND, "User not found"));
+
+        RoadmapJobResponse job = roadmapJobService.submit(request, user);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Get roadmap job", description = "Poll the state of an async roadmap generation job; COMPLETED includes the roadmap")
+    public ResponseEntity<RoadmapJobResponse> getRoadmapJob(
+            @PathVariable String jobId,
+            Authentication authentication) {
+
+        Jwt jwt = (Jwt) authentication.getPrincipal();
+        Long userId = Long.valueOf(jwt.getClaimAsString("userId"));
+
+        return ResponseEntity.ok(roadmapJobService.getJob(jobId, userId));
+    }
+
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream roadmap job progress", description = "SSE stream of job state changes until the job completes or fails")
+    public SseEmitter streamRoadmapJob(
+            @PathVariable String jobId,
+            Authentication authentication) {
+
+        Jwt jwt = (Jwt) authentication.getPrincipal();
+        Long userId = Long.valueOf(jwt.getClaimAsString("userId"));
+
+        return roadmapJobService.subscribe(jobId, userId);
+    }
+
     /**
      * Pre-validate roadmap generation request without actually generating
      * 
@@ -274,22 +335,30 @@ public class RoadmapController {
     /**
      * Get all roadmap sessions for the current user
      * 
+     * @param page           Page index (only used together with size)
+     * @param size           Page size; all sessions when omitted
      * @param authentication Current authenticated user
      * @return List of roadmap session summaries
      */
     @GetMapping
-    @Operation(summary = "Get User Roadmaps", description = "Retrieve all roadmap sessions for the current user with progress statistics")
+    @Operation(summary = "Get User Roadmaps", description = "Retrieve roadmap sessions for the current user with progress statistics (optionally paged)")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Lấy danh sách lộ trình thành công"),
             @ApiResponse(responseCode = "401", description = "Chưa xác thực")
     })
-    public ResponseEntity<List<RoadmapSessionSummary>> getUserRoadmaps(Authentication authentication) {
+    public ResponseEntity<List<RoadmapSessionSummary>> getUserRoadmaps(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
         Jwt jwt = (Jwt) authentication.getPrincipal();
         Long userId = Long.valueOf(jwt.getClaimAsString("userId"));
 
         log.info("Fetching roadmaps for user {}", userId);
 
-        List<RoadmapSessionSummary> roadmaps = aiRoadmapService.getUserRoadmaps(userId);
+        Pageable pageable = size != null
+                ? PageRequest.of(page != null ? Math.max(page, 0) : 0, Math.min(Math.max(size, 1), 100))
+                : Pageable.unpaged();
+        List<RoadmapSessionSummary> roadmaps = aiRoadmapService.getUserRoadmaps(userId, pageable);
 
         return ResponseEntity.ok(roadmaps);
     }
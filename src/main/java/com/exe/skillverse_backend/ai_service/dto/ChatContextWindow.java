@@ -0,0 +1,34 @@
+package com.exe.skillverse_backend.ai_service.dto;
+
+import com.exe.skillverse_backend.ai_service.entity.ChatMessage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Conversation context sent to the model for one chat turn
+ * Recent messages (oldest first) that fit the token budget plus the rolling summary
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatContextWindow {
+
+    @Builder.Default
+    private List<ChatMessage> recentMessages = List.of();
+
+    /**
+     * Rolling summary of older turns, null if nothing has been folded yet
+     */
+    private String summary;
+
+    private int estimatedTokens;
+
+    public boolean isFirstTurn() {
+        return recentMessages.isEmpty() && (summary == null || summary.isEmpty());
+    }
+}
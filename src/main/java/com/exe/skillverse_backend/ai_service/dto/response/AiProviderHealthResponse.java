@@ -0,0 +1,40 @@
+package com.exe.skillverse_backend.ai_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Health and latency of one AI provider as seen by AiProviderRouter
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiProviderHealthResponse {
+
+    private String provider;
+
+    /**
+     * CLOSED, HALF_OPEN or OPEN
+     */
+    private String circuitState;
+    private int consecutiveFailures;
+    private Instant openUntil;
+
+    private int inFlight;
+    private int maxConcurrent;
+
+    /**
+     * p95 over the last successful calls, -1 until enough samples exist
+     */
+    private long p95LatencyMs;
+    private int latencySamples;
+
+    private long successCount;
+    private long failureCount;
+    private long hedgedCount;
+}
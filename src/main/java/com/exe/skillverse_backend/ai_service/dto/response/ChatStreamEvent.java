@@ -0,0 +1,48 @@
+package com.exe.skillverse_backend.ai_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Event emitted while streaming a chatbot answer (SSE and /user/queue/chat)
+ * TOKEN events carry sanitized text chunks, DONE carries the saved response
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatStreamEvent {
+
+    public enum Type {
+        TOKEN,
+        DONE,
+        ERROR
+    }
+
+    private Type type;
+    private Long sessionId;
+
+    /**
+     * Text chunk (TOKEN) or error message (ERROR)
+     */
+    private String content;
+
+    /**
+     * Final persisted response (DONE only)
+     */
+    private ChatResponse response;
+
+    public static ChatStreamEvent token(Long sessionId, String content) {
+        return ChatStreamEvent.builder().type(Type.TOKEN).sessionId(sessionId).content(content).build();
+    }
+
+    public static ChatStreamEvent done(Long sessionId, ChatResponse response) {
+        return ChatStreamEvent.builder().type(Type.DONE).sessionId(sessionId).response(response).build();
+    }
+
+    public static ChatStreamEvent error(Long sessionId, String message) {
+        return ChatStreamEvent.builder().type(Type.ERROR).sessionId(sessionId).content(message).build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.exe.skillverse_backend.ai_service.dto.response;
+
+import com.exe.skillverse_backend.ai_service.enums.RoadmapJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * State of an asynchronous roadmap generation job
+ * Returned on submit, on poll, and pushed on every stage change
+ * (/user/queue/roadmap-jobs and the job's SSE stream)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoadmapJobResponse {
+
+    private String jobId;
+    private RoadmapJobStatus status;
+
+    /**
+     * Set once the roadmap has been saved (COMPLETED)
+     */
+    private Long sessionId;
+
+    /**
+     * Generated roadmap (COMPLETED only)
+     */
+    private RoadmapResponse result;
+
+    /**
+     * Error message (FAILED only)
+     */
+    private String error;
+
+    /**
+     * True when the submission matched a job that was already running for the same request
+     */
+    private boolean deduplicated;
+
+    private Instant createdAt;
+    private Instant updatedAt;
+}
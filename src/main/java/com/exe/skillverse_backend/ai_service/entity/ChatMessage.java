@@ -15,6 +15,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "chat_messages", indexes = {
         @Index(name = "idx_chat_user_session", columnList = "user_id, session_id"),
+        @Index(name = "idx_chat_session_id", columnList = "session_id, id"),
         @Index(name = "idx_chat_created", columnList = "created_at")
 })
 @Data
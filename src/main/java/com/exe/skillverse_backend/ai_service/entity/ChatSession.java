@@ -0,0 +1,63 @@
+package com.exe.skillverse_backend.ai_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-session state for the AI chatbot
+ * Holds the rolling summary of turns that no longer fit in the context window,
+ * and the time of the latest message for the session list
+ */
+@Entity
+@Table(name = "chat_sessions", indexes = {
+        @Index(name = "idx_chat_session_user_last", columnList = "user_id, last_message_at, session_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatSession {
+
+    /**
+     * Same value as ChatMessage.sessionId
+     */
+    @Id
+    @Column(name = "session_id")
+    private Long sessionId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Condensed history of older turns, sent ahead of the recent messages
+     */
+    @Column(name = "rolling_summary", columnDefinition = "TEXT")
+    private String rollingSummary;
+
+    /**
+     * ID of the newest ChatMessage already folded into the summary
+     */
+    @Column(name = "summarized_until_message_id")
+    private Long summarizedUntilMessageId;
+
+    /**
+     * Creation time of the newest message; written by ChatSessionRepository.recordMessage only,
+     * so summary saves of an older copy never move it back
+     */
+    @Column(name = "last_message_at", updatable = false)
+    private LocalDateTime lastMessageAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -129,6 +129,16 @@ public class RoadmapSession {
     @Column(name = "difficulty_level", length = 20)
     private String difficultyLevel; // easy, medium, hard, expert
 
+    /**
+     * Denormalized list counters, so roadmap lists never parse roadmapJson.
+     * Null on rows created before these columns existed until the startup backfill fills them.
+     */
+    @Column(name = "quest_count")
+    private Integer questCount;
+
+    @Column(name = "completed_quest_count")
+    private Integer completedQuestCount;
+
     /**
      * Whether user had premium subscription when roadmap was generated
      */
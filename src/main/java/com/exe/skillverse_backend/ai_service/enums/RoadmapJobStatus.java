@@ -0,0 +1,19 @@
+package com.exe.skillverse_backend.ai_service.enums;
+
+/**
+ * Lifecycle of an asynchronous roadmap generation job
+ * The middle values are also the stages reported by AiRoadmapService.generateRoadmap
+ */
+public enum RoadmapJobStatus {
+    QUEUED,
+    VALIDATING,
+    GENERATING,
+    PARSING,
+    PERSISTING,
+    COMPLETED,
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
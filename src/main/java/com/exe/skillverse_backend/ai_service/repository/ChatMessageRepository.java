@@ -1,12 +1,16 @@
 package com.exe.skillverse_backend.ai_service.repository;
 
 import com.exe.skillverse_backend.ai_service.entity.ChatMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
@@ -17,6 +21,24 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
     @Query("SELECT cm FROM ChatMessage cm WHERE cm.sessionId = :sessionId ORDER BY cm.createdAt ASC")
     List<ChatMessage> findBySessionIdOrderByCreatedAtAsc(@Param("sessionId") Long sessionId);
 
+    /**
+     * Find the most recent messages of a session, newest first
+     * Used by the context window so long sessions never load their whole history
+     */
+    @Query("SELECT cm FROM ChatMessage cm WHERE cm.sessionId = :sessionId ORDER BY cm.createdAt DESC, cm.id DESC")
+    List<ChatMessage> findRecentBySessionId(@Param("sessionId") Long sessionId, Pageable pageable);
+
+    /**
+     * Messages of a session with afterId < id < beforeId, oldest first
+     * Used to fold turns older than the context tail that are not in the rolling summary yet
+     */
+    @Query("SELECT cm FROM ChatMessage cm WHERE cm.sessionId = :sessionId AND cm.id > :afterId AND cm.id < :beforeId " +
+            "ORDER BY cm.id ASC")
+    List<ChatMessage> findBySessionIdBetween(@Param("sessionId") Long sessionId,
+            @Param("afterId") Long afterId,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable);
+
     /**
      * Find latest message in a session
      */
@@ -32,9 +54,67 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
     List<Long> findSessionIdsByUserId(@Param("userId") Long userId);
 
     /**
-     * Delete all messages in a session
+     * Session summaries for the sidebar, newest activity first
+     * Walks chat_sessions in (user_id, last_message_at, session_id) index order; only the
+     * sessions of the page look up their first message (title source) and message count
+     */
+    @Query("SELECT s.sessionId AS sessionId, f.customTitle AS customTitle, f.userMessage AS firstUserMessage, " +
+            "s.lastMessageAt AS lastMessageAt, " +
+            "(SELECT COUNT(c) FROM ChatMessage c WHERE c.sessionId = s.sessionId) AS messageCount " +
+            "FROM ChatSession s JOIN ChatMessage f ON f.sessionId = s.sessionId " +
+            "WHERE s.userId = :userId AND s.lastMessageAt IS NOT NULL " +
+            "AND f.id = (SELECT MIN(x.id) FROM ChatMessage x WHERE x.sessionId = s.sessionId) " +
+            "ORDER BY s.lastMessageAt DESC, s.sessionId DESC")
+    List<ChatSessionSummaryView> findSessionSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Next page of session summaries after the (lastMessageAt, sessionId) keyset cursor
+     */
+    @Query("SELECT s.sessionId AS sessionId, f.customTitle AS customTitle, f.userMessage AS firstUserMessage, " +
+            "s.lastMessageAt AS lastMessageAt, " +
+            "(SELECT COUNT(c) FROM ChatMessage c WHERE c.sessionId = s.sessionId) AS messageCount " +
+            "FROM ChatSession s JOIN ChatMessage f ON f.sessionId = s.sessionId " +
+            "WHERE s.userId = :userId AND s.lastMessageAt <= :cursorTime " +
+            "AND (s.lastMessageAt < :cursorTime OR s.sessionId < :cursorSessionId) " +
+            "AND f.id = (SELECT MIN(x.id) FROM ChatMessage x WHERE x.sessionId = s.sessionId) " +
+            "ORDER BY s.lastMessageAt DESC, s.sessionId DESC")
+    List<ChatSessionSummaryView> findSessionSummariesByUserIdBefore(@Param("userId") Long userId,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorSessionId") Long cursorSessionId,
+            Pageable pageable);
+
+    /**
+     * Summary of a single session
+     */
+    @Query("SELECT f.sessionId AS sessionId, f.customTitle AS customTitle, f.userMessage AS firstUserMessage, " +
+            "MAX(m.createdAt) AS lastMessageAt, COUNT(m) AS messageCount " +
+            "FROM ChatMessage f JOIN ChatMessage m ON m.sessionId = f.sessionId " +
+            "WHERE f.sessionId = :sessionId " +
+            "AND f.id = (SELECT MIN(x.id) FROM ChatMessage x WHERE x.sessionId = f.sessionId) " +
+            "GROUP BY f.sessionId, f.customTitle, f.userMessage")
+    Optional<ChatSessionSummaryView> findSessionSummary(@Param("sessionId") Long sessionId);
+
+    /**
+     * Owner of a session (user of its first message), without loading messages
+     */
+    @Query("SELECT cm.user.id FROM ChatMessage cm WHERE cm.sessionId = :sessionId " +
+            "AND cm.id = (SELECT MIN(x.id) FROM ChatMessage x WHERE x.sessionId = :sessionId)")
+    Optional<Long> findSessionOwnerId(@Param("sessionId") Long sessionId);
+
+    /**
+     * Set the custom title on the first message of a session
+     */
+    @Modifying
+    @Query("UPDATE ChatMessage cm SET cm.customTitle = :title " +
+            "WHERE cm.id = (SELECT MIN(x.id) FROM ChatMessage x WHERE x.sessionId = :sessionId)")
+    int updateSessionTitle(@Param("sessionId") Long sessionId, @Param("title") String title);
+
+    /**
+     * Delete all messages in a session with a single statement
      */
-    void deleteBySessionId(Long sessionId);
+    @Modifying
+    @Query("DELETE FROM ChatMessage cm WHERE cm.sessionId = :sessionId")
+    int deleteBySessionId(@Param("sessionId") Long sessionId);
 
     /**
      * Count total distinct sessions in the system (Admin)
@@ -0,0 +1,26 @@
+package com.exe.skillverse_backend.ai_service.repository;
+
+import com.exe.skillverse_backend.ai_service.entity.ChatSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ChatSessionRepository extends JpaRepository<ChatSession, Long> {
+
+    /**
+     * Record a new message on the session row (last message time only moves forward);
+     * returns 0 when the session has no row yet
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE chat_sessions SET last_message_at = " +
+           "CASE WHEN last_message_at IS NULL OR last_message_at < :sentAt THEN :sentAt ELSE last_message_at END " +
+           "WHERE session_id = :sessionId", nativeQuery = true)
+    int recordMessage(@Param("sessionId") Long sessionId, @Param("sentAt") LocalDateTime sentAt);
+}
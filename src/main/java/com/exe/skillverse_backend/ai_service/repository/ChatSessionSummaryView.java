@@ -0,0 +1,22 @@
+package com.exe.skillverse_backend.ai_service.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate projection of one chat session (no message bodies except the first question)
+ */
+public interface ChatSessionSummaryView {
+
+    Long getSessionId();
+
+    /**
+     * Custom title stored on the first message, null if never renamed
+     */
+    String getCustomTitle();
+
+    String getFirstUserMessage();
+
+    LocalDateTime getLastMessageAt();
+
+    Long getMessageCount();
+}
@@ -1,7 +1,10 @@
 package com.exe.skillverse_backend.ai_service.repository;
 
 import com.exe.skillverse_backend.ai_service.entity.RoadmapSession;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,17 +15,51 @@ import java.util.Optional;
 @Repository
 public interface RoadmapSessionRepository extends JpaRepository<RoadmapSession, Long> {
 
+    String SUMMARY_SELECT = "SELECT rs.id AS sessionId, rs.title AS title, rs.roadmapMode AS roadmapMode, " +
+            "COALESCE(rs.originalGoal, rs.goal) AS originalGoal, rs.validatedGoal AS validatedGoal, " +
+            "rs.duration AS duration, COALESCE(rs.experienceLevel, rs.experience) AS experienceLevel, " +
+            "COALESCE(rs.learningStyle, rs.style) AS learningStyle, " +
+            "COALESCE(rs.questCount, rs.totalNodes, 0) AS questCount, " +
+            "COALESCE(rs.completedQuestCount, 0) AS completedQuestCount, " +
+            "rs.difficultyLevel AS difficultyLevel, rs.schemaVersion AS schemaVersion, rs.createdAt AS createdAt " +
+            "FROM RoadmapSession rs ";
+
     /**
-     * Find all roadmap sessions for a specific user, ordered by creation date
-     * (newest first)
+     * Summaries of a user's roadmap sessions, newest first (no roadmapJson)
      */
-    @Query("SELECT rs FROM RoadmapSession rs WHERE rs.user.id = :userId ORDER BY rs.createdAt DESC")
-    List<RoadmapSession> findByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId);
+    @Query(value = SUMMARY_SELECT + "WHERE rs.user.id = :userId ORDER BY rs.createdAt DESC, rs.id DESC",
+            countQuery = "SELECT COUNT(rs) FROM RoadmapSession rs WHERE rs.user.id = :userId")
+    Page<RoadmapSessionSummaryView> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Summaries of all roadmap sessions, newest first (no roadmapJson)
+     */
+    @Query(value = SUMMARY_SELECT + "ORDER BY rs.createdAt DESC, rs.id DESC",
+            countQuery = "SELECT COUNT(rs) FROM RoadmapSession rs")
+    Page<RoadmapSessionSummaryView> findAllSummaries(Pageable pageable);
+
+    /**
+     * Apply a completed-quest delta; matches nothing while the counter is not backfilled yet
+     */
+    @Modifying
+    @Query("UPDATE RoadmapSession rs SET rs.completedQuestCount = rs.completedQuestCount + :delta " +
+            "WHERE rs.id = :sessionId AND rs.completedQuestCount IS NOT NULL")
+    int incrementCompletedQuestCount(@Param("sessionId") Long sessionId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE RoadmapSession rs SET rs.questCount = :questCount, rs.completedQuestCount = :completedQuestCount " +
+            "WHERE rs.id = :sessionId")
+    int updateQuestCounts(@Param("sessionId") Long sessionId, @Param("questCount") Integer questCount,
+            @Param("completedQuestCount") Integer completedQuestCount);
+
+    @Query("SELECT rs.completedQuestCount FROM RoadmapSession rs WHERE rs.id = :sessionId")
+    Integer findCompletedQuestCount(@Param("sessionId") Long sessionId);
 
     /**
-     * Find all roadmap sessions ordered by creation date (newest first)
+     * Sessions created before the quest counters existed
      */
-    List<RoadmapSession> findAllByOrderByCreatedAtDesc();
+    @Query("SELECT rs.id FROM RoadmapSession rs WHERE rs.questCount IS NULL OR rs.completedQuestCount IS NULL ORDER BY rs.id")
+    List<Long> findIdsMissingQuestCounts(Pageable pageable);
 
     /**
      * Find a specific roadmap session by ID and user ID (for security)
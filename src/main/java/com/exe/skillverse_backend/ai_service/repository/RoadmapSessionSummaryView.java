@@ -0,0 +1,36 @@
+package com.exe.skillverse_backend.ai_service.repository;
+
+import java.time.Instant;
+
+/**
+ * List projection of a roadmap session: summary columns only, never roadmapJson.
+ * V2 fields already fall back to the deprecated V1 columns in the query.
+ */
+public interface RoadmapSessionSummaryView {
+
+    Long getSessionId();
+
+    String getTitle();
+
+    String getRoadmapMode();
+
+    String getOriginalGoal();
+
+    String getValidatedGoal();
+
+    String getDuration();
+
+    String getExperienceLevel();
+
+    String getLearningStyle();
+
+    Integer getQuestCount();
+
+    Integer getCompletedQuestCount();
+
+    String getDifficultyLevel();
+
+    Integer getSchemaVersion();
+
+    Instant getCreatedAt();
+}
@@ -1,11 +1,15 @@
 package com.exe.skillverse_backend.ai_service.service;
 
+import com.exe.skillverse_backend.ai_service.dto.ChatContextWindow;
 import com.exe.skillverse_backend.ai_service.dto.ChatMessageResponse;
 import com.exe.skillverse_backend.ai_service.dto.ChatSessionSummary;
 import com.exe.skillverse_backend.ai_service.dto.request.ChatRequest;
 import com.exe.skillverse_backend.ai_service.dto.response.ChatResponse;
+import com.exe.skillverse_backend.ai_service.dto.response.ChatStreamEvent;
 import com.exe.skillverse_backend.ai_service.entity.ChatMessage;
 import com.exe.skillverse_backend.ai_service.repository.ChatMessageRepository;
+import com.exe.skillverse_backend.ai_service.repository.ChatSessionSummaryView;
+import com.exe.skillverse_backend.ai_service.util.StreamingMarkdownSanitizer;
 import com.exe.skillverse_backend.auth_service.entity.User;
 import com.exe.skillverse_backend.premium_service.entity.FeatureType;
 import com.exe.skillverse_backend.premium_service.service.UsageLimitService;
@@ -15,11 +19,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 /**
@@ -34,10 +43,13 @@ public class AiChatbotService {
 
   private final ChatModel mistralChatModel;
   private final ChatMessageRepository chatMessageRepository;
+  private final ChatContextWindowService chatContextWindowService;
+  private final ExpertResponseCache expertResponseCache;
   private final InputValidationService inputValidationService;
   private final UsageLimitService usageLimitService;
   private final ExpertPromptService expertPromptService;
-  private final com.exe.skillverse_backend.ai_service.repository.ExpertPromptConfigRepository expertPromptConfigRepository;
+  private final ExpertPromptRegistry expertPromptRegistry;
+  private final AiProviderRouter aiProviderRouter;
   private final com.exe.skillverse_backend.premium_service.service.PremiumService premiumService;
   private final org.springframework.ai.chat.model.ChatModel geminiChatModel;
   private final org.springframework.ai.chat.model.ChatModel geminiFallback1ChatModel;
@@ -47,22 +59,34 @@ public class AiChatbotService {
       @Qualifier("geminiChatModel") ChatModel geminiChatModel,
       @Qualifier("geminiFallback1ChatModel") ChatModel geminiFallback1ChatModel,
       ChatMessageRepository chatMessageRepository,
+      ChatContextWindowService chatContextWindowService,
+      ExpertResponseCache expertResponseCache,
       InputValidationService inputValidationService,
       UsageLimitService usageLimitService,
       ExpertPromptService expertPromptService,
-      com.exe.skillverse_backend.ai_service.repository.ExpertPromptConfigRepository expertPromptConfigRepository,
+      ExpertPromptRegistry expertPromptRegistry,
+      AiProviderRouter aiProviderRouter,
       com.exe.skillverse_backend.premium_service.service.PremiumService premiumService) {
     this.mistralChatModel = mistralChatModel;
     this.geminiChatModel = geminiChatModel;
     this.geminiFallback1ChatModel = geminiFallback1ChatModel;
     this.chatMessageRepository = chatMessageRepository;
+    this.chatContextWindowService = chatContextWindowService;
+    this.expertResponseCache = expertResponseCache;
     this.inputValidationService = inputValidationService;
     this.usageLimitService = usageLimitService;
     this.expertPromptService = expertPromptService;
-    this.expertPromptConfigRepository = expertPromptConfigRepository;
+    this.expertPromptRegistry = expertPromptRegistry;
+    this.aiProviderRouter = aiProviderRouter;
     this.premiumService = premiumService;
   }
 
+  private static final String DEEP_RESEARCH_AGENT_MODE = "deep-research-pro-preview-12-2025";
+
+  private static final String DEEP_RESEARCH_AGENT_SUFFIX = "\nMODE: Deep Research Pro — Áp dụng phân tích sâu, kiểm chứng thông tin, đưa lộ trình suy luận có cấu trúc, ưu tiên bằng chứng và dữ liệu thị trường 2025.\nQUAN TRỌNG: \n1. Hãy bắt đầu câu trả lời bằng một khối suy nghĩ được bao quanh bởi thẻ <thinking>...</thinking>.\n2. Kết thúc câu trả lời bằng danh sách 3 câu hỏi gợi ý tiếp theo được bao quanh bởi thẻ <suggestions>...</suggestions> (mỗi câu một dòng).";
+
+  private static final String NORMAL_AGENT_SUFFIX = "\nMODE: Normal Agent — Hành vi theo tác tử: nhận diện ý định, kiểm chứng thông tin cơ bản, tư duy có cấu trúc, trả lời rõ ràng.\nQUAN TRỌNG: \n1. Hãy bắt đầu câu trả lời bằng một khối suy nghĩ được bao quanh bởi thẻ <thinking>...</thinking>.\n2. Kết thúc câu trả lời bằng danh sách 3 câu hỏi gợi ý tiếp theo được bao quanh bởi thẻ <suggestions>...</suggestions> (mỗi câu một dòng).";
+
   // MEOWL AI CAREER ADVISOR - OPTIMIZED VERSION 2025
   private static final String SYSTEM_PROMPT = """
       # MEOWL AI CAREER ADVISOR - OPTIMIZED 2025
@@ -277,14 +301,116 @@ public class AiChatbotService {
    */
   @Transactional
   public ChatResponse chat(ChatRequest request, User user) {
+    Long sessionId = prepareChatTurn(request, user);
+
+    // Build conversation context (recent turns within the token budget + rolling summary)
+    ChatContextWindow context = chatContextWindowService.buildContext(sessionId, user.getId());
+
+    // Add correction hints to help AI detect and fix invalid inputs
+    String messageWithHints = addCorrectionHints(request.getMessage());
+    log.info("Chat mode: {}, Original message: {}", request.getChatMode(), request.getMessage());
+
+    // Call AI with automatic provider selection and fallback
+    // (first expert turns go through the shared response cache)
+    String aiResponse;
+    if (expertResponseCache.isCacheable(request, context)) {
+      String cacheKey = expertCacheKey(request);
+      try {
+        aiResponse = expertResponseCache.getOrLoad(cacheKey,
+            () -> callAIProviders(messageWithHints, context, request));
+      } catch (Exception e) {
+        log.error("All AI providers failed for cached expert turn: {}", e.getMessage());
+        aiResponse = generateFallbackResponse(messageWithHints);
+      }
+    } else {
+      aiResponse = callAIWithFallback(messageWithHints, context, request);
+    }
+    // Sanitize: remove '####' headings from AI response as requested
+    aiResponse = sanitizeAIResponse(aiResponse);
+
+    ChatMessage chatMessage = saveChatMessage(user, sessionId, request.getMessage(), aiResponse);
+
+    log.info("Chat session {} - Mode: {}, User: {}, AI response length: {}",
+        sessionId, request.getChatMode(), user.getId(), aiResponse.length());
+
+    return buildChatResponse(request, sessionId, aiResponse, chatMessage.getCreatedAt());
+  }
+
+  /**
+   * Streaming variant of {@link #chat(ChatRequest, User)}
+   * Usage limit and validation run before the Flux is returned (errors are thrown
+   * to the caller), then sanitized tokens are emitted as the model produces them.
+   * The ChatMessage is saved once the stream completes and returned in the DONE event.
+   */
+  public Flux<ChatStreamEvent> chatStream(ChatRequest request, User user) {
+    Long sessionId = prepareChatTurn(request, user);
+
+    ChatContextWindow context = chatContextWindowService.buildContext(sessionId, user.getId());
+
+    String messageWithHints = addCorrectionHints(request.getMessage());
+    log.info("Streaming chat mode: {}, session: {}", request.getChatMode(), sessionId);
+
+    // First expert turns: serve a cached answer, or stream and remember it on success
+    String cacheKey = expertResponseCache.isCacheable(request, context)
+        ? expertCacheKey(request)
+        : null;
+    String cachedResponse = cacheKey != null ? expertResponseCache.get(cacheKey) : null;
+    AtomicBoolean providerAnswered = new AtomicBoolean(true);
+    StreamingMarkdownSanitizer sanitizer = new StreamingMarkdownSanitizer();
+    StringBuilder rawResponse = new StringBuilder();
+
+    Flux<String> source = cachedResponse != null
+        ? Flux.just(cachedResponse)
+        : streamAIProviders(messageWithHints, context, request).onErrorResume(e -> {
+          // Text already reached the client: report the error instead of mixing in another answer
+          if (rawResponse.length() > 0) {
+            return Flux.error(e);
+          }
+          // FALLBACK: Return a helpful response instead of an error
+          providerAnswered.set(false);
+          return Flux.just(generateFallbackResponse(messageWithHints));
+        });
+
+    return source
+        .doOnNext(rawResponse::append)
+        .map(sanitizer::accept)
+        .concatWith(Mono.fromSupplier(sanitizer::finish))
+        .filter(chunk -> !chunk.isEmpty())
+        .map(chunk -> ChatStreamEvent.token(sessionId, chunk))
+        .concatWith(Mono.fromCallable(() -> {
+          if (cacheKey != null && cachedResponse == null && providerAnswered.get()) {
+            expertResponseCache.put(cacheKey, rawResponse.toString());
+          }
+
+          // Persist the same text the blocking endpoint would have saved
+          String aiResponse = sanitizeAIResponse(rawResponse.toString());
+          ChatMessage chatMessage = saveChatMessage(user, sessionId, request.getMessage(), aiResponse);
+
+          log.info("Streamed chat session {} - Mode: {}, User: {}, AI response length: {}",
+              sessionId, request.getChatMode(), user.getId(), aiResponse.length());
+
+          return ChatStreamEvent.done(sessionId,
+              buildChatResponse(request, sessionId, aiResponse, chatMessage.getCreatedAt()));
+        }))
+        .onErrorResume(e -> {
+          log.error("Streaming chat failed for session {}: {}", sessionId, e.getMessage());
+          return Flux.just(ChatStreamEvent.error(sessionId,
+              "Không thể hoàn tất câu trả lời, vui lòng thử lại"));
+        });
+  }
+
+  /**
+   * Shared checks for a chat turn: usage limit, premium agent mode, request and
+   * input validation. Returns the session ID (a new one if the request has none).
+   */
+  private Long prepareChatTurn(ChatRequest request, User user) {
     // 1. CHECK USAGE LIMIT FIRST
     usageLimitService.checkAndRecordUsage(
         user.getId(),
         FeatureType.AI_CHATBOT_REQUESTS);
 
     // 1b. PREMIUM VALIDATION for special agent mode
-    if (request.getAiAgentMode() != null
-        && "deep-research-pro-preview-12-2025".equalsIgnoreCase(request.getAiAgentMode())) {
+    if (isDeepResearchMode(request)) {
       boolean hasPremium = premiumService.hasActivePremiumSubscription(user.getId());
       if (!hasPremium) {
         throw new ApiException(ErrorCode.FORBIDDEN, "Chỉ tài khoản Premium mới có thể chọn chế độ AI Deep Research");
@@ -301,56 +427,52 @@ public class AiChatbotService {
       log.warn("Input validation failed: {}", ex.getMessage());
       // Don't throw error - let AI handle it with auto-correction
     }
-    
+
     Long sessionId = request.getSessionId();
 
     // Generate new session ID if not provided
     if (sessionId == null) {
       sessionId = System.currentTimeMillis();
-      log.info("Starting new {} chat session {} for user {}", 
+      log.info("Starting new {} chat session {} for user {}",
           request.getChatMode(), sessionId, user.getId());
     }
+    return sessionId;
+  }
 
-    // Build conversation context
-    List<ChatMessage> previousMessages = chatMessageRepository
-        .findBySessionIdOrderByCreatedAtAsc(sessionId);
-
-    // Add correction hints to help AI detect and fix invalid inputs
-    String messageWithHints = addCorrectionHints(request.getMessage());
-    log.info("Chat mode: {}, Original message: {}", request.getChatMode(), request.getMessage());
-
-    // Call AI with automatic provider selection and fallback
-    String aiResponse = callAIWithFallback(messageWithHints, previousMessages, request);
-    // Sanitize: remove '####' headings from AI response as requested
-    aiResponse = sanitizeAIResponse(aiResponse);
-
-    // Save to database (save ONLY user's original message without any prefix)
+  /**
+   * Save to database (save ONLY user's original message without any prefix)
+   */
+  private ChatMessage saveChatMessage(User user, Long sessionId, String userMessage, String aiResponse) {
     ChatMessage chatMessage = ChatMessage.builder()
         .user(user)
         .sessionId(sessionId)
-        .userMessage(request.getMessage()) // Save raw user message
+        .userMessage(userMessage) // Save raw user message
         .aiResponse(aiResponse)
         .createdAt(LocalDateTime.now())
         .build();
 
-    chatMessageRepository.save(chatMessage);
-
-    log.info("Chat session {} - Mode: {}, User: {}, AI response length: {}",
-        sessionId, request.getChatMode(), user.getId(), aiResponse.length());
+    ChatMessage saved = chatMessageRepository.save(chatMessage);
+    chatContextWindowService.recordMessage(saved);
+    return saved;
+  }
 
-    // Build response with mode and expert context
+  /**
+   * Build response with mode and expert context
+   */
+  private ChatResponse buildChatResponse(ChatRequest request, Long sessionId, String aiResponse,
+      LocalDateTime timestamp) {
     ChatResponse.ChatResponseBuilder responseBuilder = ChatResponse.builder()
         .sessionId(sessionId)
         .message(request.getMessage())
         .aiResponse(aiResponse)
-        .timestamp(chatMessage.getCreatedAt())
+        .timestamp(timestamp)
         .chatMode(request.getChatMode());
 
     // Add expert context if in EXPERT_MODE
     if (request.getChatMode() == com.exe.skillverse_backend.ai_service.enums.ChatMode.EXPERT_MODE) {
       // Try to get mediaUrl from database
       String mediaUrl = getExpertMediaUrl(request.getDomain(), request.getIndustry(), request.getJobRole());
-      
+
       responseBuilder.expertContext(ChatResponse.ExpertContext.builder()
           .domain(request.getDomain())
           .industry(request.getIndustry())
@@ -363,6 +485,11 @@ public class AiChatbotService {
     return responseBuilder.build();
   }
 
+  private boolean isDeepResearchMode(ChatRequest request) {
+    return request.getAiAgentMode() != null
+        && DEEP_RESEARCH_AGENT_MODE.equalsIgnoreCase(request.getAiAgentMode());
+  }
+
   /**
    * Validate chat request based on mode
    */
@@ -427,101 +554,92 @@ public class AiChatbotService {
    * Call Mistral AI for chat using Spring AI
    * Using Mistral AI for latest 2025 career trends and insights
    */
-  private String callAIWithFallback(String userMessage, List<ChatMessage> previousMessages, ChatRequest request) {
-    log.info("Calling Mistral AI chatbot using Spring AI");
-
+  private String callAIWithFallback(String userMessage, ChatContextWindow context, ChatRequest request) {
     try {
-      String agentSuffix = (request.getAiAgentMode() != null
-          && "deep-research-pro-preview-12-2025".equalsIgnoreCase(request.getAiAgentMode()))
-          ? "\nMODE: Deep Research Pro — Áp dụng phân tích sâu, kiểm chứng thông tin, đưa lộ trình suy luận có cấu trúc, ưu tiên bằng chứng và dữ liệu thị trường 2025.\nQUAN TRỌNG: \n1. Hãy bắt đầu câu trả lời bằng một khối suy nghĩ được bao quanh bởi thẻ <thinking>...</thinking>.\n2. Kết thúc câu trả lời bằng danh sách 3 câu hỏi gợi ý tiếp theo được bao quanh bởi thẻ <suggestions>...</suggestions> (mỗi câu một dòng)."
-          : "\nMODE: Normal Agent — Hành vi theo tác tử: nhận diện ý định, kiểm chứng thông tin cơ bản, tư duy có cấu trúc, trả lời rõ ràng.\nQUAN TRỌNG: \n1. Hãy bắt đầu câu trả lời bằng một khối suy nghĩ được bao quanh bởi thẻ <thinking>...</thinking>.\n2. Kết thúc câu trả lời bằng danh sách 3 câu hỏi gợi ý tiếp theo được bao quanh bởi thẻ <suggestions>...</suggestions> (mỗi câu một dòng).";
-      if (request.getAiAgentMode() != null
-          && "deep-research-pro-preview-12-2025".equalsIgnoreCase(request.getAiAgentMode())) {
-        try {
-          return callGeminiForChat(userMessage, previousMessages, request, agentSuffix, geminiChatModel, "Gemini Primary");
-        } catch (Exception ge) {
-          String msg = ge.getMessage() != null ? ge.getMessage().toLowerCase() : "";
-          if (msg.contains("429") || msg.contains("quota") || msg.contains("resource_exhausted") || msg.contains("rate limit")) {
-            try {
-              return callGeminiForChat(userMessage, previousMessages, request, agentSuffix, geminiFallback1ChatModel, "Gemini Fallback");
-            } catch (Exception ge2) {
-              String normalSuffix = "\nMODE: Normal Agent — Hành vi theo tác tử: nhận diện ý định, kiểm chứng thông tin cơ bản, tư duy có cấu trúc, trả lời rõ ràng.\nQUAN TRỌNG: \n1. Hãy bắt đầu câu trả lời bằng một khối suy nghĩ được bao quanh bởi thẻ <thinking>...</thinking>.\n2. Kết thúc câu trả lời bằng danh sách 3 câu hỏi gợi ý tiếp theo được bao quanh bởi thẻ <suggestions>...</suggestions>.";
-              return callMistralForChat(userMessage, previousMessages, request, normalSuffix);
-            }
-          } else {
-            String normalSuffix = "\nMODE: Normal Agent — Hành vi theo tác tử: nhận diện ý định, kiểm chứng thông tin cơ bản, tư duy có cấu trúc, trả lời rõ ràng.\nQUAN TRỌNG: \n1. Hãy bắt đầu câu trả lời bằng một khối suy nghĩ được bao quanh bởi thẻ <thinking>...</thinking>.\n2. Kết thúc câu trả lời bằng danh sách 3 câu hỏi gợi ý tiếp theo được bao quanh bởi thẻ <suggestions>...</suggestions>.";
-            return callMistralForChat(userMessage, previousMessages, request, normalSuffix);
-          }
-        }
-      }
-      return callMistralForChat(userMessage, previousMessages, request, agentSuffix);
+      return callAIProviders(userMessage, context, request);
     } catch (Exception e) {
-      log.error("Mistral AI failed: {}", e.getMessage());
+      // FALLBACK: Return a helpful response instead of throwing error
+      return generateFallbackResponse(userMessage);
+    }
+  }
 
-      try {
-        String normalAgentSuffix = "\nMODE: Normal Agent — Hành vi theo tác tử: nhận diện ý định, kiểm chứng thông tin cơ bản, tư duy có cấu trúc, trả lời rõ ràng.";
-        return callMistralForChat(userMessage, previousMessages, request, normalAgentSuffix);
-      } catch (Exception e2) {
-        // FALLBACK: Return a helpful response instead of throwing error
-        return generateFallbackResponse(userMessage);
-      }
+  /**
+   * Provider chain behind callAIWithFallback; throws when every provider failed
+   * so callers can decide what to do with the static fallback (e.g. never cache it).
+   * Deep research prefers Gemini, normal mode prefers Mistral; AiProviderRouter skips
+   * providers whose circuit is open and hedges slow calls with the next one.
+   */
+  private String callAIProviders(String userMessage, ChatContextWindow context, ChatRequest request) {
+    List<AiProviderRouter.ProviderCall> calls;
+    if (isDeepResearchMode(request)) {
+      calls = List.of(
+          new AiProviderRouter.ProviderCall(AiProviderRouter.GEMINI, () -> callGeminiForChat(
+              userMessage, context, request, DEEP_RESEARCH_AGENT_SUFFIX, geminiChatModel, "Gemini Primary")),
+          new AiProviderRouter.ProviderCall(AiProviderRouter.GEMINI_FALLBACK, () -> callGeminiForChat(
+              userMessage, context, request, DEEP_RESEARCH_AGENT_SUFFIX, geminiFallback1ChatModel, "Gemini Fallback")),
+          new AiProviderRouter.ProviderCall(AiProviderRouter.MISTRAL, () -> callMistralForChat(
+              userMessage, context, request, NORMAL_AGENT_SUFFIX)));
+    } else {
+      calls = List.of(
+          new AiProviderRouter.ProviderCall(AiProviderRouter.MISTRAL, () -> callMistralForChat(
+              userMessage, context, request, NORMAL_AGENT_SUFFIX)),
+          new AiProviderRouter.ProviderCall(AiProviderRouter.GEMINI, () -> callGeminiForChat(
+              userMessage, context, request, NORMAL_AGENT_SUFFIX, geminiChatModel, "Gemini Primary")),
+          new AiProviderRouter.ProviderCall(AiProviderRouter.GEMINI_FALLBACK, () -> callGeminiForChat(
+              userMessage, context, request, NORMAL_AGENT_SUFFIX, geminiFallback1ChatModel, "Gemini Fallback")));
     }
+    return aiProviderRouter.call("chat", calls);
+  }
+
+  /**
+   * Streaming counterpart of callAIProviders with the same provider order.
+   * A provider is only replaced if it fails before emitting its first token;
+   * once text has reached the client the error is propagated instead.
+   */
+  private Flux<String> streamAIProviders(String userMessage, ChatContextWindow context, ChatRequest request) {
+    List<AiProviderRouter.ProviderStream> streams;
+    if (isDeepResearchMode(request)) {
+      streams = List.of(
+          new AiProviderRouter.ProviderStream(AiProviderRouter.GEMINI, () -> streamChat(
+              geminiChatModel, "Gemini Primary", userMessage, context, request, DEEP_RESEARCH_AGENT_SUFFIX)),
+          new AiProviderRouter.ProviderStream(AiProviderRouter.GEMINI_FALLBACK, () -> streamChat(
+              geminiFallback1ChatModel, "Gemini Fallback", userMessage, context, request, DEEP_RESEARCH_AGENT_SUFFIX)),
+          new AiProviderRouter.ProviderStream(AiProviderRouter.MISTRAL, () -> streamChat(
+              mistralChatModel, "Mistral", userMessage, context, request, NORMAL_AGENT_SUFFIX)));
+    } else {
+      streams = List.of(
+          new AiProviderRouter.ProviderStream(AiProviderRouter.MISTRAL, () -> streamChat(
+              mistralChatModel, "Mistral", userMessage, context, request, NORMAL_AGENT_SUFFIX)),
+          new AiProviderRouter.ProviderStream(AiProviderRouter.GEMINI, () -> streamChat(
+              geminiChatModel, "Gemini Primary", userMessage, context, request, NORMAL_AGENT_SUFFIX)),
+          new AiProviderRouter.ProviderStream(AiProviderRouter.GEMINI_FALLBACK, () -> streamChat(
+              geminiFallback1ChatModel, "Gemini Fallback", userMessage, context, request, NORMAL_AGENT_SUFFIX)));
+    }
+    return aiProviderRouter.stream("chat-stream", streams);
+  }
+
+  private Flux<String> streamChat(ChatModel model, String label, String userMessage,
+      ChatContextWindow context, ChatRequest request, String agentSuffix) {
+    log.info("Streaming chat via {} with {} previous messages", label, context.getRecentMessages().size());
+    return ChatClient.builder(model)
+        .build()
+        .prompt()
+        .system(buildSystemPrompt(request, context, agentSuffix))
+        .user(buildConversationHistory(context, userMessage))
+        .stream()
+        .content();
   }
 
   /**
    * Call Mistral AI for chat conversation with context using Spring AI ChatClient
    * Mistral provides more recent training data for 2025 career trends
    */
-  private String callMistralForChat(String userMessage, List<ChatMessage> previousMessages, ChatRequest request, String agentSuffix) {
+  private String callMistralForChat(String userMessage, ChatContextWindow context, ChatRequest request, String agentSuffix) {
     try {
-      // Build conversation history
-      StringBuilder contextBuilder = new StringBuilder();
-      contextBuilder.append("Conversation history:\n");
+      String conversationHistory = buildConversationHistory(context, userMessage);
+      log.debug("Calling Mistral AI with {} previous messages", context.getRecentMessages().size());
 
-      for (ChatMessage prev : previousMessages) {
-        contextBuilder.append("User: ").append(prev.getUserMessage()).append("\n");
-        contextBuilder.append("Assistant: ").append(prev.getAiResponse()).append("\n");
-      }
-
-      contextBuilder.append("User: ").append(userMessage);
-
-      String conversationHistory = contextBuilder.toString();
-      log.debug("Calling Mistral AI with {} previous messages", previousMessages.size());
-
-      // DETERMINE SYSTEM PROMPT based on chat mode
-      String systemPrompt;
-      
-      if (request.getChatMode() == com.exe.skillverse_backend.ai_service.enums.ChatMode.EXPERT_MODE) {
-        // EXPERT_MODE: Try to get specialized prompt
-        systemPrompt = expertPromptService.getSystemPrompt(
-            request.getDomain(), 
-            request.getIndustry(), 
-            request.getJobRole()
-        );
-        
-        // If no expert prompt found, fall back to general prompt
-        if (systemPrompt == null) {
-          log.warn("No expert prompt found for role: {}, falling back to general advisor", 
-              request.getJobRole());
-          systemPrompt = SYSTEM_PROMPT;
-        } else {
-          log.info("Using expert prompt for: {} - {} - {}", 
-              request.getDomain(), request.getIndustry(), request.getJobRole());
-        }
-      } else {
-        // GENERAL_CAREER_ADVISOR: Use default prompt
-        // Use simpler prompt for first message, full prompt for subsequent
-        boolean isFirstTurn = previousMessages == null || previousMessages.isEmpty();
-        systemPrompt = isFirstTurn ? SYSTEM_PROMPT_SIMPLE : SYSTEM_PROMPT;
-        log.info("Using general career advisor prompt (first turn: {})", isFirstTurn);
-      }
-
-      // Append critical instruction
-      String finalSystemPrompt = systemPrompt + 
-          "\nCRITICAL: Hãy trả lời bằng đúng ngôn ngữ người dùng đang dùng (ưu tiên Tiếng Việt). Nếu phát hiện yêu cầu vô lý (ví dụ mục tiêu IELTS 10.0), hãy giải thích và đưa gợi ý hợp lệ bằng Tiếng Việt.";
-      if (agentSuffix != null && !agentSuffix.isEmpty()) {
-        finalSystemPrompt = finalSystemPrompt + agentSuffix;
-      }
+      String finalSystemPrompt = buildSystemPrompt(request, context, agentSuffix);
 
       // Use Spring AI ChatClient for Mistral
       return ChatClient.builder(mistralChatModel)
@@ -539,42 +657,89 @@ public class AiChatbotService {
     }
   }
 
-  private String callGeminiForChat(String userMessage, List<ChatMessage> previousMessages, ChatRequest request, String agentSuffix, ChatModel model, String label) {
+  private String callGeminiForChat(String userMessage, ChatContextWindow context, ChatRequest request, String agentSuffix, ChatModel model, String label) {
+    String conversationHistory = buildConversationHistory(context, userMessage);
+    String finalSystemPrompt = buildSystemPrompt(request, context, agentSuffix);
+    return ChatClient.builder(model)
+        .build()
+        .prompt()
+        .system(finalSystemPrompt)
+        .user(conversationHistory)
+        .call()
+        .content();
+  }
+
+  /**
+   * Build conversation history (rolling summary of older turns first, then recent turns)
+   */
+  private String buildConversationHistory(ChatContextWindow context, String userMessage) {
     StringBuilder contextBuilder = new StringBuilder();
+    if (context.getSummary() != null && !context.getSummary().isEmpty()) {
+      contextBuilder.append("Summary of earlier conversation:\n")
+          .append(context.getSummary())
+          .append("\n\n");
+    }
     contextBuilder.append("Conversation history:\n");
-    for (ChatMessage prev : previousMessages) {
+
+    for (ChatMessage prev : context.getRecentMessages()) {
       contextBuilder.append("User: ").append(prev.getUserMessage()).append("\n");
       contextBuilder.append("Assistant: ").append(prev.getAiResponse()).append("\n");
     }
+
     contextBuilder.append("User: ").append(userMessage);
-    String conversationHistory = contextBuilder.toString();
+    return contextBuilder.toString();
+  }
+
+  /**
+   * Cache key of a first expert turn, bound to the expert prompt currently in the registry
+   */
+  private String expertCacheKey(ChatRequest request) {
+    String expertPrompt = expertPromptService.getSystemPrompt(
+        request.getDomain(), request.getIndustry(), request.getJobRole());
+    return expertResponseCache.buildKey(request, expertPrompt);
+  }
+
+  /**
+   * DETERMINE SYSTEM PROMPT based on chat mode, then append the critical
+   * instruction and agent suffix
+   */
+  private String buildSystemPrompt(ChatRequest request, ChatContextWindow context, String agentSuffix) {
     String systemPrompt;
+
     if (request.getChatMode() == com.exe.skillverse_backend.ai_service.enums.ChatMode.EXPERT_MODE) {
+      // EXPERT_MODE: Try to get specialized prompt
       systemPrompt = expertPromptService.getSystemPrompt(
           request.getDomain(),
           request.getIndustry(),
           request.getJobRole()
       );
+
+      // If no expert prompt found, fall back to general prompt
       if (systemPrompt == null) {
+        log.warn("No expert prompt found for role: {}, falling back to general advisor",
+            request.getJobRole());
         systemPrompt = SYSTEM_PROMPT;
+      } else {
+        log.info("Using expert prompt for: {} - {} - {}",
+            request.getDomain(), request.getIndustry(), request.getJobRole());
       }
     } else {
-      boolean isFirstTurn = previousMessages == null || previousMessages.isEmpty();
+      // GENERAL_CAREER_ADVISOR: Use default prompt
+      // Use simpler prompt for first message, full prompt for subsequent
+      boolean isFirstTurn = context == null || context.isFirstTurn();
       systemPrompt = isFirstTurn ? SYSTEM_PROMPT_SIMPLE : SYSTEM_PROMPT;
+      log.info("Using general career advisor prompt (first turn: {})", isFirstTurn);
     }
+
+    // Append critical instruction
     String finalSystemPrompt = systemPrompt +
         "\nCRITICAL: Hãy trả lời bằng đúng ngôn ngữ người dùng đang dùng (ưu tiên Tiếng Việt). Nếu phát hiện yêu cầu vô lý (ví dụ mục tiêu IELTS 10.0), hãy giải thích và đưa gợi ý hợp lệ bằng Tiếng Việt.";
     if (agentSuffix != null && !agentSuffix.isEmpty()) {
       finalSystemPrompt = finalSystemPrompt + agentSuffix;
     }
-    return ChatClient.builder(model)
-        .build()
-        .prompt()
-        .system(finalSystemPrompt)
-        .user(conversationHistory)
-        .call()
-        .content();
+    return finalSystemPrompt;
   }
+
   /**
    * Get conversation history for a session
    * Returns DTOs to avoid lazy loading issues
@@ -601,38 +766,49 @@ public class AiChatbotService {
   }
 
   /**
-   * Get all sessions for a user with titles
-   * Returns session summaries with title preview from first message
+   * Get sessions for a user with titles, newest activity first
+   * One keyset query over chat_sessions per page; pass the last item's lastMessageAt/sessionId
+   * as cursor to get the next page (limit null = all sessions)
    */
   @Transactional(readOnly = true)
-  public List<ChatSessionSummary> getUserSessions(Long userId) {
-    List<Long> sessionIds = chatMessageRepository.findSessionIdsByUserId(userId);
-
-    return sessionIds.stream()
-        .map(sessionId -> {
-          List<ChatMessage> messages = chatMessageRepository.findBySessionIdOrderByCreatedAtAsc(sessionId);
-          if (messages.isEmpty()) {
-            return null;
-          }
+  public List<ChatSessionSummary> getUserSessions(Long userId, Integer limit,
+      LocalDateTime cursorLastMessageAt, Long cursorSessionId) {
+    Pageable pageable = limit == null ? Pageable.unpaged() : PageRequest.of(0, Math.max(1, Math.min(limit, 100)));
+
+    List<ChatSessionSummaryView> rows = (cursorLastMessageAt != null && cursorSessionId != null)
+        ? chatMessageRepository.findSessionSummariesByUserIdBefore(userId, cursorLastMessageAt, cursorSessionId, pageable)
+        : chatMessageRepository.findSessionSummariesByUserId(userId, pageable);
+
+    return rows.stream()
+        .map(row -> ChatSessionSummary.builder()
+            .sessionId(row.getSessionId())
+            .title(resolveSessionTitle(row))
+            .lastMessageAt(row.getLastMessageAt())
+            .messageCount(row.getMessageCount().intValue() * 2) // Multiply by 2 because each entity has User + AI message
+            .build())
+        .collect(Collectors.toList());
+  }
 
-          // Use custom title if set, otherwise auto-generate from first message
-          ChatMessage firstMessage = messages.get(0);
-          String title;
-          if (firstMessage.getCustomTitle() != null && !firstMessage.getCustomTitle().isEmpty()) {
-            title = firstMessage.getCustomTitle();
-          } else {
-            title = extractTitle(firstMessage.getUserMessage());
-          }
+  /**
+   * Use custom title if set, otherwise auto-generate from first message
+   */
+  private String resolveSessionTitle(ChatSessionSummaryView row) {
+    if (row.getCustomTitle() != null && !row.getCustomTitle().isEmpty()) {
+      return row.getCustomTitle();
+    }
+    return extractTitle(row.getFirstUserMessage());
+  }
 
-          return ChatSessionSummary.builder()
-              .sessionId(sessionId)
-              .title(title)
-              .lastMessageAt(messages.get(messages.size() - 1).getCreatedAt())
-              .messageCount(messages.size() * 2) // Multiply by 2 because each entity has User + AI message
-              .build();
-        })
-        .filter(summary -> summary != null)
-        .collect(Collectors.toList());
+  /**
+   * Verify the session exists and belongs to the user
+   */
+  private void verifySessionOwner(Long sessionId, Long userId, String forbiddenMessage) {
+    Long ownerId = chatMessageRepository.findSessionOwnerId(sessionId)
+        .orElseThrow(() -> new ApiException(ErrorCode.NOT_FOUND, "Phiên trò chuyện không tồn tại"));
+
+    if (!ownerId.equals(userId)) {
+      throw new ApiException(ErrorCode.FORBIDDEN, forbiddenMessage);
+    }
   }
 
   /**
@@ -656,19 +832,12 @@ public class AiChatbotService {
   @Transactional
   public void deleteSession(Long sessionId, Long userId) {
     // Verify user owns this session
-    List<ChatMessage> messages = chatMessageRepository.findBySessionIdOrderByCreatedAtAsc(sessionId);
-
-    if (messages.isEmpty()) {
-      throw new ApiException(ErrorCode.NOT_FOUND, "Phiên trò chuyện không tồn tại");
-    }
-
-    if (!messages.get(0).getUser().getId().equals(userId)) {
-      throw new ApiException(ErrorCode.FORBIDDEN, "Bạn không có quyền xóa phiên này");
-    }
+    verifySessionOwner(sessionId, userId, "Bạn không có quyền xóa phiên này");
 
     // Delete all messages in this session
-    chatMessageRepository.deleteBySessionId(sessionId);
-    log.info("Deleted session {} with {} messages for user {}", sessionId, messages.size(), userId);
+    int deleted = chatMessageRepository.deleteBySessionId(sessionId);
+    chatContextWindowService.deleteSessionContext(sessionId);
+    log.info("Deleted session {} with {} messages for user {}", sessionId, deleted, userId);
   }
 
   /**
@@ -679,15 +848,7 @@ public class AiChatbotService {
   @Transactional
   public ChatSessionSummary renameSession(Long sessionId, Long userId, String newTitle) {
     // Verify user owns this session
-    List<ChatMessage> messages = chatMessageRepository.findBySessionIdOrderByCreatedAtAsc(sessionId);
-
-    if (messages.isEmpty()) {
-      throw new ApiException(ErrorCode.NOT_FOUND, "Phiên trò chuyện không tồn tại");
-    }
-
-    if (!messages.get(0).getUser().getId().equals(userId)) {
-      throw new ApiException(ErrorCode.FORBIDDEN, "Bạn không có quyền đổi tên phiên này");
-    }
+    verifySessionOwner(sessionId, userId, "Bạn không có quyền đổi tên phiên này");
 
     // Validate title
     if (newTitle == null || newTitle.trim().isEmpty()) {
@@ -701,17 +862,18 @@ public class AiChatbotService {
     String trimmedTitle = newTitle.trim();
 
     // Store custom title in first message's customTitle field
-    ChatMessage firstMessage = messages.get(0);
-    firstMessage.setCustomTitle(trimmedTitle);
-    chatMessageRepository.save(firstMessage);
+    chatMessageRepository.updateSessionTitle(sessionId, trimmedTitle);
 
     log.info("Renamed session {} to '{}' for user {}", sessionId, trimmedTitle, userId);
 
+    ChatSessionSummaryView summary = chatMessageRepository.findSessionSummary(sessionId)
+        .orElseThrow(() -> new ApiException(ErrorCode.NOT_FOUND, "Phiên trò chuyện không tồn tại"));
+
     return ChatSessionSummary.builder()
         .sessionId(sessionId)
         .title(trimmedTitle)
-        .lastMessageAt(messages.get(messages.size() - 1).getCreatedAt())
-        .messageCount(messages.size())
+        .lastMessageAt(summary.getLastMessageAt())
+        .messageCount(summary.getMessageCount().intValue())
         .build();
   }
 
@@ -1180,21 +1342,11 @@ public class AiChatbotService {
   }
 
   /**
-   * Get expert media URL from database
+   * Get expert media URL from the in-memory expert prompt snapshot
    * Returns null if not found
    */
   private String getExpertMediaUrl(String domain, String industry, String jobRole) {
-    try {
-      // Try exact match first
-      return expertPromptConfigRepository
-          .findByDomainAndIndustryAndJobRoleAndIsActiveTrue(domain, industry, jobRole)
-          .map(config -> config.getMediaUrl())
-          .orElse(null);
-    } catch (Exception e) {
-      log.warn("Failed to get media URL for expert {}/{}/{}: {}", 
-          domain, industry, jobRole, e.getMessage());
-      return null;
-    }
+    return expertPromptRegistry.getMediaUrl(domain, industry, jobRole);
   }
 
   // ==================== ADMIN STATISTICS ====================
@@ -0,0 +1,479 @@
+package com.exe.skillverse_backend.ai_service.service;
+
+import com.exe.skillverse_backend.ai_service.dto.response.AiProviderHealthResponse;
+import com.exe.skillverse_backend.shared.exception.ApiException;
+import com.exe.skillverse_backend.shared.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientResponseException;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Routes blocking and streaming AI calls over an ordered list of providers
+ * - Circuit breaker per provider: opens after consecutive failures (immediately on 429/quota),
+ *   lets a single trial call through once the open period is over
+ * - Bulkhead per provider: a bounded number of concurrent calls, extra calls skip to the next provider
+ * - Hedging (blocking calls only): if the running call is slower than the provider's p95,
+ *   the next provider is started as well and the first answer wins
+ * - Metrics: ai.provider.calls{provider,outcome}, ai.provider.rejected{provider,reason},
+ *   ai.provider.hedged{provider}, ai.provider.circuit_state{provider}, ai.provider.in_flight{provider}
+ */
+@Service
+@Slf4j
+public class AiProviderRouter {
+
+    public static final String GEMINI = "gemini";
+    public static final String GEMINI_FALLBACK = "gemini-fallback";
+    public static final String MISTRAL = "mistral";
+
+    private static final int LATENCY_WINDOW = 100;
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    /**
+     * One attempt of a blocking call against a named provider
+     */
+    public record ProviderCall(String provider, Supplier<String> call) {
+    }
+
+    /**
+     * One attempt of a streaming call against a named provider
+     */
+    public record ProviderStream(String provider, Supplier<Flux<String>> stream) {
+    }
+
+    /**
+     * A launched blocking call; its bulkhead permit is released exactly once, by the task or by the
+     * canceller when the task never got to run
+     */
+    private record Attempt(ProviderCall call, ProviderState state, AtomicBoolean released) {
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                state.bulkhead.release();
+            }
+        }
+    }
+
+    public enum CircuitState {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ProviderState> providers = new ConcurrentHashMap<>();
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final int maxConcurrent;
+    private final boolean hedgeEnabled;
+    private final long hedgeDefaultDelayMs;
+    private final long hedgeMinDelayMs;
+    private final int hedgeMaxParallel;
+
+    public AiProviderRouter(
+            @Qualifier("aiProviderExecutor") Executor executor,
+            MeterRegistry meterRegistry,
+            @Value("${ai.router.failure-threshold:5}") int failureThreshold,
+            @Value("${ai.router.open-duration-ms:30000}") long openDurationMs,
+            @Value("${ai.router.max-concurrent:16}") int maxConcurrent,
+            @Value("${ai.router.hedge.enabled:true}") boolean hedgeEnabled,
+            @Value("${ai.router.hedge.default-delay-ms:15000}") long hedgeDefaultDelayMs,
+            @Value("${ai.router.hedge.min-delay-ms:3000}") long hedgeMinDelayMs,
+            @Value("${ai.router.hedge.max-parallel:2}") int hedgeMaxParallel) {
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+        this.maxConcurrent = maxConcurrent;
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeDefaultDelayMs = hedgeDefaultDelayMs;
+        this.hedgeMinDelayMs = hedgeMinDelayMs;
+        this.hedgeMaxParallel = Math.max(1, hedgeMaxParallel);
+        for (String provider : List.of(GEMINI, GEMINI_FALLBACK, MISTRAL)) {
+            state(provider);
+        }
+    }
+
+    /**
+     * Run the calls in order of preference and return the first non-blank answer.
+     * Providers with an open circuit or a full bulkhead are skipped.
+     *
+     * @throws ApiException SERVICE_UNAVAILABLE when every provider failed or was skipped
+     */
+    public String call(String operation, List<ProviderCall> calls) {
+        Deque<ProviderCall> pending = new ArrayDeque<>(calls);
+        CompletionService<String> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<String>, Attempt> inFlight = new HashMap<>();
+        AtomicBoolean settled = new AtomicBoolean(false);
+        RuntimeException lastError = null;
+        ProviderCall lastLaunched = null;
+
+        try {
+            while (true) {
+                if (inFlight.isEmpty()) {
+                    lastLaunched = launchNext(operation, pending, completionService, inFlight, settled);
+                    if (lastLaunched == null) {
+                        break;
+                    }
+                }
+
+                Future<String> done;
+                if (hedgeEnabled && !pending.isEmpty() && inFlight.size() < hedgeMaxParallel) {
+                    done = completionService.poll(hedgeDelayMs(lastLaunched.provider()), TimeUnit.MILLISECONDS);
+                    if (done == null) {
+                        ProviderCall hedge = launchNext(operation, pending, completionService, inFlight, settled);
+                        if (hedge != null) {
+                            log.info("AI {}: {} slower than p95, hedging with {}",
+                                    operation, lastLaunched.provider(), hedge.provider());
+                            state(lastLaunched.provider()).hedged.increment();
+                            lastLaunched = hedge;
+                        }
+                        continue;
+                    }
+                } else {
+                    done = completionService.take();
+                }
+
+                ProviderCall finished = inFlight.remove(done).call();
+                try {
+                    String value = done.get();
+                    settled.set(true);
+                    return value;
+                } catch (ExecutionException e) {
+                    lastError = e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+                    log.warn("AI {}: provider {} failed: {}", operation, finished.provider(), lastError.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            lastError = new IllegalStateException("Interrupted while waiting for AI provider", e);
+        } finally {
+            settled.set(true);
+            inFlight.forEach((future, attempt) -> {
+                // A hedge still waiting in the executor queue never runs its finally: release for it
+                if (future.cancel(true)) {
+                    attempt.release();
+                    attempt.state().onAbandoned();
+                }
+            });
+        }
+
+        throw unavailable(operation, lastError);
+    }
+
+    /**
+     * Streaming variant: no hedging (partial answers cannot be merged), a provider is only
+     * replaced when it fails before its first token; afterwards the error is propagated.
+     */
+    public Flux<String> stream(String operation, List<ProviderStream> streams) {
+        return Flux.defer(() -> streamFrom(operation, new ArrayDeque<>(streams), null));
+    }
+
+    private Flux<String> streamFrom(String operation, Deque<ProviderStream> pending, Throwable lastError) {
+        ProviderStream next = pending.poll();
+        if (next == null) {
+            return Flux.error(unavailable(operation, lastError));
+        }
+        ProviderState state = state(next.provider());
+        if (!state.tryAcquire()) {
+            return streamFrom(operation, pending, lastError);
+        }
+
+        long start = System.nanoTime();
+        AtomicBoolean emitted = new AtomicBoolean(false);
+        AtomicBoolean released = new AtomicBoolean(false);
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                state.bulkhead.release();
+            }
+        };
+
+        return Flux.defer(next.stream())
+                .switchIfEmpty(Flux.error(() -> new IllegalStateException("Empty stream from " + next.provider())))
+                .doOnNext(chunk -> emitted.set(true))
+                .doOnComplete(() -> state.onSuccess(elapsedMs(start)))
+                .doOnCancel(state::onAbandoned)
+                .doFinally(signal -> release.run())
+                .onErrorResume(e -> {
+                    state.onFailure(isQuotaError(e), elapsedMs(start));
+                    release.run();
+                    if (emitted.get()) {
+                        return Flux.error(e);
+                    }
+                    log.warn("AI {}: stream from {} failed before first token: {}",
+                            operation, next.provider(), e.getMessage());
+                    return streamFrom(operation, pending, e);
+                });
+    }
+
+    /**
+     * Current health and latency of every provider seen so far
+     */
+    public List<AiProviderHealthResponse> getHealth() {
+        return providers.values().stream()
+                .map(ProviderState::toResponse)
+                .sorted(Comparator.comparing(AiProviderHealthResponse::getProvider))
+                .toList();
+    }
+
+    /**
+     * 429 / quota exhaustion, either as HTTP status or in the provider's error message
+     */
+    public static boolean isQuotaError(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof RestClientResponseException http && http.getStatusCode().value() == 429) {
+                return true;
+            }
+            String msg = t.getMessage() != null ? t.getMessage().toLowerCase() : "";
+            if (msg.contains("429") || msg.contains("quota") || msg.contains("resource_exhausted")
+                    || msg.contains("rate limit")) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private ProviderCall launchNext(String operation, Deque<ProviderCall> pending,
+            CompletionService<String> completionService, Map<Future<String>, Attempt> inFlight,
+            AtomicBoolean settled) {
+        ProviderCall next;
+        while ((next = pending.poll()) != null) {
+            ProviderState state = state(next.provider());
+            if (!state.tryAcquire()) {
+                continue;
+            }
+            Attempt attempt = new Attempt(next, state, new AtomicBoolean(false));
+            try {
+                inFlight.put(completionService.submit(task(attempt, settled)), attempt);
+                return next;
+            } catch (RejectedExecutionException e) {
+                attempt.release();
+                state.onAbandoned();
+                log.warn("AI {}: executor saturated, skipping {}", operation, next.provider());
+            }
+        }
+        return null;
+    }
+
+    private Callable<String> task(Attempt attempt, AtomicBoolean settled) {
+        ProviderCall call = attempt.call();
+        ProviderState state = attempt.state();
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                String result = call.call().get();
+                if (result == null || result.isBlank()) {
+                    throw new IllegalStateException("Empty response from " + call.provider());
+                }
+                state.onSuccess(elapsedMs(start));
+                return result;
+            } catch (RuntimeException e) {
+                if (settled.get()) {
+                    // Losing hedge cancelled after another provider answered
+                    state.onAbandoned();
+                } else {
+                    state.onFailure(isQuotaError(e), elapsedMs(start));
+                }
+                throw e;
+            } finally {
+                attempt.release();
+            }
+        };
+    }
+
+    private long hedgeDelayMs(String provider) {
+        long p95 = state(provider).p95LatencyMs();
+        return p95 < 0 ? hedgeDefaultDelayMs : Math.max(hedgeMinDelayMs, p95);
+    }
+
+    private ApiException unavailable(String operation, Throwable lastError) {
+        String reason = lastError != null ? lastError.getMessage() : "all providers are unavailable (circuit open or busy)";
+        log.error("AI {}: no provider could answer: {}", operation, reason);
+        return new ApiException(ErrorCode.SERVICE_UNAVAILABLE, "AI service unavailable: " + reason);
+    }
+
+    private ProviderState state(String provider) {
+        return providers.computeIfAbsent(provider, ProviderState::new);
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Circuit breaker, bulkhead and latency window of one provider
+     */
+    private final class ProviderState {
+
+        private final String name;
+        private final Semaphore bulkhead;
+        private final Timer successTimer;
+        private final Timer failureTimer;
+        private final Counter circuitRejected;
+        private final Counter bulkheadRejected;
+        private final Counter hedged;
+
+        private final long[] latencies = new long[LATENCY_WINDOW];
+        private int latencyCount;
+        private int latencyIndex;
+
+        private CircuitState circuit = CircuitState.CLOSED;
+        private int consecutiveFailures;
+        private long openUntilMillis;
+        private boolean trialInFlight;
+
+        ProviderState(String name) {
+            this.name = name;
+            this.bulkhead = new Semaphore(maxConcurrent);
+            this.successTimer = Timer.builder("ai.provider.calls").tag("provider", name).tag("outcome", "success")
+                    .publishPercentiles(0.5, 0.95).register(meterRegistry);
+            this.failureTimer = Timer.builder("ai.provider.calls").tag("provider", name).tag("outcome", "failure")
+                    .register(meterRegistry);
+            this.circuitRejected = Counter.builder("ai.provider.rejected").tag("provider", name)
+                    .tag("reason", "circuit_open").register(meterRegistry);
+            this.bulkheadRejected = Counter.builder("ai.provider.rejected").tag("provider", name)
+                    .tag("reason", "bulkhead_full").register(meterRegistry);
+            this.hedged = Counter.builder("ai.provider.hedged").tag("provider", name).register(meterRegistry);
+            meterRegistry.gauge("ai.provider.circuit_state", Tags.of("provider", name),
+                    this, s -> s.currentState().ordinal());
+            meterRegistry.gauge("ai.provider.in_flight", Tags.of("provider", name),
+                    this, s -> maxConcurrent - s.bulkhead.availablePermits());
+        }
+
+        /**
+         * Take a bulkhead permit and pass the circuit breaker, or take nothing
+         */
+        boolean tryAcquire() {
+            if (!bulkhead.tryAcquire()) {
+                bulkheadRejected.increment();
+                return false;
+            }
+            if (!allowRequest()) {
+                bulkhead.release();
+                circuitRejected.increment();
+                return false;
+            }
+            return true;
+        }
+
+        private synchronized boolean allowRequest() {
+            if (circuit == CircuitState.OPEN) {
+                if (System.currentTimeMillis() < openUntilMillis) {
+                    return false;
+                }
+                circuit = CircuitState.HALF_OPEN;
+                trialInFlight = false;
+            }
+            if (circuit == CircuitState.HALF_OPEN) {
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+            }
+            return true;
+        }
+
+        synchronized void onSuccess(long latencyMs) {
+            successTimer.record(latencyMs, TimeUnit.MILLISECONDS);
+            latencies[latencyIndex] = latencyMs;
+            latencyIndex = (latencyIndex + 1) % LATENCY_WINDOW;
+            latencyCount = Math.min(latencyCount + 1, LATENCY_WINDOW);
+
+            if (circuit != CircuitState.CLOSED) {
+                log.info("AI provider {} recovered, closing circuit", name);
+            }
+            circuit = CircuitState.CLOSED;
+            consecutiveFailures = 0;
+            trialInFlight = false;
+        }
+
+        synchronized void onFailure(boolean quotaError, long latencyMs) {
+            failureTimer.record(latencyMs, TimeUnit.MILLISECONDS);
+            consecutiveFailures++;
+            trialInFlight = false;
+            if (circuit == CircuitState.HALF_OPEN || quotaError || consecutiveFailures >= failureThreshold) {
+                if (circuit != CircuitState.OPEN) {
+                    log.warn("AI provider {} circuit opened for {} ms ({} consecutive failures{})",
+                            name, openDurationMs, consecutiveFailures, quotaError ? ", quota exceeded" : "");
+                }
+                circuit = CircuitState.OPEN;
+                openUntilMillis = System.currentTimeMillis() + openDurationMs;
+            }
+        }
+
+        /**
+         * Call ended without a verdict (cancelled hedge, rejected submit)
+         */
+        synchronized void onAbandoned() {
+            trialInFlight = false;
+        }
+
+        synchronized CircuitState currentState() {
+            if (circuit == CircuitState.OPEN && System.currentTimeMillis() >= openUntilMillis) {
+                return CircuitState.HALF_OPEN;
+            }
+            return circuit;
+        }
+
+        /**
+         * p95 of the last successful calls, or -1 while there are too few samples
+         */
+        synchronized long p95LatencyMs() {
+            if (latencyCount < MIN_LATENCY_SAMPLES) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(0.95 * latencyCount) - 1];
+        }
+
+        synchronized AiProviderHealthResponse toResponse() {
+            CircuitState state = currentState();
+            return AiProviderHealthResponse.builder()
+                    .provider(name)
+                    .circuitState(state.name())
+                    .consecutiveFailures(consecutiveFailures)
+                    .openUntil(state == CircuitState.OPEN ? Instant.ofEpochMilli(openUntilMillis) : null)
+                    .inFlight(maxConcurrent - bulkhead.availablePermits())
+                    .maxConcurrent(maxConcurrent)
+                    .latencySamples(latencyCount)
+                    .p95LatencyMs(p95LatencyMs())
+                    .successCount(successTimer.count())
+                    .failureCount(failureTimer.count())
+                    .hedgedCount((long) hedged.count())
+                    .build();
+        }
+    }
+}
@@ -8,11 +8,14 @@ import com.exe.skillverse_backend.ai_service.dto.response.RoadmapSessionSummary;
 import com.exe.skillverse_backend.ai_service.dto.response.ValidationResult;
 import com.exe.skillverse_backend.ai_service.entity.RoadmapSession;
 import com.exe.skillverse_backend.ai_service.entity.UserRoadmapProgress;
+import com.exe.skillverse_backend.ai_service.enums.RoadmapJobStatus;
 import com.exe.skillverse_backend.ai_service.repository.RoadmapSessionRepository;
+import com.exe.skillverse_backend.ai_service.repository.RoadmapSessionSummaryView;
 import com.exe.skillverse_backend.ai_service.repository.UserRoadmapProgressRepository;
 import com.exe.skillverse_backend.auth_service.entity.User;
 import com.exe.skillverse_backend.premium_service.entity.FeatureType;
 import com.exe.skillverse_backend.premium_service.service.UsageLimitService;
+import com.exe.skillverse_backend.shared.dto.PageResponse;
 import com.exe.skillverse_backend.shared.exception.ApiException;
 import com.exe.skillverse_backend.shared.exception.ErrorCode;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -21,14 +24,17 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.model.ChatModel;
-import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -49,6 +55,7 @@ public class AiRoadmapService {
     private final ExpertPromptService expertPromptService;
     private final TaxonomyService taxonomyService;
     private final com.exe.skillverse_backend.premium_service.service.PremiumService premiumService;
+    private final AiProviderRouter aiProviderRouter;
 
     public AiRoadmapService(
             @Qualifier("geminiChatModel") ChatModel geminiChatModel,
@@ -60,7 +67,8 @@ public class AiRoadmapService {
             UsageLimitService usageLimitService,
             ExpertPromptService expertPromptService,
             TaxonomyService taxonomyService,
-            com.exe.skillverse_backend.premium_service.service.PremiumService premiumService) {
+            com.exe.skillverse_backend.premium_service.service.PremiumService premiumService,
+            AiProviderRouter aiProviderRouter) {
         this.geminiChatModel = geminiChatModel;
         this.geminiFallback1ChatModel = geminiFallback1ChatModel;
         this.roadmapSessionRepository = roadmapSessionRepository;
@@ -71,6 +79,7 @@ public class AiRoadmapService {
         this.expertPromptService = expertPromptService;
         this.taxonomyService = taxonomyService;
         this.premiumService = premiumService;
+        this.aiProviderRouter = aiProviderRouter;
     }
 
     /**
@@ -113,6 +122,17 @@ public class AiRoadmapService {
      */
     @Transactional
     public RoadmapResponse generateRoadmap(GenerateRoadmapRequest request, User user) {
+        return generateRoadmap(request, user, stage -> {
+        });
+    }
+
+    /**
+     * Same as {@link #generateRoadmap(GenerateRoadmapRequest, User)}, reporting each stage
+     * to the listener before it starts (used by RoadmapJobService)
+     */
+    @Transactional
+    public RoadmapResponse generateRoadmap(GenerateRoadmapRequest request, User user,
+            Consumer<RoadmapJobStatus> progress) {
         String logGoal = request.getTarget() != null && !request.getTarget().isBlank() ? request.getTarget() : request.getGoal();
         log.info("🚀 Generating roadmap V2 for user {} with goal/target: {}", user.getId(), logGoal);
 
@@ -131,6 +151,7 @@ public class AiRoadmapService {
             }
 
             // Step 1: AI Goal Validation (CRITICAL - blocks invalid/malicious goals)
+            progress.accept(RoadmapJobStatus.VALIDATING);
             ValidationResult aiValidation = validateGoalWithAI(request.getGoal());
 
             if (aiValidation.isError()) {
@@ -153,10 +174,12 @@ public class AiRoadmapService {
             inputValidationService.validateTextOrThrow(request.getStyle());
 
             // Step 3: Call Gemini API with comprehensive prompt
+            progress.accept(RoadmapJobStatus.GENERATING);
             String roadmapJson = callGeminiAPI(request);
             String storedJson = sanitizeJson(roadmapJson);
 
             // Step 4: Parse and validate JSON (Schema V2)
+            progress.accept(RoadmapJobStatus.PARSING);
             ParsedRoadmap parsed = validateAndParseRoadmapV2(roadmapJson);
 
             // Inject mode-specific metadata from request for clarity
@@ -230,6 +253,7 @@ public class AiRoadmapService {
                     : calculateTotalHours(parsed.nodes());
 
             // Step 7: Save to database with V2 schema
+            progress.accept(RoadmapJobStatus.PERSISTING);
             RoadmapSession session = RoadmapSession.builder()
                     .user(user)
                     .schemaVersion(2)
@@ -248,6 +272,9 @@ public class AiRoadmapService {
                     .totalNodes(totalNodes)
                     .totalEstimatedHours(totalHours)
                     .difficultyLevel(parsed.metadata().getDifficultyLevel())
+                    // List counters
+                    .questCount(parsed.nodes().size())
+                    .completedQuestCount(0)
                     // Premium tracking
                     .isPremiumGenerated(false) // TODO: Check user premium status
                     // Full JSON
@@ -414,73 +441,43 @@ public class AiRoadmapService {
 
     /**
      * Call Gemini API using Spring AI ChatClient with fallback model
-     * Tries primary model first (2.5 Flash), then fallback to 2.0 Flash if quota
-     * exceeded
+     * Routed through AiProviderRouter: primary (2.5 Flash), then fallback (2.0 Flash);
+     * in agent mode the same two models are tried once more with the normal-agent prompt.
+     * Open circuits are skipped and slow calls are hedged with the next entry.
      * Note: Gemini 1.5 has been deprecated
      */
     private String callGeminiAPI(GenerateRoadmapRequest request) {
         String prompt = buildPrompt(request);
-        Exception lastException = null;
-
-        // Try primary model first (gemini-2.5-flash)
-        try {
-            log.info("🎯 Calling Gemini API (primary: 2.5 Flash) via Spring AI ChatClient");
-            return callGeminiWithModel(geminiChatModel, prompt, "Primary (2.5 Flash)");
-        } catch (Exception e) {
-            lastException = e;
-            String errorMsg = e.getMessage() != null ? e.getMessage().toLowerCase() : "";
-
-            // Check if it's a quota/rate limit error (429)
-            if (errorMsg.contains("429") || errorMsg.contains("quota") ||
-                    errorMsg.contains("resource_exhausted") || errorMsg.contains("rate limit")) {
 
-                log.warn("⚠️ Primary model quota exceeded, trying fallback (2.0 Flash)...");
+        List<AiProviderRouter.ProviderCall> calls = new ArrayList<>();
+        calls.add(new AiProviderRouter.ProviderCall(AiProviderRouter.GEMINI,
+                () -> callGeminiWithModel(geminiChatModel, prompt, "Primary (2.5 Flash)")));
+        calls.add(new AiProviderRouter.ProviderCall(AiProviderRouter.GEMINI_FALLBACK,
+                () -> callGeminiWithModel(geminiFallback1ChatModel, prompt, "Fallback (2.0 Flash)")));
 
-                // Try fallback (gemini-2.0-flash-exp)
-                try {
-                    return callGeminiWithModel(geminiFallback1ChatModel, prompt, "Fallback (2.0 Flash)");
-                } catch (Exception fallbackEx) {
-                    lastException = fallbackEx;
-                    log.error("❌ Fallback model also failed: {}", fallbackEx.getMessage());
-                }
-            } else {
-                log.error("❌ Primary model failed with non-quota error: {}", e.getMessage());
-            }
-
-            // Agent-mode fallback: retry without agent suffix using primary, then fallback
-            String savedAgent = request.getAiAgentMode();
+        // Agent-mode fallback: retry without agent suffix using primary, then fallback
+        String savedAgent = request.getAiAgentMode();
+        if (savedAgent != null && !savedAgent.isBlank()) {
+            String normalPrompt;
             try {
-                if (savedAgent != null && !savedAgent.isBlank()) {
-                    request.setAiAgentMode(null);
-                    String normalPrompt = buildPrompt(request);
-                    log.warn("🔁 Retrying with NORMAL agent mode prompt");
-                    try {
-                        return callGeminiWithModel(geminiChatModel, normalPrompt, "Primary (Normal Agent)");
-                    } catch (Exception ePrimaryNormal) {
-                        String err2 = ePrimaryNormal.getMessage() != null ? ePrimaryNormal.getMessage().toLowerCase() : "";
-                        if (err2.contains("429") || err2.contains("quota") ||
-                                err2.contains("resource_exhausted") || err2.contains("rate limit")) {
-                            try {
-                                return callGeminiWithModel(geminiFallback1ChatModel, normalPrompt, "Fallback (Normal Agent)");
-                            } catch (Exception eFallbackNormal) {
-                                lastException = eFallbackNormal;
-                                log.error("❌ Normal agent fallback also failed: {}", eFallbackNormal.getMessage());
-                            }
-                        } else {
-                            lastException = ePrimaryNormal;
-                            log.error("❌ Primary (Normal Agent) failed: {}", ePrimaryNormal.getMessage());
-                        }
-                    }
-                }
+                request.setAiAgentMode(null);
+                normalPrompt = buildPrompt(request);
             } finally {
                 // Restore original agent mode
                 request.setAiAgentMode(savedAgent);
             }
+            calls.add(new AiProviderRouter.ProviderCall(AiProviderRouter.GEMINI,
+                    () -> callGeminiWithModel(geminiChatModel, normalPrompt, "Primary (Normal Agent)")));
+            calls.add(new AiProviderRouter.ProviderCall(AiProviderRouter.GEMINI_FALLBACK,
+                    () -> callGeminiWithModel(geminiFallback1ChatModel, normalPrompt, "Fallback (Normal Agent)")));
+        }
 
-            // Both attempts failed
-            log.error("❌ All Gemini API attempts failed: {}", lastException.getMessage());
+        try {
+            return aiProviderRouter.call("roadmap", calls);
+        } catch (ApiException e) {
+            log.error("❌ All Gemini API attempts failed: {}", e.getMessage());
             throw new ApiException(ErrorCode.SERVICE_UNAVAILABLE,
-                    "AI service unavailable. Both models exhausted. Error: " + lastException.getMessage());
+                    "AI service unavailable. Both models exhausted. Error: " + e.getMessage());
         }
     }
 
@@ -1399,129 +1396,80 @@ public class AiRoadmapService {
      * Generate a readable title from goal and duration
      */
     /**
-     * Get all roadmap sessions (Admin)
+     * Get all roadmap sessions (Admin), one page at a time
      */
     @Transactional(readOnly = true)
-    public List<RoadmapSessionSummary> getAllRoadmaps() {
-        List<RoadmapSession> sessions = roadmapSessionRepository.findAllByOrderByCreatedAtDesc();
-        List<RoadmapSessionSummary> summaries = new ArrayList<>();
-
-        for (RoadmapSession session : sessions) {
-            // Parse roadmap JSON to count total quests
-            int totalQuests = 0;
-            try {
-                // Support both V1 and V2 schema
-                JsonNode root = objectMapper.readTree(session.getRoadmapJson());
-                JsonNode roadmapArray = root.path("roadmap");
-                totalQuests = roadmapArray.size();
-
-                // Fallback: if roadmap is empty, try using totalNodes from DB (V2 only)
-                if (totalQuests == 0 && session.getTotalNodes() != null) {
-                    totalQuests = session.getTotalNodes();
-                }
-            } catch (JsonProcessingException e) {
-                log.warn("Failed to parse roadmap JSON for session {}", session.getId());
-                // Fallback to DB field
-                if (session.getTotalNodes() != null) {
-                    totalQuests = session.getTotalNodes();
-                }
-            }
-
-            // Count completed quests
-            Long completedCount = progressRepository.countCompletedBySessionId(session.getId());
-            int completed = completedCount != null ? completedCount.intValue() : 0;
-
-            // Calculate progress percentage
-            int progressPercentage = totalQuests > 0 ? (completed * 100) / totalQuests : 0;
-
-            // Build summary with V2 fields (fallback to V1 for old data)
-            @SuppressWarnings("deprecation") // Intentional V1 fallback for backward compatibility
-            RoadmapSessionSummary summary = RoadmapSessionSummary.builder()
-                    .sessionId(session.getId())
-                    .title(session.getTitle())
-                    .roadmapMode(session.getRoadmapMode())
-                    // Use V2 fields with fallback to deprecated V1 fields
-                    .originalGoal(session.getOriginalGoal() != null ? session.getOriginalGoal() : session.getGoal())
-                    .validatedGoal(session.getValidatedGoal())
-                    .duration(session.getDuration())
-                    .experienceLevel(session.getExperienceLevel() != null ? session.getExperienceLevel()
-                            : session.getExperience())
-                    .learningStyle(session.getLearningStyle() != null ? session.getLearningStyle() : session.getStyle())
-                    .totalQuests(totalQuests)
-                    .completedQuests(completed)
-                    .progressPercentage(progressPercentage)
-                    .difficultyLevel(session.getDifficultyLevel())
-                    .schemaVersion(session.getSchemaVersion())
-                    .createdAt(session.getCreatedAt())
-                    .build();
-
-            summaries.add(summary);
-        }
-
-        return summaries;
+    public PageResponse<RoadmapSessionSummary> getAllRoadmaps(int page, int size) {
+        Page<RoadmapSessionSummaryView> views = roadmapSessionRepository.findAllSummaries(PageRequest.of(page, size));
+        return PageResponse.<RoadmapSessionSummary>builder()
+                .items(views.getContent().stream().map(this::toSessionSummary).toList())
+                .page(page)
+                .size(size)
+                .total(views.getTotalElements())
+                .build();
     }
 
     /**
-     * Get all roadmap sessions for a user
+     * Get roadmap sessions for a user, newest first (pageable may be unpaged)
      */
     @Transactional(readOnly = true)
-    public List<RoadmapSessionSummary> getUserRoadmaps(Long userId) {
-        List<RoadmapSession> sessions = roadmapSessionRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        List<RoadmapSessionSummary> summaries = new ArrayList<>();
-
-        for (RoadmapSession session : sessions) {
-            // Parse roadmap JSON to count total quests
-            int totalQuests = 0;
-            try {
-                // Support both V1 and V2 schema
-                JsonNode root = objectMapper.readTree(session.getRoadmapJson());
-                JsonNode roadmapArray = root.path("roadmap");
-                totalQuests = roadmapArray.size();
-
-                // Fallback: if roadmap is empty, try using totalNodes from DB (V2 only)
-                if (totalQuests == 0 && session.getTotalNodes() != null) {
-                    totalQuests = session.getTotalNodes();
-                }
-            } catch (JsonProcessingException e) {
-                log.warn("Failed to parse roadmap JSON for session {}", session.getId());
-                // Fallback to DB field
-                if (session.getTotalNodes() != null) {
-                    totalQuests = session.getTotalNodes();
-                }
-            }
-
-            // Count completed quests
-            Long completedCount = progressRepository.countCompletedBySessionId(session.getId());
-            int completed = completedCount != null ? completedCount.intValue() : 0;
-
-            // Calculate progress percentage
-            int progressPercentage = totalQuests > 0 ? (completed * 100) / totalQuests : 0;
+    public List<RoadmapSessionSummary> getUserRoadmaps(Long userId, Pageable pageable) {
+        return roadmapSessionRepository.findSummariesByUserId(userId, pageable).getContent().stream()
+                .map(this::toSessionSummary)
+                .toList();
+    }
 
-            // Build summary with V2 fields (fallback to V1 for old data)
-            @SuppressWarnings("deprecation") // Intentional V1 fallback for backward compatibility
-            RoadmapSessionSummary summary = RoadmapSessionSummary.builder()
-                    .sessionId(session.getId())
-                    .title(session.getTitle())
-                    .roadmapMode(session.getRoadmapMode())
-                    // Use V2 fields with fallback to deprecated V1 fields
-                    .originalGoal(session.getOriginalGoal() != null ? session.getOriginalGoal() : session.getGoal())
-                    .validatedGoal(session.getValidatedGoal())
-                    .duration(session.getDuration())
-                    .experienceLevel(session.getExperienceLevel() != null ? session.getExperienceLevel()
-                            : session.getExperience())
-                    .learningStyle(session.getLearningStyle() != null ? session.getLearningStyle() : session.getStyle())
-                    .totalQuests(totalQuests)
-                    .completedQuests(completed)
-                    .progressPercentage(progressPercentage)
-                    .difficultyLevel(session.getDifficultyLevel())
-                    .schemaVersion(session.getSchemaVersion())
-                    .createdAt(session.getCreatedAt())
-                    .build();
+    private RoadmapSessionSummary toSessionSummary(RoadmapSessionSummaryView view) {
+        int totalQuests = view.getQuestCount() != null ? view.getQuestCount() : 0;
+        int completed = view.getCompletedQuestCount() != null ? view.getCompletedQuestCount() : 0;
+        int progressPercentage = totalQuests > 0 ? (completed * 100) / totalQuests : 0;
+
+        return RoadmapSessionSummary.builder()
+                .sessionId(view.getSessionId())
+                .title(view.getTitle())
+                .roadmapMode(view.getRoadmapMode())
+                .originalGoal(view.getOriginalGoal())
+                .validatedGoal(view.getValidatedGoal())
+                .duration(view.getDuration())
+                .experienceLevel(view.getExperienceLevel())
+                .learningStyle(view.getLearningStyle())
+                .totalQuests(totalQuests)
+                .completedQuests(completed)
+                .progressPercentage(progressPercentage)
+                .difficultyLevel(view.getDifficultyLevel())
+                .schemaVersion(view.getSchemaVersion())
+                .createdAt(view.getCreatedAt())
+                .build();
+    }
 
-            summaries.add(summary);
+    /**
+     * Fill quest_count / completed_quest_count for sessions created before those columns existed.
+     * Returns the number of sessions processed; 0 means nothing is left.
+     */
+    @Transactional
+    public int backfillQuestCounts(int batchSize) {
+        List<Long> ids = roadmapSessionRepository.findIdsMissingQuestCounts(PageRequest.of(0, batchSize));
+        for (RoadmapSession session : roadmapSessionRepository.findAllById(ids)) {
+            Long completed = progressRepository.countCompletedBySessionId(session.getId());
+            roadmapSessionRepository.updateQuestCounts(session.getId(), countQuests(session),
+                    completed != null ? completed.intValue() : 0);
         }
+        return ids.size();
+    }
 
-        return summaries;
+    /**
+     * Quest count of a stored roadmap: size of the "roadmap" array (V1 and V2),
+     * falling back to totalNodes when the array is empty or the JSON is unreadable
+     */
+    private int countQuests(RoadmapSession session) {
+        int fallback = session.getTotalNodes() != null ? session.getTotalNodes() : 0;
+        try {
+            int size = objectMapper.readTree(session.getRoadmapJson()).path("roadmap").size();
+            return size > 0 ? size : fallback;
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to parse roadmap JSON for session {}", session.getId());
+            return fallback;
+        }
     }
 
     /**
@@ -1667,6 +1615,7 @@ public class AiRoadmapService {
                         .questId(request.getQuestId())
                         .status(UserRoadmapProgress.ProgressStatus.NOT_STARTED)
                         .build());
+        boolean wasCompleted = progress.getStatus() == UserRoadmapProgress.ProgressStatus.COMPLETED;
 
         // Update completion status
         if (request.getCompleted()) {
@@ -1681,35 +1630,27 @@ public class AiRoadmapService {
 
         progressRepository.save(progress);
 
-        // Calculate progress statistics (support V1 and V2)
-        int totalQuests = 0;
-        try {
-            Integer schemaVersion = session.getSchemaVersion() != null ? session.getSchemaVersion() : 1;
-
-            if (schemaVersion >= 2) {
-                // V2: Parse or use cached totalNodes from DB
-                if (session.getTotalNodes() != null) {
-                    totalQuests = session.getTotalNodes();
-                } else {
-                    ParsedRoadmap parsed = validateAndParseRoadmapV2(session.getRoadmapJson());
-                    totalQuests = parsed.nodes().size();
-                }
-            } else {
-                // V1: Parse nodes
-                List<RoadmapResponse.RoadmapNode> nodes = parseNodesFromV1Json(session.getRoadmapJson());
-                totalQuests = nodes.size();
+        // Keep the session's denormalized counters in step (bulk updates, the session entity stays untouched)
+        int totalQuests;
+        Integer completedQuests;
+        if (session.getQuestCount() == null || session.getCompletedQuestCount() == null) {
+            // Legacy row not backfilled yet: compute both counters once
+            totalQuests = countQuests(session);
+            Long completed = progressRepository.countCompletedBySessionId(sessionId);
+            completedQuests = completed != null ? completed.intValue() : 0;
+            roadmapSessionRepository.updateQuestCounts(sessionId, totalQuests, completedQuests);
+        } else {
+            totalQuests = session.getQuestCount();
+            int delta = (request.getCompleted() ? 1 : 0) - (wasCompleted ? 1 : 0);
+            if (delta != 0) {
+                roadmapSessionRepository.incrementCompletedQuestCount(sessionId, delta);
+            }
+            completedQuests = roadmapSessionRepository.findCompletedQuestCount(sessionId);
+            if (completedQuests == null) {
+                completedQuests = 0;
             }
-        } catch (Exception e) {
-            log.warn("Failed to determine totalQuests for session {}, using progress entries count", session.getId());
-            List<UserRoadmapProgress> allProgress = progressRepository.findBySessionId(sessionId);
-            totalQuests = allProgress.size(); // Fallback: count all progress entries
         }
 
-        List<UserRoadmapProgress> allProgress = progressRepository.findBySessionId(sessionId);
-        int completedQuests = (int) allProgress.stream()
-                .filter(p -> p.getStatus() == UserRoadmapProgress.ProgressStatus.COMPLETED)
-                .count();
-
         double completionPercentage = totalQuests > 0
                 ? (completedQuests * 100.0 / totalQuests)
                 : 0.0;
@@ -1742,9 +1683,13 @@ public class AiRoadmapService {
         String validationPrompt = buildGoalValidationPrompt(goal);
 
         try {
-            // Use Spring AI ChatModel for validation
-            ChatResponse response = geminiChatModel.call(new Prompt(validationPrompt));
-            String aiResponse = response.getResult().getOutput().getContent().trim();
+            // Use Spring AI ChatModel for validation, routed so an open Gemini circuit fails fast
+            String aiResponse = aiProviderRouter.call("roadmap-goal-validation", List.of(
+                    new AiProviderRouter.ProviderCall(AiProviderRouter.GEMINI, () -> geminiChatModel
+                            .call(new Prompt(validationPrompt)).getResult().getOutput().getContent()),
+                    new AiProviderRouter.ProviderCall(AiProviderRouter.GEMINI_FALLBACK, () -> geminiFallback1ChatModel
+                            .call(new Prompt(validationPrompt)).getResult().getOutput().getContent())))
+                    .trim();
 
             log.debug("AI Validation Response: {}", aiResponse);
 
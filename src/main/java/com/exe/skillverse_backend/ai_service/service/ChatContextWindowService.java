@@ -0,0 +1,213 @@
+package com.exe.skillverse_backend.ai_service.service;
+
+import com.exe.skillverse_backend.ai_service.dto.ChatContextWindow;
+import com.exe.skillverse_backend.ai_service.entity.ChatMessage;
+import com.exe.skillverse_backend.ai_service.entity.ChatSession;
+import com.exe.skillverse_backend.ai_service.repository.ChatMessageRepository;
+import com.exe.skillverse_backend.ai_service.repository.ChatSessionRepository;
+import com.exe.skillverse_backend.ai_service.util.TokenEstimator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Builds the bounded conversation context for a chatbot turn
+ * - Only the tail of the session is read (fetch-limit messages, newest first)
+ * - Recent turns are kept while they fit the token budget
+ * - Turns that fall out of the window are folded into ChatSession.rollingSummary, including
+ *   unsummarized turns older than the tail (read in pages, oldest first)
+ *
+ * The summary is extractive (truncated question + first lines of the answer) so
+ * folding never costs an extra model call.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ChatContextWindowService {
+
+    private static final int SUMMARY_QUESTION_CHARS = 200;
+    private static final int SUMMARY_ANSWER_CHARS = 300;
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final ChatSessionRepository chatSessionRepository;
+
+    @Value("${ai.chat.context.max-tokens:6000}")
+    private int maxContextTokens;
+
+    @Value("${ai.chat.context.fetch-limit:20}")
+    private int fetchLimit;
+
+    @Value("${ai.chat.context.summary-max-chars:3000}")
+    private int summaryMaxChars;
+
+    /**
+     * Load the context window for a session, folding dropped turns into the summary
+     */
+    @Transactional
+    public ChatContextWindow buildContext(Long sessionId, Long userId) {
+        // Newest first
+        List<ChatMessage> tail = chatMessageRepository.findRecentBySessionId(
+                sessionId, PageRequest.of(0, fetchLimit));
+        if (tail.isEmpty()) {
+            return ChatContextWindow.builder().build();
+        }
+
+        ChatSession session = chatSessionRepository.findById(sessionId).orElse(null);
+        String summary = session != null ? session.getRollingSummary() : null;
+        Long summarizedUntil = session != null ? session.getSummarizedUntilMessageId() : null;
+        Long foldedUntil = summarizedUntil;
+        int folded = 0;
+
+        // A full tail may hide older turns that were never folded (e.g. several turns added between two builds)
+        if (tail.size() == fetchLimit) {
+            Long oldestInTail = tail.get(tail.size() - 1).getId();
+            List<ChatMessage> older;
+            do {
+                older = chatMessageRepository.findBySessionIdBetween(sessionId,
+                        foldedUntil != null ? foldedUntil : 0L, oldestInTail, PageRequest.of(0, fetchLimit));
+                if (!older.isEmpty()) {
+                    summary = foldIntoSummary(summary, older);
+                    foldedUntil = older.get(older.size() - 1).getId();
+                    folded += older.size();
+                }
+            } while (older.size() == fetchLimit);
+        }
+
+        int budget = maxContextTokens - TokenEstimator.estimate(summary);
+        List<ChatMessage> window = new ArrayList<>();
+        int used = 0;
+        int index = 0;
+        for (; index < tail.size(); index++) {
+            ChatMessage message = tail.get(index);
+            if (summarizedUntil != null && message.getId() <= summarizedUntil) {
+                break;
+            }
+            int cost = estimateTurn(message);
+            // Always keep the latest turn, even if it alone exceeds the budget
+            if (!window.isEmpty() && used + cost > budget) {
+                break;
+            }
+            window.add(message);
+            used += cost;
+        }
+
+        // Turns that dropped out of the window and are not in the summary yet (oldest first)
+        List<ChatMessage> toFold = new ArrayList<>();
+        for (int i = tail.size() - 1; i >= index; i--) {
+            ChatMessage message = tail.get(i);
+            if (summarizedUntil == null || message.getId() > summarizedUntil) {
+                toFold.add(message);
+            }
+        }
+
+        if (!toFold.isEmpty()) {
+            summary = foldIntoSummary(summary, toFold);
+            foldedUntil = toFold.get(toFold.size() - 1).getId();
+            folded += toFold.size();
+        }
+
+        if (folded > 0) {
+            if (session == null) {
+                session = ChatSession.builder()
+                        .sessionId(sessionId)
+                        .userId(userId)
+                        .build();
+            }
+            session.setRollingSummary(summary);
+            session.setSummarizedUntilMessageId(foldedUntil);
+            chatSessionRepository.save(session);
+            log.debug("Folded {} turns of session {} into rolling summary ({} chars)",
+                    folded, sessionId, summary.length());
+        }
+
+        Collections.reverse(window);
+        return ChatContextWindow.builder()
+                .recentMessages(window)
+                .summary(summary)
+                .estimatedTokens(used + TokenEstimator.estimate(summary))
+                .build();
+    }
+
+    /**
+     * Move the session's last message time to a newly saved message (creates the session row on its first message)
+     */
+    @Transactional
+    public void recordMessage(ChatMessage message) {
+        if (chatSessionRepository.recordMessage(message.getSessionId(), message.getCreatedAt()) > 0) {
+            return;
+        }
+        try {
+            chatSessionRepository.saveAndFlush(ChatSession.builder()
+                    .sessionId(message.getSessionId())
+                    .userId(message.getUser().getId())
+                    .lastMessageAt(message.getCreatedAt())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // Another turn of the same new session created the row first
+            chatSessionRepository.recordMessage(message.getSessionId(), message.getCreatedAt());
+        }
+    }
+
+    /**
+     * Remove summary state together with the session's messages
+     */
+    @Transactional
+    public void deleteSessionContext(Long sessionId) {
+        chatSessionRepository.deleteById(sessionId);
+    }
+
+    private int estimateTurn(ChatMessage message) {
+        return TokenEstimator.estimate(message.getUserMessage())
+                + TokenEstimator.estimate(message.getAiResponse());
+    }
+
+    private String foldIntoSummary(String summary, List<ChatMessage> turns) {
+        StringBuilder builder = new StringBuilder(summary != null ? summary : "");
+        for (ChatMessage turn : turns) {
+            if (builder.length() > 0) {
+                builder.append('\n');
+            }
+            builder.append("- User: ").append(condense(turn.getUserMessage(), SUMMARY_QUESTION_CHARS))
+                    .append(" | Assistant: ").append(condense(turn.getAiResponse(), SUMMARY_ANSWER_CHARS));
+        }
+
+        // Keep the newest lines when the summary grows past its cap
+        String result = builder.toString();
+        while (result.length() > summaryMaxChars) {
+            int firstBreak = result.indexOf('\n');
+            if (firstBreak < 0) {
+                result = result.substring(result.length() - summaryMaxChars);
+                break;
+            }
+            result = result.substring(firstBreak + 1);
+        }
+        return result;
+    }
+
+    /**
+     * Strip reasoning/suggestion blocks and markdown noise, then truncate
+     */
+    private String condense(String text, int maxChars) {
+        if (text == null) {
+            return "";
+        }
+        String cleaned = text
+                .replaceAll("(?s)<thinking>.*?</thinking>", "")
+                .replaceAll("(?s)<suggestions>.*?</suggestions>", "")
+                .replaceAll("[#*`>|]", "")
+                .replaceAll("\\s+", " ")
+                .trim();
+        if (cleaned.length() > maxChars) {
+            return cleaned.substring(0, maxChars - 3) + "...";
+        }
+        return cleaned;
+    }
+}
@@ -0,0 +1,134 @@
+package com.exe.skillverse_backend.ai_service.service;
+
+import com.exe.skillverse_backend.ai_service.entity.ExpertPromptConfig;
+import com.exe.skillverse_backend.ai_service.repository.ExpertPromptConfigRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory snapshot of the active expert prompt configs
+ * - Built once the application is ready (after ExpertPromptInitializer has seeded the table)
+ * - Rebuilt and swapped atomically after admin changes, and periodically for other instances
+ * - Lookups never touch the database
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ExpertPromptRegistry {
+
+    /**
+     * Final prompt and media of one active config, with its normalized lookup fields
+     */
+    public record Entry(String domain, String industry, String jobRole, String systemPrompt, String mediaUrl) {
+    }
+
+    private record Snapshot(Map<String, Entry> byKey, List<Entry> entries) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), List.of());
+    }
+
+    private final ExpertPromptConfigRepository expertPromptConfigRepository;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${ai.expert-prompts.refresh-interval-ms:300000}",
+            initialDelayString = "${ai.expert-prompts.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        reload();
+    }
+
+    /**
+     * Rebuild the snapshot from the database. On failure the previous snapshot stays in place.
+     */
+    public void reload() {
+        try {
+            List<ExpertPromptConfig> configs = new ArrayList<>(expertPromptConfigRepository.findAll());
+            configs.sort(Comparator.comparing(ExpertPromptConfig::getId));
+
+            Map<String, Entry> byKey = new LinkedHashMap<>();
+            for (ExpertPromptConfig config : configs) {
+                if (!config.isActive()) {
+                    continue;
+                }
+                Entry entry = new Entry(
+                        normalize(config.getDomain()),
+                        normalize(config.getIndustry()),
+                        normalize(config.getJobRole()),
+                        config.getSystemPrompt(),
+                        config.getMediaUrl());
+                // Oldest config wins when two rows normalize to the same key
+                byKey.putIfAbsent(key(entry.domain(), entry.industry(), entry.jobRole()), entry);
+            }
+
+            snapshot.set(new Snapshot(Map.copyOf(byKey), List.copyOf(byKey.values())));
+            log.info("Expert prompt registry loaded {} active configs", byKey.size());
+        } catch (Exception e) {
+            log.error("Failed to reload expert prompt registry, keeping previous snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Exact match on normalized domain/industry/role, then the same loose match the
+     * old LIKE query did (blank domain/industry match anything, role is a substring)
+     */
+    public Optional<Entry> find(String domain, String industry, String jobRole) {
+        String role = normalize(jobRole);
+        if (role.isEmpty()) {
+            return Optional.empty();
+        }
+        String normalizedDomain = normalize(domain);
+        String normalizedIndustry = normalize(industry);
+
+        Snapshot current = snapshot.get();
+        Entry exact = current.byKey().get(key(normalizedDomain, normalizedIndustry, role));
+        if (exact != null) {
+            return Optional.of(exact);
+        }
+
+        for (Entry entry : current.entries()) {
+            if ((normalizedDomain.isEmpty() || entry.domain().contains(normalizedDomain))
+                    && (normalizedIndustry.isEmpty() || entry.industry().contains(normalizedIndustry))
+                    && entry.jobRole().contains(role)) {
+                return Optional.of(entry);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Media URL of the exactly matching config, or null
+     */
+    public String getMediaUrl(String domain, String industry, String jobRole) {
+        Entry entry = snapshot.get().byKey().get(key(normalize(domain), normalize(industry), normalize(jobRole)));
+        return entry != null ? entry.mediaUrl() : null;
+    }
+
+    public int size() {
+        return snapshot.get().entries().size();
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String key(String domain, String industry, String jobRole) {
+        return domain + '\u0001' + industry + '\u0001' + jobRole;
+    }
+}
@@ -1,9 +1,11 @@
 package com.exe.skillverse_backend.ai_service.service;
 
-import com.exe.skillverse_backend.ai_service.repository.ExpertPromptConfigRepository;
 import org.springframework.stereotype.Service;
 import lombok.RequiredArgsConstructor;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Service to manage specialized expert prompts for different fields and roles.
  * Refactored to delegate domain-specific logic to sub-services.
@@ -12,6 +14,11 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ExpertPromptService extends BaseExpertPromptService {
 
+    /**
+     * Upper bound on memoized fallback prompts, so arbitrary free-text roles cannot grow the map forever
+     */
+    private static final int MAX_FALLBACK_PROMPTS = 1000;
+
     private final ITPromptService itPromptService;
     private final BusinessPromptService businessPromptService;
     private final DesignPromptService designPromptService;
@@ -24,41 +31,44 @@ public class ExpertPromptService extends BaseExpertPromptService {
     private final ServicePromptService servicePromptService;
     private final SocialCommunityPromptService socialCommunityPromptService;
     private final AgricultureEnvironmentPromptService agricultureEnvironmentPromptService;
-    private final ExpertPromptConfigRepository expertPromptConfigRepository;
 
-    public String getSystemPrompt(String domain, String industry, String jobRole) {
-        // Normalization
-        String normalizedRole = (jobRole == null) ? "" : jobRole.trim().toLowerCase();
-        String normalizedIndustry = (industry == null) ? "" : industry.trim().toLowerCase();
-        String normalizedDomain = (domain == null) ? "" : domain.trim().toLowerCase();
+    private final ExpertPromptRegistry expertPromptRegistry;
+
+    /**
+     * Hardcoded fallback prompts already built, keyed by the raw domain/industry/role
+     */
+    private final Map<String, String> fallbackPrompts = new ConcurrentHashMap<>();
 
+    public String getSystemPrompt(String domain, String industry, String jobRole) {
         // If no specific role, return null (AiChatbotService will use default)
-        if (normalizedRole.isEmpty()) {
+        if (jobRole == null || jobRole.isBlank()) {
             return null;
         }
 
-        // 1. Try finding EXACT match in DB first (Best for when frontend sends selected value)
-        var exactMatch = expertPromptConfigRepository.findByDomainAndIndustryAndJobRoleAndIsActiveTrue(
-            domain, industry, jobRole
-        );
-        
-        if (exactMatch.isPresent()) {
-            return exactMatch.get().getSystemPrompt();
+        // 1. Exact, then loose match against the in-memory snapshot of DB configs
+        var match = expertPromptRegistry.find(domain, industry, jobRole);
+        if (match.isPresent()) {
+            return match.get().systemPrompt();
         }
 
-        // 2. Try fuzzy matching if exact match fails (For loose search)
-        String domainPattern = (domain == null || domain.isBlank()) ? null : "%" + domain + "%";
-        String industryPattern = (industry == null || industry.isBlank()) ? null : "%" + industry + "%";
-        String rolePattern = "%" + normalizedRole + "%";
-        var matchingPrompts = expertPromptConfigRepository.findMatchingPrompts(domainPattern, industryPattern, rolePattern);
-        
-        if (!matchingPrompts.isEmpty()) {
-            // Return the first match
-            return matchingPrompts.get(0).getSystemPrompt();
+        // 2. Fallback to hardcoded logic via sub-services (built once per distinct input)
+        String fallbackKey = domain + '\u0001' + industry + '\u0001' + jobRole;
+        String cached = fallbackPrompts.get(fallbackKey);
+        if (cached != null) {
+            return cached;
+        }
+        String prompt = buildFallbackPrompt(domain, industry, jobRole);
+        if (prompt != null && fallbackPrompts.size() < MAX_FALLBACK_PROMPTS) {
+            fallbackPrompts.put(fallbackKey, prompt);
         }
+        return prompt;
+    }
+
+    private String buildFallbackPrompt(String domain, String industry, String jobRole) {
+        String normalizedRole = jobRole.trim().toLowerCase();
+        String normalizedIndustry = (industry == null) ? "" : industry.trim().toLowerCase();
+        String normalizedDomain = (domain == null) ? "" : domain.trim().toLowerCase();
 
-        // 3. Fallback to hardcoded logic via sub-services
-        
         // Domain-based delegation
         if (normalizedDomain.contains("it") || normalizedDomain.contains("công nghệ thông tin") || 
             normalizedDomain.contains("technology") || normalizedDomain.contains("software")) {
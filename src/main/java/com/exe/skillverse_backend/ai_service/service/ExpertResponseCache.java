@@ -0,0 +1,210 @@
+package com.exe.skillverse_backend.ai_service.service;
+
+import com.exe.skillverse_backend.ai_service.dto.ChatContextWindow;
+import com.exe.skillverse_backend.ai_service.dto.request.ChatRequest;
+import com.exe.skillverse_backend.ai_service.enums.ChatMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Response cache for the first turn of EXPERT_MODE chats
+ * Many users open the same expert role and ask nearly the same opening question,
+ * each of which used to trigger a full model call with the multi-KB expert prompt.
+ *
+ * - Key: SHA-256 of normalized message + domain/industry/jobRole + chat mode + agent mode
+ *   + the resolved expert prompt, so an edited prompt (here or on another instance after its
+ *   registry refresh) stops matching the answers built from the old one
+ * - Bounded LRU with TTL (ai.chat.expert-cache.*)
+ * - Single-flight: concurrent misses for the same key share one upstream call
+ * - Metrics: ai.chat.expert_cache.requests{result=hit|miss|shared}, ai.chat.expert_cache.size
+ */
+@Service
+@Slf4j
+public class ExpertResponseCache {
+
+    private record Entry(String value, long expiresAtMillis) {
+    }
+
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    /**
+     * Access-ordered map, guarded by its own monitor
+     */
+    private final LinkedHashMap<String, Entry> entries;
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter shared;
+
+    public ExpertResponseCache(
+            MeterRegistry meterRegistry,
+            @Value("${ai.chat.expert-cache.enabled:true}") boolean enabled,
+            @Value("${ai.chat.expert-cache.ttl-minutes:360}") long ttlMinutes,
+            @Value("${ai.chat.expert-cache.max-entries:500}") int maxEntries) {
+        this.enabled = enabled;
+        this.ttlMillis = ttlMinutes * 60_000L;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ExpertResponseCache.this.maxEntries;
+            }
+        };
+
+        this.hits = Counter.builder("ai.chat.expert_cache.requests").tag("result", "hit")
+                .description("Expert first-turn cache lookups").register(meterRegistry);
+        this.misses = Counter.builder("ai.chat.expert_cache.requests").tag("result", "miss")
+                .description("Expert first-turn cache lookups").register(meterRegistry);
+        this.shared = Counter.builder("ai.chat.expert_cache.requests").tag("result", "shared")
+                .description("Expert first-turn cache lookups").register(meterRegistry);
+        meterRegistry.gauge("ai.chat.expert_cache.size", this, ExpertResponseCache::size);
+    }
+
+    /**
+     * Only the first turn of an expert chat is cacheable: later turns depend on the history
+     */
+    public boolean isCacheable(ChatRequest request, ChatContextWindow context) {
+        return enabled
+                && request.getChatMode() == ChatMode.EXPERT_MODE
+                && context.isFirstTurn();
+    }
+
+    public String buildKey(ChatRequest request, String systemPrompt) {
+        String material = String.join("\u0001",
+                normalize(request.getMessage()),
+                normalize(request.getDomain()),
+                normalize(request.getIndustry()),
+                normalize(request.getJobRole()),
+                String.valueOf(request.getChatMode()),
+                normalize(request.getAiAgentMode()),
+                systemPrompt != null ? systemPrompt : "");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(material.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Cached value or null; counts a hit or a miss
+     */
+    public String get(String key) {
+        String value = lookup(key);
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    public void put(String key, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry(value, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    /**
+     * Return the cached value, or run the loader once for all concurrent callers of the same key.
+     * Loader exceptions are propagated to every waiting caller and nothing is cached.
+     */
+    public String getOrLoad(String key, Supplier<String> loader) {
+        String cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            shared.increment();
+            return await(existing);
+        }
+
+        try {
+            // Another leader may have finished between the lookup and putIfAbsent
+            cached = lookup(key);
+            if (cached != null) {
+                hits.increment();
+                mine.complete(cached);
+                return cached;
+            }
+
+            misses.increment();
+            String value = loader.get();
+            put(key, value);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private String lookup(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAtMillis() < System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value();
+        }
+    }
+
+    private String await(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Case, accents composition, whitespace and trailing punctuation do not change the answer
+     */
+    private String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return Normalizer.normalize(value, Normalizer.Form.NFC)
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .replaceAll("[?!.,;:…\\s]+$", "")
+                .trim();
+    }
+}
@@ -0,0 +1,269 @@
+package com.exe.skillverse_backend.ai_service.service;
+
+import com.exe.skillverse_backend.ai_service.dto.request.GenerateRoadmapRequest;
+import com.exe.skillverse_backend.ai_service.dto.response.RoadmapJobResponse;
+import com.exe.skillverse_backend.ai_service.dto.response.RoadmapResponse;
+import com.exe.skillverse_backend.ai_service.enums.RoadmapJobStatus;
+import com.exe.skillverse_backend.auth_service.entity.User;
+import com.exe.skillverse_backend.premium_service.dto.response.UsageCheckResult;
+import com.exe.skillverse_backend.premium_service.entity.FeatureType;
+import com.exe.skillverse_backend.premium_service.exception.UsageLimitExceededException;
+import com.exe.skillverse_backend.premium_service.service.UsageLimitService;
+import com.exe.skillverse_backend.shared.exception.ApiException;
+import com.exe.skillverse_backend.shared.exception.ErrorCode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs roadmap generation as background jobs
+ * - Submit returns a job id at once; the work runs on the bounded roadmapJobExecutor
+ * - Every stage change is pushed to /user/queue/roadmap-jobs and to the job's SSE subscribers
+ * - A submission identical to a job that is still running returns that job instead of a new one
+ * - Finished jobs stay pollable for ai.roadmap.jobs.retention-minutes
+ *
+ * Jobs are kept in memory, so polling must reach the instance that accepted the job;
+ * the saved RoadmapSession is available everywhere through GET /api/v1/ai/roadmap/{sessionId}.
+ */
+@Service
+@Slf4j
+public class RoadmapJobService {
+
+    private static final String USER_DESTINATION = "/queue/roadmap-jobs";
+    private static final long SSE_TIMEOUT_MS = 10 * 60 * 1000L;
+
+    private final AiRoadmapService aiRoadmapService;
+    private final UsageLimitService usageLimitService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final Duration retention;
+
+    private final Map<String, RoadmapJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Running jobs by user + request fingerprint, for collapsing duplicate submissions
+     */
+    private final Map<String, RoadmapJob> runningByKey = new ConcurrentHashMap<>();
+
+    public RoadmapJobService(
+            AiRoadmapService aiRoadmapService,
+            UsageLimitService usageLimitService,
+            SimpMessagingTemplate messagingTemplate,
+            ObjectMapper objectMapper,
+            @Qualifier("roadmapJobExecutor") ExecutorService executor,
+            @Value("${ai.roadmap.jobs.retention-minutes:30}") long retentionMinutes) {
+        this.aiRoadmapService = aiRoadmapService;
+        this.usageLimitService = usageLimitService;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+    }
+
+    /**
+     * Queue a generation job, or return the running job for the same user and request
+     */
+    public RoadmapJobResponse submit(GenerateRoadmapRequest request, User user) {
+        // Fail fast on quota; the job itself records the usage when it runs
+        UsageCheckResult usage = usageLimitService.canUseFeature(user.getId(), FeatureType.AI_ROADMAP_GENERATION);
+        if (!Boolean.TRUE.equals(usage.getAllowed())) {
+            throw UsageLimitExceededException.fromCheckResult(FeatureType.AI_ROADMAP_GENERATION, usage);
+        }
+
+        String key = user.getId() + ":" + fingerprint(request);
+        AtomicBoolean created = new AtomicBoolean(false);
+        RoadmapJob job = runningByKey.computeIfAbsent(key, k -> {
+            created.set(true);
+            return new RoadmapJob(UUID.randomUUID().toString(), user.getId(), k);
+        });
+        if (!created.get()) {
+            log.info("Roadmap job {} reused for duplicate submission by user {}", job.jobId, user.getId());
+            return toResponse(job, true);
+        }
+
+        jobs.put(job.jobId, job);
+        try {
+            executor.execute(() -> run(job, request, user));
+        } catch (RejectedExecutionException e) {
+            runningByKey.remove(key, job);
+            jobs.remove(job.jobId);
+            log.warn("Roadmap job queue full, rejecting submission by user {}", user.getId());
+            throw new ApiException(ErrorCode.SERVICE_UNAVAILABLE, "Hệ thống đang bận, vui lòng thử lại sau ít phút");
+        }
+
+        log.info("Roadmap job {} queued for user {}", job.jobId, user.getId());
+        publish(job);
+        return toResponse(job, false);
+    }
+
+    public RoadmapJobResponse getJob(String jobId, Long userId) {
+        return toResponse(findOwnedJob(jobId, userId), false);
+    }
+
+    /**
+     * SSE stream of the job's state: the current state first, then every change until it finishes
+     */
+    public SseEmitter subscribe(String jobId, Long userId) {
+        RoadmapJob job = findOwnedJob(jobId, userId);
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        emitter.onCompletion(() -> job.emitters.remove(emitter));
+        emitter.onTimeout(() -> job.emitters.remove(emitter));
+        emitter.onError(e -> job.emitters.remove(emitter));
+
+        job.emitters.add(emitter);
+        RoadmapJobResponse current = toResponse(job, false);
+        send(emitter, current);
+        if (current.getStatus().isTerminal()) {
+            job.emitters.remove(emitter);
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    /**
+     * Drop finished jobs once their retention is over
+     */
+    @Scheduled(fixedDelay = 5 * 60 * 1000L)
+    public void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.status.isTerminal() && job.updatedAt.isBefore(cutoff));
+    }
+
+    private void run(RoadmapJob job, GenerateRoadmapRequest request, User user) {
+        try {
+            RoadmapResponse response = aiRoadmapService.generateRoadmap(request, user,
+                    stage -> update(job, stage));
+            job.result = response;
+            job.sessionId = response.getSessionId();
+            update(job, RoadmapJobStatus.COMPLETED);
+            log.info("Roadmap job {} completed with session {}", job.jobId, job.sessionId);
+        } catch (ApiException | UsageLimitExceededException e) {
+            job.error = e.getMessage();
+            update(job, RoadmapJobStatus.FAILED);
+            log.warn("Roadmap job {} failed: {}", job.jobId, e.getMessage());
+        } catch (Exception e) {
+            job.error = "Không thể tạo lộ trình, vui lòng thử lại";
+            update(job, RoadmapJobStatus.FAILED);
+            log.error("Roadmap job {} failed", job.jobId, e);
+        } finally {
+            runningByKey.remove(job.dedupKey, job);
+        }
+    }
+
+    private void update(RoadmapJob job, RoadmapJobStatus status) {
+        job.status = status;
+        job.updatedAt = Instant.now();
+        publish(job);
+    }
+
+    private void publish(RoadmapJob job) {
+        RoadmapJobResponse response = toResponse(job, false);
+        try {
+            messagingTemplate.convertAndSendToUser(job.userId.toString(), USER_DESTINATION, response);
+        } catch (Exception e) {
+            log.warn("Failed to push roadmap job {} over STOMP: {}", job.jobId, e.getMessage());
+        }
+
+        for (SseEmitter emitter : job.emitters) {
+            send(emitter, response);
+            if (response.getStatus().isTerminal()) {
+                emitter.complete();
+            }
+        }
+        if (response.getStatus().isTerminal()) {
+            job.emitters.clear();
+        }
+    }
+
+    private void send(SseEmitter emitter, RoadmapJobResponse response) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(response.getStatus().name().toLowerCase())
+                    .data(response));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            emitter.completeWithError(e);
+        }
+    }
+
+    private RoadmapJob findOwnedJob(String jobId, Long userId) {
+        RoadmapJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ApiException(ErrorCode.NOT_FOUND, "Không tìm thấy tác vụ tạo lộ trình");
+        }
+        if (!job.userId.equals(userId)) {
+            throw new ApiException(ErrorCode.FORBIDDEN, "Bạn không có quyền xem tác vụ này");
+        }
+        return job;
+    }
+
+    private RoadmapJobResponse toResponse(RoadmapJob job, boolean deduplicated) {
+        RoadmapJobStatus status = job.status;
+        return RoadmapJobResponse.builder()
+                .jobId(job.jobId)
+                .status(status)
+                .sessionId(job.sessionId)
+                .result(status == RoadmapJobStatus.COMPLETED ? job.result : null)
+                .error(status == RoadmapJobStatus.FAILED ? job.error : null)
+                .deduplicated(deduplicated)
+                .createdAt(job.createdAt)
+                .updatedAt(job.updatedAt)
+                .build();
+    }
+
+    /**
+     * SHA-256 of the request as JSON: identical form submissions produce the same fingerprint
+     */
+    private String fingerprint(GenerateRoadmapRequest request) {
+        try {
+            byte[] json = objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            // Not deduplicated, but still runs
+            return UUID.randomUUID().toString();
+        }
+    }
+
+    private static final class RoadmapJob {
+        private final String jobId;
+        private final Long userId;
+        private final String dedupKey;
+        private final Instant createdAt = Instant.now();
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+        private volatile RoadmapJobStatus status = RoadmapJobStatus.QUEUED;
+        private volatile Instant updatedAt = createdAt;
+        private volatile Long sessionId;
+        private volatile RoadmapResponse result;
+        private volatile String error;
+
+        private RoadmapJob(String jobId, Long userId, String dedupKey) {
+            this.jobId = jobId;
+            this.userId = userId;
+            this.dedupKey = dedupKey;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.exe.skillverse_backend.ai_service.util;
+
+/**
+ * Incremental version of AiChatbotService.sanitizeAIResponse for streamed answers.
+ * Removes leading '####' from headings outside code fences, holding back only the
+ * few characters at the start of a line needed to decide whether it is a heading
+ * or a fence. Not thread-safe: use one instance per stream.
+ */
+public final class StreamingMarkdownSanitizer {
+
+    private static final String FENCE = "```";
+    private static final String HEADING = "####";
+
+    private enum LineMode {
+        UNDECIDED,
+        SKIP_HEADING_SPACES,
+        PASS_THROUGH
+    }
+
+    private final StringBuilder pending = new StringBuilder();
+    private LineMode mode = LineMode.UNDECIDED;
+    private boolean inCodeBlock = false;
+
+    /**
+     * Feed the next chunk from the model, returns the text that is safe to emit now
+     */
+    public String accept(String chunk) {
+        if (chunk == null || chunk.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder out = new StringBuilder(chunk.length() + pending.length());
+        for (int i = 0; i < chunk.length(); i++) {
+            char c = chunk.charAt(i);
+            if (c == '\n') {
+                if (mode == LineMode.UNDECIDED) {
+                    out.append(resolveLine());
+                }
+                out.append('\n');
+                mode = LineMode.UNDECIDED;
+                continue;
+            }
+
+            switch (mode) {
+                case UNDECIDED -> {
+                    pending.append(c);
+                    if (isDecidable()) {
+                        out.append(resolveLine());
+                    }
+                }
+                case SKIP_HEADING_SPACES -> {
+                    if (!Character.isWhitespace(c)) {
+                        mode = LineMode.PASS_THROUGH;
+                        out.append(c);
+                    }
+                }
+                case PASS_THROUGH -> out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Flush whatever is still held back once the stream has ended
+     */
+    public String finish() {
+        String rest = mode == LineMode.UNDECIDED ? resolveLine() : "";
+        mode = LineMode.UNDECIDED;
+        return rest;
+    }
+
+    private boolean isDecidable() {
+        String trimmed = stripLeading(pending);
+        if (trimmed.startsWith(FENCE) || trimmed.startsWith(HEADING)) {
+            return true;
+        }
+        return !(FENCE.startsWith(trimmed) || HEADING.startsWith(trimmed));
+    }
+
+    private String resolveLine() {
+        String line = pending.toString();
+        pending.setLength(0);
+        String trimmed = stripLeading(line);
+
+        if (trimmed.startsWith(FENCE)) {
+            inCodeBlock = !inCodeBlock;
+            mode = LineMode.PASS_THROUGH;
+            return line;
+        }
+
+        // Same rule as sanitizeAIResponse: only strip when the line itself starts with ####
+        if (!inCodeBlock && line.startsWith(HEADING)) {
+            String rest = stripLeading(line.substring(HEADING.length()));
+            mode = rest.isEmpty() ? LineMode.SKIP_HEADING_SPACES : LineMode.PASS_THROUGH;
+            return rest;
+        }
+
+        mode = LineMode.PASS_THROUGH;
+        return line;
+    }
+
+    private static String stripLeading(CharSequence text) {
+        int i = 0;
+        while (i < text.length() && text.charAt(i) <= ' ') {
+            i++;
+        }
+        return text.subSequence(i, text.length()).toString();
+    }
+}
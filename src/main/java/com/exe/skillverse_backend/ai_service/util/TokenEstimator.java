@@ -0,0 +1,24 @@
+package com.exe.skillverse_backend.ai_service.util;
+
+public final class TokenEstimator {
+    private TokenEstimator() {}
+
+    /**
+     * Rough token count for budget decisions, no tokenizer round-trip.
+     * ASCII text averages ~4 chars per token; Vietnamese diacritics and other
+     * non-ASCII characters split much more, so they are counted at ~2 chars per token.
+     */
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) return 0;
+        int ascii = 0;
+        int nonAscii = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 128) {
+                ascii++;
+            } else {
+                nonAscii++;
+            }
+        }
+        return (ascii + 3) / 4 + (nonAscii + 1) / 2;
+    }
+}
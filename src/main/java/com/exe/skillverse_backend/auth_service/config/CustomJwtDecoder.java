@@ -1,17 +1,27 @@
 package com.exe.skillverse_backend.auth_service.config;
 
-import com.exe.skillverse_backend.auth_service.repository.InvalidatedTokenRepository;
+import com.exe.skillverse_backend.auth_service.service.TokenRevocationRegistry;
+import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.time.Instant;
 import java.time.Duration;
 
@@ -20,11 +30,17 @@ import java.time.Duration;
 @Slf4j
 public class CustomJwtDecoder implements JwtDecoder {
 
-    private final InvalidatedTokenRepository invalidatedTokenRepository;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
 
     @Value("${jwt.secret}")
     private String jwtSecret;
 
+    @Value("${jwt.decode-cache.ttl-seconds:60}")
+    private long decodeCacheTtlSeconds;
+
+    @Value("${jwt.decode-cache.max-size:10000}")
+    private int decodeCacheMaxSize;
+
     @Value("${jwt.access-token-expiration:3600}")
     private long accessTokenExpiration;
 
@@ -37,6 +53,26 @@ public class CustomJwtDecoder implements JwtDecoder {
     // allow small clock skew
     private static final Duration CLOCK_SKEW = Duration.ofSeconds(60);
 
+    private record CachedJwt(Jwt jwt, Instant validUntil) {
+    }
+
+    // Built once, MACVerifier is thread-safe
+    private MACVerifier verifier;
+
+    private Duration decodeCacheTtl;
+
+    /**
+     * Decoded tokens by SHA-256 of the raw token, for at most decode-cache.ttl-seconds
+     * and never past the token's exp
+     */
+    private final Map<String, CachedJwt> decodedCache = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() throws JOSEException {
+        this.verifier = new MACVerifier(jwtSecret.getBytes());
+        this.decodeCacheTtl = Duration.ofSeconds(Math.max(0, decodeCacheTtlSeconds));
+    }
+
     // Getter methods for JWT configuration
     public String getJwtSecret() {
         return jwtSecret;
@@ -52,36 +88,52 @@ public class CustomJwtDecoder implements JwtDecoder {
 
     @Override
     public Jwt decode(String token) throws JwtException {
+        String cacheKey = cacheKey(token);
+        CachedJwt cached = decodedCache.get(cacheKey);
+        if (cached != null) {
+            if (cached.validUntil().isAfter(Instant.now())) {
+                // Revocation is re-checked on every hit, logout takes effect at once
+                if (tokenRevocationRegistry.isRevoked(cached.jwt().getId())) {
+                    decodedCache.remove(cacheKey);
+                    throw new JwtException("JWT token has been invalidated");
+                }
+                return cached.jwt();
+            }
+            decodedCache.remove(cacheKey, cached);
+        }
+
         try {
             // Parse the JWT
             SignedJWT signedJWT = SignedJWT.parse(token);
 
             // Verify signature - MUST use getBytes() to match signing
-            MACVerifier verifier = new MACVerifier(jwtSecret.getBytes());
             if (!signedJWT.verify(verifier)) {
                 throw new JwtException("Invalid JWT signature");
             }
 
+            JWTClaimsSet claims = signedJWT.getJWTClaimsSet();
+            Instant now = Instant.now();
+
             // Check expiration with small leeway
-            Date expirationTime = signedJWT.getJWTClaimsSet().getExpirationTime();
+            Date expirationTime = claims.getExpirationTime();
             if (expirationTime != null) {
                 Instant exp = expirationTime.toInstant();
-                if (exp.isBefore(Instant.now().minus(CLOCK_SKEW))) {
+                if (exp.isBefore(now.minus(CLOCK_SKEW))) {
                     throw new JwtException("JWT token expired");
                 }
             }
 
             // Validate not-before if present (with leeway)
-            Date notBefore = signedJWT.getJWTClaimsSet().getNotBeforeTime();
+            Date notBefore = claims.getNotBeforeTime();
             if (notBefore != null) {
                 Instant nbf = notBefore.toInstant();
-                if (nbf.isAfter(Instant.now().plus(CLOCK_SKEW))) {
+                if (nbf.isAfter(now.plus(CLOCK_SKEW))) {
                     throw new JwtException("JWT token not active yet");
                 }
             }
 
             // Validate issuer
-            String issuer = signedJWT.getJWTClaimsSet().getIssuer();
+            String issuer = claims.getIssuer();
             if (expectedIssuer != null && !expectedIssuer.isEmpty()) {
                 if (issuer == null || !expectedIssuer.equals(issuer)) {
                     throw new JwtException("Invalid token issuer");
@@ -89,13 +141,14 @@ public class CustomJwtDecoder implements JwtDecoder {
             }
 
             // Check if token is invalidated
-            String jti = signedJWT.getJWTClaimsSet().getJWTID();
-            if (jti != null && invalidatedTokenRepository.existsByJti(jti)) {
+            if (tokenRevocationRegistry.isRevoked(claims.getJWTID())) {
                 throw new JwtException("JWT token has been invalidated");
             }
 
             // Convert to Spring Security Jwt
-            return createJwt(signedJWT);
+            Jwt jwt = createJwt(signedJWT, claims);
+            cache(cacheKey, jwt, now);
+            return jwt;
 
         } catch (Exception e) {
             log.error("Error decoding JWT token", e);
@@ -103,9 +156,39 @@ public class CustomJwtDecoder implements JwtDecoder {
         }
     }
 
-    private Jwt createJwt(SignedJWT signedJWT) throws Exception {
-        var claimsSet = signedJWT.getJWTClaimsSet();
+    /**
+     * Drop expired entries from the decoded token cache
+     */
+    @Scheduled(fixedDelay = 60 * 1000L)
+    public void evictExpiredDecodedTokens() {
+        Instant now = Instant.now();
+        decodedCache.values().removeIf(entry -> !entry.validUntil().isAfter(now));
+    }
+
+    private void cache(String cacheKey, Jwt jwt, Instant now) {
+        if (decodeCacheTtl.isZero() || decodedCache.size() >= decodeCacheMaxSize) {
+            return;
+        }
+        Instant validUntil = now.plus(decodeCacheTtl);
+        if (jwt.getExpiresAt() != null && jwt.getExpiresAt().plus(CLOCK_SKEW).isBefore(validUntil)) {
+            validUntil = jwt.getExpiresAt().plus(CLOCK_SKEW);
+        }
+        decodedCache.put(cacheKey, new CachedJwt(jwt, validUntil));
+    }
+
+    /**
+     * SHA-256 of the raw token, so the cache does not key on bearer tokens
+     */
+    private static String cacheKey(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 
+    private Jwt createJwt(SignedJWT signedJWT, JWTClaimsSet claimsSet) {
         Jwt.Builder jwtBuilder = Jwt.withTokenValue(signedJWT.serialize())
                 .header("alg", signedJWT.getHeader().getAlgorithm().getName())
                 .header("typ", "JWT");
@@ -1,5 +1,6 @@
 package com.exe.skillverse_backend.auth_service.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -85,6 +86,9 @@ public class SecurityConfig {
         @Bean
         public SecurityFilterChain filterChain(HttpSecurity httpSecurity) throws Exception {
                 httpSecurity.authorizeHttpRequests(request -> request
+                                // Async re-dispatch of streamed responses (SSE) was already authorized
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                                 // Admin endpoints - MUST require authentication (check BEFORE public endpoints)
                                 .requestMatchers("/api/admin/**").authenticated()
                                 .requestMatchers("/api/courses/pending").authenticated()
@@ -104,7 +108,8 @@ public class SecurityConfig {
                                 // Swagger/OpenAPI documentation endpoints
                                 .requestMatchers(SWAGGER_ENDPOINTS).permitAll()
 
-                                // Actuator endpoints (consider restricting in production)
+                                // Actuator: metrics are admin-only, health/info stay public
+                                .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasRole("ADMIN")
                                 .requestMatchers(ACTUATOR_ENDPOINTS).permitAll()
 
                                 // Health check endpoint
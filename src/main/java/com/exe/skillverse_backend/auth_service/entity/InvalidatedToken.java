@@ -7,7 +7,10 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "invalidated_tokens")
+@Table(name = "invalidated_tokens", indexes = {
+        @Index(name = "idx_invalidated_tokens_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_invalidated_tokens_invalidated_at", columnList = "invalidated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,8 +23,19 @@ public class InvalidatedToken {
     @Column(name = "invalidated_at", nullable = false)
     private LocalDateTime invalidatedAt = LocalDateTime.now();
 
+    /**
+     * exp of the revoked token; the row can be purged after it. Null for rows written before this column.
+     */
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
     public InvalidatedToken(String jti) {
         this.jti = jti;
         this.invalidatedAt = LocalDateTime.now();
     }
+
+    public InvalidatedToken(String jti, LocalDateTime expiresAt) {
+        this(jti);
+        this.expiresAt = expiresAt;
+    }
 }
\ No newline at end of file
@@ -1,20 +1,40 @@
 package com.exe.skillverse_backend.auth_service.repository;
 
 import com.exe.skillverse_backend.auth_service.entity.InvalidatedToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public interface InvalidatedTokenRepository extends JpaRepository<InvalidatedToken, String> {
 
     boolean existsByJti(String jti);
 
+    List<InvalidatedToken> findByInvalidatedAtAfter(LocalDateTime since);
+
     @Modifying
     @Query("DELETE FROM InvalidatedToken i WHERE i.invalidatedAt < :cutoffDate")
     void deleteOldInvalidatedTokens(@Param("cutoffDate") LocalDateTime cutoffDate);
+
+    /**
+     * Next chunk of revocations whose token has expired. Legacy rows without expiresAt
+     * are purgeable once invalidated before legacyCutoff (one token lifetime ago).
+     */
+    @Query("SELECT i.jti FROM InvalidatedToken i WHERE i.expiresAt < :now " +
+            "OR (i.expiresAt IS NULL AND i.invalidatedAt < :legacyCutoff)")
+    List<String> findPurgeableJtis(@Param("now") LocalDateTime now,
+            @Param("legacyCutoff") LocalDateTime legacyCutoff,
+            Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM InvalidatedToken i WHERE i.jti IN :jtis")
+    int deleteByJtiIn(@Param("jtis") List<String> jtis);
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.exe.skillverse_backend.auth_service.repository;
+
+/**
+ * Name and avatar sources of one user, with the profile joined in (no entities loaded)
+ */
+public interface UserDisplayCardView {
+
+    Long getUserId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    /**
+     * Avatar from the user account (e.g. Google picture)
+     */
+    String getAvatarUrl();
+
+    /**
+     * Full name from the user profile, null without a profile
+     */
+    String getProfileName();
+
+    /**
+     * URL of the profile's avatar media, null without one
+     */
+    String getProfileAvatarUrl();
+}
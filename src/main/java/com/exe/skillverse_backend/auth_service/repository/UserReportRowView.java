@@ -0,0 +1,34 @@
+package com.exe.skillverse_backend.auth_service.repository;
+
+import com.exe.skillverse_backend.auth_service.entity.PrimaryRole;
+import com.exe.skillverse_backend.auth_service.entity.UserStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the admin users report, with its course/certificate counts (no entities loaded)
+ */
+public interface UserReportRowView {
+
+    Long getId();
+
+    String getEmail();
+
+    String getFirstName();
+
+    String getLastName();
+
+    PrimaryRole getPrimaryRole();
+
+    UserStatus getStatus();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    Long getCoursesCreated();
+
+    Long getCoursesEnrolled();
+
+    Long getCertificatesEarned();
+}
@@ -0,0 +1,15 @@
+package com.exe.skillverse_backend.auth_service.repository;
+
+/**
+ * Totals shown above the admin users report
+ */
+public interface UserReportSummaryView {
+
+    Long getTotalUsers();
+
+    Long getTotalMentors();
+
+    Long getTotalRecruiters();
+
+    Long getTotalActiveUsers();
+}
@@ -3,11 +3,13 @@ package com.exe.skillverse_backend.auth_service.repository;
 import com.exe.skillverse_backend.auth_service.entity.PrimaryRole;
 import com.exe.skillverse_backend.auth_service.entity.User;
 import com.exe.skillverse_backend.auth_service.entity.UserStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +18,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
 
+    /**
+     * Display cards (names and avatars) of many users in one query
+     */
+    @Query("SELECT u.id AS userId, u.firstName AS firstName, u.lastName AS lastName, u.avatarUrl AS avatarUrl, " +
+           "p.fullName AS profileName, m.url AS profileAvatarUrl " +
+           "FROM User u LEFT JOIN UserProfile p ON p.userId = u.id LEFT JOIN p.avatarMedia m " +
+           "WHERE u.id IN :ids")
+    List<UserDisplayCardView> findDisplayCardsByIdIn(@Param("ids") Collection<Long> ids);
+
     boolean existsByEmail(String email);
 
     Optional<User> findByEmailAndStatus(String email, UserStatus status);
@@ -48,4 +59,48 @@ public interface UserRepository extends JpaRepository<User, Long> {
         @Param("status") UserStatus status,
         @Param("search") String search
     );
+
+    /**
+     * Admin report: next keyset page of users after afterId, ADMIN accounts hidden unless role is given.
+     * An empty search matches everyone.
+     */
+    @Query("SELECT u.id AS id, u.email AS email, u.firstName AS firstName, u.lastName AS lastName, " +
+           "u.primaryRole AS primaryRole, u.status AS status, u.createdAt AS createdAt, u.updatedAt AS updatedAt, " +
+           "(SELECT COUNT(c) FROM Course c WHERE c.author = u) AS coursesCreated, " +
+           "(SELECT COUNT(e) FROM CourseEnrollment e WHERE e.user = u) AS coursesEnrolled, " +
+           "(SELECT COUNT(ce) FROM Certificate ce WHERE ce.user = u) AS certificatesEarned " +
+           "FROM User u WHERE u.id > :afterId " +
+           "AND (:role IS NULL OR u.primaryRole = :role) " +
+           "AND (:role IS NOT NULL OR u.primaryRole <> 'ADMIN') " +
+           "AND (:status IS NULL OR u.status = :status) " +
+           "AND (:search = '' OR LOWER(u.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+           "ORDER BY u.id")
+    List<UserReportRowView> findReportRows(
+        @Param("role") PrimaryRole role,
+        @Param("status") UserStatus status,
+        @Param("search") String search,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    /**
+     * Admin report: totals for the same filters as findReportRows
+     */
+    @Query("SELECT COUNT(u) AS totalUsers, " +
+           "COALESCE(SUM(CASE WHEN u.primaryRole = 'MENTOR' THEN 1 ELSE 0 END), 0) AS totalMentors, " +
+           "COALESCE(SUM(CASE WHEN u.primaryRole = 'RECRUITER' THEN 1 ELSE 0 END), 0) AS totalRecruiters, " +
+           "COALESCE(SUM(CASE WHEN u.status = 'ACTIVE' THEN 1 ELSE 0 END), 0) AS totalActiveUsers " +
+           "FROM User u WHERE (:role IS NULL OR u.primaryRole = :role) " +
+           "AND (:role IS NOT NULL OR u.primaryRole <> 'ADMIN') " +
+           "AND (:status IS NULL OR u.status = :status) " +
+           "AND (:search = '' OR LOWER(u.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')))")
+    UserReportSummaryView summarizeReport(
+        @Param("role") PrimaryRole role,
+        @Param("status") UserStatus status,
+        @Param("search") String search
+    );
 }
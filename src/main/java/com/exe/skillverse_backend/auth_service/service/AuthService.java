@@ -29,6 +29,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.security.MessageDigest;
@@ -43,6 +44,7 @@ public class AuthService {
         private final RoleRepository roleRepository;
         private final RefreshTokenRepository refreshTokenRepository;
         private final InvalidatedTokenRepository invalidatedTokenRepository;
+        private final TokenRevocationRegistry tokenRevocationRegistry;
         private final PasswordEncoder passwordEncoder;
         private final UserProfileService userProfileService;
         private final MentorProfileRepository mentorProfileRepository;
@@ -232,7 +234,7 @@ public class AuthService {
 
                         // Check if token is invalidated
                         String jti = signedJWT.getJWTClaimsSet().getJWTID();
-                        if (invalidatedTokenRepository.existsByJti(jti)) {
+                        if (tokenRevocationRegistry.isRevoked(jti)) {
                                 return false;
                         }
 
@@ -340,8 +342,13 @@ public class AuthService {
                         String userId = signedJWT.getJWTClaimsSet().getSubject();
 
                         // Invalidate access token
-                        InvalidatedToken invalidatedToken = new InvalidatedToken(jti);
+                        Date expirationTime = signedJWT.getJWTClaimsSet().getExpirationTime();
+                        LocalDateTime expiresAt = expirationTime != null
+                                        ? LocalDateTime.ofInstant(expirationTime.toInstant(), ZoneId.systemDefault())
+                                        : null;
+                        InvalidatedToken invalidatedToken = new InvalidatedToken(jti, expiresAt);
                         invalidatedTokenRepository.save(invalidatedToken);
+                        tokenRevocationRegistry.revoke(jti, expirationTime != null ? expirationTime.toInstant() : null);
 
                         // Delete refresh token
                         refreshTokenRepository.deleteByUserId(Long.parseLong(userId));
@@ -0,0 +1,111 @@
+package com.exe.skillverse_backend.auth_service.service;
+
+import com.exe.skillverse_backend.auth_service.repository.InvalidatedTokenRepository;
+import com.exe.skillverse_backend.auth_service.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes revocations of expired access tokens and expired refresh tokens.
+ * Each chunk is its own short transaction (select ids by the expiry index, delete by id),
+ * so the purge never holds locks on the whole table.
+ * Exposes auth.tokens.purged{table} and auth.tokens.rows{table}, refreshed after every run.
+ */
+@Component
+@Slf4j
+public class TokenPurgeScheduler {
+
+    // Revocations must outlive the decoder's clock skew allowance
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(60);
+
+    private final InvalidatedTokenRepository invalidatedTokenRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration accessTokenLifetime;
+    private final int chunkSize;
+
+    private final Counter invalidatedPurged;
+    private final Counter refreshPurged;
+    private final AtomicLong invalidatedRows = new AtomicLong();
+    private final AtomicLong refreshRows = new AtomicLong();
+
+    public TokenPurgeScheduler(
+            InvalidatedTokenRepository invalidatedTokenRepository,
+            RefreshTokenRepository refreshTokenRepository,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.access-token-expiration:3600}") long accessTokenExpiration,
+            @Value("${jwt.purge.chunk-size:1000}") int chunkSize) {
+        this.invalidatedTokenRepository = invalidatedTokenRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.accessTokenLifetime = Duration.ofSeconds(accessTokenExpiration);
+        this.chunkSize = chunkSize;
+
+        this.invalidatedPurged = meterRegistry.counter("auth.tokens.purged", "table", "invalidated_tokens");
+        this.refreshPurged = meterRegistry.counter("auth.tokens.purged", "table", "refresh_tokens");
+        Gauge.builder("auth.tokens.rows", invalidatedRows, AtomicLong::get)
+                .tag("table", "invalidated_tokens").register(meterRegistry);
+        Gauge.builder("auth.tokens.rows", refreshRows, AtomicLong::get)
+                .tag("table", "refresh_tokens").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${jwt.purge.cron:0 */15 * * * ?}")
+    public void purgeExpiredTokens() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int revocations = purgeInvalidatedTokens(now.minus(CLOCK_SKEW),
+                    now.minus(accessTokenLifetime).minus(CLOCK_SKEW));
+            int refreshTokens = purgeRefreshTokens(now);
+
+            invalidatedRows.set(invalidatedTokenRepository.count());
+            refreshRows.set(refreshTokenRepository.count());
+
+            if (revocations > 0 || refreshTokens > 0) {
+                log.info("Purged {} expired token revocations and {} expired refresh tokens",
+                        revocations, refreshTokens);
+            }
+        } catch (Exception e) {
+            log.error("Token purge failed, will retry next run: {}", e.getMessage());
+        }
+    }
+
+    private int purgeInvalidatedTokens(LocalDateTime expiredBefore, LocalDateTime legacyCutoff) {
+        int total = 0;
+        List<String> jtis;
+        do {
+            jtis = invalidatedTokenRepository.findPurgeableJtis(expiredBefore, legacyCutoff,
+                    PageRequest.of(0, chunkSize));
+            if (jtis.isEmpty()) {
+                break;
+            }
+            int deleted = invalidatedTokenRepository.deleteByJtiIn(jtis);
+            invalidatedPurged.increment(deleted);
+            total += deleted;
+        } while (jtis.size() == chunkSize);
+        return total;
+    }
+
+    private int purgeRefreshTokens(LocalDateTime now) {
+        int total = 0;
+        List<Long> ids;
+        do {
+            ids = refreshTokenRepository.findExpiredIds(now, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            int deleted = refreshTokenRepository.deleteByIdIn(ids);
+            refreshPurged.increment(deleted);
+            total += deleted;
+        } while (ids.size() == chunkSize);
+        return total;
+    }
+}
@@ -0,0 +1,203 @@
+package com.exe.skillverse_backend.auth_service.service;
+
+import com.exe.skillverse_backend.auth_service.entity.InvalidatedToken;
+import com.exe.skillverse_backend.auth_service.repository.InvalidatedTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory set of revoked access token ids (jti), so request authentication never hits the database
+ * - A bloom filter answers "definitely not revoked" for almost every request; hits are confirmed in the exact map
+ * - Entries are dropped once the token's exp has passed, the filter is rebuilt from what is left
+ * - Loaded from invalidated_tokens at startup, then synced periodically to pick up logouts on other instances
+ */
+@Service
+@Slf4j
+public class TokenRevocationRegistry {
+
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(60);
+
+    private final InvalidatedTokenRepository invalidatedTokenRepository;
+    private final Duration accessTokenLifetime;
+    private final int expectedRevocations;
+
+    /**
+     * jti -> instant after which the token is expired anyway
+     */
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+
+    /**
+     * Invalidation time up to which the table has been read
+     */
+    private volatile LocalDateTime syncedUpTo;
+
+    public TokenRevocationRegistry(
+            InvalidatedTokenRepository invalidatedTokenRepository,
+            @Value("${jwt.access-token-expiration:3600}") long accessTokenExpiration,
+            @Value("${jwt.revocation.expected-size:100000}") int expectedRevocations) {
+        this.invalidatedTokenRepository = invalidatedTokenRepository;
+        this.accessTokenLifetime = Duration.ofSeconds(accessTokenExpiration);
+        this.expectedRevocations = expectedRevocations;
+        this.filter = new BloomFilter(expectedRevocations);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        // Anything invalidated longer ago than one token lifetime has expired already
+        LocalDateTime since = LocalDateTime.now().minus(accessTokenLifetime).minus(CLOCK_SKEW);
+        int loaded = load(since);
+        log.info("Token revocation registry loaded {} revoked tokens", loaded);
+    }
+
+    /**
+     * Pull revocations written by other instances
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:15000}",
+            initialDelayString = "${jwt.revocation.sync-interval-ms:15000}")
+    public void sync() {
+        LocalDateTime since = syncedUpTo;
+        if (since == null) {
+            return;
+        }
+        try {
+            // Overlap a little so rows committed slightly out of order are not missed
+            load(since.minus(CLOCK_SKEW));
+        } catch (Exception e) {
+            log.warn("Failed to sync token revocations: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Drop revocations of tokens that have expired and rebuild the filter from the rest
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.prune-interval-ms:300000}")
+    public synchronized void prune() {
+        Instant now = Instant.now();
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revoked.size()));
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+
+        if (before != revoked.size()) {
+            log.debug("Pruned {} expired token revocations, {} left", before - revoked.size(), revoked.size());
+        }
+    }
+
+    /**
+     * Revoke a token until its exp; without an exp it is kept for one full token lifetime
+     */
+    public synchronized void revoke(String jti, Instant expiresAt) {
+        if (jti == null) {
+            return;
+        }
+        Instant until = (expiresAt != null ? expiresAt : Instant.now().plus(accessTokenLifetime)).plus(CLOCK_SKEW);
+        revoked.merge(jti, until, (a, b) -> a.isAfter(b) ? a : b);
+        filter.put(jti);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        Instant expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt.isAfter(Instant.now());
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    private int load(LocalDateTime since) {
+        LocalDateTime now = LocalDateTime.now();
+        List<InvalidatedToken> tokens = invalidatedTokenRepository.findByInvalidatedAtAfter(since);
+        for (InvalidatedToken token : tokens) {
+            Instant expiresAt = token.getExpiresAt() != null
+                    ? token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant()
+                    : token.getInvalidatedAt().atZone(ZoneId.systemDefault()).toInstant().plus(accessTokenLifetime);
+            revoke(token.getJti(), expiresAt);
+        }
+        syncedUpTo = now;
+        return tokens.size();
+    }
+
+    /**
+     * Fixed-size bloom filter, ~1% false positives at the expected number of entries.
+     * Lock-free reads and writes over an AtomicLongArray.
+     */
+    private static final class BloomFilter {
+        private static final int HASHES = 7;
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+
+        private BloomFilter(int expectedEntries) {
+            // m = -n ln(p) / ln(2)^2 with p = 0.01
+            long m = Math.max(64, (long) Math.ceil(-Math.max(1, expectedEntries) * Math.log(0.01) / (Math.log(2) * Math.log(2))));
+            this.bits = new AtomicLongArray((int) ((m + 63) / 64));
+            this.bitCount = bits.length() * 64L;
+        }
+
+        void put(String value) {
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= HASHES; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << (bit & 63);
+                long current;
+                do {
+                    current = bits.get(index);
+                } while ((current & mask) == 0 && !bits.compareAndSet(index, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= HASHES; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * FNV-1a 64 over the UTF-8 bytes, finished with a murmur3 mix
+         */
+        private static long hash64(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                h ^= b;
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
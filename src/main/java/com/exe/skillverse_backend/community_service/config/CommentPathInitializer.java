@@ -0,0 +1,62 @@
+package com.exe.skillverse_backend.community_service.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills root_id / path of comments created before they existed, one statement per tree level
+ * (top-level comments first, then the replies whose parent already has a path).
+ * A no-op once every row has its path. On PostgreSQL also adds a text_pattern_ops index on path,
+ * so the prefix LIKE of subtree operations is indexed whatever the database collation.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CommentPathInitializer implements CommandLineRunner {
+
+    private static final String ROOTS_SQL = "UPDATE comments SET root_id = id, path = CONCAT('/', CAST(id AS VARCHAR(20)), '/') "
+            + "WHERE path IS NULL AND parent_id IS NULL";
+
+    private static final String REPLIES_SQL = "UPDATE comments SET "
+            + "root_id = (SELECT p.root_id FROM comments p WHERE p.id = comments.parent_id), "
+            + "path = CONCAT((SELECT p.path FROM comments p WHERE p.id = comments.parent_id), CAST(id AS VARCHAR(20)), '/') "
+            + "WHERE path IS NULL AND parent_id IN (SELECT p.id FROM comments p WHERE p.path IS NOT NULL)";
+
+    private static final String PATH_INDEX_SQL =
+            "CREATE INDEX IF NOT EXISTS idx_comments_path_pattern ON comments (path text_pattern_ops)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        int total = 0;
+        try {
+            total += jdbcTemplate.update(ROOTS_SQL);
+            int level;
+            do {
+                level = jdbcTemplate.update(REPLIES_SQL);
+                total += level;
+            } while (level > 0);
+        } catch (DataAccessException e) {
+            // Comments without a path are left out of subtree operations until the next startup retries
+            log.error("Comment path backfill stopped after {} comments: {}", total, e.getMessage());
+        }
+        if (total > 0) {
+            log.info("Backfilled paths for {} comments", total);
+        }
+
+        try {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            if (product != null && product.toLowerCase().contains("postgresql")) {
+                jdbcTemplate.execute(PATH_INDEX_SQL);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to create comment path index: {}", e.getMessage());
+        }
+    }
+}
@@ -4,7 +4,9 @@ import com.exe.skillverse_backend.community_service.dto.request.CommentCreateReq
 import com.exe.skillverse_backend.community_service.dto.request.PostCreateRequest;
 import com.exe.skillverse_backend.community_service.dto.request.PostUpdateRequest;
 import com.exe.skillverse_backend.community_service.dto.response.CommentResponse;
+import com.exe.skillverse_backend.community_service.dto.response.CommentThreadResponse;
 import com.exe.skillverse_backend.community_service.dto.response.PostResponse;
+import com.exe.skillverse_backend.community_service.dto.response.PostSearchResponse;
 import com.exe.skillverse_backend.community_service.entity.PostStatus;
 import com.exe.skillverse_backend.community_service.service.PostService;
 import com.exe.skillverse_backend.community_service.service.RateLimiterService;
@@ -45,6 +47,16 @@ public class PostController {
         return ResponseEntity.ok(res);
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<PostSearchResponse> searchPosts(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) PostStatus status,
+            @RequestParam(required = false) Long authorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(postService.searchPosts(query, status, authorId, cursor, size));
+    }
+
     @GetMapping("/saved")
     public ResponseEntity<Page<PostResponse>> listSavedPosts(
             Authentication auth,
@@ -116,6 +128,15 @@ public class PostController {
         return ResponseEntity.ok(postService.listComments(id, includeHidden, pageable));
     }
 
+    @GetMapping("/{id}/comments/threads")
+    public ResponseEntity<Page<CommentThreadResponse>> listCommentThreads(
+            @PathVariable Long id,
+            @RequestParam(required = false, defaultValue = "false") boolean includeHidden,
+            @RequestParam(defaultValue = "3") int previewSize,
+            @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(postService.listCommentThreads(id, includeHidden, previewSize, pageable));
+    }
+
     @DeleteMapping("/{postId}/comments/{commentId}")
     public ResponseEntity<Void> deleteComment(@PathVariable Long postId, @PathVariable Long commentId, Authentication auth) {
         Long userId = Long.parseLong(auth.getName());
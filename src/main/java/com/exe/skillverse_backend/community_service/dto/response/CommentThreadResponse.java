@@ -0,0 +1,20 @@
+package com.exe.skillverse_backend.community_service.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CommentThreadResponse {
+    private CommentResponse comment;
+    /**
+     * Oldest replies of the thread at any depth (use parentId to nest them), at most previewSize
+     */
+    private List<CommentResponse> replies;
+    /**
+     * All replies in the thread, including those not in the preview
+     */
+    private Long replyCount;
+}
@@ -0,0 +1,19 @@
+package com.exe.skillverse_backend.community_service.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class PostSearchHitResponse {
+    private PostResponse post;
+    /**
+     * HTML-escaped title with matches wrapped in &lt;mark&gt;
+     */
+    private String titleHighlight;
+    /**
+     * HTML-escaped excerpt of the content around the first match, matches wrapped in &lt;mark&gt;
+     */
+    private String snippet;
+    private Double rank;
+}
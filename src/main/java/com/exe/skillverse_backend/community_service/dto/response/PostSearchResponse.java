@@ -0,0 +1,16 @@
+package com.exe.skillverse_backend.community_service.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class PostSearchResponse {
+    private List<PostSearchHitResponse> items;
+    /**
+     * Pass as cursor to get the next page, null on the last page
+     */
+    private String nextCursor;
+}
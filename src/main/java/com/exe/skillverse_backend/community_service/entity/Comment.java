@@ -8,7 +8,9 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "comments", indexes = {
         @Index(name = "idx_comments_post", columnList = "post_id"),
-        @Index(name = "idx_comments_parent", columnList = "parent_id")
+        @Index(name = "idx_comments_parent", columnList = "parent_id"),
+        @Index(name = "idx_comments_root", columnList = "root_id"),
+        @Index(name = "idx_comments_path", columnList = "path")
 })
 @Getter
 @Setter
@@ -40,10 +42,30 @@ public class Comment {
     @JoinColumn(name = "parent_id")
     private Comment parent;
 
+    /**
+     * Id of the top-level comment of the thread (own id for a top-level comment)
+     */
+    @Column(name = "root_id")
+    private Long rootId;
+
+    /**
+     * Materialized path of ids from the top-level comment down to this one, e.g. /12/57/130/.
+     * The subtree of a comment is every row whose path starts with its path.
+     */
+    @Column(name = "path", length = 1024)
+    private String path;
+
     @Builder.Default
     @Column(name = "hidden", nullable = false)
     private boolean hidden = false;
 
+    /**
+     * Hidden only because an ancestor was hidden; unhiding that ancestor shows it again
+     */
+    @Builder.Default
+    @Column(name = "hidden_by_ancestor", nullable = false, columnDefinition = "boolean default false")
+    private boolean hiddenByAncestor = false;
+
     @Column(name = "moderation_note")
     private String moderationNote;
 
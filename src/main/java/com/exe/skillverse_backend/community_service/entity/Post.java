@@ -1,6 +1,7 @@
 package com.exe.skillverse_backend.community_service.entity;
 
 import com.exe.skillverse_backend.auth_service.entity.User;
+import com.exe.skillverse_backend.community_service.service.PostSearchText;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -47,19 +48,21 @@ public class Post {
     @Column(name = "status", nullable = false, length = 20)
     private PostStatus status;
 
-    @Column(name = "like_count", nullable = false)
+    // Counters change only through relative UPDATEs (PostCounterBuffer, PostRepository.adjustCommentCount),
+    // so saving a stale entity can never overwrite them
+    @Column(name = "like_count", nullable = false, updatable = false)
     @Builder.Default
     private Integer likeCount = 0;
 
-    @Column(name = "dislike_count", nullable = false)
+    @Column(name = "dislike_count", nullable = false, updatable = false)
     @Builder.Default
     private Integer dislikeCount = 0;
 
-    @Column(name = "comment_count", nullable = false)
+    @Column(name = "comment_count", nullable = false, updatable = false)
     @Builder.Default
     private Integer commentCount = 0;
 
-    @Column(name = "view_count", nullable = false)
+    @Column(name = "view_count", nullable = false, updatable = false)
     @Builder.Default
     private Integer viewCount = 0;
 
@@ -75,6 +78,15 @@ public class Post {
     @Builder.Default
     private List<Comment> comments = new ArrayList<>();
 
+    /**
+     * Title and tags + content folded by PostSearchText (lower case, no diacritics), kept in sync on every write
+     */
+    @Column(name = "search_title", length = 255)
+    private String searchTitle;
+
+    @Column(name = "search_body", columnDefinition = "TEXT")
+    private String searchBody;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -83,8 +95,19 @@ public class Post {
     @Builder.Default
     private LocalDateTime updatedAt = LocalDateTime.now();
 
+    @PrePersist
+    void onCreate() {
+        updateSearchText();
+    }
+
     @PreUpdate
     void onUpdate() {
         updatedAt = LocalDateTime.now();
+        updateSearchText();
+    }
+
+    private void updateSearchText() {
+        searchTitle = PostSearchText.title(title);
+        searchBody = PostSearchText.body(tags, content);
     }
 }
@@ -0,0 +1,31 @@
+package com.exe.skillverse_backend.community_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Time-decayed score of one topic (tag) for the trending sidebar, maintained by TrendingTopicIndex.
+ * score is the decayed value as of scoredAt; it halves every community.trends.half-life-hours.
+ */
+@Entity
+@Table(name = "trending_topics")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrendingTopic {
+
+    @Id
+    @Column(name = "tag", length = 100)
+    private String tag;
+
+    @Column(name = "score", nullable = false)
+    private double score;
+
+    /**
+     * Epoch millis the score was last decayed to
+     */
+    @Column(name = "scored_at", nullable = false)
+    private long scoredAt;
+}
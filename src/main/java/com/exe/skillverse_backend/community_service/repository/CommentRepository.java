@@ -5,6 +5,9 @@ import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -12,5 +15,71 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     Page<Comment> findByPost_IdOrderByCreatedAtAsc(Long postId, Pageable pageable);
     Page<Comment> findByPost_IdAndHiddenFalseOrderByCreatedAtAsc(Long postId, Pageable pageable);
     long countByPost_Id(Long postId);
-    List<Comment> findByParent_Id(Long parentId);
+    /**
+     * Delete a comment and all its replies; returns the number of comments removed.
+     * A NULL path matches nothing (NULL || '%' is NULL, unlike CONCAT).
+     */
+    @Modifying
+    @Query(value = "DELETE FROM comments WHERE post_id = :postId AND path LIKE :path || '%'", nativeQuery = true)
+    int deleteSubtree(@Param("postId") Long postId, @Param("path") String path);
+
+    /**
+     * Hide a comment (setting the note, if any) and mark its visible replies as hidden by an ancestor
+     */
+    @Modifying
+    @Query(value = "UPDATE comments SET hidden = TRUE, hidden_by_ancestor = (id <> :id), "
+            + "moderation_note = CASE WHEN id = :id THEN COALESCE(:note, moderation_note) ELSE moderation_note END "
+            + "WHERE post_id = :postId AND path LIKE :path || '%' AND (id = :id OR hidden = FALSE)", nativeQuery = true)
+    int hideSubtree(@Param("postId") Long postId, @Param("id") Long id, @Param("path") String path,
+                    @Param("note") String note);
+
+    /**
+     * Show a comment again, with the replies its hiding covered; replies below another explicitly hidden
+     * comment of the subtree stay hidden
+     */
+    @Modifying
+    @Query(value = "UPDATE comments c SET hidden = FALSE, hidden_by_ancestor = FALSE "
+            + "WHERE c.post_id = :postId AND c.path LIKE :path || '%' AND (c.id = :id OR c.hidden_by_ancestor = TRUE) "
+            + "AND NOT EXISTS (SELECT 1 FROM comments e WHERE e.post_id = :postId AND e.id <> :id "
+            + "AND e.hidden = TRUE AND e.hidden_by_ancestor = FALSE "
+            + "AND e.path LIKE :path || '%' AND c.path LIKE e.path || '%')", nativeQuery = true)
+    int unhideSubtree(@Param("postId") Long postId, @Param("id") Long id, @Param("path") String path);
+
+    /**
+     * Turn an explicit hide into one covered by a hidden ancestor
+     */
+    @Modifying
+    @Query(value = "UPDATE comments SET hidden_by_ancestor = TRUE WHERE id = :id AND hidden = TRUE", nativeQuery = true)
+    int markHiddenByAncestor(@Param("id") Long id);
+
+    /**
+     * Number of explicitly hidden ancestors of the comment with the given path
+     */
+    @Query(value = "SELECT COUNT(*) FROM comments a WHERE a.post_id = :postId AND a.hidden = TRUE "
+            + "AND a.hidden_by_ancestor = FALSE AND a.path <> :path AND :path LIKE a.path || '%'", nativeQuery = true)
+    long countHiddenAncestors(@Param("postId") Long postId, @Param("path") String path);
+
+    /**
+     * A page of top-level comments of a post (oldest first) together with the first previewSize replies
+     * of each thread, in one query
+     */
+    @Query(value = "WITH roots AS (SELECT r.id FROM comments r WHERE r.post_id = :postId AND r.parent_id IS NULL "
+            + "AND (:includeHidden = TRUE OR r.hidden = FALSE) ORDER BY r.created_at, r.id LIMIT :limit OFFSET :offset) "
+            + "SELECT t.id AS id, t.parent_id AS parentId, t.root_id AS rootId, t.user_id AS userId, t.content AS content, "
+            + "t.created_at AS createdAt, t.hidden AS hidden, t.moderation_note AS moderationNote, "
+            + "t.report_count AS reportCount, t.thread_size - 1 AS replyCount "
+            + "FROM (SELECT c.*, ROW_NUMBER() OVER (PARTITION BY c.root_id ORDER BY c.id) AS rn, "
+            + "COUNT(*) OVER (PARTITION BY c.root_id) AS thread_size "
+            + "FROM comments c JOIN roots ON c.root_id = roots.id "
+            + "WHERE (:includeHidden = TRUE OR c.hidden = FALSE)) t "
+            + "WHERE t.rn <= :previewSize + 1 ORDER BY t.root_id, t.id", nativeQuery = true)
+    List<CommentThreadRowView> findThreadRows(@Param("postId") Long postId,
+                                              @Param("includeHidden") boolean includeHidden,
+                                              @Param("limit") int limit,
+                                              @Param("offset") long offset,
+                                              @Param("previewSize") int previewSize);
+
+    @Query(value = "SELECT COUNT(*) FROM comments r WHERE r.post_id = :postId AND r.parent_id IS NULL "
+            + "AND (:includeHidden = TRUE OR r.hidden = FALSE)", nativeQuery = true)
+    long countRoots(@Param("postId") Long postId, @Param("includeHidden") boolean includeHidden);
 }
@@ -0,0 +1,32 @@
+package com.exe.skillverse_backend.community_service.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * One comment of a threaded listing page: a top-level comment or one of its reply previews
+ */
+public interface CommentThreadRowView {
+
+    Long getId();
+
+    Long getParentId();
+
+    Long getRootId();
+
+    Long getUserId();
+
+    String getContent();
+
+    LocalDateTime getCreatedAt();
+
+    Boolean getHidden();
+
+    String getModerationNote();
+
+    Integer getReportCount();
+
+    /**
+     * Replies in the whole thread (same for every row of a thread)
+     */
+    Long getReplyCount();
+}
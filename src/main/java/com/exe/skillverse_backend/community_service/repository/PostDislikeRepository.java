@@ -2,6 +2,9 @@ package com.exe.skillverse_backend.community_service.repository;
 
 import com.exe.skillverse_backend.community_service.entity.PostDislike;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
@@ -9,4 +12,16 @@ import java.util.Optional;
 public interface PostDislikeRepository extends JpaRepository<PostDislike, Long> {
     Optional<PostDislike> findByPost_IdAndUser_Id(Long postId, Long userId);
     long countByPost_Id(Long postId);
+
+    @Modifying
+    @Query("DELETE FROM PostDislike r WHERE r.post.id = :postId AND r.user.id = :userId")
+    int deleteByPostIdAndUserId(@Param("postId") Long postId, @Param("userId") Long userId);
+
+    /**
+     * Insert the reaction unless the user already has one on the post; returns the number of rows inserted
+     */
+    @Modifying
+    @Query(value = "INSERT INTO post_dislikes (post_id, user_id, created_at) SELECT :postId, :userId, CURRENT_TIMESTAMP "
+            + "WHERE NOT EXISTS (SELECT 1 FROM post_dislikes WHERE post_id = :postId AND user_id = :userId)", nativeQuery = true)
+    int insertIfAbsent(@Param("postId") Long postId, @Param("userId") Long userId);
 }
@@ -5,14 +5,19 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long>, JpaSpecificationExecutor<Post> {
-    @Query(value = "SELECT p.* FROM posts p WHERE (:status IS NULL OR p.status = :status) AND (:authorId IS NULL OR p.user_id = :authorId) AND (:search IS NULL OR p.title ILIKE CONCAT('%', :search, '%') OR CAST(p.content AS TEXT) ILIKE CONCAT('%', :search, '%'))",
-           countQuery = "SELECT COUNT(*) FROM posts p WHERE (:status IS NULL OR p.status = :status) AND (:authorId IS NULL OR p.user_id = :authorId) AND (:search IS NULL OR p.title ILIKE CONCAT('%', :search, '%') OR CAST(p.content AS TEXT) ILIKE CONCAT('%', :search, '%'))",
+    /**
+     * search must be folded with PostSearchText.normalize; it is matched against the folded search columns
+     * (trigram-indexed on PostgreSQL when pg_trgm is available)
+     */
+    @Query(value = "SELECT p.* FROM posts p WHERE (:status IS NULL OR p.status = :status) AND (:authorId IS NULL OR p.user_id = :authorId) AND (:search IS NULL OR p.search_title LIKE CONCAT('%', :search, '%') OR p.search_body LIKE CONCAT('%', :search, '%'))",
+           countQuery = "SELECT COUNT(*) FROM posts p WHERE (:status IS NULL OR p.status = :status) AND (:authorId IS NULL OR p.user_id = :authorId) AND (:search IS NULL OR p.search_title LIKE CONCAT('%', :search, '%') OR p.search_body LIKE CONCAT('%', :search, '%'))",
            nativeQuery = true)
     Page<Post> search(@Param("status") String status, @Param("authorId") Long authorId, @Param("search") String search, Pageable pageable);
 
@@ -22,12 +27,23 @@ public interface PostRepository extends JpaRepository<Post, Long>, JpaSpecificat
     @Query(value = "SELECT COALESCE(SUM(p.comment_count), 0) FROM posts p", nativeQuery = true)
     Long sumComments();
 
+    /**
+     * (id, title) pairs for the given posts
+     */
+    @Query("SELECT p.id, p.title FROM Post p WHERE p.id IN :ids")
+    java.util.List<Object[]> findTitlesByIdIn(@Param("ids") java.util.Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "UPDATE posts SET comment_count = GREATEST(comment_count + :delta, 0) WHERE id = :id", nativeQuery = true)
+    int adjustCommentCount(@Param("id") Long id, @Param("delta") int delta);
+
     @Query("SELECT p.title FROM Post p")
     java.util.List<String> findAllTitles();
 
-    @Query("SELECT p.content FROM Post p")
-    java.util.List<String> findAllContents();
-
-    @Query("SELECT p.tags FROM Post p")
-    java.util.List<String> findAllTags();
+    /**
+     * Keyset page of posts after the given id, for the trending index backfill
+     */
+    @Query("SELECT p.id AS id, p.tags AS tags, p.content AS content, p.createdAt AS createdAt " +
+           "FROM Post p WHERE p.id > :afterId ORDER BY p.id")
+    java.util.List<PostTopicSourceView> findTopicSources(@Param("afterId") Long afterId, Pageable pageable);
 }
@@ -0,0 +1,17 @@
+package com.exe.skillverse_backend.community_service.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns of a post the trending index extracts topics from (used by the one-time backfill)
+ */
+public interface PostTopicSourceView {
+
+    Long getId();
+
+    String getTags();
+
+    String getContent();
+
+    LocalDateTime getCreatedAt();
+}
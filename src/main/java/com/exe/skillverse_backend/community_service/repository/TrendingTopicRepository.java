@@ -0,0 +1,9 @@
+package com.exe.skillverse_backend.community_service.repository;
+
+import com.exe.skillverse_backend.community_service.entity.TrendingTopic;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TrendingTopicRepository extends JpaRepository<TrendingTopic, String> {
+}
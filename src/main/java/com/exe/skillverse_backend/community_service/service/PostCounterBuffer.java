@@ -0,0 +1,160 @@
+package com.exe.skillverse_backend.community_service.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind view/like/dislike counters of posts
+ * - Deltas accumulate per post in LongAdders, so concurrent readers of a popular post never
+ *   contend on its row
+ * - flush() writes them as one JDBC batch of relative UPDATEs (view_count = view_count + ?) in one
+ *   transaction, ordered by post id so concurrent flushes from several instances cannot deadlock
+ * - Counts shown to clients add the pending deltas (pending()), so they do not lag behind
+ * - Reaction deltas are recorded only after the toggle commits; a failed flush puts its deltas back
+ */
+@Component
+@Slf4j
+public class PostCounterBuffer {
+
+    private static final String FLUSH_SQL = "UPDATE posts SET view_count = view_count + ?, "
+            + "like_count = GREATEST(like_count + ?, 0), dislike_count = GREATEST(dislike_count + ?, 0) "
+            + "WHERE id = ?";
+
+    /**
+     * Deltas of one post not yet written to the database
+     */
+    public record Pending(long views, long likes, long dislikes) {
+        static final Pending NONE = new Pending(0, 0, 0);
+    }
+
+    private static final class Counters {
+        final LongAdder views = new LongAdder();
+        final LongAdder likes = new LongAdder();
+        final LongAdder dislikes = new LongAdder();
+    }
+
+    private record Delta(Long postId, long views, long likes, long dislikes) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, Counters> counters = new ConcurrentHashMap<>();
+    private final Timer flushTimer;
+
+    public PostCounterBuffer(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.flushTimer = meterRegistry.timer("community.counters.flush");
+        Gauge.builder("community.counters.pending_posts", counters, Map::size).register(meterRegistry);
+    }
+
+    public void recordView(Long postId) {
+        counters(postId).views.increment();
+    }
+
+    /**
+     * Record like/dislike changes made by the current transaction, applied once it commits
+     */
+    public void recordReactions(Long postId, int likeDelta, int dislikeDelta) {
+        if (likeDelta == 0 && dislikeDelta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addReactions(postId, likeDelta, dislikeDelta);
+                }
+            });
+        } else {
+            addReactions(postId, likeDelta, dislikeDelta);
+        }
+    }
+
+    public Pending pending(Long postId) {
+        Counters c = counters.get(postId);
+        return c == null ? Pending.NONE : new Pending(c.views.sum(), c.likes.sum(), c.dislikes.sum());
+    }
+
+    @Scheduled(fixedDelayString = "${community.counters.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        if (counters.isEmpty()) {
+            return;
+        }
+        List<Delta> deltas = new ArrayList<>();
+        counters.forEach((postId, c) -> {
+            long views = c.views.sumThenReset();
+            long likes = c.likes.sumThenReset();
+            long dislikes = c.dislikes.sumThenReset();
+            if (views != 0 || likes != 0 || dislikes != 0) {
+                deltas.add(new Delta(postId, views, likes, dislikes));
+            } else if (counters.remove(postId, c)) {
+                // Idle since the last flush; keep anything that raced in before the removal
+                restore(new Delta(postId, c.views.sumThenReset(), c.likes.sumThenReset(), c.dislikes.sumThenReset()));
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        deltas.sort(Comparator.comparing(Delta::postId));
+
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        for (Delta d : deltas) {
+            args.add(new Object[]{d.views(), d.likes(), d.dislikes(), d.postId()});
+        }
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, args));
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Failed to flush counters of {} posts, will retry: {}", deltas.size(), e.getMessage());
+            deltas.forEach(this::restore);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void addReactions(Long postId, int likeDelta, int dislikeDelta) {
+        Counters c = counters(postId);
+        c.likes.add(likeDelta);
+        c.dislikes.add(dislikeDelta);
+    }
+
+    private void restore(Delta d) {
+        if (d.views() == 0 && d.likes() == 0 && d.dislikes() == 0) {
+            return;
+        }
+        Counters c = counters(d.postId());
+        c.views.add(d.views());
+        c.likes.add(d.likes());
+        c.dislikes.add(d.dislikes());
+    }
+
+    private Counters counters(Long postId) {
+        return counters.computeIfAbsent(postId, id -> new Counters());
+    }
+}
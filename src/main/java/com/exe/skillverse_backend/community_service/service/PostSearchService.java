@@ -0,0 +1,201 @@
+package com.exe.skillverse_backend.community_service.service;
+
+import com.exe.skillverse_backend.shared.exception.ApiException;
+import com.exe.skillverse_backend.shared.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ranked, keyset-paginated search over posts
+ * - PostgreSQL: search_vector is a generated tsvector over search_title (weight A) and search_body (weight B)
+ *   with a GIN index, matched with prefix tsquery terms and ranked by ts_rank_cd. The 'simple' configuration
+ *   is used because diacritics are already folded in Java (PostSearchText), which handles Vietnamese better
+ *   than any built-in dictionary.
+ * - Other databases (H2 in tests), or until the column exists: LIKE over the folded columns, ranked by
+ *   title matches first. pg_trgm indexes on the folded columns also serve these LIKE filters when available.
+ * - Pages continue from a (rank, id) cursor, so deep pages cost the same as the first one and no count query runs
+ */
+@Service
+@Slf4j
+public class PostSearchService {
+
+    private static final int BACKFILL_BATCH_SIZE = 200;
+
+    private static final String[] FULL_TEXT_DDL = {
+            "ALTER TABLE posts ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS ("
+                    + "setweight(to_tsvector('simple', coalesce(search_title, '')), 'A') || "
+                    + "setweight(to_tsvector('simple', coalesce(search_body, '')), 'B')) STORED",
+            "CREATE INDEX IF NOT EXISTS idx_posts_search_vector ON posts USING GIN (search_vector)"
+    };
+
+    private static final String[] TRIGRAM_DDL = {
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "CREATE INDEX IF NOT EXISTS idx_posts_search_title_trgm ON posts USING GIN (search_title gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_posts_search_body_trgm ON posts USING GIN (search_body gin_trgm_ops)"
+    };
+
+    /**
+     * One ranked match
+     */
+    public record RankedPost(Long id, double rank) {
+    }
+
+    /**
+     * Position after the last result of a page
+     */
+    public record Cursor(double rank, long id) {
+
+        public static Cursor parse(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            int sep = value.lastIndexOf(':');
+            try {
+                return new Cursor(Double.parseDouble(value.substring(0, sep)), Long.parseLong(value.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new ApiException(ErrorCode.BAD_REQUEST, "Cursor tìm kiếm không hợp lệ");
+            }
+        }
+
+        public static String of(RankedPost last) {
+            return last.rank() + ":" + last.id();
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile boolean fullText;
+
+    public PostSearchService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            int filled = backfillSearchColumns();
+            if (filled > 0) {
+                log.info("Filled search columns of {} posts", filled);
+            }
+        } catch (DataAccessException e) {
+            // Posts without search columns are not found until the next startup retries
+            log.error("Post search column backfill failed: {}", e.getMessage());
+        }
+        if (!isPostgres()) {
+            return;
+        }
+        fullText = execute(FULL_TEXT_DDL);
+        if (!execute(TRIGRAM_DDL)) {
+            log.info("pg_trgm not available, post list filters scan the folded columns");
+        }
+        log.info("Post search mode: {}", fullText ? "full-text" : "LIKE fallback");
+    }
+
+    /**
+     * One page of matches, best first
+     *
+     * @param terms normalized terms from PostSearchText.terms, all of which must match
+     */
+    public List<RankedPost> search(List<String> terms, String status, Long authorId, Cursor after, int limit) {
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT r.id, r.rank FROM (SELECT p.id AS id, ");
+        if (fullText) {
+            sql.append("ts_rank_cd(p.search_vector, q.query, 1) AS rank FROM posts p, to_tsquery('simple', ?) q ")
+                    .append("WHERE p.search_vector @@ q.query");
+            args.add(String.join(" & ", terms.stream().map(t -> t + ":*").toList()));
+        } else {
+            // Title matches rank above body matches; LIKE needs no escaping, terms are letters and digits only
+            List<String> scores = new ArrayList<>();
+            for (String term : terms) {
+                scores.add("CASE WHEN p.search_title LIKE ? THEN 2 ELSE 0 END + CASE WHEN p.search_body LIKE ? THEN 1 ELSE 0 END");
+                args.add("%" + term + "%");
+                args.add("%" + term + "%");
+            }
+            sql.append("CAST(").append(String.join(" + ", scores)).append(" AS DOUBLE PRECISION) AS rank ")
+                    .append("FROM posts p WHERE 1 = 1");
+            for (String term : terms) {
+                sql.append(" AND (p.search_title LIKE ? OR p.search_body LIKE ?)");
+                args.add("%" + term + "%");
+                args.add("%" + term + "%");
+            }
+        }
+        if (status != null) {
+            sql.append(" AND p.status = ?");
+            args.add(status);
+        }
+        if (authorId != null) {
+            sql.append(" AND p.user_id = ?");
+            args.add(authorId);
+        }
+        sql.append(") r");
+        if (after != null) {
+            sql.append(" WHERE r.rank < ? OR (r.rank = ? AND r.id < ?)");
+            // ts_rank_cd returns real; compare as real so the cursor matches the row it came from exactly
+            Object rank = fullText ? (Object) (float) after.rank() : after.rank();
+            args.add(rank);
+            args.add(rank);
+            args.add(after.id());
+        }
+        sql.append(" ORDER BY r.rank DESC, r.id DESC LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(),
+                (rs, i) -> new RankedPost(rs.getLong(1), fullText ? rs.getFloat(2) : rs.getDouble(2)),
+                args.toArray());
+    }
+
+    /**
+     * Fill search_title / search_body of posts written before the columns existed, and re-fold columns that
+     * still hold HTML entities (folded from escaped text). Pages by id, so rows whose text really contains
+     * such a sequence are folded once per startup rather than forever.
+     */
+    private int backfillSearchColumns() {
+        int total = 0;
+        long lastId = 0;
+        List<Object[]> updates;
+        do {
+            updates = jdbcTemplate.query(
+                    "SELECT id, title, tags, content FROM posts WHERE id > ? AND (search_title IS NULL "
+                            + "OR search_title LIKE '%&%;%' OR search_body LIKE '%&%;%') ORDER BY id LIMIT ?",
+                    (rs, i) -> new Object[]{
+                            PostSearchText.title(rs.getString("title")),
+                            PostSearchText.body(rs.getString("tags"), rs.getString("content")),
+                            rs.getLong("id")},
+                    lastId, BACKFILL_BATCH_SIZE);
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE posts SET search_title = ?, search_body = ? WHERE id = ?", updates);
+                lastId = (Long) updates.get(updates.size() - 1)[2];
+            }
+            total += updates.size();
+        } while (updates.size() == BACKFILL_BATCH_SIZE);
+        return total;
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        return product != null && product.toLowerCase().contains("postgresql");
+    }
+
+    private boolean execute(String[] statements) {
+        try {
+            for (String statement : statements) {
+                jdbcTemplate.execute(statement);
+            }
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Post search setup statement failed: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.exe.skillverse_backend.community_service.service;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Text normalization for post search
+ * - Lower case without Vietnamese diacritics (đ -> d), so "lập trình" and "lap trinh" match each other
+ * - Titles and content are stored HTML-escaped; they are unescaped before folding, so entities such as
+ *   &amp;igrave; never reach the search columns
+ * - Folding is one char to one char, so offsets in normalized text are offsets in the original text;
+ *   snippets and highlights are cut from the unescaped text and every segment is escaped again
+ */
+public final class PostSearchText {
+
+    private static final int MAX_TERMS = 8;
+    private static final int MAX_TERM_LENGTH = 50;
+    private static final int SNIPPET_CONTEXT = 60;
+    private static final String MARK_OPEN = "<mark>";
+    private static final String MARK_CLOSE = "</mark>";
+
+    private static final char[] FOLD = new char[0x2000];
+
+    static {
+        for (char c = 0; c < FOLD.length; c++) {
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            FOLD[c] = Character.toLowerCase(decomposed.isEmpty() ? c : decomposed.charAt(0));
+        }
+        FOLD['đ'] = 'd';
+        FOLD['Đ'] = 'd';
+    }
+
+    private PostSearchText() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        char[] out = new char[text.length()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = fold(text.charAt(i));
+        }
+        return new String(out);
+    }
+
+    /**
+     * Text stored in posts.search_title, from the stored (escaped) title
+     */
+    public static String title(String title) {
+        return title != null ? normalize(HtmlUtils.htmlUnescape(title)) : null;
+    }
+
+    /**
+     * Text stored in posts.search_body: tags followed by the stored (escaped) content
+     */
+    public static String body(String tags, String content) {
+        String tagText = tags != null ? tags.replace(',', ' ') + " " : "";
+        return normalize(tagText + (content != null ? HtmlUtils.htmlUnescape(content) : ""));
+    }
+
+    /**
+     * Normalized search terms of a query: letters and digits only, so they are safe in tsquery and LIKE patterns
+     */
+    public static List<String> terms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (query != null) {
+            for (String term : normalize(query).split("[^\\p{L}\\p{N}]+")) {
+                if (!term.isEmpty() && terms.size() < MAX_TERMS) {
+                    terms.add(term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term);
+                }
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * Whole stored (escaped) text, escaped again with every term occurrence wrapped in &lt;mark&gt;
+     */
+    public static String highlight(String stored, List<String> terms) {
+        if (stored == null) {
+            return null;
+        }
+        String text = HtmlUtils.htmlUnescape(stored);
+        return mark(text, normalize(text), 0, text.length(), sortedByLength(terms));
+    }
+
+    /**
+     * Window of about maxLength chars around the first term occurrence, cut at whitespace, of the stored
+     * (escaped) text; escaped again with terms wrapped in &lt;mark&gt;
+     */
+    public static String snippet(String stored, List<String> terms, int maxLength) {
+        if (stored == null) {
+            return null;
+        }
+        String text = HtmlUtils.htmlUnescape(stored);
+        String normalized = normalize(text);
+        int first = -1;
+        for (String term : terms) {
+            int i = normalized.indexOf(term);
+            if (i >= 0 && (first < 0 || i < first)) {
+                first = i;
+            }
+        }
+        int start = Math.max(0, first - SNIPPET_CONTEXT);
+        while (start > 0 && !Character.isWhitespace(text.charAt(start - 1))) {
+            start--;
+        }
+        int end = Math.min(text.length(), start + maxLength);
+        while (end < text.length() && !Character.isWhitespace(text.charAt(end))) {
+            end++;
+        }
+        String marked = mark(text, normalized, start, end, sortedByLength(terms));
+        return (start > 0 ? "…" : "") + marked + (end < text.length() ? "…" : "");
+    }
+
+    private static String mark(String text, String normalized, int start, int end, List<String> terms) {
+        StringBuilder out = new StringBuilder(end - start + 32);
+        int plain = start;
+        int i = start;
+        while (i < end) {
+            String match = null;
+            for (String term : terms) {
+                if (normalized.startsWith(term, i) && i + term.length() <= end) {
+                    match = term;
+                    break;
+                }
+            }
+            if (match != null) {
+                out.append(escape(text, plain, i))
+                        .append(MARK_OPEN).append(escape(text, i, i + match.length())).append(MARK_CLOSE);
+                i += match.length();
+                plain = i;
+            } else {
+                i++;
+            }
+        }
+        return out.append(escape(text, plain, end)).toString();
+    }
+
+    private static String escape(String text, int start, int end) {
+        return HtmlUtils.htmlEscape(text.substring(start, end), "UTF-8");
+    }
+
+    private static List<String> sortedByLength(List<String> terms) {
+        List<String> sorted = new ArrayList<>(terms);
+        sorted.sort(Comparator.comparingInt(String::length).reversed());
+        return sorted;
+    }
+
+    private static char fold(char c) {
+        if (c < FOLD.length) {
+            return FOLD[c];
+        }
+        return Character.toLowerCase(c);
+    }
+}
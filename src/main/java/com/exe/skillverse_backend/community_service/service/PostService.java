@@ -7,13 +7,16 @@ import com.exe.skillverse_backend.community_service.dto.request.CommentCreateReq
 import com.exe.skillverse_backend.community_service.dto.request.PostCreateRequest;
 import com.exe.skillverse_backend.community_service.dto.request.PostUpdateRequest;
 import com.exe.skillverse_backend.community_service.dto.response.CommentResponse;
+import com.exe.skillverse_backend.community_service.dto.response.CommentThreadResponse;
 import com.exe.skillverse_backend.community_service.dto.response.PostResponse;
+import com.exe.skillverse_backend.community_service.dto.response.PostSearchHitResponse;
+import com.exe.skillverse_backend.community_service.dto.response.PostSearchResponse;
 import com.exe.skillverse_backend.community_service.entity.Comment;
 import com.exe.skillverse_backend.community_service.entity.Post;
-import com.exe.skillverse_backend.community_service.entity.PostLike;
 import com.exe.skillverse_backend.community_service.entity.PostStatus;
 import com.exe.skillverse_backend.community_service.entity.SavedPost;
 import com.exe.skillverse_backend.community_service.repository.CommentRepository;
+import com.exe.skillverse_backend.community_service.repository.CommentThreadRowView;
 import com.exe.skillverse_backend.community_service.repository.PostLikeRepository;
 import com.exe.skillverse_backend.community_service.repository.PostDislikeRepository;
 import com.exe.skillverse_backend.community_service.repository.PostRepository;
@@ -24,20 +27,23 @@ import com.exe.skillverse_backend.user_service.service.UserProfileService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.HtmlUtils;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class PostService {
+    private static final int MAX_SEARCH_PAGE_SIZE = 50;
+    private static final int SEARCH_SNIPPET_LENGTH = 200;
+    private static final int MAX_REPLY_PREVIEW = 20;
+
     private final PostRepository postRepository;
     private final PostLikeRepository postLikeRepository;
     private final PostDislikeRepository postDislikeRepository;
@@ -46,6 +52,9 @@ public class PostService {
     private final UserRepository userRepository;
     private final NotificationService notificationService;
     private final UserProfileService userProfileService;
+    private final PostCounterBuffer postCounterBuffer;
+    private final TrendingTopicIndex trendingTopicIndex;
+    private final PostSearchService postSearchService;
 
     @Transactional
     public PostResponse createPost(Long userId, PostCreateRequest req) {
@@ -64,6 +73,7 @@ public class PostService {
                 .tags(tags)
                 .build();
         Post saved = postRepository.save(post);
+        trendingTopicIndex.postAdded(saved.getCreatedAt(), TrendingTopicIndex.topics(saved.getTags(), saved.getContent()));
         return toResponse(saved);
     }
 
@@ -86,10 +96,40 @@ public class PostService {
         Pageable nativePageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), newSort);
 
         String statusName = status != null ? status.name() : null;
-        Page<Post> page = postRepository.search(statusName, authorId, search, nativePageable);
+        String folded = search != null && !search.isBlank() ? PostSearchText.normalize(search.trim()) : null;
+        Page<Post> page = postRepository.search(statusName, authorId, folded, nativePageable);
         return page.map(this::toResponse);
     }
 
+    /**
+     * Ranked search with highlighted title and content snippet, continued with nextCursor
+     */
+    public PostSearchResponse searchPosts(String query, PostStatus status, Long authorId, String cursor, int size) {
+        List<String> terms = PostSearchText.terms(query);
+        int limit = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        String statusName = status != null ? status.name() : null;
+        List<PostSearchService.RankedPost> ranked = postSearchService.search(
+                terms, statusName, authorId, PostSearchService.Cursor.parse(cursor), limit);
+
+        java.util.Map<Long, Post> posts = new java.util.HashMap<>();
+        postRepository.findAllById(ranked.stream().map(PostSearchService.RankedPost::id).toList())
+                .forEach(p -> posts.put(p.getId(), p));
+        List<PostSearchHitResponse> items = ranked.stream()
+                .filter(r -> posts.containsKey(r.id()))
+                .map(r -> {
+                    Post p = posts.get(r.id());
+                    return PostSearchHitResponse.builder()
+                            .post(toResponse(p))
+                            .titleHighlight(PostSearchText.highlight(p.getTitle(), terms))
+                            .snippet(PostSearchText.snippet(p.getContent(), terms, SEARCH_SNIPPET_LENGTH))
+                            .rank(r.rank())
+                            .build();
+                })
+                .toList();
+        String nextCursor = ranked.size() == limit ? PostSearchService.Cursor.of(ranked.get(ranked.size() - 1)) : null;
+        return PostSearchResponse.builder().items(items).nextCursor(nextCursor).build();
+    }
+
     public Page<PostResponse> listSavedPosts(Long userId, Pageable pageable) {
         Page<SavedPost> saved = savedPostRepository.findByUser_Id(userId, pageable);
         return saved.map(sp -> toResponse(sp.getPost()));
@@ -112,39 +152,11 @@ public class PostService {
     }
 
     public java.util.Map<String, Object> getTrends() {
-        java.util.Map<String, Integer> tagCounts = new java.util.HashMap<>();
-        
-        // 1. Tags from 'tags' column
-        java.util.List<String> allTags = postRepository.findAllTags();
-        for (String t : allTags) {
-            if (t == null || t.isEmpty()) continue;
-            for (String tag : t.split(",")) {
-                String normalized = tag.trim().toLowerCase();
-                if (!normalized.isEmpty()) {
-                    tagCounts.put(normalized, tagCounts.getOrDefault(normalized, 0) + 1);
-                }
-            }
-        }
-
-        // 2. Tags from content (legacy support)
-        java.util.List<String> contents = postRepository.findAllContents();
-        java.util.regex.Pattern p = java.util.regex.Pattern.compile("#([A-Za-z0-9_]+)");
-        for (String c : contents) {
-            if (c == null) continue;
-            java.util.regex.Matcher m = p.matcher(c);
-            while (m.find()) {
-                String tag = m.group(1).toLowerCase();
-                tagCounts.put(tag, tagCounts.getOrDefault(tag, 0) + 1);
-            }
-        }
-
-        java.util.List<java.util.Map<String, Object>> top = tagCounts.entrySet().stream()
-                .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
-                .limit(10)
-                .map(e -> {
+        java.util.List<java.util.Map<String, Object>> top = trendingTopicIndex.top().stream()
+                .map(t -> {
                     java.util.Map<String, Object> m = new java.util.HashMap<>();
-                    m.put("topic", e.getKey());
-                    m.put("count", e.getValue());
+                    m.put("topic", t.topic());
+                    m.put("count", t.count());
                     return m;
                 })
                 .toList();
@@ -155,8 +167,7 @@ public class PostService {
 
     public PostResponse getPost(Long id) {
         Post post = postRepository.findById(id).orElseThrow();
-        post.setViewCount(post.getViewCount() + 1);
-        postRepository.save(post);
+        postCounterBuffer.recordView(id);
         return toResponse(post);
     }
 
@@ -164,6 +175,7 @@ public class PostService {
     public PostResponse updatePost(Long id, Long userId, PostUpdateRequest req) {
         Post post = postRepository.findById(id).orElseThrow();
         if (!post.getUser().getId().equals(userId)) throw new RuntimeException("Forbidden");
+        java.util.Set<String> topicsBefore = TrendingTopicIndex.topics(post.getTags(), post.getContent());
         if (req.getTitle() != null) post.setTitle(HtmlUtils.htmlEscape(req.getTitle()));
         if (req.getContent() != null) post.setContent(HtmlUtils.htmlEscape(req.getContent()));
         if (req.getThumbnailUrl() != null) post.setThumbnailUrl(req.getThumbnailUrl());
@@ -171,6 +183,8 @@ public class PostService {
         if (req.getTags() != null) post.setTags(String.join(",", req.getTags()));
         if (req.getStatus() != null) post.setStatus(req.getStatus());
         Post saved = postRepository.save(post);
+        trendingTopicIndex.postChanged(saved.getCreatedAt(), topicsBefore,
+                TrendingTopicIndex.topics(saved.getTags(), saved.getContent()));
         return toResponse(saved);
     }
 
@@ -178,29 +192,23 @@ public class PostService {
     public void deletePost(Long id, Long userId) {
         Post post = postRepository.findById(id).orElseThrow();
         if (!post.getUser().getId().equals(userId)) throw new RuntimeException("Forbidden");
+        trendingTopicIndex.postRemoved(post.getCreatedAt(), TrendingTopicIndex.topics(post.getTags(), post.getContent()));
         postRepository.delete(post);
     }
 
     @Transactional
     public PostResponse likePost(Long id, Long userId) {
         Post post = postRepository.findById(id).orElseThrow();
-        User user = userRepository.findById(userId).orElseThrow();
-        Optional<PostLike> existing = postLikeRepository.findByPost_IdAndUser_Id(id, userId);
-        if (existing.isPresent()) {
-            postLikeRepository.delete(existing.get());
-            post.setLikeCount(Math.max(0, post.getLikeCount() - 1));
+        int likeDelta;
+        int dislikeDelta = 0;
+        if (postLikeRepository.deleteByPostIdAndUserId(id, userId) > 0) {
+            likeDelta = -1;
         } else {
-            Optional<com.exe.skillverse_backend.community_service.entity.PostDislike> exDis =
-                    postDislikeRepository.findByPost_IdAndUser_Id(id, userId);
-            if (exDis.isPresent()) {
-                postDislikeRepository.delete(exDis.get());
-                post.setDislikeCount(Math.max(0, post.getDislikeCount() - 1));
-            }
-            PostLike like = PostLike.builder().post(post).user(user).build();
-            postLikeRepository.save(like);
-            post.setLikeCount(post.getLikeCount() + 1);
+            dislikeDelta = -postDislikeRepository.deleteByPostIdAndUserId(id, userId);
+            likeDelta = postLikeRepository.insertIfAbsent(id, userId);
 
-            if (!post.getUser().getId().equals(userId)) {
+            if (likeDelta > 0 && !post.getUser().getId().equals(userId)) {
+                User user = userRepository.findById(userId).orElseThrow();
                 String likerName = getUserName(user);
 
                 notificationService.createNotification(
@@ -213,35 +221,23 @@ public class PostService {
                 );
             }
         }
-        postRepository.save(post);
-        return toResponse(post);
+        postCounterBuffer.recordReactions(id, likeDelta, dislikeDelta);
+        return toResponse(post, likeDelta, dislikeDelta);
     }
 
     @Transactional
     public PostResponse dislikePost(Long id, Long userId) {
         Post post = postRepository.findById(id).orElseThrow();
-        User user = userRepository.findById(userId).orElseThrow();
-        Optional<com.exe.skillverse_backend.community_service.entity.PostDislike> existing =
-                postDislikeRepository.findByPost_IdAndUser_Id(id, userId);
-        if (existing.isPresent()) {
-            postDislikeRepository.delete(existing.get());
-            post.setDislikeCount(Math.max(0, post.getDislikeCount() - 1));
+        int likeDelta = 0;
+        int dislikeDelta;
+        if (postDislikeRepository.deleteByPostIdAndUserId(id, userId) > 0) {
+            dislikeDelta = -1;
         } else {
-            Optional<PostLike> exLike = postLikeRepository.findByPost_IdAndUser_Id(id, userId);
-            if (exLike.isPresent()) {
-                postLikeRepository.delete(exLike.get());
-                post.setLikeCount(Math.max(0, post.getLikeCount() - 1));
-            }
-            com.exe.skillverse_backend.community_service.entity.PostDislike dislike =
-                    com.exe.skillverse_backend.community_service.entity.PostDislike.builder()
-                            .post(post)
-                            .user(user)
-                            .build();
-            postDislikeRepository.save(dislike);
-            post.setDislikeCount(post.getDislikeCount() + 1);
+            likeDelta = -postLikeRepository.deleteByPostIdAndUserId(id, userId);
+            dislikeDelta = postDislikeRepository.insertIfAbsent(id, userId);
         }
-        postRepository.save(post);
-        return toResponse(post);
+        postCounterBuffer.recordReactions(id, likeDelta, dislikeDelta);
+        return toResponse(post, likeDelta, dislikeDelta);
     }
 
     @Transactional
@@ -250,15 +246,21 @@ public class PostService {
         User user = userRepository.findById(userId).orElseThrow();
         Comment parent = null;
         if (req.getParentId() != null) parent = commentRepository.findById(req.getParentId()).orElse(null);
+        if (parent != null && !parent.getPost().getId().equals(postId)) throw new RuntimeException("Not Found");
         Comment comment = Comment.builder()
                 .post(post)
                 .user(user)
                 .content(HtmlUtils.htmlEscape(req.getContent()))
                 .parent(parent)
+                .hidden(parent != null && parent.isHidden())
+                .hiddenByAncestor(parent != null && parent.isHidden())
                 .build();
         Comment saved = commentRepository.save(comment);
+        String parentPath = parent != null ? pathOf(parent) : "/";
+        saved.setRootId(parent != null ? parent.getRootId() : saved.getId());
+        saved.setPath(parentPath + saved.getId() + "/");
+        postRepository.adjustCommentCount(postId, 1);
         post.setCommentCount(post.getCommentCount() + 1);
-        postRepository.save(post);
 
         if (!post.getUser().getId().equals(userId)) {
             String commenterName = getUserName(user);
@@ -288,6 +290,43 @@ public class PostService {
         return page.map(this::toResponse);
     }
 
+    /**
+     * A page of top-level comments, each with its first replies, loaded in one query
+     */
+    public Page<CommentThreadResponse> listCommentThreads(Long postId, boolean includeHidden, int previewSize, Pageable pageable) {
+        int preview = Math.max(0, Math.min(previewSize, MAX_REPLY_PREVIEW));
+        List<CommentThreadRowView> rows = commentRepository.findThreadRows(
+                postId, includeHidden, pageable.getPageSize(), pageable.getOffset(), preview);
+
+        java.util.Map<Long, User> users = new java.util.HashMap<>();
+        userRepository.findAllById(rows.stream().map(CommentThreadRowView::getUserId).distinct().toList())
+                .forEach(u -> users.put(u.getId(), u));
+
+        // Rows come ordered by thread, the top-level comment first
+        java.util.Map<Long, CommentThreadResponse> threads = new java.util.LinkedHashMap<>();
+        for (CommentThreadRowView row : rows) {
+            CommentResponse comment = toResponse(postId, row, users.get(row.getUserId()));
+            if (row.getParentId() == null) {
+                threads.put(row.getId(), CommentThreadResponse.builder()
+                        .comment(comment)
+                        .replies(new java.util.ArrayList<>())
+                        .replyCount(row.getReplyCount())
+                        .build());
+            } else {
+                CommentThreadResponse thread = threads.get(row.getRootId());
+                if (thread != null) thread.getReplies().add(comment);
+            }
+        }
+        List<CommentThreadResponse> content = threads.values().stream()
+                .sorted(java.util.Comparator.comparing((CommentThreadResponse t) -> t.getComment().getCreatedAt())
+                        .thenComparing(t -> t.getComment().getId()))
+                .toList();
+        long total = pageable.getOffset() == 0 && content.size() < pageable.getPageSize()
+                ? content.size()
+                : commentRepository.countRoots(postId, includeHidden);
+        return new PageImpl<>(content, pageable, total);
+    }
+
     @Transactional
     public void savePost(Long postId, Long userId) {
         Post post = postRepository.findById(postId).orElseThrow();
@@ -311,25 +350,9 @@ public class PostService {
         boolean isAdmin = user.getPrimaryRole() == PrimaryRole.ADMIN;
         if (!(isOwner || isPostAuthor || isAdmin)) throw new RuntimeException("Forbidden");
 
-        int removed = removeCommentWithChildren(commentId);
+        int removed = commentRepository.deleteSubtree(postId, pathOf(comment));
+        postRepository.adjustCommentCount(postId, -removed);
         post.setCommentCount(Math.max(0, post.getCommentCount() - removed));
-        postRepository.save(post);
-    }
-
-    private int removeCommentWithChildren(Long rootCommentId) {
-        int count = 0;
-        Deque<Long> stack = new ArrayDeque<>();
-        stack.push(rootCommentId);
-        while (!stack.isEmpty()) {
-            Long currentId = stack.pop();
-            List<Comment> children = commentRepository.findByParent_Id(currentId);
-            for (Comment child : children) {
-                stack.push(child.getId());
-            }
-            commentRepository.deleteById(currentId);
-            count++;
-        }
-        return count;
     }
 
     @Transactional
@@ -344,9 +367,8 @@ public class PostService {
         boolean isAdmin = user.getPrimaryRole() == PrimaryRole.ADMIN;
         if (!(isOwner || isPostAuthor || isAdmin)) throw new RuntimeException("Forbidden");
 
-        comment.setHidden(true);
-        if (note != null && !note.isBlank()) comment.setModerationNote(HtmlUtils.htmlEscape(note));
-        commentRepository.save(comment);
+        String moderationNote = note != null && !note.isBlank() ? HtmlUtils.htmlEscape(note) : null;
+        commentRepository.hideSubtree(postId, commentId, pathOf(comment), moderationNote);
     }
 
     @Transactional
@@ -361,8 +383,28 @@ public class PostService {
         boolean isAdmin = user.getPrimaryRole() == PrimaryRole.ADMIN;
         if (!(isOwner || isPostAuthor || isAdmin)) throw new RuntimeException("Forbidden");
 
-        comment.setHidden(false);
-        commentRepository.save(comment);
+        String path = pathOf(comment);
+        if (commentRepository.countHiddenAncestors(postId, path) > 0) {
+            // Still covered by a hidden ancestor: shown again once that one is unhidden
+            commentRepository.markHiddenByAncestor(commentId);
+            return;
+        }
+        commentRepository.unhideSubtree(postId, commentId, path);
+    }
+
+    /**
+     * Materialized path of a comment; computed from its parent and stored when the row predates the path backfill
+     */
+    private String pathOf(Comment comment) {
+        if (comment.getPath() == null) {
+            Comment parent = comment.getParent();
+            String parentPath = parent != null ? pathOf(parent) : "/";
+            comment.setRootId(parent != null ? parent.getRootId() : comment.getId());
+            comment.setPath(parentPath + comment.getId() + "/");
+            // Flushed so the subtree statement that follows matches the comment itself
+            commentRepository.saveAndFlush(comment);
+        }
+        return comment.getPath();
     }
 
     @Transactional
@@ -376,6 +418,15 @@ public class PostService {
     }
 
     private PostResponse toResponse(Post p) {
+        return toResponse(p, 0, 0);
+    }
+
+    /**
+     * Counts include deltas still buffered in PostCounterBuffer plus reactions changed by the current,
+     * not yet committed transaction
+     */
+    private PostResponse toResponse(Post p, int likeDelta, int dislikeDelta) {
+        PostCounterBuffer.Pending pending = postCounterBuffer.pending(p.getId());
         java.util.List<String> tags = p.getTags() != null && !p.getTags().isEmpty() 
                 ? java.util.Arrays.asList(p.getTags().split(",")) 
                 : new java.util.ArrayList<>();
@@ -391,10 +442,10 @@ public class PostService {
                 .category(p.getCategory())
                 .tags(tags)
                 .status(p.getStatus())
-                .likeCount(p.getLikeCount())
-                .dislikeCount(p.getDislikeCount())
+                .likeCount((int) Math.max(0, p.getLikeCount() + pending.likes() + likeDelta))
+                .dislikeCount((int) Math.max(0, p.getDislikeCount() + pending.dislikes() + dislikeDelta))
                 .commentCount(p.getCommentCount())
-                .viewCount(p.getViewCount())
+                .viewCount((int) (p.getViewCount() + pending.views()))
                 .createdAt(p.getCreatedAt())
                 .updatedAt(p.getUpdatedAt())
                 .build();
@@ -416,6 +467,22 @@ public class PostService {
                 .build();
     }
 
+    private CommentResponse toResponse(Long postId, CommentThreadRowView row, User user) {
+        return CommentResponse.builder()
+                .id(row.getId())
+                .postId(postId)
+                .userId(row.getUserId())
+                .userFullName(user != null ? getUserName(user) : null)
+                .userAvatar(user != null ? getUserAvatar(user) : null)
+                .content(row.getContent())
+                .parentId(row.getParentId())
+                .createdAt(row.getCreatedAt())
+                .hidden(Boolean.TRUE.equals(row.getHidden()))
+                .reportCount(row.getReportCount())
+                .moderationNote(row.getModerationNote())
+                .build();
+    }
+
     private String getUserAvatar(User user) {
         try {
             if (userProfileService.hasProfile(user.getId())) {
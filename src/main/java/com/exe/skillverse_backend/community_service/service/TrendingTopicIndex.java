@@ -0,0 +1,346 @@
+package com.exe.skillverse_backend.community_service.service;
+
+import com.exe.skillverse_backend.community_service.repository.PostRepository;
+import com.exe.skillverse_backend.community_service.repository.PostTopicSourceView;
+import com.exe.skillverse_backend.community_service.repository.TrendingTopicRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Trending topics of the community sidebar, maintained incrementally instead of scanning every post per request
+ * - Each post adds weight 0.5^(age / half-life) to its topics (tags column plus #hashtags in the content);
+ *   posts older than the window add nothing
+ * - Post writes record per-topic deltas after commit; refresh() applies them to trending_topics as relative
+ *   UPDATEs (so several instances can write), prunes topics that decayed away and reloads the top N into memory
+ * - getTrends() only reads the in-memory top N; its count is the rounded score, a recency-weighted number of
+ *   posts that decays and expires together with the ranking
+ * - On first startup the table is backfilled once from existing posts; legacy posts without tags get their
+ *   content hashtags written to the tags column
+ */
+@Component
+@Slf4j
+public class TrendingTopicIndex {
+
+    /**
+     * '&' is excluded so HTML entities of escaped content (&#39;) are not read as hashtags
+     */
+    private static final Pattern HASHTAG = Pattern.compile("(?<!&)#([A-Za-z0-9_]+)");
+
+    private static final int MAX_TOPIC_LENGTH = 100;
+    private static final int MAX_TAGS_LENGTH = 255;
+    private static final int BACKFILL_PAGE_SIZE = 500;
+
+    /**
+     * Row claiming the one-time backfill; topics are trimmed, so no real topic starts with a space
+     */
+    private static final String BACKFILL_MARKER = " backfill";
+
+    private static final String DECAYED_SCORE = "score * POWER(CAST(0.5 AS DOUBLE PRECISION), "
+            + "CAST(GREATEST(? - scored_at, 0) AS DOUBLE PRECISION) / CAST(? AS DOUBLE PRECISION))";
+    private static final String UPDATE_SQL = "UPDATE trending_topics SET score = GREATEST(" + DECAYED_SCORE + " + ?, 0), "
+            + "scored_at = GREATEST(scored_at, ?) WHERE tag = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO trending_topics (tag, score, scored_at) VALUES (?, ?, ?)";
+    private static final String PRUNE_SQL =
+            "DELETE FROM trending_topics WHERE tag <> ? AND (scored_at < ? OR " + DECAYED_SCORE + " < ?)";
+    private static final String BACKFILL_TAGS_SQL =
+            "UPDATE posts SET tags = ? WHERE id = ? AND (tags IS NULL OR tags = '')";
+
+    /**
+     * One entry of the top list; score is decayed to the last refresh
+     */
+    public record Topic(String topic, double score) {
+
+        /**
+         * Recency-weighted number of posts: a new post counts 1, one a half-life old 0.5.
+         * At least 1, since a listed topic has a recent post.
+         */
+        public long count() {
+            return Math.max(1, Math.round(score));
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TrendingTopicRepository trendingTopicRepository;
+    private final PostRepository postRepository;
+    private final double halfLifeMillis;
+    private final long windowMillis;
+    private final double minScore;
+    private final int topSize;
+
+    /**
+     * Deltas not yet written to trending_topics, guarded by this
+     */
+    private Map<String, Double> pending = new HashMap<>();
+
+    private volatile List<Topic> top = List.of();
+
+    public TrendingTopicIndex(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            TrendingTopicRepository trendingTopicRepository,
+            PostRepository postRepository,
+            @Value("${community.trends.half-life-hours:72}") double halfLifeHours,
+            @Value("${community.trends.window-days:30}") int windowDays,
+            @Value("${community.trends.min-score:0.01}") double minScore,
+            @Value("${community.trends.top-size:10}") int topSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.trendingTopicRepository = trendingTopicRepository;
+        this.postRepository = postRepository;
+        this.halfLifeMillis = halfLifeHours * 3_600_000d;
+        this.windowMillis = windowDays * 86_400_000L;
+        this.minScore = minScore;
+        this.topSize = topSize;
+    }
+
+    /**
+     * Normalized topics of a post: its tags plus #hashtags written in the content
+     */
+    public static Set<String> topics(String tags, String content) {
+        Set<String> topics = new LinkedHashSet<>();
+        if (tags != null) {
+            for (String tag : tags.split(",")) {
+                addTopic(topics, tag);
+            }
+        }
+        if (content != null) {
+            Matcher m = HASHTAG.matcher(content);
+            while (m.find()) {
+                addTopic(topics, m.group(1));
+            }
+        }
+        return topics;
+    }
+
+    public List<Topic> top() {
+        return top;
+    }
+
+    public void postAdded(LocalDateTime createdAt, Set<String> topics) {
+        postChanged(createdAt, Set.of(), topics);
+    }
+
+    public void postRemoved(LocalDateTime createdAt, Set<String> topics) {
+        postChanged(createdAt, topics, Set.of());
+    }
+
+    /**
+     * Record the topic change of a post, applied once the current transaction commits
+     */
+    public void postChanged(LocalDateTime createdAt, Set<String> before, Set<String> after) {
+        Map<String, Integer> diff = new HashMap<>();
+        before.stream().filter(t -> !after.contains(t)).forEach(t -> diff.put(t, -1));
+        after.stream().filter(t -> !before.contains(t)).forEach(t -> diff.put(t, 1));
+        if (diff.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(createdAt, diff);
+                }
+            });
+        } else {
+            record(createdAt, diff);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            Integer scanned = transactionTemplate.execute(status -> backfill());
+            if (scanned != null && scanned > 0) {
+                log.info("Backfilled trending topics from {} posts", scanned);
+            }
+        } catch (DuplicateKeyException e) {
+            log.debug("Trending topics backfill claimed by another instance");
+        } catch (Exception e) {
+            // Nothing was committed; the next startup retries
+            log.error("Trending topics backfill failed: {}", e.getMessage());
+        }
+        try {
+            reload();
+        } catch (DataAccessException e) {
+            log.warn("Failed to load trending topics: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${community.trends.refresh-interval-ms:30000}",
+            initialDelayString = "${community.trends.refresh-interval-ms:30000}")
+    public void refresh() {
+        try {
+            flush();
+            long now = System.currentTimeMillis();
+            jdbcTemplate.update(PRUNE_SQL, BACKFILL_MARKER, now - windowMillis, now, halfLifeMillis, minScore);
+            reload();
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Failed to refresh trending topics, will retry: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void record(LocalDateTime createdAt, Map<String, Integer> diff) {
+        double weight = weight(createdAt, System.currentTimeMillis());
+        if (weight == 0) {
+            return;
+        }
+        diff.forEach((topic, sign) -> pending.merge(topic, sign * weight, Double::sum));
+    }
+
+    private void flush() {
+        Map<String, Double> drained;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            drained = pending;
+            pending = new HashMap<>();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(drained, System.currentTimeMillis()));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                drained.forEach((topic, weight) -> pending.merge(topic, weight, Double::sum));
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Apply deltas as relative UPDATEs ordered by topic (so concurrent writers cannot deadlock),
+     * then insert the topics that are not in the table yet
+     */
+    private void write(Map<String, Double> deltas, long now) {
+        List<Map.Entry<String, Double>> entries = new ArrayList<>(new TreeMap<>(deltas).entrySet());
+        List<Object[]> updates = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Double> e : entries) {
+            updates.add(new Object[]{now, halfLifeMillis, e.getValue(), now, e.getKey()});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            double weight = entries.get(i).getValue();
+            if (updated[i] == 0 && weight > 0) {
+                inserts.add(new Object[]{entries.get(i).getKey(), weight, now});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+    }
+
+    private void reload() {
+        long now = System.currentTimeMillis();
+        top = trendingTopicRepository.findAll().stream()
+                .filter(t -> !BACKFILL_MARKER.equals(t.getTag()))
+                .map(t -> new Topic(t.getTag(),
+                        t.getScore() * Math.pow(0.5, Math.max(0, now - t.getScoredAt()) / halfLifeMillis)))
+                .filter(t -> t.score() >= minScore)
+                .sorted(Comparator.comparingDouble(Topic::score).reversed())
+                .limit(topSize)
+                .toList();
+    }
+
+    /**
+     * Runs inside one transaction: the marker row is inserted first, so a concurrent instance blocks on it
+     * and then fails with a duplicate key instead of counting the posts twice
+     *
+     * @return number of posts scanned, 0 when the backfill has already run
+     */
+    private int backfill() {
+        if (trendingTopicRepository.existsById(BACKFILL_MARKER)) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        jdbcTemplate.update(INSERT_SQL, BACKFILL_MARKER, 0d, now);
+
+        Map<String, Double> deltas = new HashMap<>();
+        int scanned = 0;
+        Long afterId = 0L;
+        List<PostTopicSourceView> page;
+        do {
+            page = postRepository.findTopicSources(afterId, PageRequest.of(0, BACKFILL_PAGE_SIZE));
+            List<Object[]> tagUpdates = new ArrayList<>();
+            for (PostTopicSourceView post : page) {
+                Set<String> topics = topics(post.getTags(), post.getContent());
+                if ((post.getTags() == null || post.getTags().isBlank()) && !topics.isEmpty()) {
+                    tagUpdates.add(new Object[]{joinTags(topics), post.getId()});
+                }
+                double weight = weight(post.getCreatedAt(), now);
+                if (weight > 0) {
+                    topics.forEach(topic -> deltas.merge(topic, weight, Double::sum));
+                }
+                afterId = post.getId();
+            }
+            if (!tagUpdates.isEmpty()) {
+                jdbcTemplate.batchUpdate(BACKFILL_TAGS_SQL, tagUpdates);
+            }
+            scanned += page.size();
+        } while (page.size() == BACKFILL_PAGE_SIZE);
+
+        if (!deltas.isEmpty()) {
+            write(deltas, now);
+        }
+        return scanned;
+    }
+
+    private double weight(LocalDateTime createdAt, long now) {
+        long created = createdAt != null ? createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : now;
+        long age = Math.max(0, now - created);
+        return age > windowMillis ? 0 : Math.pow(0.5, age / halfLifeMillis);
+    }
+
+    private static void addTopic(Set<String> topics, String raw) {
+        String topic = raw.trim().toLowerCase(Locale.ROOT);
+        if (!topic.isEmpty() && topic.length() <= MAX_TOPIC_LENGTH) {
+            topics.add(topic);
+        }
+    }
+
+    /**
+     * Comma-separated tags that fit the posts.tags column
+     */
+    private static String joinTags(Set<String> topics) {
+        StringBuilder tags = new StringBuilder();
+        for (String topic : topics) {
+            int length = tags.length() + (tags.length() > 0 ? 1 : 0) + topic.length();
+            if (length > MAX_TAGS_LENGTH) {
+                break;
+            }
+            if (tags.length() > 0) {
+                tags.append(',');
+            }
+            tags.append(topic);
+        }
+        return tags.toString();
+    }
+}
@@ -0,0 +1,46 @@
+package com.exe.skillverse_backend.course_service.entity;
+import com.exe.skillverse_backend.course_service.entity.enums.CodeJudgeJobStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import java.time.Instant;
+
+/**
+ * Judge queue entry of a coding submission (one per submission).
+ * Claimed by CodeJudgeDispatcher with SKIP LOCKED, so any instance can grade it.
+ */
+@Entity @Table(name = "code_judge_jobs",
+  indexes = @Index(columnList = "status, created_at"),
+  uniqueConstraints = @UniqueConstraint(columnNames = "submission_id"))
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class CodeJudgeJob {
+  @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @OneToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "submission_id", nullable = false)
+  @OnDelete(action = OnDeleteAction.CASCADE)
+  @ToString.Exclude @EqualsAndHashCode.Exclude
+  private CodingSubmission submission;
+
+  @Builder.Default
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 20)
+  private CodeJudgeJobStatus status = CodeJudgeJobStatus.QUEUED;
+
+  @Builder.Default
+  @Column(nullable = false)
+  private Integer attempts = 0;
+
+  /** When a worker took the job; RUNNING jobs with an old claim are taken again */
+  private Instant claimedAt;
+
+  private Instant finishedAt;
+
+  @Column(length = 500) private String lastError;
+
+  @Builder.Default
+  @Column(name = "created_at", nullable = false)
+  private Instant createdAt = Instant.now();
+}
@@ -0,0 +1,5 @@
+package com.exe.skillverse_backend.course_service.entity.enums;
+
+public enum CodeJudgeJobStatus {
+    QUEUED, RUNNING, DONE, FAILED
+}
@@ -0,0 +1,37 @@
+package com.exe.skillverse_backend.course_service.repository;
+
+import com.exe.skillverse_backend.course_service.entity.CodeJudgeJob;
+import com.exe.skillverse_backend.course_service.entity.enums.CodeJudgeJobStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface CodeJudgeJobRepository extends JpaRepository<CodeJudgeJob, Long> {
+
+    /**
+     * Lock the oldest queued jobs (and RUNNING jobs whose claim went stale), skipping rows
+     * another instance holds: lock timeout -2 is Hibernate's SKIP_LOCKED
+     * (FOR UPDATE SKIP LOCKED on PostgreSQL)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT j FROM CodeJudgeJob j " +
+           "WHERE j.status = :queued OR (j.status = :running AND j.claimedAt < :staleBefore) " +
+           "ORDER BY j.createdAt ASC, j.id ASC")
+    List<CodeJudgeJob> findClaimable(@Param("queued") CodeJudgeJobStatus queued,
+                                     @Param("running") CodeJudgeJobStatus running,
+                                     @Param("staleBefore") Instant staleBefore,
+                                     Pageable pageable);
+
+    long countByStatus(CodeJudgeJobStatus status);
+}
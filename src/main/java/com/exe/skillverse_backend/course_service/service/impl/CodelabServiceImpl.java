@@ -12,6 +12,7 @@ import com.exe.skillverse_backend.course_service.mapper.CodingSubmissionMapper;
 import com.exe.skillverse_backend.course_service.mapper.CodingTestCaseMapper;
 import com.exe.skillverse_backend.course_service.repository.*;
 import com.exe.skillverse_backend.course_service.service.CodelabService;
+import com.exe.skillverse_backend.course_service.service.judge.CodeJudgeQueue;
 import com.exe.skillverse_backend.shared.dto.PageResponse;
 import com.exe.skillverse_backend.shared.exception.AccessDeniedException;
 import com.exe.skillverse_backend.shared.exception.NotFoundException;
@@ -38,6 +39,7 @@ public class CodelabServiceImpl implements CodelabService {
     private final CodingExerciseMapper exerciseMapper;
     private final CodingTestCaseMapper testCaseMapper;
     private final CodingSubmissionMapper submissionMapper;
+    private final CodeJudgeQueue codeJudgeQueue;
     private final Clock clock;
 
     @Override
@@ -173,9 +175,10 @@ public class CodelabServiceImpl implements CodelabService {
         submission.setSubmittedAt(now());
         
         CodingSubmission saved = submissionRepository.save(submission);
+        codeJudgeQueue.enqueue(saved);
         log.info("Coding exercise {} submitted by user {}, submission id {}", exerciseId, userId, saved.getId());
         
-        // Judge queue integration for async code evaluation will be implemented
+        // Graded asynchronously by CodeJudgeDispatcher; the result is pushed to /user/queue/codelab-submissions
         
         return submissionMapper.toDetailDto(saved);
     }
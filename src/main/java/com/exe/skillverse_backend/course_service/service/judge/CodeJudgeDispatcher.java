@@ -0,0 +1,236 @@
+package com.exe.skillverse_backend.course_service.service.judge;
+
+import com.exe.skillverse_backend.course_service.dto.codingdto.CodingSubmissionDetailDTO;
+import com.exe.skillverse_backend.course_service.entity.enums.CodeSubmissionStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feeds the local judge workers from the persistent queue
+ * - Each poll claims only as many jobs as there are idle workers
+ * - A worker grades every test case in the sandbox, writes score and feedback back
+ *   and pushes the submission to /user/queue/codelab-submissions
+ * - Metrics: codelab.judge.queue.depth, codelab.judge.workers.busy/utilization,
+ *   codelab.judge.latency (submit to result), codelab.judge.execution, codelab.judge.results{status}
+ */
+@Component
+@Slf4j
+public class CodeJudgeDispatcher {
+
+    private static final String USER_DESTINATION = "/queue/codelab-submissions";
+    private static final int SNIPPET_LENGTH = 300;
+    private static final int MAX_FEEDBACK_LENGTH = 8000;
+
+    private final CodeJudgeQueue queue;
+    private final CodeSandbox sandbox;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final int workers;
+
+    private final AtomicInteger busy = new AtomicInteger();
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final Timer latencyTimer;
+    private final Timer executionTimer;
+    private final Map<CodeSubmissionStatus, Counter> resultCounters = new ConcurrentHashMap<>();
+
+    public CodeJudgeDispatcher(
+            CodeJudgeQueue queue,
+            CodeSandbox sandbox,
+            SimpMessagingTemplate messagingTemplate,
+            MeterRegistry meterRegistry,
+            @Qualifier("codeJudgeExecutor") ExecutorService executor,
+            @Value("${codelab.judge.workers:2}") int workers) {
+        this.queue = queue;
+        this.sandbox = sandbox;
+        this.messagingTemplate = messagingTemplate;
+        this.meterRegistry = meterRegistry;
+        this.executor = executor;
+        this.workers = workers;
+
+        Gauge.builder("codelab.judge.queue.depth", queueDepth, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("codelab.judge.workers.busy", busy, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("codelab.judge.workers.utilization", busy, b -> (double) b.get() / workers)
+                .register(meterRegistry);
+        this.latencyTimer = Timer.builder("codelab.judge.latency")
+                .publishPercentiles(0.5, 0.95).register(meterRegistry);
+        this.executionTimer = Timer.builder("codelab.judge.execution")
+                .publishPercentiles(0.5, 0.95).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${codelab.judge.poll-interval-ms:1000}")
+    public void poll() {
+        try {
+            queueDepth.set(queue.queueDepth());
+            // No isolation on this instance: leave the jobs queued for a judge host that has it
+            if (!sandbox.isEnabled()) {
+                return;
+            }
+            int idle = workers - busy.get();
+            if (idle <= 0) {
+                return;
+            }
+            for (Long jobId : queue.claim(idle)) {
+                busy.incrementAndGet();
+                try {
+                    executor.execute(() -> runJob(jobId));
+                } catch (RejectedExecutionException e) {
+                    busy.decrementAndGet();
+                    queue.release(jobId);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Judge queue poll failed: {}", e.getMessage());
+        }
+    }
+
+    private void runJob(Long jobId) {
+        try {
+            CodeJudgeQueue.JudgeTask task = queue.loadTask(jobId).orElse(null);
+            if (task == null) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            CodeJudgeQueue.JudgeOutcome outcome;
+            try {
+                outcome = grade(task);
+            } catch (IOException e) {
+                // Runtime missing or sandbox broken: retry, possibly on another instance
+                queue.fail(jobId, e.getMessage()).ifPresent(dto -> publish(task, dto));
+                return;
+            }
+            executionTimer.record(Duration.ofNanos(System.nanoTime() - start));
+
+            queue.complete(jobId, outcome).ifPresent(dto -> publish(task, dto));
+        } catch (InterruptedException e) {
+            // Shutting down: the job's claim goes stale and another poll takes it again
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Judge job {} failed", jobId, e);
+            try {
+                queue.fail(jobId, e.getMessage());
+            } catch (Exception ignored) {
+                // Left RUNNING; picked up again once the claim is stale
+            }
+        } finally {
+            busy.decrementAndGet();
+        }
+    }
+
+    /**
+     * Run every test case and score by weight: passed weight / total weight * maxScore
+     */
+    CodeJudgeQueue.JudgeOutcome grade(CodeJudgeQueue.JudgeTask task) throws IOException, InterruptedException {
+        CodeSandbox.Runtime runtime = CodeSandbox.Runtime.fromLanguage(task.language());
+        if (runtime == null) {
+            return new CodeJudgeQueue.JudgeOutcome(CodeSubmissionStatus.ERROR, null,
+                    "Ngôn ngữ '" + task.language() + "' chưa được hỗ trợ chấm tự động");
+        }
+        List<CodeJudgeQueue.TestCaseSpec> testCases = task.testCases();
+        if (testCases.isEmpty()) {
+            return new CodeJudgeQueue.JudgeOutcome(CodeSubmissionStatus.ERROR, null,
+                    "Bài tập chưa có test case để chấm");
+        }
+
+        BigDecimal totalWeight = BigDecimal.ZERO;
+        BigDecimal passedWeight = BigDecimal.ZERO;
+        int passed = 0;
+        StringBuilder details = new StringBuilder();
+
+        for (CodeJudgeQueue.TestCaseSpec testCase : testCases) {
+            BigDecimal weight = testCase.weight() != null ? testCase.weight() : BigDecimal.ONE;
+            totalWeight = totalWeight.add(weight);
+
+            CodeSandbox.RunResult run = sandbox.run(runtime, task.code(), testCase.input());
+            String verdict;
+            if (run.timedOut()) {
+                verdict = "Quá thời gian (> " + sandbox.getTimeLimitMs() + " ms)";
+            } else if (run.exitCode() != 0) {
+                verdict = "Lỗi khi chạy (exit code " + run.exitCode() + ")"
+                        + (testCase.hidden() ? "" : "\n  " + snippet(run.stderr()));
+            } else if (outputMatches(testCase.expectedOutput(), run.stdout())) {
+                verdict = "Đạt";
+                passed++;
+                passedWeight = passedWeight.add(weight);
+            } else {
+                verdict = "Sai kết quả" + (testCase.hidden() ? ""
+                        : "\n  Mong đợi: " + snippet(testCase.expectedOutput()) + "\n  Nhận được: " + snippet(run.stdout()));
+            }
+            details.append("Test ").append(testCase.index())
+                    .append(testCase.hidden() ? " (ẩn): " : " (công khai): ")
+                    .append(verdict).append(" - ").append(run.durationMs()).append(" ms\n");
+        }
+
+        BigDecimal maxScore = task.maxScore() != null ? task.maxScore() : BigDecimal.valueOf(100);
+        BigDecimal score = totalWeight.signum() > 0
+                ? passedWeight.multiply(maxScore).divide(totalWeight, 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+        String feedback = "Đạt " + passed + "/" + testCases.size() + " test case\n" + details;
+        if (feedback.length() > MAX_FEEDBACK_LENGTH) {
+            feedback = feedback.substring(0, MAX_FEEDBACK_LENGTH) + "\n...";
+        }
+        return new CodeJudgeQueue.JudgeOutcome(
+                passed == testCases.size() ? CodeSubmissionStatus.PASSED : CodeSubmissionStatus.FAILED,
+                score, feedback);
+    }
+
+    /**
+     * Compare ignoring trailing whitespace on each line and trailing blank lines
+     */
+    static boolean outputMatches(String expected, String actual) {
+        return normalize(expected).equals(normalize(actual));
+    }
+
+    private static String normalize(String output) {
+        if (output == null) {
+            return "";
+        }
+        return output.replace("\r\n", "\n").lines()
+                .map(String::stripTrailing)
+                .reduce((a, b) -> a + "\n" + b)
+                .orElse("")
+                .stripTrailing();
+    }
+
+    private static String snippet(String text) {
+        if (text == null || text.isBlank()) {
+            return "(trống)";
+        }
+        String trimmed = text.strip();
+        return trimmed.length() > SNIPPET_LENGTH ? trimmed.substring(0, SNIPPET_LENGTH) + "..." : trimmed;
+    }
+
+    private void publish(CodeJudgeQueue.JudgeTask task, CodingSubmissionDetailDTO dto) {
+        latencyTimer.record(Duration.between(task.submittedAt(), Instant.now()));
+        resultCounters.computeIfAbsent(CodeSubmissionStatus.valueOf(dto.getStatus()), status ->
+                Counter.builder("codelab.judge.results").tag("status", status.name()).register(meterRegistry))
+                .increment();
+        try {
+            messagingTemplate.convertAndSendToUser(task.userId().toString(), USER_DESTINATION, dto);
+        } catch (Exception e) {
+            log.warn("Failed to push judge result of submission {}: {}", task.submissionId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.exe.skillverse_backend.course_service.service.judge;
+
+import com.exe.skillverse_backend.course_service.dto.codingdto.CodingSubmissionDetailDTO;
+import com.exe.skillverse_backend.course_service.entity.CodeJudgeJob;
+import com.exe.skillverse_backend.course_service.entity.CodingExercise;
+import com.exe.skillverse_backend.course_service.entity.CodingSubmission;
+import com.exe.skillverse_backend.course_service.entity.enums.CodeJudgeJobStatus;
+import com.exe.skillverse_backend.course_service.entity.enums.CodeSubmissionStatus;
+import com.exe.skillverse_backend.course_service.mapper.CodingSubmissionMapper;
+import com.exe.skillverse_backend.course_service.repository.CodeJudgeJobRepository;
+import com.exe.skillverse_backend.course_service.repository.CodingTestCaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Persistent judge queue (code_judge_jobs): every state change of a job and
+ * its submission happens in one short transaction here, never while code runs
+ */
+@Service
+@Slf4j
+public class CodeJudgeQueue {
+
+    public record TestCaseSpec(int index, boolean hidden, String input, String expectedOutput, BigDecimal weight) {
+    }
+
+    /**
+     * Everything a worker needs, detached from the persistence context
+     */
+    public record JudgeTask(Long jobId, Long submissionId, Long userId, String language, String code,
+                            BigDecimal maxScore, Instant submittedAt, List<TestCaseSpec> testCases) {
+    }
+
+    public record JudgeOutcome(CodeSubmissionStatus status, BigDecimal score, String feedback) {
+    }
+
+    private static final String GIVE_UP_FEEDBACK = "Hệ thống chấm bài gặp sự cố, vui lòng nộp lại sau";
+
+    private final CodeJudgeJobRepository jobRepository;
+    private final CodingTestCaseRepository testCaseRepository;
+    private final CodingSubmissionMapper submissionMapper;
+    private final Clock clock;
+    private final int maxAttempts;
+    private final Duration lease;
+
+    public CodeJudgeQueue(
+            CodeJudgeJobRepository jobRepository,
+            CodingTestCaseRepository testCaseRepository,
+            CodingSubmissionMapper submissionMapper,
+            Clock clock,
+            @Value("${codelab.judge.max-attempts:3}") int maxAttempts,
+            @Value("${codelab.judge.lease-minutes:5}") long leaseMinutes) {
+        this.jobRepository = jobRepository;
+        this.testCaseRepository = testCaseRepository;
+        this.submissionMapper = submissionMapper;
+        this.clock = clock;
+        this.maxAttempts = maxAttempts;
+        this.lease = Duration.ofMinutes(leaseMinutes);
+    }
+
+    /**
+     * Queue a freshly saved submission, in the caller's transaction
+     */
+    @Transactional
+    public void enqueue(CodingSubmission submission) {
+        jobRepository.save(CodeJudgeJob.builder()
+                .submission(submission)
+                .createdAt(Instant.now(clock))
+                .build());
+    }
+
+    /**
+     * Take up to limit jobs for this instance's workers and mark their submissions RUNNING.
+     * Stale jobs that already used all attempts are given up instead.
+     */
+    @Transactional
+    public List<Long> claim(int limit) {
+        Instant now = Instant.now(clock);
+        List<CodeJudgeJob> jobs = jobRepository.findClaimable(
+                CodeJudgeJobStatus.QUEUED, CodeJudgeJobStatus.RUNNING, now.minus(lease), PageRequest.of(0, limit));
+
+        List<Long> claimed = new ArrayList<>();
+        for (CodeJudgeJob job : jobs) {
+            if (job.getAttempts() >= maxAttempts) {
+                log.error("Judge job {} abandoned after {} attempts", job.getId(), job.getAttempts());
+                finish(job, CodeJudgeJobStatus.FAILED, new JudgeOutcome(CodeSubmissionStatus.ERROR, null, GIVE_UP_FEEDBACK));
+                continue;
+            }
+            job.setStatus(CodeJudgeJobStatus.RUNNING);
+            job.setAttempts(job.getAttempts() + 1);
+            job.setClaimedAt(now);
+            job.getSubmission().setStatus(CodeSubmissionStatus.RUNNING);
+            claimed.add(job.getId());
+        }
+        return claimed;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<JudgeTask> loadTask(Long jobId) {
+        return jobRepository.findById(jobId)
+                .filter(job -> job.getStatus() == CodeJudgeJobStatus.RUNNING)
+                .map(job -> {
+                    CodingSubmission submission = job.getSubmission();
+                    CodingExercise exercise = submission.getExercise();
+                    List<TestCaseSpec> testCases = new ArrayList<>();
+                    int index = 1;
+                    for (var testCase : testCaseRepository.findByExerciseIdOrderByOrderIndexAsc(exercise.getId())) {
+                        testCases.add(new TestCaseSpec(index++, !"PUBLIC".equalsIgnoreCase(testCase.getKind()),
+                                testCase.getInput(), testCase.getExpectedOutput(), testCase.getScoreWeight()));
+                    }
+                    return new JudgeTask(job.getId(), submission.getId(), submission.getUser().getId(),
+                            exercise.getLanguage(), submission.getSubmittedCode(), exercise.getMaxScore(),
+                            submission.getSubmittedAt(), testCases);
+                });
+    }
+
+    /**
+     * Write the grading result back; empty when the job was taken over in the meantime
+     */
+    @Transactional
+    public Optional<CodingSubmissionDetailDTO> complete(Long jobId, JudgeOutcome outcome) {
+        return jobRepository.findById(jobId)
+                .filter(job -> job.getStatus() == CodeJudgeJobStatus.RUNNING)
+                .map(job -> finish(job, CodeJudgeJobStatus.DONE, outcome));
+    }
+
+    /**
+     * Requeue after an infrastructure failure, or give up once attempts are used.
+     * Returns the submission only when it was given up.
+     */
+    @Transactional
+    public Optional<CodingSubmissionDetailDTO> fail(Long jobId, String error) {
+        return jobRepository.findById(jobId)
+                .filter(job -> job.getStatus() == CodeJudgeJobStatus.RUNNING)
+                .flatMap(job -> {
+                    job.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+                    if (job.getAttempts() >= maxAttempts) {
+                        log.error("Judge job {} failed after {} attempts: {}", jobId, job.getAttempts(), error);
+                        return Optional.of(finish(job, CodeJudgeJobStatus.FAILED,
+                                new JudgeOutcome(CodeSubmissionStatus.ERROR, null, GIVE_UP_FEEDBACK)));
+                    }
+                    log.warn("Judge job {} attempt {} failed, requeued: {}", jobId, job.getAttempts(), error);
+                    job.setStatus(CodeJudgeJobStatus.QUEUED);
+                    job.getSubmission().setStatus(CodeSubmissionStatus.QUEUED);
+                    return Optional.empty();
+                });
+    }
+
+    /**
+     * Hand a claimed job back without using an attempt (no worker was free)
+     */
+    @Transactional
+    public void release(Long jobId) {
+        jobRepository.findById(jobId)
+                .filter(job -> job.getStatus() == CodeJudgeJobStatus.RUNNING)
+                .ifPresent(job -> {
+                    job.setStatus(CodeJudgeJobStatus.QUEUED);
+                    job.setAttempts(Math.max(0, job.getAttempts() - 1));
+                    job.getSubmission().setStatus(CodeSubmissionStatus.QUEUED);
+                });
+    }
+
+    @Transactional(readOnly = true)
+    public long queueDepth() {
+        return jobRepository.countByStatus(CodeJudgeJobStatus.QUEUED);
+    }
+
+    private CodingSubmissionDetailDTO finish(CodeJudgeJob job, CodeJudgeJobStatus status, JudgeOutcome outcome) {
+        job.setStatus(status);
+        job.setFinishedAt(Instant.now(clock));
+
+        CodingSubmission submission = job.getSubmission();
+        submission.setStatus(outcome.status());
+        submission.setScore(outcome.score());
+        submission.setFeedback(outcome.feedback());
+        return submissionMapper.toDetailDto(submission);
+    }
+}
@@ -0,0 +1,233 @@
+package com.exe.skillverse_backend.course_service.service.judge;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Runs one program against one input in a separate local process
+ * - Fresh temp directory per run as working dir and HOME, deleted afterwards
+ * - stdin/stdout/stderr go through files (no pipe deadlocks), output is capped
+ * - Wall time: process tree killed after codelab.judge.time-limit-ms; descendants seen during the run are
+ *   killed after every run, also when the program exits on its own
+ * - CPU, file size and memory: prlimit (--cpu, --fsize, and --as for Python or --data for Node/Java, whose
+ *   runtimes reserve more address space than any sane --as limit) plus heap flags for Node/Java
+ * - Process count: RLIMIT_NPROC counts every task of the real uid, including the backend's own threads, so
+ *   --nproc (codelab.judge.sandbox.max-processes) is only added when set, and only behind a prefix that runs code
+ *   as a dedicated uid; otherwise the prefix should cap pids itself (e.g. nsjail --cgroup_pids_max)
+ * - codelab.judge.sandbox.command-prefix wraps every command (e.g. nsjail) for namespace, network
+ *   and user isolation on the judge hosts. Without it nothing is run and submissions stay queued, unless
+ *   codelab.judge.sandbox.unsafe-local is set for local development: learner code then runs as the application user.
+ */
+@Component
+@Slf4j
+public class CodeSandbox {
+
+    /**
+     * Supported runtimes, with the source file name the program is written to
+     */
+    public enum Runtime {
+        PYTHON("main.py"), JAVASCRIPT("main.js"), JAVA("Main.java");
+
+        private final String fileName;
+
+        Runtime(String fileName) {
+            this.fileName = fileName;
+        }
+
+        /**
+         * Map CodingExercise.language ("Python", "JS", "Java"...) to a runtime, null when unsupported
+         */
+        public static Runtime fromLanguage(String language) {
+            if (language == null) {
+                return null;
+            }
+            return switch (language.trim().toLowerCase(Locale.ROOT)) {
+                case "python", "python3", "py" -> PYTHON;
+                case "javascript", "js", "node", "nodejs" -> JAVASCRIPT;
+                case "java" -> JAVA;
+                default -> null;
+            };
+        }
+    }
+
+    public record RunResult(int exitCode, String stdout, String stderr, boolean timedOut, long durationMs) {
+    }
+
+    private static final int MAX_OUTPUT_BYTES = 64 * 1024;
+    private static final long MAX_FILE_BYTES = 16L * 1024 * 1024;
+    private static final long MANAGED_RUNTIME_OVERHEAD_MB = 256;
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private final long timeLimitMs;
+    private final int memoryLimitMb;
+    private final List<String> commandPrefix;
+    private final boolean unsafeLocal;
+    private final boolean prlimitAvailable;
+    private final int maxProcesses;
+    private final String pythonCommand;
+    private final String nodeCommand;
+    private final String javaCommand;
+
+    public CodeSandbox(
+            @Value("${codelab.judge.time-limit-ms:5000}") long timeLimitMs,
+            @Value("${codelab.judge.memory-limit-mb:256}") int memoryLimitMb,
+            @Value("${codelab.judge.sandbox.command-prefix:}") String commandPrefix,
+            @Value("${codelab.judge.sandbox.unsafe-local:false}") boolean unsafeLocal,
+            @Value("${codelab.judge.sandbox.prlimit:true}") boolean usePrlimit,
+            @Value("${codelab.judge.sandbox.max-processes:0}") int maxProcesses,
+            @Value("${codelab.judge.runtimes.python:python3}") String pythonCommand,
+            @Value("${codelab.judge.runtimes.node:node}") String nodeCommand,
+            @Value("${codelab.judge.runtimes.java:java}") String javaCommand) {
+        this.timeLimitMs = timeLimitMs;
+        this.memoryLimitMb = memoryLimitMb;
+        this.commandPrefix = commandPrefix.isBlank() ? List.of() : Arrays.asList(commandPrefix.trim().split("\\s+"));
+        this.unsafeLocal = unsafeLocal;
+        this.prlimitAvailable = usePrlimit && Files.isExecutable(Path.of("/usr/bin/prlimit"));
+        this.maxProcesses = maxProcesses;
+        this.pythonCommand = pythonCommand;
+        this.nodeCommand = nodeCommand;
+        this.javaCommand = javaCommand;
+        if (usePrlimit && !prlimitAvailable) {
+            log.warn("prlimit not found, code judge runs without CPU/process/memory limits");
+        }
+        if (this.commandPrefix.isEmpty()) {
+            if (unsafeLocal) {
+                log.warn("Code judge runs learner code WITHOUT isolation (codelab.judge.sandbox.unsafe-local)");
+            } else {
+                log.warn("codelab.judge.sandbox.command-prefix not set, code submissions stay queued until a judge "
+                        + "host with sandbox isolation picks them up");
+            }
+        }
+    }
+
+    public long getTimeLimitMs() {
+        return timeLimitMs;
+    }
+
+    /**
+     * Whether learner code may run here: an isolation prefix is configured, or unsafe-local was opted into
+     */
+    public boolean isEnabled() {
+        return !commandPrefix.isEmpty() || unsafeLocal;
+    }
+
+    /**
+     * Run the source with the given stdin. Throws IOException when the runtime cannot be started.
+     */
+    public RunResult run(Runtime runtime, String source, String input) throws IOException, InterruptedException {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Code sandbox has no isolation configured");
+        }
+        Path dir = Files.createTempDirectory("judge-");
+        try {
+            Files.writeString(dir.resolve(runtime.fileName), source, StandardCharsets.UTF_8);
+            Path stdin = Files.writeString(dir.resolve("stdin.txt"), input != null ? input : "", StandardCharsets.UTF_8);
+            Path stdout = dir.resolve("stdout.txt");
+            Path stderr = dir.resolve("stderr.txt");
+
+            ProcessBuilder builder = new ProcessBuilder(command(runtime))
+                    .directory(dir.toFile())
+                    .redirectInput(stdin.toFile())
+                    .redirectOutput(stdout.toFile())
+                    .redirectError(stderr.toFile());
+            String path = builder.environment().get("PATH");
+            builder.environment().clear();
+            builder.environment().put("PATH", path != null ? path : "/usr/local/bin:/usr/bin:/bin");
+            builder.environment().put("HOME", dir.toString());
+            builder.environment().put("LANG", "C.UTF-8");
+
+            long start = System.nanoTime();
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeLimitMs);
+            Process process = builder.start();
+            // Descendants are collected while the program runs: once their parent exits they are
+            // re-parented and no longer show up under the process
+            Set<ProcessHandle> spawned = new HashSet<>();
+            boolean finished = false;
+            try {
+                while (!finished) {
+                    process.descendants().forEach(spawned::add);
+                    long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remainingMs <= 0) {
+                        break;
+                    }
+                    finished = process.waitFor(Math.min(remainingMs, POLL_INTERVAL_MS), TimeUnit.MILLISECONDS);
+                }
+            } finally {
+                process.descendants().forEach(spawned::add);
+                spawned.forEach(ProcessHandle::destroyForcibly);
+                if (process.isAlive()) {
+                    process.destroyForcibly();
+                }
+            }
+            if (!finished) {
+                process.waitFor(1, TimeUnit.SECONDS);
+            }
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            return new RunResult(finished ? process.exitValue() : -1,
+                    readCapped(stdout), readCapped(stderr), !finished, durationMs);
+        } finally {
+            deleteQuietly(dir);
+        }
+    }
+
+    private List<String> command(Runtime runtime) {
+        List<String> command = new ArrayList<>(commandPrefix);
+        if (prlimitAvailable) {
+            command.add("/usr/bin/prlimit");
+            command.add("--cpu=" + Math.max(1, (timeLimitMs + 999) / 1000));
+            command.add("--fsize=" + MAX_FILE_BYTES);
+            if (maxProcesses > 0 && !commandPrefix.isEmpty()) {
+                command.add("--nproc=" + maxProcesses);
+            }
+            if (runtime == Runtime.PYTHON) {
+                command.add("--as=" + (long) memoryLimitMb * 1024 * 1024);
+            } else {
+                // Heap flags bound the managed heap, --data bounds everything the runtime actually writes to
+                command.add("--data=" + (memoryLimitMb + MANAGED_RUNTIME_OVERHEAD_MB) * 1024 * 1024);
+            }
+            command.add("--");
+        }
+        switch (runtime) {
+            case PYTHON -> command.addAll(List.of(pythonCommand, "-I", runtime.fileName));
+            case JAVASCRIPT -> command.addAll(List.of(nodeCommand, "--max-old-space-size=" + memoryLimitMb, runtime.fileName));
+            // Single-file source launcher: compiles and runs in one step
+            case JAVA -> command.addAll(List.of(javaCommand, "-Xmx" + memoryLimitMb + "m", "-XX:+UseSerialGC",
+                    "-XX:TieredStopAtLevel=1", runtime.fileName));
+        }
+        return command;
+    }
+
+    private static String readCapped(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return "";
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            return new String(in.readNBytes(MAX_OUTPUT_BYTES), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void deleteQuietly(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            log.warn("Failed to delete judge sandbox {}: {}", dir, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.exe.skillverse_backend.mentor_booking_service.entity;
+
+public enum BookingReminderStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    SKIPPED,
+    CANCELLED,
+    FAILED
+}
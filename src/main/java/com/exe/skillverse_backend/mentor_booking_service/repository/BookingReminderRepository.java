@@ -0,0 +1,49 @@
+package com.exe.skillverse_backend.mentor_booking_service.repository;
+
+import com.exe.skillverse_backend.mentor_booking_service.entity.BookingReminder;
+import com.exe.skillverse_backend.mentor_booking_service.entity.BookingReminderStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookingReminderRepository extends JpaRepository<BookingReminder, Long> {
+
+    Optional<BookingReminder> findByBooking_Id(Long bookingId);
+
+    /**
+     * Lock due reminders (and SENDING rows whose claim went stale), skipping rows another
+     * poller already holds: lock timeout -2 is Hibernate's SKIP_LOCKED, rendered as
+     * FOR UPDATE SKIP LOCKED on PostgreSQL
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM BookingReminder r " +
+            "WHERE (r.status = :pending AND r.dueAt <= :now) " +
+            "OR (r.status = :sending AND r.claimedAt < :staleBefore) " +
+            "ORDER BY r.dueAt")
+    List<BookingReminder> findDueForUpdate(@Param("pending") BookingReminderStatus pending,
+            @Param("sending") BookingReminderStatus sending,
+            @Param("now") LocalDateTime now,
+            @Param("staleBefore") LocalDateTime staleBefore,
+            Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE BookingReminder r SET r.status = :cancelled, r.updatedAt = :now " +
+            "WHERE r.booking.id = :bookingId AND r.status IN :active")
+    int cancelByBookingId(@Param("bookingId") Long bookingId,
+            @Param("cancelled") BookingReminderStatus cancelled,
+            @Param("active") List<BookingReminderStatus> active,
+            @Param("now") LocalDateTime now);
+}
@@ -23,6 +23,7 @@ public class BookingAutoCancelScheduler {
     private final BookingRepository bookingRepository;
     private final WalletService walletService;
     private final NotificationService notificationService;
+    private final BookingReminderService bookingReminderService;
 
     @Scheduled(cron = "0 */10 * * * *")
     @Transactional
@@ -32,6 +33,7 @@ public class BookingAutoCancelScheduler {
         for (Booking booking : oldPendings) {
             booking.setStatus(BookingStatus.CANCELLED);
             bookingRepository.save(booking);
+            bookingReminderService.cancel(booking.getId());
 
             try {
                 walletService.processRefund(
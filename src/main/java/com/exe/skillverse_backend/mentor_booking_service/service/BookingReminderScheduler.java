@@ -0,0 +1,57 @@
+package com.exe.skillverse_backend.mentor_booking_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Sends due booking reminders: claims one batch per poll, then sends
+ * each reminder outside the claiming transaction
+ */
+@Component
+@Slf4j
+public class BookingReminderScheduler {
+
+    private final BookingReminderService reminderService;
+    private final BookingService bookingService;
+    private final int batchSize;
+
+    public BookingReminderScheduler(
+            BookingReminderService reminderService,
+            BookingService bookingService,
+            @Value("${booking.reminders.batch-size:20}") int batchSize) {
+        this.reminderService = reminderService;
+        this.bookingService = bookingService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.reminders.poll-interval-ms:30000}")
+    public void dispatchDueReminders() {
+        List<BookingReminderService.DueReminder> due;
+        try {
+            due = reminderService.claimDue(batchSize);
+        } catch (Exception e) {
+            log.error("Failed to claim due booking reminders: {}", e.getMessage());
+            return;
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        log.info("Sending {} booking reminders", due.size());
+        for (BookingReminderService.DueReminder reminder : due) {
+            try {
+                if (bookingService.sendMeetingReminderEmails(reminder.bookingId())) {
+                    reminderService.markSent(reminder.reminderId());
+                } else {
+                    reminderService.markSkipped(reminder.reminderId(), "Booking không còn hiệu lực hoặc đã kết thúc");
+                }
+            } catch (Exception e) {
+                reminderService.markFailed(reminder.reminderId(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.exe.skillverse_backend.mentor_booking_service.service;
+
+import com.exe.skillverse_backend.mentor_booking_service.entity.Booking;
+import com.exe.skillverse_backend.mentor_booking_service.entity.BookingReminder;
+import com.exe.skillverse_backend.mentor_booking_service.entity.BookingReminderStatus;
+import com.exe.skillverse_backend.mentor_booking_service.repository.BookingReminderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Booking reminder queue (booking_reminders table)
+ * - schedule/cancel are called inside the booking's own transaction
+ * - claimDue locks due rows with SKIP LOCKED and marks them SENDING, so each reminder
+ *   goes to exactly one poller even with several instances running
+ * - A SENDING row whose claim is older than the lease (poller died mid-send) is claimed again
+ */
+@Service
+@Slf4j
+public class BookingReminderService {
+
+    /**
+     * A claimed reminder, ready to be sent outside the claiming transaction
+     */
+    public record DueReminder(Long reminderId, Long bookingId) {
+    }
+
+    private static final List<BookingReminderStatus> ACTIVE = List.of(
+            BookingReminderStatus.PENDING, BookingReminderStatus.SENDING);
+
+    private final BookingReminderRepository reminderRepository;
+    private final int maxAttempts;
+    private final long leaseMinutes;
+
+    public BookingReminderService(
+            BookingReminderRepository reminderRepository,
+            @Value("${booking.reminders.max-attempts:5}") int maxAttempts,
+            @Value("${booking.reminders.lease-minutes:10}") long leaseMinutes) {
+        this.reminderRepository = reminderRepository;
+        this.maxAttempts = maxAttempts;
+        this.leaseMinutes = leaseMinutes;
+    }
+
+    /**
+     * Create the booking's reminder, or move it to the booking's current start time.
+     * A reminder already sent for the same start time is left alone.
+     */
+    @Transactional
+    public void schedule(Booking booking) {
+        BookingReminder reminder = reminderRepository.findByBooking_Id(booking.getId())
+                .orElseGet(() -> BookingReminder.builder().booking(booking).build());
+
+        boolean sameTime = booking.getStartTime().equals(reminder.getDueAt());
+        if (reminder.getId() != null && sameTime && reminder.getStatus() != BookingReminderStatus.CANCELLED) {
+            return;
+        }
+
+        reminder.setDueAt(booking.getStartTime());
+        reminder.setStatus(BookingReminderStatus.PENDING);
+        reminder.setAttempts(0);
+        reminder.setClaimedAt(null);
+        reminder.setSentAt(null);
+        reminder.setLastError(null);
+        reminderRepository.save(reminder);
+    }
+
+    @Transactional
+    public void cancel(Long bookingId) {
+        reminderRepository.cancelByBookingId(bookingId, BookingReminderStatus.CANCELLED, ACTIVE, LocalDateTime.now());
+    }
+
+    /**
+     * Claim up to batchSize due reminders for this poller
+     */
+    @Transactional
+    public List<DueReminder> claimDue(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingReminder> due = reminderRepository.findDueForUpdate(
+                BookingReminderStatus.PENDING, BookingReminderStatus.SENDING,
+                now, now.minusMinutes(leaseMinutes), PageRequest.of(0, batchSize));
+
+        for (BookingReminder reminder : due) {
+            reminder.setStatus(BookingReminderStatus.SENDING);
+            reminder.setClaimedAt(now);
+            reminder.setAttempts(reminder.getAttempts() + 1);
+        }
+        reminderRepository.saveAll(due);
+
+        return due.stream()
+                .map(r -> new DueReminder(r.getId(), r.getBooking().getId()))
+                .toList();
+    }
+
+    @Transactional
+    public void markSent(Long reminderId) {
+        finish(reminderId, BookingReminderStatus.SENT, null);
+    }
+
+    /**
+     * The booking is no longer active or the meeting is already over
+     */
+    @Transactional
+    public void markSkipped(Long reminderId, String reason) {
+        finish(reminderId, BookingReminderStatus.SKIPPED, reason);
+    }
+
+    /**
+     * Retry later with backoff (1, 2, 4... minutes) until maxAttempts, then give up
+     */
+    @Transactional
+    public void markFailed(Long reminderId, String error) {
+        reminderRepository.findById(reminderId)
+                .filter(r -> r.getStatus() == BookingReminderStatus.SENDING)
+                .ifPresent(reminder -> {
+                    reminder.setLastError(truncate(error));
+                    if (reminder.getAttempts() >= maxAttempts) {
+                        reminder.setStatus(BookingReminderStatus.FAILED);
+                        log.error("Booking reminder {} failed after {} attempts: {}",
+                                reminderId, reminder.getAttempts(), error);
+                    } else {
+                        reminder.setStatus(BookingReminderStatus.PENDING);
+                        reminder.setDueAt(LocalDateTime.now().plusMinutes(1L << (reminder.getAttempts() - 1)));
+                        log.warn("Booking reminder {} attempt {} failed, retrying: {}",
+                                reminderId, reminder.getAttempts(), error);
+                    }
+                    reminderRepository.save(reminder);
+                });
+    }
+
+    private void finish(Long reminderId, BookingReminderStatus status, String note) {
+        // Only the claiming poller finishes a row; a cancel that raced the send wins
+        reminderRepository.findById(reminderId)
+                .filter(r -> r.getStatus() == BookingReminderStatus.SENDING)
+                .ifPresent(reminder -> {
+                    reminder.setStatus(status);
+                    reminder.setLastError(truncate(note));
+                    if (status == BookingReminderStatus.SENT) {
+                        reminder.setSentAt(LocalDateTime.now());
+                    }
+                    reminderRepository.save(reminder);
+                });
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > 500 ? value.substring(0, 500) : value;
+    }
+}
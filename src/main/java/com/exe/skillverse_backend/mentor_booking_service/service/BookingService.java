@@ -20,6 +20,7 @@ import com.exe.skillverse_backend.mentor_service.repository.MentorProfileReposit
 import com.exe.skillverse_backend.payment_service.event.PaymentSuccessEvent;
 import com.exe.skillverse_backend.mentor_service.entity.MentorProfile;
 import com.exe.skillverse_backend.shared.service.EmailService;
+import com.exe.skillverse_backend.shared.service.EmailTemplate;
 import com.exe.skillverse_backend.payment_service.service.InvoiceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -50,6 +51,7 @@ public class BookingService {
     private final ObjectMapper objectMapper;
     private final EmailService emailService;
     private final InvoiceService invoiceService;
+    private final BookingReminderService bookingReminderService;
 
     @org.springframework.beans.factory.annotation.Value("${jitsi.base-url:https://meet.jit.si}")
     private String jitsiBaseUrl;
@@ -292,6 +294,7 @@ public class BookingService {
         }
         booking.setStatus(BookingStatus.REJECTED);
         Booking saved = bookingRepository.save(booking);
+        bookingReminderService.cancel(saved.getId());
 
         walletService.processRefund(
                 saved.getLearner().getId(),
@@ -398,24 +401,31 @@ public class BookingService {
     }
 
     private void scheduleMeetingReminderEmails(Booking booking) {
-        try {
-            java.time.Instant now = java.time.Instant.now();
-            java.time.Instant target = booking.getStartTime().atZone(java.time.ZoneId.systemDefault()).toInstant();
-            long delayMs = java.time.Duration.between(now, target).toMillis();
-            if (delayMs < 0) delayMs = 0;
-
-            java.util.concurrent.Executors.newSingleThreadScheduledExecutor().schedule(() -> {
-                try {
-                    String subject = "⏰ Nhắc lịch mentoring bắt đầu";
-                    String htmlLearner = buildBookingReminderHtml(booking, false);
-                    String htmlMentor = buildBookingReminderHtml(booking, true);
-                    emailService.sendHtmlEmail(booking.getLearner().getEmail(), subject, htmlLearner);
-                    emailService.sendHtmlEmail(booking.getMentor().getEmail(), subject, htmlMentor);
-                } catch (Exception e) {
-                }
-            }, delayMs, java.util.concurrent.TimeUnit.MILLISECONDS);
-        } catch (Exception e) {
+        bookingReminderService.schedule(booking);
+    }
+
+    /**
+     * Send the "meeting starts" emails of a booking (called by BookingReminderScheduler).
+     * Returns false without sending when the booking is no longer active or already over;
+     * throws when an email cannot be sent so the reminder is retried.
+     */
+    @Transactional(readOnly = true)
+    public boolean sendMeetingReminderEmails(Long bookingId) {
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null || booking.getEndTime().isBefore(LocalDateTime.now())) {
+            return false;
+        }
+        if (booking.getStatus() != BookingStatus.PENDING && booking.getStatus() != BookingStatus.CONFIRMED
+                && booking.getStatus() != BookingStatus.ONGOING) {
+            return false;
         }
+
+        String subject = "⏰ Nhắc lịch mentoring bắt đầu";
+        String htmlLearner = buildBookingReminderHtml(booking, false);
+        String htmlMentor = buildBookingReminderHtml(booking, true);
+        emailService.sendHtmlEmail(booking.getLearner().getEmail(), subject, htmlLearner);
+        emailService.sendHtmlEmail(booking.getMentor().getEmail(), subject, htmlMentor);
+        return true;
     }
 
     private String formatTimeVN(LocalDateTime utcTime) {
@@ -429,13 +439,7 @@ public class BookingService {
         }
     }
 
-    private String buildBookingSuccessHtml(Booking booking) {
-        String mentorName = getDisplayName(booking.getMentor());
-        String learnerName = getDisplayName(booking.getLearner());
-        String time = formatTimeVN(booking.getStartTime());
-        String link = booking.getMeetingLink() != null ? booking.getMeetingLink() : "-";
-        String price = booking.getPriceVnd() != null ? booking.getPriceVnd().toPlainString() + " VND" : "-";
-        return """
+    private static final EmailTemplate BOOKING_SUCCESS_HTML_TEMPLATE = EmailTemplate.compile("""
                 <html><head><meta charset=\"UTF-8\" /><style>
                 body{font-family:Inter,system-ui,-apple-system,Segoe UI,Roboto,Helvetica,Arial,sans-serif;background:#f8fafc;margin:0;padding:0}
                 .container{max-width:640px;margin:24px auto;background:#ffffff;border-radius:16px;box-shadow:0 10px 25px rgba(2,6,23,0.08);overflow:hidden}
@@ -460,16 +464,19 @@ public class BookingService {
                 <div class=\"row\"><div class=\"label\">Link Jitsi</div><div class=\"value\"><a href=\"%s\">Tham gia</a></div></div></div>
                 <div class=\"cta\"><a class=\"button\" href=\"%s\">Xem lịch</a></div></div>
                 <div class=\"footer\">© 2025</div></div></body></html>
-                """.formatted(learnerName, mentorName, time, booking.getDurationMinutes(), price, link,
-                "https://skillverse.vn/bookings/" + booking.getId());
-    }
+                """);
 
-    private String buildBookingApprovedHtml(Booking booking, boolean forMentor) {
-        String counterpart = forMentor ? getDisplayName(booking.getLearner()) : getDisplayName(booking.getMentor());
-        String roleText = forMentor ? "Học viên" : "Mentor";
+    private String buildBookingSuccessHtml(Booking booking) {
+        String mentorName = getDisplayName(booking.getMentor());
+        String learnerName = getDisplayName(booking.getLearner());
         String time = formatTimeVN(booking.getStartTime());
         String link = booking.getMeetingLink() != null ? booking.getMeetingLink() : "-";
-        return """
+        String price = booking.getPriceVnd() != null ? booking.getPriceVnd().toPlainString() + " VND" : "-";
+        return BOOKING_SUCCESS_HTML_TEMPLATE.render(learnerName, mentorName, time, booking.getDurationMinutes(), price, link,
+                "https://skillverse.vn/bookings/" + booking.getId());
+    }
+
+    private static final EmailTemplate BOOKING_APPROVED_HTML_TEMPLATE = EmailTemplate.compile("""
                 <html><head><meta charset=\"UTF-8\" /><style>
                 body{font-family:Inter,system-ui,-apple-system,Segoe UI,Roboto,Helvetica,Arial,sans-serif;background:#f8fafc;margin:0;padding:0}
                 .container{max-width:640px;margin:24px auto;background:#ffffff;border-radius:16px;box-shadow:0 10px 25px rgba(2,6,23,0.08);overflow:hidden}
@@ -491,16 +498,18 @@ public class BookingService {
                 </div>
                 <div class=\"cta\"><a class=\"button\" href=\"%s\">Xem chi tiết</a></div>
                 </div><div class=\"footer\">© 2025</div></div></body></html>
-                """.formatted(forMentor ? "Bạn" : "Mentor", roleText, counterpart, time, link,
-                "https://skillverse.vn/bookings/" + booking.getId());
-    }
+                """);
 
-    private String buildBookingReminderHtml(Booking booking, boolean forMentor) {
+    private String buildBookingApprovedHtml(Booking booking, boolean forMentor) {
         String counterpart = forMentor ? getDisplayName(booking.getLearner()) : getDisplayName(booking.getMentor());
         String roleText = forMentor ? "Học viên" : "Mentor";
         String time = formatTimeVN(booking.getStartTime());
         String link = booking.getMeetingLink() != null ? booking.getMeetingLink() : "-";
-        return """
+        return BOOKING_APPROVED_HTML_TEMPLATE.render(forMentor ? "Bạn" : "Mentor", roleText, counterpart, time, link,
+                "https://skillverse.vn/bookings/" + booking.getId());
+    }
+
+    private static final EmailTemplate BOOKING_REMINDER_HTML_TEMPLATE = EmailTemplate.compile("""
                 <html><head><meta charset=\"UTF-8\" /><style>
                 body{font-family:Inter,system-ui,-apple-system,Segoe UI,Roboto,Helvetica,Arial,sans-serif;background:#f8fafc;margin:0;padding:0}
                 .container{max-width:640px;margin:24px auto;background:#ffffff;border-radius:16px;box-shadow:0 10px 25px rgba(2,6,23,0.08);overflow:hidden}
@@ -522,7 +531,14 @@ public class BookingService {
                 </div>
                 <div class=\"cta\"><a class=\"button\" href=\"%s\">Vào phòng</a></div>
                 </div><div class=\"footer\">© 2025</div></div></body></html>
-                """.formatted(roleText, counterpart, time, link, link);
+                """);
+
+    private String buildBookingReminderHtml(Booking booking, boolean forMentor) {
+        String counterpart = forMentor ? getDisplayName(booking.getLearner()) : getDisplayName(booking.getMentor());
+        String roleText = forMentor ? "Học viên" : "Mentor";
+        String time = formatTimeVN(booking.getStartTime());
+        String link = booking.getMeetingLink() != null ? booking.getMeetingLink() : "-";
+        return BOOKING_REMINDER_HTML_TEMPLATE.render(roleText, counterpart, time, link, link);
     }
 
     private String getDisplayName(User user) {
@@ -548,6 +564,7 @@ public class BookingService {
 
         booking.setStatus(BookingStatus.CANCELLED);
         Booking saved = bookingRepository.save(booking);
+        bookingReminderService.cancel(saved.getId());
 
         try {
             walletService.unfreezeForBooking(learnerId, saved.getPriceVnd(), saved.getId());
@@ -7,21 +7,37 @@ import com.exe.skillverse_backend.notification_service.entity.Notification;
 import com.exe.skillverse_backend.notification_service.entity.NotificationType;
 import com.exe.skillverse_backend.notification_service.repository.NotificationRepository;
 import com.exe.skillverse_backend.community_service.repository.PostRepository;
-import com.exe.skillverse_backend.user_service.service.UserProfileService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
-    private final UserProfileService userProfileService;
     private final PostRepository postRepository;
+    private final SenderCardCache senderCardCache;
+    private final UnreadNotificationCounter unreadCounter;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private static final String NOTIFICATION_DESTINATION = "/queue/notifications";
+    private static final String UNREAD_COUNT_DESTINATION = "/queue/notifications.unread-count";
 
     @Transactional
     public void createNotification(Long userId, String title, String message, NotificationType type, String relatedId, Long senderId) {
@@ -38,7 +54,13 @@ public class NotificationService {
                 .isRead(false)
                 .build();
 
-        notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        NotificationResponse response = mapAll(List.of(saved)).get(0);
+        afterCommit(() -> {
+            unreadCounter.increment(userId);
+            push(userId, NOTIFICATION_DESTINATION, response);
+            pushUnreadCount(userId);
+        });
     }
 
     @Transactional
@@ -53,11 +75,11 @@ public class NotificationService {
         } else {
             page = notificationRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
         }
-        return page.map(this::mapToResponse);
+        return mapPage(page);
     }
 
     public long getUnreadCount(Long userId) {
-        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+        return unreadCounter.get(userId);
     }
 
     public long getTotalCount(Long userId) {
@@ -68,69 +90,114 @@ public class NotificationService {
     public void markAsRead(Long notificationId) {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found"));
+        if (notification.isRead()) {
+            return;
+        }
         notification.setRead(true);
         notificationRepository.save(notification);
+
+        Long userId = notification.getUser().getId();
+        afterCommit(() -> {
+            unreadCounter.decrement(userId);
+            pushUnreadCount(userId);
+        });
     }
 
     @Transactional
     public void markAllAsRead(Long userId) {
-        notificationRepository.findByUserIdOrderByCreatedAtDesc(userId).forEach(n -> {
-            if (!n.isRead()) {
-                n.setRead(true);
-                notificationRepository.save(n);
-            }
+        notificationRepository.markAllAsReadByUserId(userId);
+        afterCommit(() -> {
+            unreadCounter.reset(userId);
+            pushUnreadCount(userId);
         });
     }
 
-    private NotificationResponse mapToResponse(Notification notification) {
-        String senderName = null;
-        String senderAvatar = null;
-        String postTitle = null;
-
-        if (notification.getSenderId() != null) {
-            try {
-                User sender = userRepository.findById(notification.getSenderId()).orElse(null);
-                if (sender != null) {
-                    if (userProfileService.hasProfile(sender.getId())) {
-                        var profile = userProfileService.getProfile(sender.getId());
-                        String profileName = profile.getFullName();
-                        String profileAvatar = profile.getAvatarMediaUrl();
-                        if (profileName != null && !profileName.isBlank()) {
-                            senderName = profileName;
-                        }
-                        if (profileAvatar != null && !profileAvatar.isBlank()) {
-                            senderAvatar = profileAvatar;
-                        }
-                    }
-
-                    if (senderName == null || senderName.isBlank()) {
-                        String fn = sender.getFirstName();
-                        String ln = sender.getLastName();
-                        String built = ((fn != null ? fn : "") + (ln != null ? " " + ln : "")).trim();
-                        senderName = built.isEmpty() ? ("User #" + sender.getId()) : built;
-                    }
-
-                    if (senderAvatar == null || senderAvatar.isBlank()) {
-                        String entityAvatar = sender.getAvatarUrl();
-                        if (entityAvatar != null && !entityAvatar.isBlank()) {
-                            senderAvatar = entityAvatar;
-                        }
-                    }
+    /**
+     * Run after the surrounding transaction commits, or now when there is none
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
                 }
-            } catch (Exception e) {
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void pushUnreadCount(Long userId) {
+        push(userId, UNREAD_COUNT_DESTINATION, Map.of("unreadCount", unreadCounter.get(userId)));
+    }
+
+    private void push(Long userId, String destination, Object payload) {
+        try {
+            messagingTemplate.convertAndSendToUser(userId.toString(), destination, payload);
+        } catch (Exception e) {
+            log.warn("Failed to push to {} for user {}: {}", destination, userId, e.getMessage());
+        }
+    }
+
+    private Page<NotificationResponse> mapPage(Page<Notification> page) {
+        List<NotificationResponse> content = mapAll(page.getContent());
+        return new PageImpl<>(content, page.getPageable(), page.getTotalElements());
+    }
+
+    /**
+     * Map notifications with one lookup for all senders (through SenderCardCache) and one for all post titles
+     */
+    private List<NotificationResponse> mapAll(List<Notification> notifications) {
+        Set<Long> senderIds = new HashSet<>();
+        Set<Long> postIds = new HashSet<>();
+        for (Notification notification : notifications) {
+            if (notification.getSenderId() != null) {
+                senderIds.add(notification.getSenderId());
+            }
+            Long postId = relatedPostId(notification);
+            if (postId != null) {
+                postIds.add(postId);
             }
         }
 
-        if (notification.getRelatedId() != null) {
-            try {
-                if (notification.getType() == NotificationType.LIKE || notification.getType() == NotificationType.COMMENT) {
-                    Long postId = Long.parseLong(notification.getRelatedId());
-                    postTitle = postRepository.findById(postId).map(p -> p.getTitle()).orElse(null);
-                }
-            } catch (Exception e) {
+        Map<Long, SenderCardCache.SenderCard> senders = senderIds.isEmpty()
+                ? Map.of()
+                : senderCardCache.getAll(senderIds);
+        Map<Long, String> postTitles = new HashMap<>();
+        if (!postIds.isEmpty()) {
+            for (Object[] row : postRepository.findTitlesByIdIn(postIds)) {
+                postTitles.put((Long) row[0], (String) row[1]);
             }
         }
 
+        return notifications.stream()
+                .map(notification -> mapToResponse(notification, senders, postTitles))
+                .toList();
+    }
+
+    /**
+     * Post id of LIKE/COMMENT notifications, null otherwise or when relatedId is not numeric
+     */
+    private Long relatedPostId(Notification notification) {
+        if (notification.getRelatedId() == null
+                || (notification.getType() != NotificationType.LIKE && notification.getType() != NotificationType.COMMENT)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(notification.getRelatedId());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private NotificationResponse mapToResponse(Notification notification,
+            Map<Long, SenderCardCache.SenderCard> senders, Map<Long, String> postTitles) {
+        SenderCardCache.SenderCard sender = notification.getSenderId() != null
+                ? senders.get(notification.getSenderId())
+                : null;
+        Long postId = relatedPostId(notification);
+
         return NotificationResponse.builder()
                 .id(notification.getId())
                 .title(notification.getTitle())
@@ -139,10 +206,10 @@ public class NotificationService {
                 .isRead(notification.isRead())
                 .relatedId(notification.getRelatedId())
                 .senderId(notification.getSenderId())
-                .senderName(senderName)
-                .senderAvatar(senderAvatar)
+                .senderName(sender != null ? sender.name() : null)
+                .senderAvatar(sender != null ? sender.avatar() : null)
                 .createdAt(notification.getCreatedAt())
-                .postTitle(postTitle)
+                .postTitle(postId != null ? postTitles.get(postId) : null)
                 .build();
     }
 }
@@ -0,0 +1,107 @@
+package com.exe.skillverse_backend.notification_service.service;
+
+import com.exe.skillverse_backend.auth_service.repository.UserDisplayCardView;
+import com.exe.skillverse_backend.auth_service.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of sender display cards (name and avatar) shared by all notification requests
+ * - Misses are loaded in one query per page
+ * - Entries live for notifications.sender-cache.ttl-ms, so profile changes show up after at most that long
+ * - When full, expired entries are dropped first, then the whole cache is cleared
+ */
+@Component
+@Slf4j
+public class SenderCardCache {
+
+    public record SenderCard(String name, String avatar) {
+    }
+
+    private record Entry(SenderCard card, long loadedAt) {
+    }
+
+    private final UserRepository userRepository;
+    private final long ttlMs;
+    private final int maxSize;
+    private final Map<Long, Entry> cards = new ConcurrentHashMap<>();
+
+    public SenderCardCache(
+            UserRepository userRepository,
+            @Value("${notifications.sender-cache.ttl-ms:300000}") long ttlMs,
+            @Value("${notifications.sender-cache.max-size:5000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Cards for the given users; unknown users are absent from the result
+     */
+    public Map<Long, SenderCard> getAll(Collection<Long> userIds) {
+        long now = System.currentTimeMillis();
+        Map<Long, SenderCard> result = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (Long userId : userIds) {
+            Entry entry = cards.get(userId);
+            if (entry != null && now - entry.loadedAt() < ttlMs) {
+                result.put(userId, entry.card());
+            } else {
+                missing.add(userId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        try {
+            makeRoom(missing.size(), now);
+            for (UserDisplayCardView view : userRepository.findDisplayCardsByIdIn(missing)) {
+                SenderCard card = toCard(view);
+                cards.put(view.getUserId(), new Entry(card, now));
+                result.put(view.getUserId(), card);
+            }
+        } catch (Exception e) {
+            // Notifications are still returned, just without sender details
+            log.warn("Failed to load sender cards for {} users: {}", missing.size(), e.getMessage());
+        }
+        return result;
+    }
+
+    private void makeRoom(int incoming, long now) {
+        if (cards.size() + incoming <= maxSize) {
+            return;
+        }
+        cards.values().removeIf(entry -> now - entry.loadedAt() >= ttlMs);
+        if (cards.size() + incoming > maxSize) {
+            cards.clear();
+        }
+    }
+
+    /**
+     * Profile name and avatar win; account name, account avatar and "User #id" are the fallbacks
+     */
+    private static SenderCard toCard(UserDisplayCardView view) {
+        String name = view.getProfileName();
+        if (name == null || name.isBlank()) {
+            String fn = view.getFirstName();
+            String ln = view.getLastName();
+            String built = ((fn != null ? fn : "") + (ln != null ? " " + ln : "")).trim();
+            name = built.isEmpty() ? ("User #" + view.getUserId()) : built;
+        }
+
+        String avatar = view.getProfileAvatarUrl();
+        if (avatar == null || avatar.isBlank()) {
+            avatar = view.getAvatarUrl() != null && !view.getAvatarUrl().isBlank() ? view.getAvatarUrl() : null;
+        }
+        return new SenderCard(name, avatar);
+    }
+}
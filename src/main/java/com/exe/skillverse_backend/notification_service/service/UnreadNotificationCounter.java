@@ -0,0 +1,71 @@
+package com.exe.skillverse_backend.notification_service.service;
+
+import com.exe.skillverse_backend.notification_service.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user unread notification counts kept in memory
+ * - Seeded from the database on first read, then adjusted on create/read/read-all
+ * - Re-seeded after notifications.unread-cache.ttl-ms, which also corrects changes made on other instances
+ * - Adjustments to users that are not cached are skipped; their next read loads the exact count
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    private record Entry(AtomicLong count, long loadedAt) {
+    }
+
+    private final NotificationRepository notificationRepository;
+    private final long ttlMs;
+    private final Map<Long, Entry> counts = new ConcurrentHashMap<>();
+
+    public UnreadNotificationCounter(
+            NotificationRepository notificationRepository,
+            @Value("${notifications.unread-cache.ttl-ms:60000}") long ttlMs) {
+        this.notificationRepository = notificationRepository;
+        this.ttlMs = ttlMs;
+    }
+
+    public long get(Long userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = counts.get(userId);
+        if (entry == null || now - entry.loadedAt() >= ttlMs) {
+            entry = new Entry(new AtomicLong(notificationRepository.countByUserIdAndIsReadFalse(userId)), now);
+            counts.put(userId, entry);
+        }
+        return entry.count().get();
+    }
+
+    public void increment(Long userId) {
+        Entry entry = counts.get(userId);
+        if (entry != null) {
+            entry.count().incrementAndGet();
+        }
+    }
+
+    public void decrement(Long userId) {
+        Entry entry = counts.get(userId);
+        if (entry != null) {
+            entry.count().updateAndGet(c -> Math.max(0, c - 1));
+        }
+    }
+
+    public void reset(Long userId) {
+        counts.put(userId, new Entry(new AtomicLong(0), System.currentTimeMillis()));
+    }
+
+    /**
+     * Drop expired entries so users who stopped polling do not stay in memory
+     */
+    @Scheduled(fixedDelay = 5 * 60 * 1000L)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        counts.values().removeIf(entry -> now - entry.loadedAt() >= ttlMs);
+    }
+}
@@ -0,0 +1,37 @@
+package com.exe.skillverse_backend.payment_service.repository;
+
+import com.exe.skillverse_backend.payment_service.entity.PaymentTransaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One payment row of the admin transactions report, with the payer joined in (no entities loaded)
+ */
+public interface PaymentReportRowView {
+
+    Long getId();
+
+    PaymentTransaction.PaymentType getType();
+
+    String getDescription();
+
+    BigDecimal getAmount();
+
+    PaymentTransaction.PaymentStatus getStatus();
+
+    PaymentTransaction.PaymentMethod getPaymentMethod();
+
+    LocalDateTime getCreatedAt();
+
+    String getUserEmail();
+
+    String getFirstName();
+
+    String getLastName();
+
+    /**
+     * Full name from the user profile, null without a profile
+     */
+    String getProfileName();
+}
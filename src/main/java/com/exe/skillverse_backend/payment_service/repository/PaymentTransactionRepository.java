@@ -164,4 +164,25 @@ public interface PaymentTransactionRepository extends JpaRepository<PaymentTrans
            "GROUP BY YEAR(pt.createdAt) " +
            "ORDER BY YEAR(pt.createdAt)")
     List<Object[]> getYearlyRevenue();
-}
\ No newline at end of file
+
+    /**
+     * Admin report: next keyset page of payments older than beforeId (newest first), payer joined in
+     */
+    @Query("SELECT pt.id AS id, pt.type AS type, pt.description AS description, pt.amount AS amount, " +
+           "pt.status AS status, pt.paymentMethod AS paymentMethod, pt.createdAt AS createdAt, " +
+           "u.email AS userEmail, u.firstName AS firstName, u.lastName AS lastName, p.fullName AS profileName " +
+           "FROM PaymentTransaction pt JOIN pt.user u LEFT JOIN UserProfile p ON p.userId = u.id " +
+           "WHERE pt.id < :beforeId " +
+           "AND (:status IS NULL OR pt.status = :status) " +
+           "AND (:userId IS NULL OR u.id = :userId) " +
+           "AND (:startDate IS NULL OR pt.createdAt >= :startDate) " +
+           "AND (:endDate IS NULL OR pt.createdAt <= :endDate) " +
+           "ORDER BY pt.id DESC")
+    List<PaymentReportRowView> findReportRows(
+            @Param("status") PaymentTransaction.PaymentStatus status,
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable);
+}
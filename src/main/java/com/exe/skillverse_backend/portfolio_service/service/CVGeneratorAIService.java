@@ -1,6 +1,8 @@
 package com.exe.skillverse_backend.portfolio_service.service;
 
+import com.exe.skillverse_backend.ai_service.service.AiProviderRouter;
 import com.exe.skillverse_backend.portfolio_service.dto.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -11,7 +13,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.client.HttpClientErrorException;
 
 import java.util.HashMap;
 import java.util.List;
@@ -31,6 +32,7 @@ public class CVGeneratorAIService {
     @Value("${portfolio.ai.mistral.model:mistral-large-latest}")
     private String model;
 
+    private final AiProviderRouter aiProviderRouter;
     private final RestTemplate restTemplate = new RestTemplate();
     private final ObjectMapper objectMapper = new ObjectMapper()
             .registerModule(new JavaTimeModule())
@@ -65,60 +67,15 @@ public class CVGeneratorAIService {
             requestBody.put("temperature", 0.7);
             requestBody.put("max_tokens", 4000);
 
-            // Try with primary model, retry on 429, then fallback once
-            String[] modelsToTry = new String[] { model, "mistral-small-latest" };
-            for (int m = 0; m < modelsToTry.length; m++) {
-                String currentModel = modelsToTry[m];
-                requestBody.put("model", currentModel);
-
-                int maxAttempts = 3;
-                for (int attempt = 1; attempt <= maxAttempts; attempt++) {
-                    try {
-                        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-                        ResponseEntity<String> response = restTemplate.exchange(
-                                mistralApiUrl,
-                                HttpMethod.POST,
-                                entity,
-                                String.class
-                        );
-
-                        if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                            JsonNode jsonResponse = objectMapper.readTree(response.getBody());
-                            String cvContent = jsonResponse.at("/choices/0/message/content").asText();
-                            log.info("CV generated successfully for user: {} with model {}", profile.getUserId(), currentModel);
-                            return cvContent;
-                        }
-
-                        log.warn("Mistral response not OK ({}), attempt {}/{} with model {}", response.getStatusCode(), attempt, maxAttempts, currentModel);
-                    } catch (HttpClientErrorException e) {
-                        if (e.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
-                            long backoffMs = (long) (1000L * Math.pow(2, attempt - 1));
-                            log.warn("429 from Mistral (model {}), backing off {} ms, attempt {}/{}", currentModel, backoffMs, attempt, maxAttempts);
-                            try {
-                                Thread.sleep(backoffMs);
-                            } catch (InterruptedException ie) {
-                                Thread.currentThread().interrupt();
-                            }
-                            continue; // retry
-                        }
-                        // Other 4xx/5xx -> do not retry endlessly
-                        throw e;
-                    } catch (Exception ex) {
-                        // Transient network errors: brief retry
-                        long backoffMs = (long) (800L * Math.pow(2, attempt - 1));
-                        log.warn("Transient error calling Mistral (model {}): {}. Backoff {} ms, attempt {}/{}", currentModel, ex.getMessage(), backoffMs, attempt, maxAttempts);
-                        try {
-                            Thread.sleep(backoffMs);
-                        } catch (InterruptedException ie) {
-                            Thread.currentThread().interrupt();
-                        }
-                    }
-                }
-
-                log.warn("Exhausted retries for model {}.{}", currentModel, (m < modelsToTry.length - 1 ? " Trying fallback model..." : ""));
-            }
-
-            throw new RuntimeException("Failed to generate CV after retries and fallback model");
+            // Primary model, then the small model; AiProviderRouter skips a model whose circuit
+            // is open (e.g. after a 429) instead of backing off, and hedges slow calls
+            String cvContent = aiProviderRouter.call("cv-generation", List.of(
+                    new AiProviderRouter.ProviderCall("portfolio-mistral",
+                            () -> callMistral(headers, requestBody, model)),
+                    new AiProviderRouter.ProviderCall("portfolio-mistral-small",
+                            () -> callMistral(headers, requestBody, "mistral-small-latest"))));
+            log.info("CV generated successfully for user: {}", profile.getUserId());
+            return cvContent;
 
         } catch (Exception e) {
             log.error("Error generating CV with Mistral AI", e);
@@ -126,6 +83,31 @@ public class CVGeneratorAIService {
         }
     }
 
+    /**
+     * Single chat completion call against the portfolio Mistral key with the given model
+     */
+    private String callMistral(HttpHeaders headers, Map<String, Object> baseRequestBody, String currentModel) {
+        Map<String, Object> requestBody = new HashMap<>(baseRequestBody);
+        requestBody.put("model", currentModel);
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                mistralApiUrl,
+                HttpMethod.POST,
+                new HttpEntity<>(requestBody, headers),
+                String.class
+        );
+
+        if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
+            throw new IllegalStateException("Mistral response not OK (" + response.getStatusCode() + ") with model " + currentModel);
+        }
+        try {
+            JsonNode jsonResponse = objectMapper.readTree(response.getBody());
+            return jsonResponse.at("/choices/0/message/content").asText();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid Mistral response with model " + currentModel, e);
+        }
+    }
+
     /**
      * Build template-specific system prompt with design guidelines
      */
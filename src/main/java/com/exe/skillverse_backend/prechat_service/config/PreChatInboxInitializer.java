@@ -0,0 +1,57 @@
+package com.exe.skillverse_backend.prechat_service.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills the pre-chat inbox read model (prechat_thread_state last_* / unread_*) for conversations
+ * written before it existed: creates the missing pair rows, then fills them from their messages.
+ * A no-op once every pair with messages has its last message.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PreChatInboxInitializer implements CommandLineRunner {
+
+    private static final String MISSING_PAIRS_SQL = "INSERT INTO prechat_thread_state "
+            + "(mentor_id, learner_id, hidden_for_mentor, hidden_for_learner, muted_for_mentor, muted_for_learner, "
+            + "unread_for_mentor, unread_for_learner) "
+            + "SELECT DISTINCT m.mentor_id, m.learner_id, FALSE, FALSE, FALSE, FALSE, 0, 0 FROM prechat_messages m "
+            + "WHERE NOT EXISTS (SELECT 1 FROM prechat_thread_state s "
+            + "WHERE s.mentor_id = m.mentor_id AND s.learner_id = m.learner_id)";
+
+    private static final String LAST_MESSAGE_SQL = "UPDATE prechat_thread_state SET last_message_id = "
+            + "(SELECT MAX(m.id) FROM prechat_messages m WHERE m.mentor_id = prechat_thread_state.mentor_id "
+            + "AND m.learner_id = prechat_thread_state.learner_id) "
+            + "WHERE last_message_id IS NULL";
+
+    private static final String DETAILS_SQL = "UPDATE prechat_thread_state SET "
+            + "last_content = (SELECT m.content FROM prechat_messages m WHERE m.id = prechat_thread_state.last_message_id), "
+            + "last_time = (SELECT m.created_at FROM prechat_messages m WHERE m.id = prechat_thread_state.last_message_id), "
+            + "unread_for_mentor = (SELECT COUNT(*) FROM prechat_messages m WHERE m.mentor_id = prechat_thread_state.mentor_id "
+            + "AND m.learner_id = prechat_thread_state.learner_id AND m.sender_id = m.learner_id AND m.read_by_mentor = FALSE), "
+            + "unread_for_learner = (SELECT COUNT(*) FROM prechat_messages m WHERE m.mentor_id = prechat_thread_state.mentor_id "
+            + "AND m.learner_id = prechat_thread_state.learner_id AND m.sender_id = m.mentor_id AND m.read_by_learner = FALSE) "
+            + "WHERE last_message_id IS NOT NULL AND last_time IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        try {
+            int created = jdbcTemplate.update(MISSING_PAIRS_SQL);
+            jdbcTemplate.update(LAST_MESSAGE_SQL);
+            int filled = jdbcTemplate.update(DETAILS_SQL);
+            if (created > 0 || filled > 0) {
+                log.info("Backfilled pre-chat inbox: {} new threads, {} threads filled", created, filled);
+            }
+        } catch (DataAccessException e) {
+            // Threads without a last message are left out of the inbox until the next startup retries
+            log.error("Pre-chat inbox backfill failed: {}", e.getMessage());
+        }
+    }
+}
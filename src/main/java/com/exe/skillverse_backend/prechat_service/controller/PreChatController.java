@@ -27,8 +27,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.core.Authentication;
@@ -36,6 +38,8 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
 @RestController
 @RequestMapping("/api/prechat")
 @RequiredArgsConstructor
@@ -54,6 +58,13 @@ public class PreChatController {
     private final BookingRepository bookingRepository;
     private final PreChatReportRepository reportRepository;
 
+    private static final int MAX_THREAD_PAGE_SIZE = 100;
+
+    /**
+     * Cursor of the first inbox page: later than any message
+     */
+    private static final LocalDateTime INBOX_START = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     @PostMapping("/send")
     @Operation(summary = "Learner gửi tin nhắn pre-chat (REST)")
     public PreChatMessageResponse sendRest(@Valid @RequestBody PreChatMessageRequest request, Authentication authentication) {
@@ -92,54 +103,39 @@ public class PreChatController {
     }
 
     @GetMapping("/threads")
-    @Operation(summary = "Danh sách thread gần nhất")
-    public java.util.List<com.exe.skillverse_backend.prechat_service.dto.PreChatThreadSummary> getThreads(@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "20") int size, Authentication authentication) {
+    @Operation(summary = "Danh sách thread gần nhất",
+            description = "Truyền beforeTime/beforeThreadId (lastTime/threadId của thread cuối trang trước) để lấy trang tiếp theo")
+    public java.util.List<com.exe.skillverse_backend.prechat_service.dto.PreChatThreadSummary> getThreads(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeTime,
+            @RequestParam(required = false) Long beforeThreadId,
+            Authentication authentication) {
         Jwt jwt = (Jwt) authentication.getPrincipal();
         Long userId = Long.valueOf(jwt.getClaimAsString("userId"));
-        java.util.List<PreChatMessage> latest = messageRepository.findLastThreads(userId);
-        java.util.List<com.exe.skillverse_backend.prechat_service.dto.PreChatThreadSummary> out = new java.util.ArrayList<>();
-        for (PreChatMessage m : latest) {
-            Long counterpartId = m.getMentor().getId().equals(userId) ? m.getLearner().getId() : m.getMentor().getId();
-            User counterpart = userRepository.findById(counterpartId).orElse(null);
-            String name = counterpart == null ? ("User #" + counterpartId) : ((counterpart.getFirstName() != null ? counterpart.getFirstName() : "") + (counterpart.getLastName() != null ? " " + counterpart.getLastName() : "")).trim();
-            String avatar = counterpart != null ? counterpart.getAvatarUrl() : null;
-            if (avatar == null && counterpart != null) {
-                // Try to get from profile if available
-                try {
-                    if (mentorProfileRepository.existsByUserId(counterpartId)) {
-                        MentorProfile mp = mentorProfileRepository.findById(counterpartId).orElse(null);
-                        // MentorProfile doesn't store avatar directly usually, but let's check if we can get it from UserProfileService if needed
-                        // For now, just rely on User entity avatarUrl which should be synced
-                    }
-                } catch (Exception e) {}
-            }
+        int limit = Math.max(1, Math.min(size, MAX_THREAD_PAGE_SIZE));
+        // Keyset when a cursor is given; plain page numbers still work for older clients
+        PageRequest pageable = beforeTime != null ? PageRequest.of(0, limit) : PageRequest.of(Math.max(0, page), limit);
+        LocalDateTime time = beforeTime != null ? beforeTime : INBOX_START;
+        Long threadId = beforeTime != null && beforeThreadId != null ? beforeThreadId : Long.MAX_VALUE;
 
-            java.util.Optional<PreChatThreadState> stOpt = threadStateRepository.findByMentorAndLearner(m.getMentor(), m.getLearner());
-            if (stOpt.isPresent()) {
-                PreChatThreadState st = stOpt.get();
-                if (m.getMentor().getId().equals(userId) && Boolean.TRUE.equals(st.getHiddenForMentor())) continue;
-                if (m.getLearner().getId().equals(userId) && Boolean.TRUE.equals(st.getHiddenForLearner())) continue;
-            }
-            long unread;
-            if (m.getMentor().getId().equals(userId)) {
-                unread = messageRepository.countByMentorAndLearnerAndSenderAndReadByMentorFalse(m.getMentor(), m.getLearner(), m.getLearner());
-            } else {
-                unread = messageRepository.countByMentorAndLearnerAndSenderAndReadByLearnerFalse(m.getMentor(), m.getLearner(), m.getMentor());
-            }
-            out.add(com.exe.skillverse_backend.prechat_service.dto.PreChatThreadSummary.builder()
-                    .counterpartId(counterpartId)
-                    .counterpartName(name.isEmpty() ? ("User #" + counterpartId) : name)
-                    .counterpartAvatar(avatar)
-                    .lastContent(m.getContent())
-                    .lastTime(m.getCreatedAt())
-                    .unreadCount(unread)
-                    .isMyRoleMentor(m.getMentor().getId().equals(userId))
-                    .build());
-        }
-        int from = Math.max(0, page * size);
-        int to = Math.min(out.size(), from + size);
-        if (from >= to) return java.util.Collections.emptyList();
-        return out.subList(from, to);
+        return threadStateRepository.findInbox(userId, time, threadId, pageable).stream()
+                .map(t -> {
+                    boolean isMentor = t.getMentorId().equals(userId);
+                    String name = ((t.getFirstName() != null ? t.getFirstName() : "") + (t.getLastName() != null ? " " + t.getLastName() : "")).trim();
+                    Integer unread = isMentor ? t.getUnreadForMentor() : t.getUnreadForLearner();
+                    return com.exe.skillverse_backend.prechat_service.dto.PreChatThreadSummary.builder()
+                            .threadId(t.getThreadId())
+                            .counterpartId(t.getCounterpartId())
+                            .counterpartName(name.isEmpty() ? ("User #" + t.getCounterpartId()) : name)
+                            .counterpartAvatar(t.getAvatarUrl())
+                            .lastContent(t.getLastContent())
+                            .lastTime(t.getLastTime())
+                            .unreadCount(unread != null ? unread : 0)
+                            .isMyRoleMentor(isMentor)
+                            .build();
+                })
+                .toList();
     }
 
     @MessageMapping("/prechat.typing")
@@ -199,9 +195,13 @@ public class PreChatController {
         User mentor = userRepository.findById(mentorId).orElseThrow();
         User learner = userRepository.findById(userId).orElseThrow();
         if (mentor.getId().equals(userId)) {
-            return messageRepository.markMentorRead(mentor, learner);
+            int marked = messageRepository.markMentorRead(mentor, learner);
+            threadStateRepository.refreshUnreadForMentor(mentor.getId(), learner.getId());
+            return marked;
         } else {
-            return messageRepository.markLearnerRead(mentor, learner);
+            int marked = messageRepository.markLearnerRead(mentor, learner);
+            threadStateRepository.refreshUnreadForLearner(mentor.getId(), learner.getId());
+            return marked;
         }
     }
 
@@ -250,6 +250,7 @@ public class PreChatController {
             builder.readByMentor(false).readByLearner(true);
         }
         PreChatMessage saved = messageRepository.save(builder.build());
+        recordInboxMessage(saved, senderIsMentor);
 
         boolean recipientMuted = false;
         var ts = threadStateRepository.findByMentorAndLearner(mentor, learner).orElse(null);
@@ -281,6 +282,35 @@ public class PreChatController {
         return toResponse(saved);
     }
 
+    /**
+     * Move the pair's inbox row to this message and count it as unread for the recipient
+     */
+    private void recordInboxMessage(PreChatMessage message, boolean senderIsMentor) {
+        Long mentorId = message.getMentor().getId();
+        Long learnerId = message.getLearner().getId();
+        int unreadForMentor = senderIsMentor ? 0 : 1;
+        int unreadForLearner = senderIsMentor ? 1 : 0;
+        if (threadStateRepository.recordMessage(mentorId, learnerId, message.getId(), message.getContent(),
+                message.getCreatedAt(), unreadForMentor, unreadForLearner) > 0) {
+            return;
+        }
+        try {
+            threadStateRepository.save(PreChatThreadState.builder()
+                    .mentor(message.getMentor())
+                    .learner(message.getLearner())
+                    .lastMessageId(message.getId())
+                    .lastContent(message.getContent())
+                    .lastTime(message.getCreatedAt())
+                    .unreadForMentor(unreadForMentor)
+                    .unreadForLearner(unreadForLearner)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // The first message of the pair raced with another one (or with hide/mute); the row exists now
+            threadStateRepository.recordMessage(mentorId, learnerId, message.getId(), message.getContent(),
+                    message.getCreatedAt(), unreadForMentor, unreadForLearner);
+        }
+    }
+
     private String sanitizeContent(String content) {
         if (content == null) return "";
         String c = content.trim();
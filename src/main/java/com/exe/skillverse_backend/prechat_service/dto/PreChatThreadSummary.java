@@ -8,6 +8,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 public class PreChatThreadSummary {
+    /**
+     * Pass with lastTime as beforeThreadId / beforeTime to get the next page
+     */
+    private Long threadId;
     private Long counterpartId;
     private String counterpartName;
     private String counterpartAvatar;
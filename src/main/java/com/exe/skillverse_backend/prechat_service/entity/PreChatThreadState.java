@@ -4,9 +4,14 @@ import com.exe.skillverse_backend.auth_service.entity.User;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "prechat_thread_state", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"mentor_id", "learner_id"})
+}, indexes = {
+        @Index(name = "idx_prechat_thread_mentor_last_id", columnList = "mentor_id, last_time, id"),
+        @Index(name = "idx_prechat_thread_learner_last_id", columnList = "learner_id, last_time, id")
 })
 @Getter
 @Setter
@@ -42,4 +47,28 @@ public class PreChatThreadState {
     @Builder.Default
     @Column(name = "muted_for_learner", nullable = false)
     private Boolean mutedForLearner = false;
+
+    /**
+     * Inbox read model, updated with every message of the pair so the thread list is one query.
+     * Null on rows created before these columns existed until the startup backfill fills them,
+     * and on rows of pairs that have no message yet.
+     * Written only by the repository's native statements once the row exists (updatable = false), so saving
+     * the entity for a hide/mute flag never rolls back a message or unread count committed in between.
+     */
+    @Column(name = "last_message_id", updatable = false)
+    private Long lastMessageId;
+
+    @Column(name = "last_content", length = 1000, updatable = false)
+    private String lastContent;
+
+    @Column(name = "last_time", updatable = false)
+    private LocalDateTime lastTime;
+
+    @Builder.Default
+    @Column(name = "unread_for_mentor", updatable = false)
+    private Integer unreadForMentor = 0;
+
+    @Builder.Default
+    @Column(name = "unread_for_learner", updatable = false)
+    private Integer unreadForLearner = 0;
 }
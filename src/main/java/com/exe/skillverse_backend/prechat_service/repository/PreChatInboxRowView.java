@@ -0,0 +1,31 @@
+package com.exe.skillverse_backend.prechat_service.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * One thread of a user's pre-chat inbox, with the counterpart joined in
+ */
+public interface PreChatInboxRowView {
+
+    Long getThreadId();
+
+    Long getMentorId();
+
+    Long getLearnerId();
+
+    String getLastContent();
+
+    LocalDateTime getLastTime();
+
+    Integer getUnreadForMentor();
+
+    Integer getUnreadForLearner();
+
+    Long getCounterpartId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getAvatarUrl();
+}
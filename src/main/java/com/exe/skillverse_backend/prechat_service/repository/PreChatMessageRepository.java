@@ -23,7 +23,4 @@ public interface PreChatMessageRepository extends JpaRepository<PreChatMessage,
 
     @org.springframework.data.jpa.repository.Query("SELECT m FROM PreChatMessage m WHERE (m.mentor.id = :userId1 AND m.learner.id = :userId2) OR (m.mentor.id = :userId2 AND m.learner.id = :userId1) ORDER BY m.createdAt ASC")
     Page<PreChatMessage> findConversation(@org.springframework.data.repository.query.Param("userId1") Long userId1, @org.springframework.data.repository.query.Param("userId2") Long userId2, Pageable pageable);
-
-    @org.springframework.data.jpa.repository.Query(value = "select m.* from prechat_messages m join (select mentor_id, learner_id, max(created_at) last_created from prechat_messages where mentor_id=?1 or learner_id=?1 group by mentor_id, learner_id) t on m.mentor_id=t.mentor_id and m.learner_id=t.learner_id and m.created_at=t.last_created order by m.created_at desc", nativeQuery = true)
-    java.util.List<PreChatMessage> findLastThreads(Long userId);
 }
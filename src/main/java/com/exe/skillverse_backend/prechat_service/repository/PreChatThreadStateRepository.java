@@ -2,11 +2,89 @@ package com.exe.skillverse_backend.prechat_service.repository;
 
 import com.exe.skillverse_backend.auth_service.entity.User;
 import com.exe.skillverse_backend.prechat_service.entity.PreChatThreadState;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface PreChatThreadStateRepository extends JpaRepository<PreChatThreadState, Long> {
     Optional<PreChatThreadState> findByMentorAndLearner(User mentor, User learner);
-}
 
+    /**
+     * Visible threads of a user, most recent first, continuing after (beforeTime, beforeId).
+     * The mentor side and the learner side are read separately, each in (mentor_id | learner_id, last_time, id)
+     * index order and cut at offset + limit rows, then merged; an OR over both sides could walk neither index.
+     */
+    @Query(value = "SELECT t.id AS threadId, t.mentor_id AS mentorId, t.learner_id AS learnerId, " +
+           "t.last_content AS lastContent, t.last_time AS lastTime, " +
+           "t.unread_for_mentor AS unreadForMentor, t.unread_for_learner AS unreadForLearner, " +
+           "u.id AS counterpartId, u.first_name AS firstName, u.last_name AS lastName, u.avatar_url AS avatarUrl " +
+           "FROM ((SELECT s.*, s.learner_id AS counterpart_id FROM prechat_thread_state s " +
+           "WHERE s.mentor_id = :userId AND s.hidden_for_mentor = FALSE AND s.last_time IS NOT NULL " +
+           "AND (s.last_time < :beforeTime OR (s.last_time = :beforeTime AND s.id < :beforeId)) " +
+           "ORDER BY s.last_time DESC, s.id DESC LIMIT :sideLimit) " +
+           "UNION ALL " +
+           "(SELECT s.*, s.mentor_id AS counterpart_id FROM prechat_thread_state s " +
+           "WHERE s.learner_id = :userId AND s.mentor_id <> :userId AND s.hidden_for_learner = FALSE " +
+           "AND s.last_time IS NOT NULL " +
+           "AND (s.last_time < :beforeTime OR (s.last_time = :beforeTime AND s.id < :beforeId)) " +
+           "ORDER BY s.last_time DESC, s.id DESC LIMIT :sideLimit)) t " +
+           "JOIN users u ON u.id = t.counterpart_id " +
+           "ORDER BY t.last_time DESC, t.id DESC LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<PreChatInboxRowView> findInbox(@Param("userId") Long userId,
+                                        @Param("beforeTime") LocalDateTime beforeTime,
+                                        @Param("beforeId") Long beforeId,
+                                        @Param("sideLimit") long sideLimit,
+                                        @Param("limit") int limit,
+                                        @Param("offset") long offset);
+
+    /**
+     * One page of the inbox, see findInbox
+     */
+    default List<PreChatInboxRowView> findInbox(Long userId, LocalDateTime beforeTime, Long beforeId, Pageable pageable) {
+        return findInbox(userId, beforeTime, beforeId, pageable.getOffset() + pageable.getPageSize(),
+                pageable.getPageSize(), pageable.getOffset());
+    }
+
+    /**
+     * Record a new message on the pair's inbox row (last message only moves forward);
+     * returns 0 when the pair has no row yet
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE prechat_thread_state SET " +
+           "last_content = CASE WHEN last_message_id IS NULL OR last_message_id < :messageId THEN :content ELSE last_content END, " +
+           "last_time = CASE WHEN last_message_id IS NULL OR last_message_id < :messageId THEN :sentAt ELSE last_time END, " +
+           "last_message_id = CASE WHEN last_message_id IS NULL OR last_message_id < :messageId THEN :messageId ELSE last_message_id END, " +
+           "unread_for_mentor = COALESCE(unread_for_mentor, 0) + :unreadForMentor, " +
+           "unread_for_learner = COALESCE(unread_for_learner, 0) + :unreadForLearner " +
+           "WHERE mentor_id = :mentorId AND learner_id = :learnerId", nativeQuery = true)
+    int recordMessage(@Param("mentorId") Long mentorId,
+                      @Param("learnerId") Long learnerId,
+                      @Param("messageId") Long messageId,
+                      @Param("content") String content,
+                      @Param("sentAt") LocalDateTime sentAt,
+                      @Param("unreadForMentor") int unreadForMentor,
+                      @Param("unreadForLearner") int unreadForLearner);
+
+    /**
+     * Recount the mentor's unread messages after marking them read (messages that arrived meanwhile stay counted)
+     */
+    @Modifying
+    @Query(value = "UPDATE prechat_thread_state SET unread_for_mentor = (SELECT COUNT(*) FROM prechat_messages m " +
+           "WHERE m.mentor_id = :mentorId AND m.learner_id = :learnerId AND m.sender_id = :learnerId AND m.read_by_mentor = FALSE) " +
+           "WHERE mentor_id = :mentorId AND learner_id = :learnerId", nativeQuery = true)
+    int refreshUnreadForMentor(@Param("mentorId") Long mentorId, @Param("learnerId") Long learnerId);
+
+    @Modifying
+    @Query(value = "UPDATE prechat_thread_state SET unread_for_learner = (SELECT COUNT(*) FROM prechat_messages m " +
+           "WHERE m.mentor_id = :mentorId AND m.learner_id = :learnerId AND m.sender_id = :mentorId AND m.read_by_learner = FALSE) " +
+           "WHERE mentor_id = :mentorId AND learner_id = :learnerId", nativeQuery = true)
+    int refreshUnreadForLearner(@Param("mentorId") Long mentorId, @Param("learnerId") Long learnerId);
+}
@@ -32,6 +32,13 @@ public interface UserSubscriptionRepository extends JpaRepository<UserSubscripti
          */
         Optional<UserSubscription> findByUserAndIsActiveTrue(User user);
 
+        /**
+         * Plan of the user's active subscription, without loading user, subscription or plan
+         */
+        @Query("SELECT s.plan.id FROM UserSubscription s WHERE s.user.id = :userId AND s.isActive = true " +
+                        "ORDER BY s.startDate DESC")
+        List<Long> findActivePlanIdsByUserId(@Param("userId") Long userId);
+
         /**
          * Find all subscriptions for a user
          */
@@ -118,13 +125,33 @@ public interface UserSubscriptionRepository extends JpaRepository<UserSubscripti
         List<Object[]> getSubscriptionStatsByPlanType();
 
         /**
-         * Bulk update expired subscriptions
+         * Bulk update expired subscriptions.
+         * Stamps updatedAt explicitly (bulk updates skip @UpdateTimestamp) so
+         * insertFreeTierForExpiredSince can pick up the delta.
          */
         @Modifying
-        @Query("UPDATE UserSubscription s SET s.isActive = false, s.status = 'EXPIRED' " +
+        @Query("UPDATE UserSubscription s SET s.isActive = false, s.status = 'EXPIRED', s.updatedAt = :now " +
                         "WHERE s.isActive = true AND s.status = 'ACTIVE' AND s.endDate < :now")
         int markExpiredSubscriptions(@Param("now") LocalDateTime now);
 
+        /**
+         * Give a FREE_TIER subscription to every user whose subscription expired in (since, now]
+         * and who has no other active subscription - one INSERT ... SELECT
+         */
+        @Modifying
+        @Query(value = "INSERT INTO user_subscriptions (user_id, plan_id, start_date, end_date, is_active, status, " +
+                        "is_student_subscription, auto_renew, created_at, updated_at) " +
+                        "SELECT DISTINCT e.user_id, :freePlanId, :now, :endDate, true, 'ACTIVE', false, false, :now, :now " +
+                        "FROM user_subscriptions e " +
+                        "WHERE e.status = 'EXPIRED' AND e.updated_at > :since AND e.updated_at <= :now " +
+                        "AND NOT EXISTS (SELECT 1 FROM user_subscriptions a WHERE a.user_id = e.user_id " +
+                        "AND a.is_active = true AND a.status = 'ACTIVE' AND a.start_date <= :now AND a.end_date > :now)",
+                        nativeQuery = true)
+        int insertFreeTierForExpiredSince(@Param("freePlanId") Long freePlanId,
+                        @Param("since") LocalDateTime since,
+                        @Param("now") LocalDateTime now,
+                        @Param("endDate") LocalDateTime endDate);
+
         /**
          * Find user's latest subscription for a specific plan type
          */
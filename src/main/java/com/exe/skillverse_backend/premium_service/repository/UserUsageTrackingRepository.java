@@ -2,12 +2,15 @@ package com.exe.skillverse_backend.premium_service.repository;
 
 import com.exe.skillverse_backend.auth_service.entity.User;
 import com.exe.skillverse_backend.premium_service.entity.FeatureType;
+import com.exe.skillverse_backend.premium_service.entity.ResetPeriod;
 import com.exe.skillverse_backend.premium_service.entity.UserUsageTracking;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -114,4 +117,68 @@ public interface UserUsageTrackingRepository extends JpaRepository<UserUsageTrac
             "GROUP BY uut.featureType")
     List<Object[]> getUsageStatistics(@Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Next chunk of expired tracking rows whose active plan limit uses the given reset period,
+     * in id order after afterId (keyset paging for resetExpiredUsagePeriods)
+     */
+    @Query("SELECT DISTINCT uut.id FROM UserUsageTracking uut, UserSubscription s, PlanFeatureLimits pfl " +
+            "WHERE s.user = uut.user AND s.isActive = true " +
+            "AND pfl.plan = s.plan AND pfl.featureType = uut.featureType AND pfl.isActive = true " +
+            "AND pfl.resetPeriod = :resetPeriod AND uut.currentPeriodEnd < :now AND uut.id > :afterId " +
+            "ORDER BY uut.id")
+    List<Long> findExpiredIdsForResetPeriod(@Param("resetPeriod") ResetPeriod resetPeriod,
+            @Param("now") LocalDateTime now,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * Start a new period for a chunk of rows, in its own transaction.
+     * Re-checks expiry, so rows already rolled over by consumeQuota are left alone.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserUsageTracking uut SET uut.usageCount = 0, uut.lastResetAt = :now, " +
+            "uut.currentPeriodStart = :periodStart, uut.currentPeriodEnd = :periodEnd, uut.updatedAt = :now " +
+            "WHERE uut.id IN :ids AND uut.currentPeriodEnd < :now")
+    int resetPeriods(@Param("ids") List<Long> ids,
+            @Param("now") LocalDateTime now,
+            @Param("periodStart") LocalDateTime periodStart,
+            @Param("periodEnd") LocalDateTime periodEnd);
+
+    /**
+     * Atomically take one unit of quota: rolls an expired period over (count restarts at 1)
+     * or increments while usage_count < limit. Returns (usage_count, current_period_end)
+     * of the updated row; no row means the limit is reached or tracking does not exist yet.
+     * PostgreSQL (UPDATE ... RETURNING).
+     */
+    @Query(value = "UPDATE user_usage_tracking SET " +
+            "usage_count = CASE WHEN current_period_end < :now THEN 1 ELSE usage_count + 1 END, " +
+            "last_reset_at = CASE WHEN current_period_end < :now THEN :now ELSE last_reset_at END, " +
+            "current_period_start = CASE WHEN current_period_end < :now THEN :periodStart ELSE current_period_start END, " +
+            "current_period_end = CASE WHEN current_period_end < :now THEN :periodEnd ELSE current_period_end END, " +
+            "updated_at = :now " +
+            "WHERE user_id = :userId AND feature_type = :featureType " +
+            "AND (current_period_end < :now OR usage_count < :limit) " +
+            "RETURNING usage_count, current_period_end", nativeQuery = true)
+    List<Object[]> consumeQuota(@Param("userId") Long userId,
+            @Param("featureType") String featureType,
+            @Param("limit") int limit,
+            @Param("now") LocalDateTime now,
+            @Param("periodStart") LocalDateTime periodStart,
+            @Param("periodEnd") LocalDateTime periodEnd);
+
+    /**
+     * Create an empty tracking row unless one exists (concurrent first uses race safely)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_usage_tracking (user_id, feature_type, usage_count, last_reset_at, " +
+            "current_period_start, current_period_end, created_at, updated_at) " +
+            "VALUES (:userId, :featureType, 0, :now, :periodStart, :periodEnd, :now, :now) " +
+            "ON CONFLICT (user_id, feature_type) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId,
+            @Param("featureType") String featureType,
+            @Param("now") LocalDateTime now,
+            @Param("periodStart") LocalDateTime periodStart,
+            @Param("periodEnd") LocalDateTime periodEnd);
 }
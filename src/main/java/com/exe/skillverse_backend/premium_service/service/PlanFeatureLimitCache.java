@@ -0,0 +1,92 @@
+package com.exe.skillverse_backend.premium_service.service;
+
+import com.exe.skillverse_backend.premium_service.entity.FeatureType;
+import com.exe.skillverse_backend.premium_service.entity.PlanFeatureLimits;
+import com.exe.skillverse_backend.premium_service.entity.ResetPeriod;
+import com.exe.skillverse_backend.premium_service.repository.PlanFeatureLimitsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of the active PlanFeatureLimits of each plan
+ * - One query per plan, then served from memory until evicted or expired
+ * - Admin changes evict the plan immediately; the TTL covers other instances
+ */
+@Component
+@Slf4j
+public class PlanFeatureLimitCache {
+
+    /**
+     * Immutable copy of one active limit row
+     */
+    public record Limit(FeatureType featureType, Integer limitValue, ResetPeriod resetPeriod, boolean unlimited) {
+
+        /**
+         * Counted features: not unlimited and with a limit value
+         */
+        public boolean isMetered() {
+            return !unlimited && limitValue != null;
+        }
+    }
+
+    private record PlanLimits(Map<FeatureType, Limit> byFeature, long loadedAt) {
+    }
+
+    private final PlanFeatureLimitsRepository featureLimitsRepository;
+    private final long ttlMs;
+    private final Map<Long, PlanLimits> plans = new ConcurrentHashMap<>();
+
+    public PlanFeatureLimitCache(
+            PlanFeatureLimitsRepository featureLimitsRepository,
+            @Value("${premium.limits.cache-ttl-ms:60000}") long ttlMs) {
+        this.featureLimitsRepository = featureLimitsRepository;
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Active limit of a feature for a plan; empty means no limit configured (unlimited)
+     */
+    public Optional<Limit> get(Long planId, FeatureType featureType) {
+        PlanLimits cached = plans.get(planId);
+        if (cached == null || System.currentTimeMillis() - cached.loadedAt() > ttlMs) {
+            cached = load(planId);
+        }
+        return Optional.ofNullable(cached.byFeature().get(featureType));
+    }
+
+    /**
+     * Drop a plan now and again after the surrounding transaction commits,
+     * so a concurrent reload cannot keep the pre-commit rows
+     */
+    public void evict(Long planId) {
+        plans.remove(planId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    plans.remove(planId);
+                }
+            });
+        }
+    }
+
+    private PlanLimits load(Long planId) {
+        Map<FeatureType, Limit> byFeature = new EnumMap<>(FeatureType.class);
+        for (PlanFeatureLimits row : featureLimitsRepository.findActiveLimitsByPlanId(planId)) {
+            byFeature.put(row.getFeatureType(), new Limit(row.getFeatureType(), row.getLimitValue(),
+                    row.getResetPeriod(), Boolean.TRUE.equals(row.getIsUnlimited())));
+        }
+        PlanLimits loaded = new PlanLimits(Map.copyOf(byFeature), System.currentTimeMillis());
+        plans.put(planId, loaded);
+        log.debug("Loaded {} feature limits for plan {}", byFeature.size(), planId);
+        return loaded;
+    }
+}
@@ -21,6 +21,7 @@ import com.exe.skillverse_backend.wallet_service.service.WalletService;
 import com.exe.skillverse_backend.user_service.service.UserProfileService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -50,6 +51,14 @@ public class PremiumServiceImpl implements PremiumService {
         private final PremiumEmailService premiumEmailService;
         private final NotificationService notificationService;
 
+        @Value("${premium.subscription.free-tier-fallback-lookback-hours:24}")
+        private long freeTierFallbackLookbackHours;
+
+        /**
+         * End of the window handled by the last processExpiredSubscriptions run
+         */
+        private volatile LocalDateTime freeTierFallbackWatermark;
+
         private static final List<String> STUDENT_EMAIL_DOMAINS = List.of(
                         ".edu", ".edu.vn", ".ac.uk", "university.", "student.", ".edu.au");
 
@@ -310,36 +319,34 @@ public class PremiumServiceImpl implements PremiumService {
                 }
         }
 
+        /**
+         * Expires due subscriptions, then moves only those users to FREE_TIER.
+         * The watermark is the previous run's "now"; the first run after startup looks back
+         * premium.subscription.free-tier-fallback-lookback-hours. The insert skips users that
+         * already have an active subscription, so overlapping windows are harmless.
+         * If the transaction rolls back, the subscriptions stay ACTIVE and are expired again
+         * (with a newer updatedAt) next run, so nothing falls behind the watermark.
+         */
         @Override
         @Scheduled(cron = "0 0 * * * ?")
         @Transactional
         public void processExpiredSubscriptions() {
                 LocalDateTime now = LocalDateTime.now();
-                userSubscriptionRepository.markExpiredSubscriptions(now);
+                int expired = userSubscriptionRepository.markExpiredSubscriptions(now);
 
-                // Fallback users to Free Tier
-                premiumPlanRepository.findByPlanTypeAndIsActiveTrue(PremiumPlan.PlanType.FREE_TIER)
-                                .ifPresent(freePlan -> {
-                                        List<User> users = userRepository.findAll();
-                                        for (User user : users) {
-                                                boolean hasActive = userSubscriptionRepository
-                                                                .hasActiveSubscription(user, now);
-                                                if (!hasActive) {
-                                                        UserSubscription freeSub = UserSubscription.builder()
-                                                                        .user(user)
-                                                                        .plan(freePlan)
-                                                                        .startDate(now)
-                                                                        .endDate(now.plusYears(100))
-                                                                        .isActive(true)
-                                                                        .status(UserSubscription.SubscriptionStatus.ACTIVE)
-                                                                        .autoRenew(false)
-                                                                        .build();
-                                                        userSubscriptionRepository.save(freeSub);
-                                                }
-                                        }
-                                });
+                LocalDateTime since = freeTierFallbackWatermark != null
+                                ? freeTierFallbackWatermark
+                                : now.minusHours(freeTierFallbackLookbackHours);
 
-                log.info("Processed expired subscriptions and reverted to Free Tier at {}", now);
+                // Fallback users to Free Tier
+                int fallbacks = premiumPlanRepository.findByPlanTypeAndIsActiveTrue(PremiumPlan.PlanType.FREE_TIER)
+                                .map(freePlan -> userSubscriptionRepository.insertFreeTierForExpiredSince(
+                                                freePlan.getId(), since, now, now.plusYears(100)))
+                                .orElse(0);
+                freeTierFallbackWatermark = now;
+
+                log.info("Processed expired subscriptions at {}: {} expired, {} reverted to Free Tier",
+                                now, expired, fallbacks);
         }
 
         @Override
@@ -10,6 +10,7 @@ import com.exe.skillverse_backend.premium_service.repository.PlanFeatureLimitsRe
 import com.exe.skillverse_backend.premium_service.repository.UserUsageTrackingRepository;
 import com.exe.skillverse_backend.premium_service.repository.PremiumPlanRepository;
 import com.exe.skillverse_backend.premium_service.repository.UserSubscriptionRepository;
+import com.exe.skillverse_backend.premium_service.service.PlanFeatureLimitCache;
 import com.exe.skillverse_backend.premium_service.service.UsageLimitService;
 import com.exe.skillverse_backend.course_service.repository.CourseEnrollmentRepository;
 import com.exe.skillverse_backend.course_service.repository.CertificateRepository;
@@ -18,8 +19,12 @@ import com.exe.skillverse_backend.course_service.repository.LessonProgressReposi
 import com.exe.skillverse_backend.premium_service.dto.response.UserCycleStatsDTO;
 import com.exe.skillverse_backend.shared.exception.ApiException;
 import com.exe.skillverse_backend.shared.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,6 +38,7 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.Comparator;
 
@@ -53,74 +59,59 @@ public class UsageLimitServiceImpl implements UsageLimitService {
     private final CertificateRepository certificateRepository;
     private final AssignmentSubmissionRepository assignmentSubmissionRepository;
     private final LessonProgressRepository lessonProgressRepository;
+    private final PlanFeatureLimitCache planFeatureLimitCache;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${premium.usage-reset.chunk-size:1000}")
+    private int resetChunkSize;
 
     @Override
     @Transactional
     public UsageCheckResult canUseFeature(Long userId, FeatureType featureType) {
         log.debug("Checking if user {} can use feature {}", userId, featureType);
 
-        // Get user and their active subscription
-        User user = getUserOrThrow(userId);
-        UserSubscription subscription = getActiveSubscriptionOrThrow(user);
-        PremiumPlan plan = subscription.getPlan();
-
-        // Get feature limit configuration for this plan
-        Optional<PlanFeatureLimits> limitConfig = featureLimitsRepository
-                .findByPlanAndFeatureTypeAndIsActiveTrue(plan, featureType);
-
-        if (limitConfig.isEmpty()) {
-            // No limit configured = unlimited
-            log.debug("No limit configured for feature {} in plan {}, allowing unlimited",
-                    featureType, plan.getName());
-            return UsageCheckResult.unlimited(0);
-        }
-
-        PlanFeatureLimits limit = limitConfig.get();
-
-        // Check if unlimited
-        if (limit.getIsUnlimited()) {
-            log.debug("Feature {} is unlimited for plan {}", featureType, plan.getName());
-
-            // Get current usage for display purposes
-            Optional<UserUsageTracking> tracking = usageTrackingRepository
-                    .findByUserAndFeatureType(user, featureType);
-            Integer currentUsage = tracking.map(UserUsageTracking::getUsageCount).orElse(0);
+        Optional<PlanFeatureLimitCache.Limit> limitConfig = planFeatureLimitCache
+                .get(resolveActivePlanId(userId), featureType);
 
-            return UsageCheckResult.unlimited(currentUsage);
+        if (limitConfig.isEmpty() || !limitConfig.get().isMetered()) {
+            // No limit configured or unlimited; current usage for display purposes only
+            Integer currentUsage = usageTrackingRepository.findByUserIdAndFeatureType(userId, featureType)
+                    .map(UserUsageTracking::getUsageCount).orElse(0);
+            return UsageCheckResult.unlimited(limitConfig.isEmpty() ? 0 : currentUsage);
         }
 
-        // Get or create usage tracking
-        UserUsageTracking tracking = getOrCreateUsageTracking(user, featureType, limit.getResetPeriod());
+        PlanFeatureLimitCache.Limit limit = limitConfig.get();
+        Integer limitValue = limit.limitValue();
 
-        // Check if period expired and reset if needed
-        if (tracking.checkAndResetIfExpired(limit.getResetPeriod())) {
-            usageTrackingRepository.save(tracking);
-            log.info("Reset usage for user {} feature {} (period expired)", userId, featureType);
+        // Read-only: an expired period counts as empty, the rollover itself happens in consumeQuota
+        Optional<UserUsageTracking> tracking = usageTrackingRepository.findByUserIdAndFeatureType(userId, featureType);
+        if (tracking.isEmpty() || tracking.get().needsReset()) {
+            LocalDateTime periodEnd = limit.resetPeriod().calculateNextReset(limit.resetPeriod().calculatePeriodStart());
+            return limitValue > 0
+                    ? UsageCheckResult.allowed(0, limitValue, periodEnd, formatTimeUntil(periodEnd))
+                    : UsageCheckResult.limitExceeded(0, limitValue, periodEnd, formatTimeUntil(periodEnd));
         }
 
-        // Check if limit exceeded
-        Integer currentUsage = tracking.getUsageCount();
-        Integer limitValue = limit.getLimitValue();
+        UserUsageTracking current = tracking.get();
+        Integer currentUsage = current.getUsageCount();
 
-        if (tracking.hasReachedLimit(limitValue)) {
-            String timeUntilReset = tracking.getFormattedTimeUntilReset();
+        if (current.hasReachedLimit(limitValue)) {
             log.warn("User {} exceeded limit for feature {}: {}/{}",
                     userId, featureType, currentUsage, limitValue);
 
             return UsageCheckResult.limitExceeded(
                     currentUsage,
                     limitValue,
-                    tracking.getCurrentPeriodEnd(),
-                    timeUntilReset);
+                    current.getCurrentPeriodEnd(),
+                    current.getFormattedTimeUntilReset());
         }
 
         // Usage allowed
-        String timeUntilReset = tracking.getFormattedTimeUntilReset();
         return UsageCheckResult.allowed(
                 currentUsage,
                 limitValue,
-                tracking.getCurrentPeriodEnd(),
-                timeUntilReset);
+                current.getCurrentPeriodEnd(),
+                current.getFormattedTimeUntilReset());
     }
 
     @Override
@@ -128,53 +119,49 @@ public class UsageLimitServiceImpl implements UsageLimitService {
     public void recordUsage(Long userId, FeatureType featureType) {
         log.debug("Recording usage for user {} feature {}", userId, featureType);
 
-        User user = getUserOrThrow(userId);
-        UserSubscription subscription = getActiveSubscriptionOrThrow(user);
-        PremiumPlan plan = subscription.getPlan();
-
-        // Get feature limit configuration
-        Optional<PlanFeatureLimits> limitConfig = featureLimitsRepository
-                .findByPlanAndFeatureTypeAndIsActiveTrue(plan, featureType);
-
-        if (limitConfig.isEmpty()) {
-            log.debug("No limit configured for feature {}, not tracking usage", featureType);
-            return;
-        }
-
-        PlanFeatureLimits limit = limitConfig.get();
+        Optional<PlanFeatureLimitCache.Limit> limitConfig = planFeatureLimitCache
+                .get(resolveActivePlanId(userId), featureType);
 
-        // Don't track unlimited features (optional - can track for analytics)
-        if (limit.getIsUnlimited()) {
-            log.debug("Feature {} is unlimited, not tracking usage", featureType);
+        if (limitConfig.isEmpty() || !limitConfig.get().isMetered()) {
+            log.debug("Feature {} has no limit or is unlimited, not tracking usage", featureType);
             return;
         }
 
-        // Get or create usage tracking
-        UserUsageTracking tracking = getOrCreateUsageTracking(user, featureType, limit.getResetPeriod());
-
-        // Check if period expired and reset if needed
-        if (tracking.checkAndResetIfExpired(limit.getResetPeriod())) {
-            log.info("Reset usage for user {} feature {} before recording", userId, featureType);
-        }
-
-        // Increment usage
-        tracking.incrementUsage();
-        usageTrackingRepository.save(tracking);
-
-        log.info("Recorded usage for user {} feature {}: {}/{}",
-                userId, featureType, tracking.getUsageCount(), limit.getLimitValue());
+        // Recording is unconditional: no ceiling on the counter
+        consumeQuota(userId, featureType, limitConfig.get().resetPeriod(), Integer.MAX_VALUE);
     }
 
+    /**
+     * Check and record in one conditional UPDATE, so concurrent requests cannot overshoot the limit.
+     * Hot path: one plan-id lookup plus the UPDATE; limits come from PlanFeatureLimitCache.
+     */
     @Override
     @Transactional
     public void checkAndRecordUsage(Long userId, FeatureType featureType) {
-        UsageCheckResult check = canUseFeature(userId, featureType);
+        Optional<PlanFeatureLimitCache.Limit> limitConfig = planFeatureLimitCache
+                .get(resolveActivePlanId(userId), featureType);
+
+        if (limitConfig.isEmpty() || !limitConfig.get().isMetered()) {
+            return;
+        }
 
-        if (!check.getAllowed()) {
-            throw UsageLimitExceededException.fromCheckResult(featureType, check);
+        PlanFeatureLimitCache.Limit limit = limitConfig.get();
+        if (limit.limitValue() > 0 && consumeQuota(userId, featureType, limit.resetPeriod(), limit.limitValue())) {
+            return;
         }
 
-        recordUsage(userId, featureType);
+        // Denied: read the row only to build the error details
+        UsageCheckResult exceeded = usageTrackingRepository.findByUserIdAndFeatureType(userId, featureType)
+                .map(t -> UsageCheckResult.limitExceeded(t.getUsageCount(), limit.limitValue(),
+                        t.getCurrentPeriodEnd(), t.getFormattedTimeUntilReset()))
+                .orElseGet(() -> {
+                    LocalDateTime periodEnd = limit.resetPeriod()
+                            .calculateNextReset(limit.resetPeriod().calculatePeriodStart());
+                    return UsageCheckResult.limitExceeded(0, limit.limitValue(), periodEnd, formatTimeUntil(periodEnd));
+                });
+        log.warn("User {} exceeded limit for feature {}: {}/{}",
+                userId, featureType, exceeded.getCurrentUsage(), limit.limitValue());
+        throw UsageLimitExceededException.fromCheckResult(featureType, exceeded);
     }
 
     @Override
@@ -278,45 +265,45 @@ public class UsageLimitServiceImpl implements UsageLimitService {
         return result;
     }
 
+    /**
+     * Set-based reset, one reset period at a time, in chunks of premium.usage-reset.chunk-size rows.
+     * Not transactional: every chunk commits on its own, so locks are held only briefly and an
+     * interrupted run simply continues on the next one (reset rows are no longer expired).
+     * Rows without an active subscription or limit config are skipped, as before.
+     */
     @Override
-    @Transactional
     @Scheduled(cron = "0 0 * * * ?") // Every hour
     public void resetExpiredUsagePeriods() {
         log.info("Running scheduled task: resetExpiredUsagePeriods");
-
+        long startNanos = System.nanoTime();
         LocalDateTime now = LocalDateTime.now();
-        List<UserUsageTracking> expiredPeriods = usageTrackingRepository.findExpiredPeriods(now);
 
         int resetCount = 0;
-        for (UserUsageTracking tracking : expiredPeriods) {
-            // Get the reset period from plan configuration
-            User user = tracking.getUser();
-            Optional<UserSubscription> subscription = subscriptionRepository.findByUserAndIsActiveTrue(user);
-
-            if (subscription.isEmpty()) {
-                log.warn("No active subscription for user {} during reset, skipping", user.getId());
-                continue;
-            }
-
-            PremiumPlan plan = subscription.get().getPlan();
-            Optional<PlanFeatureLimits> limitConfig = featureLimitsRepository
-                    .findByPlanAndFeatureTypeAndIsActiveTrue(plan, tracking.getFeatureType());
-
-            if (limitConfig.isEmpty()) {
-                log.warn("No limit config for user {} feature {}, skipping reset",
-                        user.getId(), tracking.getFeatureType());
-                continue;
-            }
-
-            ResetPeriod resetPeriod = limitConfig.get().getResetPeriod();
-            tracking.resetUsage(resetPeriod);
-            usageTrackingRepository.save(tracking);
-            resetCount++;
-
-            log.debug("Reset usage for user {} feature {}", user.getId(), tracking.getFeatureType());
+        for (ResetPeriod resetPeriod : ResetPeriod.values()) {
+            LocalDateTime periodStart = resetPeriod.calculatePeriodStart();
+            LocalDateTime periodEnd = resetPeriod.calculateNextReset(periodStart);
+            Counter resetRows = meterRegistry.counter("premium.usage.reset.rows", "period", resetPeriod.name());
+
+            long afterId = 0L;
+            List<Long> ids;
+            do {
+                ids = usageTrackingRepository.findExpiredIdsForResetPeriod(
+                        resetPeriod, now, afterId, PageRequest.of(0, resetChunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                int updated = usageTrackingRepository.resetPeriods(ids, now, periodStart, periodEnd);
+                afterId = ids.get(ids.size() - 1);
+                resetCount += updated;
+                resetRows.increment(updated);
+                meterRegistry.counter("premium.usage.reset.chunks").increment();
+                log.debug("Reset chunk of {} {} usage periods (up to id {})", updated, resetPeriod, afterId);
+            } while (ids.size() == resetChunkSize);
         }
 
-        log.info("Reset {} expired usage periods", resetCount);
+        meterRegistry.timer("premium.usage.reset.duration").record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        log.info("Reset {} expired usage periods in {} ms", resetCount,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
     }
 
     @Override
@@ -526,6 +513,50 @@ public class UsageLimitServiceImpl implements UsageLimitService {
                 });
     }
 
+    /**
+     * Plan id of the user's active subscription; falls back to the full lookup
+     * (which assigns FREE_TIER) only when there is none
+     */
+    private Long resolveActivePlanId(Long userId) {
+        List<Long> planIds = subscriptionRepository.findActivePlanIdsByUserId(userId);
+        if (!planIds.isEmpty()) {
+            return planIds.get(0);
+        }
+        return getActiveSubscriptionOrThrow(getUserOrThrow(userId)).getPlan().getId();
+    }
+
+    /**
+     * Take one unit of quota below limit, creating the tracking row on first use.
+     * Returns false when the limit is reached.
+     */
+    private boolean consumeQuota(Long userId, FeatureType featureType, ResetPeriod resetPeriod, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime periodStart = resetPeriod.calculatePeriodStart();
+        LocalDateTime periodEnd = resetPeriod.calculateNextReset(periodStart);
+
+        List<Object[]> updated = usageTrackingRepository.consumeQuota(
+                userId, featureType.name(), limit, now, periodStart, periodEnd);
+        if (updated.isEmpty()) {
+            // No row yet, or limit reached: make sure the row exists (waits for a concurrent
+            // first insert to commit) and try once more
+            usageTrackingRepository.insertIfAbsent(userId, featureType.name(), now, periodStart, periodEnd);
+            updated = usageTrackingRepository.consumeQuota(
+                    userId, featureType.name(), limit, now, periodStart, periodEnd);
+        }
+        if (updated.isEmpty()) {
+            return false;
+        }
+
+        log.info("Recorded usage for user {} feature {}: {}/{}", userId, featureType,
+                updated.get(0)[0], limit == Integer.MAX_VALUE ? "-" : limit);
+        return true;
+    }
+
+    private static String formatTimeUntil(LocalDateTime periodEnd) {
+        UserUsageTracking probe = UserUsageTracking.builder().currentPeriodEnd(periodEnd).build();
+        return probe.getFormattedTimeUntilReset();
+    }
+
     private UserUsageTracking getOrCreateUsageTracking(User user, FeatureType featureType, ResetPeriod resetPeriod) {
         Optional<UserUsageTracking> existing = usageTrackingRepository
                 .findByUserAndFeatureType(user, featureType);
@@ -1,16 +1,27 @@
 package com.exe.skillverse_backend.shared.config;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Configuration for asynchronous task execution
  * Used for email sending operations to prevent server overload
+ * and for blocking AI provider calls (AiProviderRouter)
+ * and background roadmap generation jobs (RoadmapJobService)
+ * and the codelab judge workers (CodeJudgeDispatcher)
+ * and the email outbox workers (EmailOutboxDispatcher)
  */
 @Slf4j
 @Configuration
@@ -56,4 +67,99 @@ public class AsyncConfig {
 
         return executor;
     }
+
+    /**
+     * Thread pool for blocking AI provider calls made by AiProviderRouter
+     * No queue: per-provider bulkheads bound the load, and a saturated pool
+     * makes the router skip to the next provider instead of waiting
+     *
+     * Deliberately a plain ThreadPoolExecutor rather than a TaskExecutor, so that
+     * unqualified @Async methods keep resolving to emailTaskExecutor
+     *
+     * Configuration:
+     * - Core pool size: 8 threads
+     * - Max pool size: 64 threads
+     * - Queue capacity: 0 (direct hand-off)
+     * - Thread name prefix: "AiProvider-"
+     */
+    @Bean(name = "aiProviderExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService aiProviderExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                8, 64, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                new CustomizableThreadFactory("AiProvider-"));
+
+        log.info("✅ AI Provider Executor initialized with core={}, max={}",
+                executor.getCorePoolSize(),
+                executor.getMaximumPoolSize());
+
+        return executor;
+    }
+
+    /**
+     * Bounded pool for background roadmap generation jobs (RoadmapJobService)
+     * Each job holds a DB transaction for the whole generation, so the pool stays small;
+     * submissions beyond the queue are rejected instead of piling up
+     *
+     * Configuration:
+     * - Pool size: 4 threads
+     * - Queue capacity: 50 jobs
+     * - Thread name prefix: "RoadmapJob-"
+     */
+    @Bean(name = "roadmapJobExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService roadmapJobExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                4, 4, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(50),
+                new CustomizableThreadFactory("RoadmapJob-"));
+
+        log.info("✅ Roadmap Job Executor initialized with pool={}, queue={}",
+                executor.getCorePoolSize(),
+                executor.getQueue().remainingCapacity());
+
+        return executor;
+    }
+
+    /**
+     * Worker pool of the codelab judge (CodeJudgeDispatcher)
+     * One thread per worker; each waits on a sandboxed process, so the size is bounded
+     * by the CPU cores the judge may use, not by request load
+     *
+     * Configuration:
+     * - Pool size: codelab.judge.workers (default 2)
+     * - Queue capacity: pool size (the dispatcher only claims jobs for idle workers)
+     * - Thread name prefix: "CodeJudge-"
+     */
+    @Bean(name = "codeJudgeExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService codeJudgeExecutor(@Value("${codelab.judge.workers:2}") int workers) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers),
+                new CustomizableThreadFactory("CodeJudge-"));
+
+        log.info("✅ Code Judge Executor initialized with pool={}", executor.getCorePoolSize());
+
+        return executor;
+    }
+
+    /**
+     * Worker pool of the email outbox (EmailOutboxDispatcher)
+     * Each worker sends one group of messages over one SMTP connection at a time
+     *
+     * Configuration:
+     * - Pool size: email.outbox.workers (default 4)
+     * - Queue capacity: pool size (the dispatcher only claims work for idle workers)
+     * - Thread name prefix: "EmailOutbox-"
+     */
+    @Bean(name = "emailDispatchExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService emailDispatchExecutor(@Value("${email.outbox.workers:4}") int workers) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers),
+                new CustomizableThreadFactory("EmailOutbox-"));
+
+        log.info("✅ Email Outbox Executor initialized with pool={}", executor.getCorePoolSize());
+
+        return executor;
+    }
 }
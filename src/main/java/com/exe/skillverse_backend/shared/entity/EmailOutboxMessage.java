@@ -0,0 +1,104 @@
+package com.exe.skillverse_backend.shared.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One outgoing email. Written by EmailService inside the caller's transaction,
+ * delivered by EmailOutboxDispatcher, so no request ever waits on SMTP.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(columnList = "status, priority, next_attempt_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailOutboxMessage {
+
+    /**
+     * OTP, password reset, notifications: delivered before any bulk mail
+     */
+    public static final int PRIORITY_TRANSACTIONAL = 0;
+
+    /**
+     * Broadcasts (enqueueAll): only a share of each domain's budget
+     */
+    public static final int PRIORITY_BULK = 1;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "recipient", nullable = false, length = 320)
+    private String recipient;
+
+    /**
+     * Lower-cased domain of the recipient, for per-domain rate limits
+     */
+    @Column(name = "recipient_domain", nullable = false, length = 255)
+    private String recipientDomain;
+
+    @Column(name = "subject", nullable = false, length = 500)
+    private String subject;
+
+    @Column(name = "body", nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Column(name = "html", nullable = false)
+    @Builder.Default
+    private Boolean html = true;
+
+    @Column(name = "attachment_filename")
+    private String attachmentFilename;
+
+    @Column(name = "attachment_content_type", length = 100)
+    private String attachmentContentType;
+
+    @Column(name = "attachment_data")
+    private byte[] attachmentData;
+
+    @Column(name = "priority", nullable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer priority = PRIORITY_TRANSACTIONAL;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private EmailOutboxStatus status = EmailOutboxStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * When a dispatcher moved the row to SENDING; stale claims are picked up again
+     */
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,8 @@
+package com.exe.skillverse_backend.shared.entity;
+
+public enum EmailOutboxStatus {
+    PENDING, // Waiting for the dispatcher (or for its retry time)
+    SENDING, // Claimed by a dispatcher
+    SENT,
+    FAILED // Gave up after email.outbox.max-attempts
+}
@@ -0,0 +1,75 @@
+package com.exe.skillverse_backend.shared.repository;
+
+import com.exe.skillverse_backend.shared.entity.EmailOutboxMessage;
+import com.exe.skillverse_backend.shared.entity.EmailOutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    /**
+     * Lock due messages (and SENDING rows whose claim went stale), transactional before bulk, skipping rows
+     * another dispatcher already holds (lock timeout -2 is Hibernate's SKIP_LOCKED) and rows of domains
+     * without budget left: fullDomains for every message, bulkFullDomains for bulk ones
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM EmailOutboxMessage m " +
+            "WHERE ((m.status = :pending AND m.nextAttemptAt <= :now) " +
+            "OR (m.status = :sending AND m.claimedAt < :staleBefore)) " +
+            "AND m.recipientDomain NOT IN :fullDomains " +
+            "AND (m.priority <> :bulk OR m.recipientDomain NOT IN :bulkFullDomains) " +
+            "ORDER BY m.priority, m.nextAttemptAt")
+    List<EmailOutboxMessage> findDueForUpdate(@Param("pending") EmailOutboxStatus pending,
+            @Param("sending") EmailOutboxStatus sending,
+            @Param("now") LocalDateTime now,
+            @Param("staleBefore") LocalDateTime staleBefore,
+            @Param("bulk") Integer bulk,
+            @Param("fullDomains") Collection<String> fullDomains,
+            @Param("bulkFullDomains") Collection<String> bulkFullDomains,
+            Pageable pageable);
+
+    long countByStatus(EmailOutboxStatus status);
+
+    /**
+     * Put a claimed message back without counting an attempt (rate limited)
+     */
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :pending, m.attempts = m.attempts - 1, " +
+            "m.nextAttemptAt = :nextAttemptAt, m.claimedAt = null, m.updatedAt = :now " +
+            "WHERE m.id IN :ids AND m.status = :sending")
+    int release(@Param("ids") List<Long> ids,
+            @Param("pending") EmailOutboxStatus pending,
+            @Param("sending") EmailOutboxStatus sending,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :sent, m.sentAt = :now, m.lastError = null, " +
+            "m.attachmentData = null, m.updatedAt = :now " +
+            "WHERE m.id IN :ids AND m.status = :sending")
+    int markSent(@Param("ids") List<Long> ids,
+            @Param("sent") EmailOutboxStatus sent,
+            @Param("sending") EmailOutboxStatus sending,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Drop delivered messages after the retention period
+     */
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = :sent AND m.sentAt < :cutoff")
+    int deleteSentBefore(@Param("sent") EmailOutboxStatus sent, @Param("cutoff") LocalDateTime cutoff);
+}
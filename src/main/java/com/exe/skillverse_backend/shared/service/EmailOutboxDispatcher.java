@@ -0,0 +1,342 @@
+package com.exe.skillverse_backend.shared.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.UnsupportedEncodingException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers the email outbox
+ * - Each poll claims work only for idle workers (emailDispatchExecutor)
+ * - A worker sends its group of messages over one SMTP connection (JavaMailSender.send(MimeMessage...))
+ *   and records which of them the server rejected
+ * - At most email.outbox.per-domain-per-minute messages per recipient domain per instance, of which bulk mail
+ *   may use email.outbox.bulk-per-domain-per-minute; domains without budget left are not claimed, and the
+ *   overflow of a claim goes back to the queue for the next minute without using up an attempt
+ * - Metrics: email.outbox.depth, email.outbox.send (per SMTP connection), email.outbox.delivery.delay
+ *   (queued to sent), email.outbox.sent / failed / rate_limited
+ */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private static final String LOGO_PATH = "c:/WorkSpace/EXE201/SkillVerse_BackEnd/src/assets/skillverse.png";
+
+    private final EmailOutboxService outboxService;
+    private final JavaMailSender mailSender;
+    private final ExecutorService executor;
+    private final int workers;
+    private final int messagesPerConnection;
+    private final int perDomainPerMinute;
+    private final int bulkPerDomainPerMinute;
+
+    @Value("${email.from:noreply@skillverse.vn}")
+    private String fromEmail;
+
+    @Value("${email.from-name:SkillVerse}")
+    private String fromName;
+
+    @Value("${email.outbox.retention-days:7}")
+    private long retentionDays;
+
+    private final AtomicInteger busy = new AtomicInteger();
+    private final AtomicLong depth = new AtomicLong();
+    private final Map<String, DomainWindow> domainWindows = new ConcurrentHashMap<>();
+
+    private final Timer sendTimer;
+    private final Timer deliveryDelay;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter rateLimited;
+
+    private volatile Resource logo;
+    private volatile boolean logoResolved;
+
+    private record DomainWindow(long minute, AtomicInteger count, AtomicInteger bulk) {
+    }
+
+    public EmailOutboxDispatcher(
+            EmailOutboxService outboxService,
+            JavaMailSender mailSender,
+            @Qualifier("emailDispatchExecutor") ExecutorService executor,
+            MeterRegistry meterRegistry,
+            @Value("${email.outbox.workers:4}") int workers,
+            @Value("${email.outbox.messages-per-connection:20}") int messagesPerConnection,
+            @Value("${email.outbox.per-domain-per-minute:120}") int perDomainPerMinute,
+            @Value("${email.outbox.bulk-per-domain-per-minute:40}") int bulkPerDomainPerMinute) {
+        this.outboxService = outboxService;
+        this.mailSender = mailSender;
+        this.executor = executor;
+        this.workers = workers;
+        this.messagesPerConnection = messagesPerConnection;
+        this.perDomainPerMinute = perDomainPerMinute;
+        this.bulkPerDomainPerMinute = Math.min(bulkPerDomainPerMinute, perDomainPerMinute);
+
+        Gauge.builder("email.outbox.depth", depth, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("email.outbox.workers.busy", busy, AtomicInteger::get).register(meterRegistry);
+        this.sendTimer = meterRegistry.timer("email.outbox.send");
+        this.deliveryDelay = meterRegistry.timer("email.outbox.delivery.delay");
+        this.sent = meterRegistry.counter("email.outbox.sent");
+        this.failed = meterRegistry.counter("email.outbox.failed");
+        this.rateLimited = meterRegistry.counter("email.outbox.rate_limited");
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        try {
+            depth.set(outboxService.countPending());
+
+            int idle = workers - busy.get();
+            if (idle <= 0) {
+                return;
+            }
+            long minute = currentMinute();
+            List<String> fullDomains = new ArrayList<>();
+            List<String> bulkFullDomains = new ArrayList<>();
+            domainWindows.forEach((domain, window) -> {
+                if (window.minute() == minute) {
+                    if (window.count().get() >= perDomainPerMinute) {
+                        fullDomains.add(domain);
+                    } else if (window.bulk().get() >= bulkPerDomainPerMinute) {
+                        bulkFullDomains.add(domain);
+                    }
+                }
+            });
+            List<EmailOutboxService.OutboxEmail> claimed =
+                    outboxService.claim(idle * messagesPerConnection, fullDomains, bulkFullDomains);
+            if (claimed.isEmpty()) {
+                return;
+            }
+
+            List<EmailOutboxService.OutboxEmail> allowed = new ArrayList<>(claimed.size());
+            List<Long> limited = new ArrayList<>();
+            for (EmailOutboxService.OutboxEmail email : claimed) {
+                if (tryAcquire(email.recipientDomain(), email.bulk())) {
+                    allowed.add(email);
+                } else {
+                    limited.add(email.id());
+                }
+            }
+            if (!limited.isEmpty()) {
+                rateLimited.increment(limited.size());
+                outboxService.release(limited, LocalDateTime.now().withSecond(0).withNano(0).plusMinutes(1));
+            }
+
+            for (int i = 0; i < allowed.size(); i += messagesPerConnection) {
+                List<EmailOutboxService.OutboxEmail> group =
+                        allowed.subList(i, Math.min(i + messagesPerConnection, allowed.size()));
+                submit(group);
+            }
+        } catch (Exception e) {
+            log.error("Email outbox dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Delete delivered messages after email.outbox.retention-days
+     */
+    @Scheduled(cron = "${email.outbox.purge-cron:0 30 3 * * ?}")
+    public void purgeSent() {
+        int purged = outboxService.purgeSentBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (purged > 0) {
+            log.info("Purged {} delivered emails from the outbox", purged);
+        }
+    }
+
+    private void submit(List<EmailOutboxService.OutboxEmail> group) {
+        busy.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                try {
+                    send(group);
+                } finally {
+                    busy.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            busy.decrementAndGet();
+            // Hand the group straight back to the queue
+            outboxService.release(group.stream().map(EmailOutboxService.OutboxEmail::id).toList(),
+                    LocalDateTime.now());
+        }
+    }
+
+    private void send(List<EmailOutboxService.OutboxEmail> group) {
+        Map<MimeMessage, EmailOutboxService.OutboxEmail> byMessage = new IdentityHashMap<>();
+        Map<Long, String> failures = new LinkedHashMap<>();
+        for (EmailOutboxService.OutboxEmail email : group) {
+            try {
+                byMessage.put(toMimeMessage(email), email);
+            } catch (Exception e) {
+                failures.put(email.id(), e.getMessage());
+            }
+        }
+
+        if (!byMessage.isEmpty()) {
+            long start = System.nanoTime();
+            try {
+                mailSender.send(byMessage.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                // Partial failure: the exception maps each rejected message to its cause
+                Map<Object, Exception> failedMessages = e.getFailedMessages();
+                if (failedMessages.isEmpty()) {
+                    byMessage.values().forEach(email -> failures.put(email.id(), e.getMessage()));
+                } else {
+                    failedMessages.forEach((message, cause) -> {
+                        EmailOutboxService.OutboxEmail email = byMessage.get(message);
+                        if (email != null) {
+                            failures.put(email.id(), cause.getMessage());
+                        }
+                    });
+                }
+            } catch (MailException e) {
+                byMessage.values().forEach(email -> failures.put(email.id(), e.getMessage()));
+            } finally {
+                sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        List<Long> delivered = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (EmailOutboxService.OutboxEmail email : group) {
+            if (!failures.containsKey(email.id())) {
+                delivered.add(email.id());
+                deliveryDelay.record(Duration.between(email.createdAt(), now));
+            }
+        }
+
+        try {
+            outboxService.markSent(delivered);
+        } catch (Exception e) {
+            log.error("Failed to mark {} emails as sent: {}", delivered.size(), e.getMessage());
+        }
+        sent.increment(delivered.size());
+
+        failures.forEach((id, error) -> {
+            failed.increment();
+            try {
+                outboxService.markFailed(id, error);
+            } catch (Exception e) {
+                log.error("Failed to record failure of email {}: {}", id, e.getMessage());
+            }
+        });
+
+        if (!delivered.isEmpty()) {
+            log.info("✅ Sent {} emails over one SMTP connection ({} failed)", delivered.size(), failures.size());
+        }
+    }
+
+    private MimeMessage toMimeMessage(EmailOutboxService.OutboxEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        try {
+            helper.setFrom(fromEmail, fromName);
+        } catch (UnsupportedEncodingException e) {
+            helper.setFrom(fromEmail);
+        }
+
+        helper.setTo(email.recipient());
+        helper.setSubject(email.subject());
+        helper.setText(email.body(), email.html());
+
+        if (email.attachmentData() != null && email.attachmentFilename() != null) {
+            String contentType = email.attachmentContentType() != null
+                    ? email.attachmentContentType()
+                    : "application/octet-stream";
+            helper.addAttachment(email.attachmentFilename(), new ByteArrayResource(email.attachmentData()), contentType);
+        }
+
+        if (email.html() && email.body().contains("cid:skillverse-logo")) {
+            Resource inlineLogo = logo();
+            if (inlineLogo != null) {
+                helper.addInline("skillverse-logo", inlineLogo);
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Logo for cid:skillverse-logo, resolved once and kept in memory
+     */
+    private Resource logo() {
+        if (!logoResolved) {
+            try {
+                ClassPathResource classpathLogo = new ClassPathResource("assets/skillverse.png");
+                Resource source = classpathLogo;
+                if (!classpathLogo.exists()) {
+                    File file = new File(LOGO_PATH);
+                    source = file.exists() ? new FileSystemResource(file)
+                            : new FileSystemResource(new File("src/assets/skillverse.png"));
+                }
+                if (source.exists()) {
+                    logo = new ByteArrayResource(source.getContentAsByteArray());
+                } else {
+                    log.warn("⚠️ Logo not found at classpath:assets/skillverse.png or {}", LOGO_PATH);
+                }
+            } catch (Exception e) {
+                log.warn("⚠️ Inline logo could not be loaded: {}", e.getMessage());
+            }
+            logoResolved = true;
+        }
+        return logo;
+    }
+
+    /**
+     * Fixed one-minute window per recipient domain; bulk mail only gets its share of it
+     */
+    private boolean tryAcquire(String domain, boolean bulk) {
+        long minute = currentMinute();
+        DomainWindow window = domainWindows.compute(domain, (d, current) ->
+                current == null || current.minute() != minute
+                        ? new DomainWindow(minute, new AtomicInteger(), new AtomicInteger())
+                        : current);
+        if (domainWindows.size() > 10_000) {
+            domainWindows.values().removeIf(w -> w.minute() != minute);
+        }
+        if (window.count().get() >= perDomainPerMinute
+                || (bulk && window.bulk().get() >= bulkPerDomainPerMinute)) {
+            return false;
+        }
+        window.count().incrementAndGet();
+        if (bulk) {
+            window.bulk().incrementAndGet();
+        }
+        return true;
+    }
+
+    private static long currentMinute() {
+        return System.currentTimeMillis() / 60_000L;
+    }
+}
@@ -0,0 +1,215 @@
+package com.exe.skillverse_backend.shared.service;
+
+import com.exe.skillverse_backend.shared.entity.EmailOutboxMessage;
+import com.exe.skillverse_backend.shared.entity.EmailOutboxStatus;
+import com.exe.skillverse_backend.shared.repository.EmailOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Email outbox (email_outbox table)
+ * - enqueue joins the caller's transaction: the email goes out only if the caller commits.
+ *   An invalid address throws without marking that transaction rollback-only.
+ * - claim locks due rows with SKIP LOCKED and marks them SENDING, so each message goes to
+ *   exactly one dispatcher even with several instances running. Transactional mail is claimed before
+ *   bulk mail (enqueueAll), and rows of domains whose budget is used up are not claimed at all.
+ * - A SENDING row whose claim is older than the lease (dispatcher died mid-send) is claimed again
+ */
+@Service
+@Slf4j
+public class EmailOutboxService {
+
+    /**
+     * A claimed message, detached from the persistence context for sending
+     */
+    public record OutboxEmail(Long id, String recipient, String recipientDomain, String subject, String body,
+            boolean html, String attachmentFilename, String attachmentContentType, byte[] attachmentData,
+            LocalDateTime createdAt, boolean bulk) {
+    }
+
+    /**
+     * Never a real domain: keeps the NOT IN lists non-empty
+     */
+    private static final String NO_DOMAIN = "";
+
+    private static final int BULK_CHUNK_SIZE = 500;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final int maxAttempts;
+    private final long leaseMinutes;
+
+    public EmailOutboxService(
+            EmailOutboxRepository outboxRepository,
+            @Value("${email.outbox.max-attempts:6}") int maxAttempts,
+            @Value("${email.outbox.lease-minutes:5}") long leaseMinutes) {
+        this.outboxRepository = outboxRepository;
+        this.maxAttempts = maxAttempts;
+        this.leaseMinutes = leaseMinutes;
+    }
+
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
+    public void enqueue(String to, String subject, String body, boolean html) {
+        enqueue(to, subject, body, html, null, null, null);
+    }
+
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
+    public void enqueue(String to, String subject, String body, boolean html,
+            String attachmentFilename, byte[] attachmentData, String attachmentContentType) {
+        outboxRepository.save(build(to, subject, body, html, attachmentFilename, attachmentData, attachmentContentType));
+    }
+
+    /**
+     * Queue the same email for many recipients; returns the recipients that were rejected as invalid
+     */
+    @Transactional
+    public List<String> enqueueAll(List<String> recipients, String subject, String body) {
+        List<String> invalid = new ArrayList<>();
+        List<EmailOutboxMessage> chunk = new ArrayList<>(BULK_CHUNK_SIZE);
+        for (String recipient : recipients) {
+            if (domainOf(recipient) == null) {
+                invalid.add(recipient);
+                continue;
+            }
+            EmailOutboxMessage message = build(recipient, subject, body, true, null, null, null);
+            message.setPriority(EmailOutboxMessage.PRIORITY_BULK);
+            chunk.add(message);
+            if (chunk.size() == BULK_CHUNK_SIZE) {
+                outboxRepository.saveAll(chunk);
+                chunk.clear();
+            }
+        }
+        outboxRepository.saveAll(chunk);
+        return invalid;
+    }
+
+    /**
+     * Claim up to batchSize due messages for this dispatcher, leaving out domains without budget
+     *
+     * @param fullDomains     domains that may not receive anything more this minute
+     * @param bulkFullDomains domains whose bulk share is used up
+     */
+    @Transactional
+    public List<OutboxEmail> claim(int batchSize, Collection<String> fullDomains, Collection<String> bulkFullDomains) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutboxMessage> due = outboxRepository.findDueForUpdate(
+                EmailOutboxStatus.PENDING, EmailOutboxStatus.SENDING,
+                now, now.minusMinutes(leaseMinutes), EmailOutboxMessage.PRIORITY_BULK,
+                withSentinel(fullDomains), withSentinel(bulkFullDomains), PageRequest.of(0, batchSize));
+
+        for (EmailOutboxMessage message : due) {
+            message.setStatus(EmailOutboxStatus.SENDING);
+            message.setClaimedAt(now);
+            message.setAttempts(message.getAttempts() + 1);
+        }
+        outboxRepository.saveAll(due);
+
+        return due.stream()
+                .map(m -> new OutboxEmail(m.getId(), m.getRecipient(), m.getRecipientDomain(), m.getSubject(),
+                        m.getBody(), Boolean.TRUE.equals(m.getHtml()), m.getAttachmentFilename(),
+                        m.getAttachmentContentType(), m.getAttachmentData(), m.getCreatedAt(),
+                        m.getPriority() == EmailOutboxMessage.PRIORITY_BULK))
+                .toList();
+    }
+
+    /**
+     * Hand claimed messages back without using up an attempt (e.g. rate limited)
+     */
+    @Transactional
+    public void release(List<Long> ids, LocalDateTime nextAttemptAt) {
+        if (!ids.isEmpty()) {
+            outboxRepository.release(ids, EmailOutboxStatus.PENDING, EmailOutboxStatus.SENDING,
+                    nextAttemptAt, LocalDateTime.now());
+        }
+    }
+
+    @Transactional
+    public void markSent(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            outboxRepository.markSent(ids, EmailOutboxStatus.SENT, EmailOutboxStatus.SENDING, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Retry later with backoff (1, 2, 4... minutes) until maxAttempts, then give up
+     */
+    @Transactional
+    public void markFailed(Long id, String error) {
+        outboxRepository.findById(id)
+                .filter(m -> m.getStatus() == EmailOutboxStatus.SENDING)
+                .ifPresent(message -> {
+                    message.setLastError(truncate(error));
+                    message.setClaimedAt(null);
+                    if (message.getAttempts() >= maxAttempts) {
+                        message.setStatus(EmailOutboxStatus.FAILED);
+                        log.error("Email {} to {} failed after {} attempts: {}",
+                                id, message.getRecipient(), message.getAttempts(), error);
+                    } else {
+                        message.setStatus(EmailOutboxStatus.PENDING);
+                        message.setNextAttemptAt(LocalDateTime.now().plusMinutes(1L << (message.getAttempts() - 1)));
+                        log.warn("Email {} attempt {} failed, retrying: {}", id, message.getAttempts(), error);
+                    }
+                    outboxRepository.save(message);
+                });
+    }
+
+    public long countPending() {
+        return outboxRepository.countByStatus(EmailOutboxStatus.PENDING);
+    }
+
+    @Transactional
+    public int purgeSentBefore(LocalDateTime cutoff) {
+        return outboxRepository.deleteSentBefore(EmailOutboxStatus.SENT, cutoff);
+    }
+
+    private EmailOutboxMessage build(String to, String subject, String body, boolean html,
+            String attachmentFilename, byte[] attachmentData, String attachmentContentType) {
+        String domain = domainOf(to);
+        if (domain == null) {
+            throw new IllegalArgumentException("Invalid recipient address: " + to);
+        }
+        boolean hasAttachment = attachmentData != null && attachmentData.length > 0 && attachmentFilename != null;
+        return EmailOutboxMessage.builder()
+                .recipient(to.trim())
+                .recipientDomain(domain)
+                .subject(subject)
+                .body(body != null ? body : "")
+                .html(html)
+                .attachmentFilename(hasAttachment ? attachmentFilename : null)
+                .attachmentData(hasAttachment ? attachmentData : null)
+                .attachmentContentType(hasAttachment ? attachmentContentType : null)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static List<String> withSentinel(Collection<String> domains) {
+        List<String> list = new ArrayList<>(domains.size() + 1);
+        list.add(NO_DOMAIN);
+        list.addAll(domains);
+        return list;
+    }
+
+    private static String domainOf(String address) {
+        if (address == null) {
+            return null;
+        }
+        String trimmed = address.trim();
+        int at = trimmed.lastIndexOf('@');
+        if (at <= 0 || at == trimmed.length() - 1) {
+            return null;
+        }
+        return trimmed.substring(at + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > 500 ? value.substring(0, 500) : value;
+    }
+}
@@ -1,39 +1,20 @@
 package com.exe.skillverse_backend.shared.service;
 
 import com.exe.skillverse_backend.auth_service.entity.User;
-import jakarta.mail.internet.MimeMessage;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.ClassPathResource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.io.UnsupportedEncodingException;
-import java.io.File;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender mailSender;
-
-    @Value("${email.from:noreply@skillverse.vn}")
-    private String fromEmail;
-
-    @Value("${email.from-name:SkillVerse}")
-    private String fromName;
-
-    private static final String LOGO_PATH = "c:/WorkSpace/EXE201/SkillVerse_BackEnd/src/assets/skillverse.png";
+    private final EmailOutboxService outboxService;
 
     /**
      * Send OTP email for registration
@@ -126,13 +107,8 @@ public class EmailService {
      */
     public void sendRejectionEmail(String email, String fullName, String role, String reason) {
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(email);
-            message.setSubject("Application Update - SkillVerse");
-            message.setText(buildRejectionEmailContent(fullName, role, reason));
-
-            mailSender.send(message);
+            outboxService.enqueue(email, "Application Update - SkillVerse",
+                    buildRejectionEmailContent(fullName, role, reason), false);
 
             log.info("📧 EMAIL SERVICE: Rejection email sent successfully to {} for role: {}", email, role);
 
@@ -146,8 +122,7 @@ public class EmailService {
         }
     }
 
-    private String buildOtpEmailHtmlContent(String otp) {
-        return """
+    private static final EmailTemplate OTP_EMAIL_HTML_TEMPLATE = EmailTemplate.compile("""
                 <!doctype html>
                 <html lang=\"vi\">
                 <head>
@@ -195,11 +170,13 @@ public class EmailService {
                   </div>
                 </body>
                 </html>
-                """.formatted(otp);
+                """);
+
+    private String buildOtpEmailHtmlContent(String otp) {
+        return OTP_EMAIL_HTML_TEMPLATE.render(otp);
     }
 
-    private String buildPasswordResetOtpHtmlContent(String otp) {
-        return """
+    private static final EmailTemplate PASSWORD_RESET_OTP_HTML_TEMPLATE = EmailTemplate.compile("""
                 <!doctype html>
                 <html lang=\"vi\">
                 <head>
@@ -247,11 +224,13 @@ public class EmailService {
                   </div>
                 </body>
                 </html>
-                """.formatted(otp);
+                """);
+
+    private String buildPasswordResetOtpHtmlContent(String otp) {
+        return PASSWORD_RESET_OTP_HTML_TEMPLATE.render(otp);
     }
 
-    private String buildWelcomeEmailContent(String name) {
-        return """
+    private static final EmailTemplate WELCOME_EMAIL_TEMPLATE = EmailTemplate.compile("""
                 Dear %s,
 
                 Welcome to SkillVerse!
@@ -268,14 +247,13 @@ public class EmailService {
 
                 Best regards,
                 The SkillVerse Team
-                """.formatted(name);
+                """);
+
+    private String buildWelcomeEmailContent(String name) {
+        return WELCOME_EMAIL_TEMPLATE.render(name);
     }
 
-    /**
-     * Build modern Vietnamese HTML for Welcome email
-     */
-    private String buildWelcomeEmailHtmlContent(String name) {
-        return """
+    private static final EmailTemplate WELCOME_EMAIL_HTML_TEMPLATE = EmailTemplate.compile("""
                 <!DOCTYPE html>
                 <html lang=\"vi\">
                 <head>
@@ -328,27 +306,16 @@ public class EmailService {
                     </div>
                 </body>
                 </html>
-        """.formatted(name);
+        """);
+
+    /**
+     * Build modern Vietnamese HTML for Welcome email
+     */
+    private String buildWelcomeEmailHtmlContent(String name) {
+        return WELCOME_EMAIL_HTML_TEMPLATE.render(name);
     }
 
-    private String buildApprovalEmailHtmlContent(String name, String role) {
-        String roleTitle = switch (role == null ? "" : role.toUpperCase()) {
-            case "MENTOR" -> "Mentor";
-            case "BUSINESS" -> "Business";
-            default -> role != null ? role : "Role";
-        };
-        String intro = switch (role == null ? "" : role.toUpperCase()) {
-            case "MENTOR" -> "Tài khoản của bạn đã được phê duyệt trở thành Mentor trên SkillVerse.";
-            case "BUSINESS" -> "Tài khoản của bạn đã được phê duyệt trở thành Business/Recruiter trên SkillVerse.";
-            default -> "Tài khoản của bạn đã được phê duyệt.";
-        };
-        String nextSteps = switch (role == null ? "" : role.toUpperCase()) {
-            case "MENTOR" -> "Bạn có thể cập nhật hồ sơ mentor, tạo buổi mentoring và kết nối với học viên.";
-            case "BUSINESS" -> "Bạn có thể đăng bài tuyển dụng, quản lý ứng viên và kết nối với cộng đồng.";
-            default -> "Bạn có thể đăng nhập và khám phá các tính năng phù hợp.";
-        };
-        return String.format(
-                """
+    private static final EmailTemplate APPROVAL_EMAIL_HTML_TEMPLATE = EmailTemplate.compile("""
                 <!DOCTYPE html>
                 <html lang=\"vi\">
                 <head>
@@ -390,12 +357,29 @@ public class EmailService {
                     </div>
                 </body>
                 </html>
-                """,
+                """);
+
+    private String buildApprovalEmailHtmlContent(String name, String role) {
+        String roleTitle = switch (role == null ? "" : role.toUpperCase()) {
+            case "MENTOR" -> "Mentor";
+            case "BUSINESS" -> "Business";
+            default -> role != null ? role : "Role";
+        };
+        String intro = switch (role == null ? "" : role.toUpperCase()) {
+            case "MENTOR" -> "Tài khoản của bạn đã được phê duyệt trở thành Mentor trên SkillVerse.";
+            case "BUSINESS" -> "Tài khoản của bạn đã được phê duyệt trở thành Business/Recruiter trên SkillVerse.";
+            default -> "Tài khoản của bạn đã được phê duyệt.";
+        };
+        String nextSteps = switch (role == null ? "" : role.toUpperCase()) {
+            case "MENTOR" -> "Bạn có thể cập nhật hồ sơ mentor, tạo buổi mentoring và kết nối với học viên.";
+            case "BUSINESS" -> "Bạn có thể đăng bài tuyển dụng, quản lý ứng viên và kết nối với cộng đồng.";
+            default -> "Bạn có thể đăng nhập và khám phá các tính năng phù hợp.";
+        };
+        return APPROVAL_EMAIL_HTML_TEMPLATE.render(
                 name, roleTitle, intro, nextSteps);
     }
 
-    private String buildApprovalEmailContent(String name, String role) {
-        return """
+    private static final EmailTemplate APPROVAL_EMAIL_TEMPLATE = EmailTemplate.compile("""
                 Dear %s,
 
                 Congratulations! Your %s application has been approved! 🎉
@@ -415,17 +399,14 @@ public class EmailService {
 
                 Best regards,
                 The SkillVerse Team
-                """
-                .formatted(name, role.toLowerCase(),
+                """);
+
+    private String buildApprovalEmailContent(String name, String role) {
+        return APPROVAL_EMAIL_TEMPLATE.render(name, role.toLowerCase(),
                         role.equals("MENTOR") ? "offering mentorship services" : "posting job opportunities");
     }
 
-    private String buildRejectionEmailContent(String name, String role, String reason) {
-        String reasonText = reason != null && !reason.trim().isEmpty()
-                ? "\n\nReason: " + reason
-                : "";
-
-        return """
+    private static final EmailTemplate REJECTION_EMAIL_TEMPLATE = EmailTemplate.compile("""
                 Dear %s,
 
                 Thank you for your interest in becoming a %s on SkillVerse.
@@ -440,8 +421,14 @@ public class EmailService {
 
                 Best regards,
                 The SkillVerse Team
-                """
-                .formatted(name, role.toLowerCase(), reasonText);
+                """);
+
+    private String buildRejectionEmailContent(String name, String role, String reason) {
+        String reasonText = reason != null && !reason.trim().isEmpty()
+                ? "\n\nReason: " + reason
+                : "";
+
+        return REJECTION_EMAIL_TEMPLATE.render(name, role.toLowerCase(), reasonText);
     }
 
     // ==================== JOB APPLICATION EMAILS ====================
@@ -451,13 +438,8 @@ public class EmailService {
      */
     public void sendJobApplicationReviewed(String email, String fullName, String jobTitle) {
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(email);
-            message.setSubject("Your Job Application Has Been Reviewed - SkillVerse");
-            message.setText(buildJobApplicationReviewedContent(fullName, jobTitle));
-
-            mailSender.send(message);
+            outboxService.enqueue(email, "Your Job Application Has Been Reviewed - SkillVerse",
+                    buildJobApplicationReviewedContent(fullName, jobTitle), false);
 
             log.info("👀 EMAIL SERVICE: Application reviewed email sent successfully to {} for job: {}", email,
                     jobTitle);
@@ -478,13 +460,8 @@ public class EmailService {
      */
     public void sendJobApplicationAccepted(String email, String fullName, String jobTitle, String acceptanceMessage) {
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(email);
-            message.setSubject("🎉 Congratulations! Your Job Application Has Been Accepted - SkillVerse");
-            message.setText(buildJobApplicationAcceptedContent(fullName, jobTitle, acceptanceMessage));
-
-            mailSender.send(message);
+            outboxService.enqueue(email, "🎉 Congratulations! Your Job Application Has Been Accepted - SkillVerse",
+                    buildJobApplicationAcceptedContent(fullName, jobTitle, acceptanceMessage), false);
 
             log.info("🎉 EMAIL SERVICE: Application accepted email sent successfully to {} for job: {}", email,
                     jobTitle);
@@ -506,13 +483,8 @@ public class EmailService {
      */
     public void sendJobApplicationRejected(String email, String fullName, String jobTitle, String rejectionReason) {
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(email);
-            message.setSubject("Job Application Update - SkillVerse");
-            message.setText(buildJobApplicationRejectedContent(fullName, jobTitle, rejectionReason));
-
-            mailSender.send(message);
+            outboxService.enqueue(email, "Job Application Update - SkillVerse",
+                    buildJobApplicationRejectedContent(fullName, jobTitle, rejectionReason), false);
 
             log.info("📧 EMAIL SERVICE: Application rejected email sent successfully to {} for job: {}", email,
                     jobTitle);
@@ -528,8 +500,7 @@ public class EmailService {
         }
     }
 
-    private String buildJobApplicationReviewedContent(String name, String jobTitle) {
-        return """
+    private static final EmailTemplate JOB_APPLICATION_REVIEWED_TEMPLATE = EmailTemplate.compile("""
                 Dear %s,
 
                 Thank you for your application on SkillVerse!
@@ -546,12 +517,13 @@ public class EmailService {
 
                 Best regards,
                 The SkillVerse Team
-                """
-                .formatted(name, jobTitle);
+                """);
+
+    private String buildJobApplicationReviewedContent(String name, String jobTitle) {
+        return JOB_APPLICATION_REVIEWED_TEMPLATE.render(name, jobTitle);
     }
 
-    private String buildJobApplicationAcceptedContent(String name, String jobTitle, String acceptanceMessage) {
-        return """
+    private static final EmailTemplate JOB_APPLICATION_ACCEPTED_TEMPLATE = EmailTemplate.compile("""
                 Dear %s,
 
                 Congratulations! 🎉
@@ -574,17 +546,13 @@ public class EmailService {
 
                 Best regards,
                 The SkillVerse Team
-                """
-                .formatted(name, jobTitle, acceptanceMessage);
-    }
+                """);
 
-    private String buildJobApplicationRejectedContent(String name, String jobTitle, String rejectionReason) {
-        String reasonText = rejectionReason != null && !rejectionReason.trim().isEmpty()
-                ? "\n\nFeedback from recruiter:\n━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n" + rejectionReason
-                        + "\n━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━"
-                : "";
+    private String buildJobApplicationAcceptedContent(String name, String jobTitle, String acceptanceMessage) {
+        return JOB_APPLICATION_ACCEPTED_TEMPLATE.render(name, jobTitle, acceptanceMessage);
+    }
 
-        return """
+    private static final EmailTemplate JOB_APPLICATION_REJECTED_TEMPLATE = EmailTemplate.compile("""
                 Dear %s,
 
                 Thank you for your interest and for applying to the following position on SkillVerse:
@@ -602,8 +570,15 @@ public class EmailService {
 
                 Best regards,
                 The SkillVerse Team
-                """
-                .formatted(name, jobTitle, reasonText);
+                """);
+
+    private String buildJobApplicationRejectedContent(String name, String jobTitle, String rejectionReason) {
+        String reasonText = rejectionReason != null && !rejectionReason.trim().isEmpty()
+                ? "\n\nFeedback from recruiter:\n━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n" + rejectionReason
+                        + "\n━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━"
+                : "";
+
+        return JOB_APPLICATION_REJECTED_TEMPLATE.render(name, jobTitle, reasonText);
     }
 
     // ==================== HTML EMAIL SUPPORT ====================
@@ -611,6 +586,8 @@ public class EmailService {
     /**
      * Send HTML email with rich formatting
      * Reusable method for premium emails, admin notifications, etc.
+     * Queued in the email outbox (inside the caller's transaction, if any) and
+     * delivered by EmailOutboxDispatcher, so the caller never waits on SMTP
      * 
      * @param to          Recipient email address
      * @param subject     Email subject
@@ -618,44 +595,10 @@ public class EmailService {
      */
     public void sendHtmlEmail(String to, String subject, String htmlContent) {
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            try {
-                helper.setFrom(fromEmail, fromName);
-            } catch (UnsupportedEncodingException e) {
-                helper.setFrom(fromEmail);
-            }
-
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true);
-
-            try {
-                if (htmlContent != null && htmlContent.contains("cid:skillverse-logo")) {
-                    ClassPathResource classpathLogo = new ClassPathResource("assets/skillverse.png");
-                    if (classpathLogo.exists()) {
-                        helper.addInline("skillverse-logo", classpathLogo);
-                    } else {
-                        File file = new File(LOGO_PATH);
-                        FileSystemResource fsLogo = file.exists() ? new FileSystemResource(file)
-                                : new FileSystemResource(new File("src/assets/skillverse.png"));
-                        if (fsLogo.exists()) {
-                            helper.addInline("skillverse-logo", fsLogo);
-                        } else {
-                            log.warn("⚠️ Logo not found at classpath:assets/skillverse.png or {}", LOGO_PATH);
-                        }
-                    }
-                }
-            } catch (Exception inlineEx) {
-                log.warn("⚠️ Inline logo attachment failed: {}", inlineEx.getMessage());
-            }
-
-            mailSender.send(message);
-            log.info("✅ HTML email sent successfully to {}", to);
-
+            outboxService.enqueue(to, subject, htmlContent, true);
+            log.info("📥 HTML email queued for {}", to);
         } catch (Exception e) {
-            log.error("❌ Failed to send HTML email to {}: {}", to, e.getMessage());
+            log.error("❌ Failed to queue HTML email to {}: {}", to, e.getMessage());
             throw new RuntimeException("Failed to send HTML email: " + e.getMessage(), e);
         }
     }
@@ -663,67 +606,22 @@ public class EmailService {
     public void sendHtmlEmailWithAttachment(String to, String subject, String htmlContent,
                                             String attachmentFilename, byte[] attachmentBytes, String contentType) {
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            try {
-                helper.setFrom(fromEmail, fromName);
-            } catch (UnsupportedEncodingException e) {
-                helper.setFrom(fromEmail);
-            }
-
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true);
-
-            if (attachmentBytes != null && attachmentBytes.length > 0 && attachmentFilename != null) {
-                helper.addAttachment(attachmentFilename, new org.springframework.core.io.ByteArrayResource(attachmentBytes) {
-                    @Override
-                    public String getFilename() {
-                        return attachmentFilename;
-                    }
-                    @Override
-                    public String getDescription() {
-                        return contentType != null ? contentType : "application/octet-stream";
-                    }
-                });
-            }
-
-            try {
-                if (htmlContent != null && htmlContent.contains("cid:skillverse-logo")) {
-                    ClassPathResource classpathLogo = new ClassPathResource("assets/skillverse.png");
-                    if (classpathLogo.exists()) {
-                        helper.addInline("skillverse-logo", classpathLogo);
-                    } else {
-                        File file = new File(LOGO_PATH);
-                        FileSystemResource fsLogo = file.exists() ? new FileSystemResource(file)
-                                : new FileSystemResource(new File("src/assets/skillverse.png"));
-                        if (fsLogo.exists()) {
-                            helper.addInline("skillverse-logo", fsLogo);
-                        }
-                    }
-                }
-            } catch (Exception inlineEx) {
-            }
-
-            mailSender.send(message);
-            log.info("✅ HTML email with attachment sent to {}: {}", to, attachmentFilename);
-
+            outboxService.enqueue(to, subject, htmlContent, true, attachmentFilename, attachmentBytes, contentType);
+            log.info("📥 HTML email with attachment queued for {}: {}", to, attachmentFilename);
         } catch (Exception e) {
-            log.error("❌ Failed to send HTML email with attachment to {}: {}", to, e.getMessage());
+            log.error("❌ Failed to queue HTML email with attachment to {}: {}", to, e.getMessage());
             throw new RuntimeException("Failed to send HTML email with attachment: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Send HTML email asynchronously
-     * Used for non-critical emails that don't need immediate confirmation
+     * Send HTML email without waiting for delivery
+     * Kept for callers of the old async API; every email is asynchronous through the outbox now
      * 
      * @param to          Recipient email address
      * @param subject     Email subject
      * @param htmlContent HTML content of the email
      */
-    @Async("emailTaskExecutor")
     public CompletableFuture<Boolean> sendHtmlEmailAsync(String to, String subject, String htmlContent) {
         try {
             sendHtmlEmail(to, subject, htmlContent);
@@ -737,83 +635,45 @@ public class EmailService {
     // ==================== BULK EMAIL SUPPORT (ADMIN) ====================
 
     /**
-     * Send bulk emails with batch processing and rate limiting
-     * Prevents server overload by processing emails in batches
+     * Queue one email for many recipients
+     * Batching, pacing and per-domain rate limits are applied by EmailOutboxDispatcher
      * 
-     * @param recipients            List of recipient email addresses
-     * @param subject               Email subject
-     * @param htmlContent           HTML content of the email
-     * @param batchSize             Number of emails per batch (default: 50)
-     * @param delayBetweenBatchesMs Delay between batches in milliseconds (default:
-     *                              2000)
-     * @return EmailSendingResult with success/failure counts
+     * @param recipients  List of recipient email addresses
+     * @param subject     Email subject
+     * @param htmlContent HTML content of the email
+     * @return EmailSendingResult with queued/rejected counts
      */
     @Async("emailTaskExecutor")
     public CompletableFuture<EmailSendingResult> sendBulkEmailAsync(
             List<String> recipients,
             String subject,
-            String htmlContent,
-            int batchSize,
-            long delayBetweenBatchesMs) {
-
-        log.info("📧 Starting bulk email send to {} recipients", recipients.size());
-
-        AtomicInteger successCount = new AtomicInteger(0);
-        List<String> failedEmails = new ArrayList<>();
-
-        // Split recipients into batches
-        int totalBatches = (int) Math.ceil((double) recipients.size() / batchSize);
-
-        for (int i = 0; i < recipients.size(); i += batchSize) {
-            int batchNumber = (i / batchSize) + 1;
-            int endIndex = Math.min(i + batchSize, recipients.size());
-            List<String> batch = recipients.subList(i, endIndex);
-
-            log.info("📨 Processing batch {}/{} ({} emails)", batchNumber, totalBatches, batch.size());
-
-            // Send emails in current batch
-            for (String email : batch) {
-                try {
-                    sendHtmlEmail(email, subject, htmlContent);
-                    successCount.incrementAndGet();
-                } catch (Exception e) {
-                    log.error("❌ Failed to send email to {}: {}", email, e.getMessage());
-                    failedEmails.add(email);
-                }
-            }
-
-            // Delay between batches to prevent overload (except for last batch)
-            if (endIndex < recipients.size()) {
-                try {
-                    Thread.sleep(delayBetweenBatchesMs);
-                    log.info("⏳ Waiting {}ms before next batch...", delayBetweenBatchesMs);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    log.warn("⚠️ Batch delay interrupted");
-                }
-            }
-        }
+            String htmlContent) {
+
+        log.info("📧 Queueing bulk email for {} recipients", recipients.size());
+
+        List<String> failedEmails = outboxService.enqueueAll(recipients, subject, htmlContent);
+        int queued = recipients.size() - failedEmails.size();
 
         EmailSendingResult result = new EmailSendingResult(
                 recipients.size(),
-                successCount.get(),
+                queued,
                 failedEmails.size(),
                 failedEmails);
 
-        log.info("✅ Bulk email completed: {}/{} successful, {} failed",
-                successCount.get(), recipients.size(), failedEmails.size());
+        log.info("✅ Bulk email queued: {}/{} recipients, {} invalid addresses",
+                queued, recipients.size(), failedEmails.size());
 
         return CompletableFuture.completedFuture(result);
     }
 
     /**
-     * Send bulk emails to users with batch processing
+     * Send bulk emails to users
      * Extracts email addresses from User objects
      * 
      * @param users       List of users to send emails to
      * @param subject     Email subject
      * @param htmlContent HTML content of the email
-     * @return EmailSendingResult with success/failure counts
+     * @return EmailSendingResult with queued/rejected counts
      */
     @Async("emailTaskExecutor")
     public CompletableFuture<EmailSendingResult> sendBulkEmailToUsersAsync(
@@ -828,8 +688,7 @@ public class EmailService {
 
         log.info("📧 Sending bulk email to {} users", emails.size());
 
-        // Use default batch size of 50 and 2 second delay
-        return sendBulkEmailAsync(emails, subject, htmlContent, 50, 2000);
+        return sendBulkEmailAsync(emails, subject, htmlContent);
     }
 
     /**
@@ -0,0 +1,96 @@
+package com.exe.skillverse_backend.shared.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Email body template compiled once from a format-style source (%s / %d placeholders, %% for a literal %)
+ * - The source is split into literal segments at compile time, so rendering is plain appends
+ *   instead of String.format re-parsing the whole HTML on every call
+ * - Placeholder count and types are checked when rendering; a bad source fails at class init (startup)
+ * - Rendering reuses one StringBuilder per thread, sized from the template
+ * - Output is identical to source.formatted(args) for the supported placeholders
+ */
+public final class EmailTemplate {
+
+    private static final int MAX_RETAINED_BUFFER = 256 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+    private final String[] literals;
+    private final char[] placeholders;
+    private final int literalLength;
+
+    private EmailTemplate(String[] literals, char[] placeholders, int literalLength) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.literalLength = literalLength;
+    }
+
+    public static EmailTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        StringBuilder placeholders = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        int literalLength = 0;
+
+        for (int i = 0; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c != '%') {
+                literal.append(c);
+                continue;
+            }
+            if (i + 1 >= source.length()) {
+                throw new IllegalArgumentException("Dangling % at end of email template");
+            }
+            char spec = source.charAt(++i);
+            switch (spec) {
+                case '%' -> literal.append('%');
+                case 's', 'd' -> {
+                    literals.add(literal.toString());
+                    literalLength += literal.length();
+                    literal.setLength(0);
+                    placeholders.append(spec);
+                }
+                default -> throw new IllegalArgumentException(
+                        "Unsupported placeholder %" + spec + " in email template at index " + (i - 1));
+            }
+        }
+        literals.add(literal.toString());
+        literalLength += literal.length();
+
+        return new EmailTemplate(literals.toArray(new String[0]), placeholders.toString().toCharArray(), literalLength);
+    }
+
+    public int parameterCount() {
+        return placeholders.length;
+    }
+
+    public String render(Object... args) {
+        if (args.length != placeholders.length) {
+            throw new IllegalArgumentException("Email template expects " + placeholders.length
+                    + " parameters but got " + args.length);
+        }
+
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        out.ensureCapacity(literalLength + 64 * placeholders.length);
+
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            Object arg = args[i];
+            if (placeholders[i] == 'd' && arg != null
+                    && !(arg instanceof Integer || arg instanceof Long || arg instanceof Short || arg instanceof Byte)) {
+                throw new IllegalArgumentException("Parameter " + i + " of email template must be an integer");
+            }
+            out.append(arg);
+        }
+        out.append(literals[placeholders.length]);
+
+        String result = out.toString();
+        if (out.capacity() > MAX_RETAINED_BUFFER) {
+            // Do not keep an oversized buffer alive on a pooled thread
+            BUFFER.remove();
+        }
+        return result;
+    }
+}
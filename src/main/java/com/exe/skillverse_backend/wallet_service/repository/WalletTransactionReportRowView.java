@@ -0,0 +1,39 @@
+package com.exe.skillverse_backend.wallet_service.repository;
+
+import com.exe.skillverse_backend.wallet_service.entity.WalletTransaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One wallet row of the admin transactions report, with the wallet owner joined in (no entities loaded)
+ */
+public interface WalletTransactionReportRowView {
+
+    Long getTransactionId();
+
+    WalletTransaction.TransactionType getTransactionType();
+
+    WalletTransaction.CurrencyType getCurrencyType();
+
+    BigDecimal getCashAmount();
+
+    Long getCoinAmount();
+
+    String getDescription();
+
+    WalletTransaction.TransactionStatus getStatus();
+
+    LocalDateTime getCreatedAt();
+
+    String getUserEmail();
+
+    String getFirstName();
+
+    String getLastName();
+
+    /**
+     * Full name from the user profile, null without a profile
+     */
+    String getProfileName();
+}
@@ -188,4 +188,27 @@ public interface WalletTransactionRepository extends JpaRepository<WalletTransac
         WalletTransaction.TransactionType transactionType, 
         Pageable pageable
     );
+    
+    /**
+     * Admin report: next keyset page of transactions older than beforeId (newest first), wallet owner joined in
+     */
+    @Query("SELECT t.transactionId AS transactionId, t.transactionType AS transactionType, " +
+           "t.currencyType AS currencyType, t.cashAmount AS cashAmount, t.coinAmount AS coinAmount, " +
+           "t.description AS description, t.status AS status, t.createdAt AS createdAt, " +
+           "u.email AS userEmail, u.firstName AS firstName, u.lastName AS lastName, p.fullName AS profileName " +
+           "FROM WalletTransaction t JOIN t.wallet w JOIN w.user u LEFT JOIN UserProfile p ON p.userId = u.id " +
+           "WHERE t.transactionId < :beforeId " +
+           "AND (:type IS NULL OR t.transactionType = :type) " +
+           "AND (:userId IS NULL OR u.id = :userId) " +
+           "AND (:startDate IS NULL OR t.createdAt >= :startDate) " +
+           "AND (:endDate IS NULL OR t.createdAt <= :endDate) " +
+           "ORDER BY t.transactionId DESC")
+    List<WalletTransactionReportRowView> findReportRows(
+        @Param("type") WalletTransaction.TransactionType type,
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate,
+        @Param("beforeId") Long beforeId,
+        Pageable pageable
+    );
 }
@@ -1,17 +1,14 @@
 package com.exe.skillverse_backend.wallet_service.service;
 
 import com.exe.skillverse_backend.auth_service.entity.User;
+import com.exe.skillverse_backend.shared.service.EmailService;
+import com.exe.skillverse_backend.shared.service.EmailTemplate;
 import com.exe.skillverse_backend.wallet_service.entity.WithdrawalRequest;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.time.format.DateTimeFormatter;
@@ -26,13 +23,7 @@ import java.util.Locale;
 @RequiredArgsConstructor
 public class WalletEmailService {
     
-    private final JavaMailSender mailSender;
-    
-    @Value("${email.from}")
-    private String fromEmail;
-    
-    @Value("${email.from-name}")
-    private String fromName;
+    private final EmailService emailService;
     
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
     private static final Locale VI_VN_LOCALE = new Locale.Builder().setLanguage("vi").setRegion("VN").build();
@@ -196,8 +187,7 @@ public class WalletEmailService {
     
     // ==================== HTML EMAIL BUILDERS ====================
     
-    private String buildDepositSuccessHtml(String userName, String amount, String transactionId, String currentBalance) {
-        return String.format("""
+    private static final EmailTemplate DEPOSIT_SUCCESS_HTML_TEMPLATE = EmailTemplate.compile("""
             <!DOCTYPE html>
             <html>
             <head>
@@ -252,11 +242,13 @@ public class WalletEmailService {
                 </div>
             </body>
             </html>
-            """, userName, amount, transactionId, currentBalance);
+            """);
+
+    private String buildDepositSuccessHtml(String userName, String amount, String transactionId, String currentBalance) {
+        return DEPOSIT_SUCCESS_HTML_TEMPLATE.render(userName, amount, transactionId, currentBalance);
     }
     
-    private String buildCoinPurchaseHtml(String userName, String totalCoins, String bonusBadge, String paidAmount, String paymentMethod) {
-        return String.format("""
+    private static final EmailTemplate COIN_PURCHASE_HTML_TEMPLATE = EmailTemplate.compile("""
             <!DOCTYPE html>
             <html>
             <head>
@@ -306,11 +298,13 @@ public class WalletEmailService {
                 </div>
             </body>
             </html>
-            """, userName, totalCoins, bonusBadge, paidAmount, paymentMethod);
+            """);
+
+    private String buildCoinPurchaseHtml(String userName, String totalCoins, String bonusBadge, String paidAmount, String paymentMethod) {
+        return COIN_PURCHASE_HTML_TEMPLATE.render(userName, totalCoins, bonusBadge, paidAmount, paymentMethod);
     }
     
-    private String buildWithdrawalRequestHtml(String userName, String requestCode, String amount, String fee, String netAmount, String bankName, String accountNumber, String createdAt) {
-        return String.format("""
+    private static final EmailTemplate WITHDRAWAL_REQUEST_HTML_TEMPLATE = EmailTemplate.compile("""
             <!DOCTYPE html>
             <html>
             <head><meta charset="UTF-8">
@@ -344,11 +338,13 @@ public class WalletEmailService {
                 </div>
             </body>
             </html>
-            """, userName, requestCode, amount, fee, netAmount, bankName, accountNumber, createdAt);
+            """);
+
+    private String buildWithdrawalRequestHtml(String userName, String requestCode, String amount, String fee, String netAmount, String bankName, String accountNumber, String createdAt) {
+        return WITHDRAWAL_REQUEST_HTML_TEMPLATE.render(userName, requestCode, amount, fee, netAmount, bankName, accountNumber, createdAt);
     }
     
-    private String buildWithdrawalApprovedHtml(String userName, String requestCode, String netAmount, String bankName, String accountNumber, String adminNotes) {
-        return String.format("""
+    private static final EmailTemplate WITHDRAWAL_APPROVED_HTML_TEMPLATE = EmailTemplate.compile("""
             <!DOCTYPE html>
             <html>
             <head><meta charset="UTF-8">
@@ -378,11 +374,13 @@ public class WalletEmailService {
                 </div>
             </body>
             </html>
-            """, userName, requestCode, netAmount, bankName, accountNumber, adminNotes);
+            """);
+
+    private String buildWithdrawalApprovedHtml(String userName, String requestCode, String netAmount, String bankName, String accountNumber, String adminNotes) {
+        return WITHDRAWAL_APPROVED_HTML_TEMPLATE.render(userName, requestCode, netAmount, bankName, accountNumber, adminNotes);
     }
     
-    private String buildWithdrawalRejectedHtml(String userName, String requestCode, String amount, String reason) {
-        return String.format("""
+    private static final EmailTemplate WITHDRAWAL_REJECTED_HTML_TEMPLATE = EmailTemplate.compile("""
             <!DOCTYPE html>
             <html>
             <head><meta charset="UTF-8">
@@ -411,11 +409,13 @@ public class WalletEmailService {
                 </div>
             </body>
             </html>
-            """, userName, requestCode, amount, reason);
+            """);
+
+    private String buildWithdrawalRejectedHtml(String userName, String requestCode, String amount, String reason) {
+        return WITHDRAWAL_REJECTED_HTML_TEMPLATE.render(userName, requestCode, amount, reason);
     }
     
-    private String buildWithdrawalCompletedHtml(String userName, String requestCode, String netAmount, String bankName, String accountNumber, String bankTxId) {
-        return String.format("""
+    private static final EmailTemplate WITHDRAWAL_COMPLETED_HTML_TEMPLATE = EmailTemplate.compile("""
             <!DOCTYPE html>
             <html>
             <head><meta charset="UTF-8">
@@ -445,11 +445,13 @@ public class WalletEmailService {
                 </div>
             </body>
             </html>
-            """, userName, requestCode, netAmount, bankName, accountNumber, bankTxId);
+            """);
+
+    private String buildWithdrawalCompletedHtml(String userName, String requestCode, String netAmount, String bankName, String accountNumber, String bankTxId) {
+        return WITHDRAWAL_COMPLETED_HTML_TEMPLATE.render(userName, requestCode, netAmount, bankName, accountNumber, bankTxId);
     }
     
-    private String buildAdminWithdrawalNotificationHtml(String requestCode, String userName, String userEmail, String amount, String netAmount, String bankName, String accountNumber, String accountName, String priority) {
-        return String.format("""
+    private static final EmailTemplate ADMIN_WITHDRAWAL_NOTIFICATION_HTML_TEMPLATE = EmailTemplate.compile("""
             <!DOCTYPE html>
             <html>
             <head><meta charset="UTF-8">
@@ -488,31 +490,17 @@ public class WalletEmailService {
                 </div>
             </body>
             </html>
-            """, priority, requestCode, userName, userEmail, amount, netAmount, bankName, accountNumber, accountName);
+            """);
+
+    private String buildAdminWithdrawalNotificationHtml(String requestCode, String userName, String userEmail, String amount, String netAmount, String bankName, String accountNumber, String accountName, String priority) {
+        return ADMIN_WITHDRAWAL_NOTIFICATION_HTML_TEMPLATE.render(priority, requestCode, userName, userEmail, amount, netAmount, bankName, accountNumber, accountName);
     }
     
     // ==================== HELPER METHODS ====================
     
     private void sendHtmlEmail(String to, String subject, String htmlContent) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            try {
-                helper.setFrom(fromEmail, fromName);
-            } catch (UnsupportedEncodingException e) {
-                helper.setFrom(fromEmail);
-            }
-            
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true);
-            
-            mailSender.send(message);
-        } catch (Exception e) {
-            log.error("Failed to send email: {}", e.getMessage());
-            throw new RuntimeException("Email sending failed", e);
-        }
+        // Queued in the email outbox, delivered by EmailOutboxDispatcher
+        emailService.sendHtmlEmail(to, subject, htmlContent);
     }
     
     private String formatCurrency(BigDecimal amount) {
@@ -6,13 +6,19 @@ import com.exe.skillverse_backend.community_service.dto.request.CommentCreateReq
 import com.exe.skillverse_backend.community_service.dto.request.PostCreateRequest;
 import com.exe.skillverse_backend.community_service.dto.request.PostUpdateRequest;
 import com.exe.skillverse_backend.community_service.dto.response.CommentResponse;
+import com.exe.skillverse_backend.community_service.dto.response.CommentThreadResponse;
 import com.exe.skillverse_backend.community_service.dto.response.PostResponse;
+import com.exe.skillverse_backend.community_service.dto.response.PostSearchResponse;
 import com.exe.skillverse_backend.community_service.entity.PostStatus;
 import com.exe.skillverse_backend.community_service.service.PostService;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,6 +33,12 @@ public class PostServiceTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
     private Long userId;
 
     @BeforeEach
@@ -63,4 +75,112 @@ public class PostServiceTest {
         PostResponse afterComment = postService.getPost(created.getId());
         assertEquals(1, afterComment.getCommentCount());
     }
+
+    @Test
+    void search_folds_diacritics_ranks_title_matches_first_and_pages_by_cursor() {
+        createPublished("Học lập trình Java", "Bắt đầu từ đâu?");
+        createPublished("Nhật ký", "Hôm nay tôi học lập trình Java cơ bản");
+        createPublished("Du lịch", "Đà Nẵng");
+
+        PostSearchResponse first = postService.searchPosts("lap TRINH", null, null, null, 1);
+        assertEquals(1, first.getItems().size());
+        assertEquals("Học <mark>lập</mark> <mark>trình</mark> Java", first.getItems().get(0).getTitleHighlight());
+        assertNotNull(first.getNextCursor());
+
+        PostSearchResponse second = postService.searchPosts("lap TRINH", null, null, first.getNextCursor(), 1);
+        assertEquals("Nhật ký", second.getItems().get(0).getTitleHighlight());
+        assertTrue(second.getItems().get(0).getSnippet().contains("<mark>lập</mark> <mark>trình</mark>"));
+
+        PostSearchResponse last = postService.searchPosts("lap TRINH", null, null, second.getNextCursor(), 1);
+        assertTrue(last.getItems().isEmpty());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void comment_threads_list_reply_previews_and_hide_whole_subtrees() {
+        Long postId = createPublished("Thread", "Body");
+        Long first = comment(postId, "first", null);
+        Long reply = comment(postId, "reply", first);
+        comment(postId, "nested reply", reply);
+        comment(postId, "second reply", first);
+        Long second = comment(postId, "second", null);
+
+        Page<CommentThreadResponse> threads = postService.listCommentThreads(postId, false, 2, PageRequest.of(0, 10));
+        assertEquals(2, threads.getTotalElements());
+        CommentThreadResponse thread = threads.getContent().get(0);
+        assertEquals(first, thread.getComment().getId());
+        assertEquals(3, thread.getReplyCount());
+        assertEquals(2, thread.getReplies().size());
+        assertEquals(reply, thread.getReplies().get(0).getId());
+        assertEquals(second, threads.getContent().get(1).getComment().getId());
+        assertTrue(threads.getContent().get(1).getReplies().isEmpty());
+
+        postService.hideComment(postId, reply, userId, "spam");
+        thread = postService.listCommentThreads(postId, false, 5, PageRequest.of(0, 10)).getContent().get(0);
+        assertEquals(1, thread.getReplyCount());
+        assertEquals("second reply", thread.getReplies().get(0).getContent());
+
+        Page<CommentThreadResponse> withHidden = postService.listCommentThreads(postId, true, 5, PageRequest.of(0, 1));
+        assertEquals(2, withHidden.getTotalElements());
+        assertEquals(3, withHidden.getContent().get(0).getReplyCount());
+        assertEquals("spam", withHidden.getContent().get(0).getReplies().get(0).getModerationNote());
+        assertNull(withHidden.getContent().get(0).getReplies().get(1).getModerationNote());
+
+        // Unhiding the thread restores what its hiding covered, not the separately hidden reply
+        postService.hideComment(postId, first, userId, null);
+        assertEquals(1, postService.listCommentThreads(postId, false, 5, PageRequest.of(0, 10)).getTotalElements());
+        postService.unhideComment(postId, first, userId);
+        thread = postService.listCommentThreads(postId, false, 5, PageRequest.of(0, 10)).getContent().get(0);
+        assertEquals(first, thread.getComment().getId());
+        assertEquals(1, thread.getReplyCount());
+        assertEquals("second reply", thread.getReplies().get(0).getContent());
+
+        // A hidden reply stays hidden while its thread is hidden, and comes back with it
+        postService.hideComment(postId, first, userId, null);
+        postService.unhideComment(postId, reply, userId);
+        assertEquals(1, postService.listCommentThreads(postId, false, 5, PageRequest.of(0, 10)).getTotalElements());
+        postService.unhideComment(postId, first, userId);
+        thread = postService.listCommentThreads(postId, false, 5, PageRequest.of(0, 10)).getContent().get(0);
+        assertEquals(3, thread.getReplyCount());
+    }
+
+    @Test
+    void comments_without_path_only_affect_their_own_subtree() {
+        Long postId = createPublished("Legacy", "Body");
+        Long first = comment(postId, "first", null);
+        comment(postId, "reply", first);
+        Long second = comment(postId, "second", null);
+        entityManager.flush();
+        // Rows written before comments had a path
+        jdbcTemplate.update("UPDATE comments SET path = NULL WHERE id = ?", first);
+        entityManager.clear();
+
+        postService.hideComment(postId, first, userId, null);
+        Page<CommentThreadResponse> visible = postService.listCommentThreads(postId, false, 5, PageRequest.of(0, 10));
+        assertEquals(1, visible.getTotalElements());
+        assertEquals(second, visible.getContent().get(0).getComment().getId());
+
+        postService.deleteComment(postId, first, userId);
+        entityManager.flush();
+        entityManager.clear();
+        Page<CommentThreadResponse> remaining = postService.listCommentThreads(postId, true, 5, PageRequest.of(0, 10));
+        assertEquals(1, remaining.getTotalElements());
+        assertEquals(second, remaining.getContent().get(0).getComment().getId());
+        assertEquals(1, postService.getPost(postId).getCommentCount());
+    }
+
+    private Long createPublished(String title, String content) {
+        PostCreateRequest create = new PostCreateRequest();
+        create.setTitle(title);
+        create.setContent(content);
+        create.setStatus(PostStatus.PUBLISHED);
+        return postService.createPost(userId, create).getId();
+    }
+
+    private Long comment(Long postId, String content, Long parentId) {
+        CommentCreateRequest req = new CommentCreateRequest();
+        req.setContent(content);
+        req.setParentId(parentId);
+        return postService.addComment(postId, userId, req).getId();
+    }
 }
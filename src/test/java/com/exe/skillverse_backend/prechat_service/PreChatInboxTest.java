@@ -0,0 +1,144 @@
+package com.exe.skillverse_backend.prechat_service;
+
+import com.exe.skillverse_backend.auth_service.entity.User;
+import com.exe.skillverse_backend.auth_service.entity.UserStatus;
+import com.exe.skillverse_backend.auth_service.repository.UserRepository;
+import com.exe.skillverse_backend.prechat_service.config.PreChatInboxInitializer;
+import com.exe.skillverse_backend.prechat_service.entity.PreChatMessage;
+import com.exe.skillverse_backend.prechat_service.entity.PreChatThreadState;
+import com.exe.skillverse_backend.prechat_service.repository.PreChatInboxRowView;
+import com.exe.skillverse_backend.prechat_service.repository.PreChatMessageRepository;
+import com.exe.skillverse_backend.prechat_service.repository.PreChatThreadStateRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+public class PreChatInboxTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 8, 0);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PreChatMessageRepository messageRepository;
+
+    @Autowired
+    private PreChatThreadStateRepository threadStateRepository;
+
+    @Autowired
+    private PreChatInboxInitializer inboxInitializer;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User mentor;
+    private User first;
+    private User second;
+    private User third;
+
+    @BeforeEach
+    void setup() {
+        mentor = user("mentor@example.com");
+        first = user("first@example.com");
+        second = user("second@example.com");
+        third = user("third@example.com");
+    }
+
+    @Test
+    void backfill_builds_the_inbox_and_pages_by_keyset() {
+        message(first, first, "hello", 1);
+        message(second, second, "xin chào", 2);
+        message(second, mentor, "chào bạn", 3);
+        message(third, third, "hi", 4);
+        entityManager.flush();
+
+        inboxInitializer.run();
+        entityManager.clear();
+
+        List<PreChatInboxRowView> page = threadStateRepository.findInbox(mentor.getId(), START, Long.MAX_VALUE,
+                PageRequest.of(0, 2));
+        assertEquals(List.of(third.getId(), second.getId()),
+                page.stream().map(PreChatInboxRowView::getCounterpartId).toList());
+        assertEquals("chào bạn", page.get(1).getLastContent());
+        assertEquals(1, page.get(1).getUnreadForMentor());
+        assertEquals(1, page.get(1).getUnreadForLearner());
+
+        PreChatInboxRowView last = page.get(1);
+        List<PreChatInboxRowView> next = threadStateRepository.findInbox(mentor.getId(), last.getLastTime(),
+                last.getThreadId(), PageRequest.of(0, 2));
+        assertEquals(List.of(first.getId()), next.stream().map(PreChatInboxRowView::getCounterpartId).toList());
+
+        // Page numbers still work for older clients
+        assertEquals(first.getId(), threadStateRepository.findInbox(mentor.getId(), START, Long.MAX_VALUE,
+                PageRequest.of(1, 2)).get(0).getCounterpartId());
+
+        // The learner side sees its own thread with the mentor as counterpart
+        List<PreChatInboxRowView> learnerInbox = threadStateRepository.findInbox(second.getId(), START, Long.MAX_VALUE,
+                PageRequest.of(0, 10));
+        assertEquals(1, learnerInbox.size());
+        assertEquals(mentor.getId(), learnerInbox.get(0).getCounterpartId());
+    }
+
+    @Test
+    void new_messages_move_the_thread_up_and_survive_flag_saves() {
+        message(first, first, "one", 1);
+        message(second, second, "two", 2);
+        entityManager.flush();
+        inboxInitializer.run();
+        entityManager.clear();
+
+        PreChatThreadState state = threadStateRepository.findByMentorAndLearner(mentor, first).orElseThrow();
+        PreChatMessage latest = message(first, first, "three", 3);
+        entityManager.flush();
+        threadStateRepository.recordMessage(mentor.getId(), first.getId(), latest.getId(), latest.getContent(),
+                latest.getCreatedAt(), 1, 0);
+
+        // A hide/mute save of the row loaded before the message must not roll the message back
+        state.setMutedForMentor(true);
+        threadStateRepository.saveAndFlush(state);
+        entityManager.clear();
+
+        List<PreChatInboxRowView> inbox = threadStateRepository.findInbox(mentor.getId(), START, Long.MAX_VALUE,
+                PageRequest.of(0, 10));
+        assertEquals(first.getId(), inbox.get(0).getCounterpartId());
+        assertEquals("three", inbox.get(0).getLastContent());
+        assertEquals(2, inbox.get(0).getUnreadForMentor());
+
+        state = threadStateRepository.findByMentorAndLearner(mentor, second).orElseThrow();
+        state.setHiddenForMentor(true);
+        threadStateRepository.saveAndFlush(state);
+        entityManager.clear();
+        assertEquals(1, threadStateRepository.findInbox(mentor.getId(), START, Long.MAX_VALUE,
+                PageRequest.of(0, 10)).size());
+    }
+
+    private User user(String email) {
+        return userRepository.save(User.builder().email(email).status(UserStatus.ACTIVE).build());
+    }
+
+    private PreChatMessage message(User learner, User sender, String content, int minute) {
+        boolean fromMentor = sender == mentor;
+        return messageRepository.save(PreChatMessage.builder()
+                .mentor(mentor)
+                .learner(learner)
+                .sender(sender)
+                .content(content)
+                .createdAt(BASE.plusMinutes(minute))
+                .readByMentor(fromMentor)
+                .readByLearner(!fromMentor)
+                .build());
+    }
+}
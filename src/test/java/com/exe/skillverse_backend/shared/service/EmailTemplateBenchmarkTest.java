@@ -0,0 +1,94 @@
+package com.exe.skillverse_backend.shared.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour of EmailTemplate against String.format, plus an opt-in timing of both paths
+ * (mvn test -Dbenchmark=true -Dtest=EmailTemplateBenchmarkTest); the timing only logs, it never fails
+ */
+public class EmailTemplateBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailTemplateBenchmarkTest.class);
+
+
+    private static final String SOURCE = """
+            <!DOCTYPE html>
+            <html><head><meta charset="UTF-8"><style>
+            .header { background: linear-gradient(135deg, #667eea 0%%, #764ba2 100%%); padding: 30px; }
+            .row { display: flex; justify-content: space-between; margin: 6px 0; }
+            </style></head>
+            <body><div class="container">
+            <h2>Xin chào %s!</h2>
+            <div class="row"><span>Mã giao dịch</span><strong>%s</strong></div>
+            <div class="row"><span>Thời lượng</span><strong>%d phút</strong></div>
+            <div class="row"><span>Số tiền</span><strong>%s</strong></div>
+            <a href="%s">Xem chi tiết</a>
+            </div></body></html>
+            """.repeat(20);
+
+    @Test
+    void render_matches_string_format() {
+        EmailTemplate template = EmailTemplate.compile(SOURCE);
+        Object[] args = args(42);
+
+        assertEquals(SOURCE.formatted(args), template.render(args));
+        assertEquals(100, template.parameterCount());
+    }
+
+    @Test
+    void rejects_wrong_arguments_and_unsupported_placeholders() {
+        EmailTemplate template = EmailTemplate.compile("Xin chào %s, %d phút");
+
+        assertThrows(IllegalArgumentException.class, () -> template.render("An"));
+        assertThrows(IllegalArgumentException.class, () -> template.render("An", "60"));
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("%,.0f VND"));
+    }
+
+    @Test
+    @Tag("benchmark")
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmark_render_against_string_format() {
+        EmailTemplate template = EmailTemplate.compile(SOURCE);
+        int n = 2_000;
+        int sink = 0;
+
+        // Warm up both paths before timing
+        for (int i = 0; i < n; i++) {
+            sink += SOURCE.formatted(args(i)).length();
+            sink += template.render(args(i)).length();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            sink += SOURCE.formatted(args(i)).length();
+        }
+        long formatNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            sink += template.render(args(i)).length();
+        }
+        long renderNanos = System.nanoTime() - start;
+
+        log.info("String.format: {} us/email, EmailTemplate.render: {} us/email ({} chars rendered)",
+                formatNanos / n / 1000, renderNanos / n / 1000, sink);
+    }
+
+    private static Object[] args(int i) {
+        Object[] args = new Object[100];
+        for (int p = 0; p < args.length; p += 5) {
+            args[p] = "Người dùng " + i;
+            args[p + 1] = "TX" + i;
+            args[p + 2] = 60 + i;
+            args[p + 3] = i + "000 VND";
+            args[p + 4] = "https://skillverse.vn/bookings/" + i;
+        }
+        return args;
+    }
+}